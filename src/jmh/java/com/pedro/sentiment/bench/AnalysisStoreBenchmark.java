@@ -0,0 +1,101 @@
+package com.pedro.sentiment.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.sentiment.ai.MockClient;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.service.SentimentService;
+import com.pedro.sentiment.store.AnalysisRecord;
+import com.pedro.sentiment.store.AnalysisStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link AnalysisStore} sob escrita contínua, por modo de fsync.
+ *
+ * <p>{@code append} = custo no caminho do request, com 4 threads escrevendo sem parar (se o disco não
+ * acompanhar, inclui a espera por vaga na fila; com a fila folgada é só o {@code offer}).
+ * {@code sustainedWrite} = {@value #BURST} registros enfileirados e gravados em disco: o tempo por op
+ * dividido por {@value #BURST} é o custo por registro com o group commit (a fila bloqueia em vez de descartar;
+ * se ainda assim algo for descartado, espera só o que entrou, e desiste com erro se o disco parar).</p>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalysisStoreBenchmark {
+
+    private static final int BURST = 10_000;
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    @Param({"batch", "interval", "none"})
+    public String fsync;
+
+    private Path dir;
+    private AnalysisStore store;
+    private AnalysisRecord[] records;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("analysis-store-bench");
+        store = new AnalysisStore(new ObjectMapper(), dir.toString(), 64, 65_536, 1024,
+                Duration.ofSeconds(10), fsync, Duration.ofMillis(200));
+
+        String[] texts = Corpus.load("medium");
+        var service = new SentimentService(new MockClient());
+        records = new AnalysisRecord[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            var req = new FeedbackRequest();
+            req.setText(texts[i]);
+            req.setSource("benchmark");
+            FeedbackResponse resp = service.analyze(req);
+            records[i] = AnalysisRecord.of(req, resp);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean append() {
+        return store.append(records[ThreadLocalRandom.current().nextInt(records.length)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long sustainedWrite() throws InterruptedException {
+        AnalysisStore.Stats before = store.stats();
+        int accepted = 0;
+        for (int i = 0; i < BURST; i++) if (store.append(records[i % records.length])) accepted++;
+        // espera só o que entrou na fila; gravado ou perdido (failed) conta como resolvido
+        long target = before.written() + before.failed() + accepted;
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        AnalysisStore.Stats now;
+        while ((now = store.stats()).written() + now.failed() < target) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("store não gravou o lote em " + TimeUnit.NANOSECONDS.toSeconds(DRAIN_TIMEOUT_NANOS)
+                        + " s: " + now);
+            }
+            Thread.sleep(0, 100_000);
+        }
+        if (now.failed() > before.failed()) throw new IllegalStateException("falhas de escrita no benchmark: " + now);
+        return now.written();
+    }
+}
@@ -0,0 +1,118 @@
+package com.pedro.sentiment.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.sentiment.ai.MockClient;
+import com.pedro.sentiment.service.BatchSentimentService;
+import com.pedro.sentiment.service.BulkFileService;
+import com.pedro.sentiment.service.SentimentService;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Teste de carga da ingestão de arquivos: gera em streaming um CSV (ou JSONL) de N MB a partir do corpus,
+ * passa por {@link BulkFileService} com o MockClient e descarta a saída. Reporta linhas/s, MB/s e o pico
+ * de heap (soma dos picos dos pools de heap), que deve ficar estável independente do tamanho da entrada.
+ *
+ * <pre>
+ * mvn -Pjmh -DskipTests package exec:exec -Djmh.main=com.pedro.sentiment.bench.BulkIngestLoadTest \
+ *     -Djmh.jvm.args=-Xmx256m -Djmh.args="1024 csv"
+ * </pre>
+ */
+public final class BulkIngestLoadTest {
+
+    private BulkIngestLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        long sizeMb = args.length > 0 ? Long.parseLong(args[0]) : 1024;
+        BulkFileService.Format format = BulkFileService.Format.resolve(args.length > 1 ? args[1] : "csv", null);
+
+        var mapper = new ObjectMapper();
+        try (ValidatorFactory validation = Validation.buildDefaultValidatorFactory()) {
+            var pipeline = new BatchSentimentService(new SentimentService(new MockClient()), validation.getValidator(), mapper);
+            var bulk = new BulkFileService(pipeline, mapper);
+
+            var input = new GeneratedInput(Corpus.load("medium"), sizeMb * 1024 * 1024, format);
+            var output = new CountingSink();
+            for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) p.resetPeakUsage();
+
+            long t0 = System.nanoTime();
+            bulk.process(bulk.open(input), format, output);
+            double secs = (System.nanoTime() - t0) / 1e9;
+
+            long peakHeap = 0;
+            for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (p.getType() == MemoryType.HEAP) peakHeap += p.getPeakUsage().getUsed();
+            }
+            double mbIn = input.produced / (1024.0 * 1024.0);
+            System.out.printf("formato=%s entrada=%.0f MB linhas=%d saída=%.0f MB%n",
+                    format, mbIn, input.rows, output.bytes / (1024.0 * 1024.0));
+            System.out.printf("tempo=%.1f s  throughput=%.0f linhas/s  %.1f MB/s%n", secs, input.rows / secs, mbIn / secs);
+            System.out.printf("pico de heap=%.0f MB (max=%d MB)%n",
+                    peakHeap / (1024.0 * 1024.0), Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        }
+    }
+
+    /** Entrada sintética gerada sob demanda (nunca materializada): linhas do corpus com id e sufixo único. */
+    static final class GeneratedInput extends InputStream {
+        private final String[] texts;
+        private final long limit;
+        private final BulkFileService.Format format;
+        private byte[] line;
+        private int pos;
+        long produced;
+        long rows;
+
+        GeneratedInput(String[] texts, long limit, BulkFileService.Format format) {
+            this.texts = texts;
+            this.limit = limit;
+            this.format = format;
+            this.line = format == BulkFileService.Format.CSV
+                    ? "id,text,source\n".getBytes(StandardCharsets.UTF_8)
+                    : new byte[0];
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (pos == line.length && !nextLine()) return -1;
+            int n = Math.min(len, line.length - pos);
+            System.arraycopy(line, pos, b, off, n);
+            pos += n;
+            produced += n;
+            return n;
+        }
+
+        private boolean nextLine() {
+            if (produced >= limit) return false;
+            // sufixo único: sem ele o dedupe do batch responderia quase tudo sem analisar
+            String text = texts[(int) (rows % texts.length)] + " (#" + rows + ")";
+            String id = "r" + rows++;
+            String s = format == BulkFileService.Format.CSV
+                    ? id + ",\"" + text.replace("\"", "\"\"") + "\",bench\n"
+                    : "{\"id\":\"" + id + "\",\"text\":\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\",\"source\":\"bench\"}\n";
+            line = s.getBytes(StandardCharsets.UTF_8);
+            pos = 0;
+            return true;
+        }
+    }
+
+    /** Descarta a saída, só conta bytes. */
+    static final class CountingSink extends OutputStream {
+        long bytes;
+
+        @Override public void write(int b) { bytes++; }
+        @Override public void write(byte[] b, int off, int len) { bytes += len; }
+    }
+}
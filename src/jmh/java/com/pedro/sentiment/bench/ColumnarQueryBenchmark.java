@@ -0,0 +1,72 @@
+package com.pedro.sentiment.bench;
+
+import com.pedro.sentiment.analytics.FeedbackColumns;
+import com.pedro.sentiment.dto.FeedbackQueryRequest;
+import com.pedro.sentiment.dto.FeedbackQueryResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas agregadas no {@link FeedbackColumns} com {@value #ROWS} linhas sintéticas (20 origens, 50 projetos,
+ * 12 aspectos, 4 sentimentos, 365 dias). Meta: < 100 ms por consulta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ColumnarQueryBenchmark {
+
+    private static final int ROWS = 10_000_000;
+    private static final String[] SENTIMENTS = {"POSITIVE", "NEGATIVE", "NEUTRAL", "MIXED"};
+
+    private FeedbackColumns columns;
+    private FeedbackQueryRequest all;
+    private FeedbackQueryRequest negativeByAspect;
+    private FeedbackQueryRequest projectMonthByAspect;
+
+    @Setup
+    public void setup() {
+        columns = new FeedbackColumns(ROWS);
+        var rnd = new SplittableRandom(42);
+        long start = 1_735_689_600_000L; // 2025-01-01
+        for (int i = 0; i < ROWS; i++) {
+            boolean peer = rnd.nextInt(4) == 0;
+            columns.add(start + rnd.nextLong(365L * 86_400_000L), peer ? "peer" : "sentiment",
+                    peer ? null : "origem-" + rnd.nextInt(20), peer ? "projeto-" + rnd.nextInt(50) : null,
+                    "aspecto-" + rnd.nextInt(12), SENTIMENTS[rnd.nextInt(4)], null, rnd.nextDouble(),
+                    peer ? 1 + rnd.nextInt(5) : Float.NaN);
+        }
+
+        all = new FeedbackQueryRequest();
+        all.setGroupBy(List.of("sentiment"));
+
+        negativeByAspect = new FeedbackQueryRequest();
+        negativeByAspect.setFilters(Map.of("sentiment", List.of("NEGATIVE")));
+        negativeByAspect.setGroupBy(List.of("aspect"));
+
+        projectMonthByAspect = new FeedbackQueryRequest();
+        projectMonthByAspect.setFilters(Map.of("project", List.of("projeto-7"), "period", List.of("2025-07")));
+        projectMonthByAspect.setGroupBy(List.of("aspect", "sentiment"));
+    }
+
+    @Benchmark
+    public FeedbackQueryResponse groupBySentiment() {
+        return columns.query(all);
+    }
+
+    @Benchmark
+    public FeedbackQueryResponse negativeByAspect() {
+        return columns.query(negativeByAspect);
+    }
+
+    @Benchmark
+    public FeedbackQueryResponse projectMonthByAspectAndSentiment() {
+        return columns.query(projectMonthByAspect);
+    }
+}
@@ -0,0 +1,51 @@
+package com.pedro.sentiment.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corpus fixo pt-BR usado pelos benchmarks (src/jmh/resources/bench/corpus-*.txt).
+ * Um texto por linha; "short" (~30 chars), "medium" (~200 chars) e "long" (~3000 chars).
+ */
+public final class Corpus {
+
+    private Corpus() {}
+
+    public static String[] load(String size) {
+        String path = "/bench/corpus-" + size + ".txt";
+        try (InputStream in = Corpus.class.getResourceAsStream(path)) {
+            if (in == null) throw new IllegalArgumentException("Corpus inexistente: " + path);
+            List<String> out = new ArrayList<>();
+            try (var br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                for (String line; (line = br.readLine()) != null; ) {
+                    if (!line.isBlank()) out.add(line.trim());
+                }
+            }
+            return out.toArray(String[]::new);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Percorre o corpus em ciclo, para que cada operação use o próximo texto. */
+    public static final class Cursor {
+        private final String[] texts;
+        private int i;
+
+        public Cursor(String[] texts) { this.texts = texts; }
+
+        public String next() { return texts[nextIndex()]; }
+
+        public int nextIndex() {
+            int cur = i;
+            i = (i + 1) % texts.length;
+            return cur;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.pedro.sentiment.bench;
+
+import com.pedro.sentiment.ai.IAClient;
+import com.pedro.sentiment.ai.MockClient;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.service.PeerFeedbackService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PeerFeedbackService#analyze} no caminho sem análise detalhada contra um provider de {@code latencyMs}
+ * por chamada. {@code SampleTime} reporta p50/p99: sequencial ≈ (sentenças + 1) × latência; em paralelo ≈ 1×.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PeerFanOutBenchmark {
+
+    /** sequential = comportamento anterior; parallel = fan-out; derived = fan-out sem a chamada do texto inteiro. */
+    @Param({"sequential", "parallel", "derived"})
+    public String mode;
+
+    @Param({"medium", "long"})
+    public String size;
+
+    @Param({"200"})
+    public int latencyMs;
+
+    private PeerFeedbackService service;
+    private PeerFeedbackRequest[] requests;
+    private Corpus.Cursor cursor;
+
+    @Setup
+    public void setup() {
+        IAClient slow = new SlowMockClient(latencyMs);
+        service = new PeerFeedbackService(slow, !"sequential".equals(mode), Duration.ofSeconds(10), "derived".equals(mode));
+
+        String[] texts = Corpus.load(size);
+        cursor = new Corpus.Cursor(texts);
+        requests = new PeerFeedbackRequest[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            var r = new PeerFeedbackRequest();
+            r.setSubjectId("pedro");
+            r.setPeriod("2025-07");
+            r.setText(texts[i]);
+            requests[i] = r;
+        }
+    }
+
+    @Benchmark
+    public PeerFeedbackResponse analyze() {
+        return service.analyze(requests[cursor.nextIndex()]);
+    }
+
+    /** MockClient com latência de rede simulada; não implementa SupportsDetailed. */
+    static final class SlowMockClient implements IAClient {
+        private final MockClient mock = new MockClient();
+        private final long latencyMs;
+
+        SlowMockClient(long latencyMs) { this.latencyMs = latencyMs; }
+
+        @Override
+        public Result analyze(String text) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return mock.analyze(text);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.pedro.sentiment.bench;
+
+import com.pedro.sentiment.ai.MockClient;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.dto.SearchResponse;
+import com.pedro.sentiment.search.FeedbackSearchIndex;
+import com.pedro.sentiment.service.PeerFeedbackService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FeedbackSearchIndex} com {@value #DOCS} peer feedbacks (corpus "medium" em ciclo, analisados uma vez pelo
+ * {@link MockClient}): custo de indexar um feedback e de buscar os 20 mais recentes por termo, frase e filtro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchIndexBenchmark {
+
+    private static final int DOCS = 200_000;
+
+    private FeedbackSearchIndex index;
+    private PeerFeedbackRequest[] requests;
+    private PeerFeedbackResponse[] responses;
+    private int next;
+
+    @Setup
+    public void setup() {
+        String[] texts = Corpus.load("medium");
+        var service = new PeerFeedbackService(new MockClient());
+        requests = new PeerFeedbackRequest[texts.length];
+        responses = new PeerFeedbackResponse[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            var req = new PeerFeedbackRequest();
+            req.setSubjectId("pessoa-" + (i % 50));
+            req.setText(texts[i]);
+            requests[i] = req;
+            responses[i] = service.analyze(req);
+        }
+        index = new FeedbackSearchIndex(DOCS);
+        for (int i = 0; i < DOCS; i++) index.onPeerFeedback(requests[i % texts.length], responses[i % texts.length]);
+    }
+
+    @Benchmark
+    public void add() {
+        int i = next++ % requests.length;
+        index.onPeerFeedback(requests[i], responses[i]);
+    }
+
+    @Benchmark
+    public SearchResponse term() {
+        return index.search("comunicação", null, null, null, 20);
+    }
+
+    @Benchmark
+    public SearchResponse phraseWithSentiment() {
+        return index.search("\"code review\"", null, "NEGATIVE", null, 20);
+    }
+
+    @Benchmark
+    public SearchResponse termsWithAspect() {
+        return index.search("prazo entrega", "comunicação", null, null, 20);
+    }
+}
@@ -0,0 +1,86 @@
+package com.pedro.sentiment.bench;
+
+import com.pedro.sentiment.ai.IAClient;
+import com.pedro.sentiment.ai.LocalModelClient;
+import com.pedro.sentiment.ai.LocalModelTrainer;
+import com.pedro.sentiment.ai.MockClient;
+import com.pedro.sentiment.ai.SupportsDetailed;
+import com.pedro.sentiment.analysis.StrengthsImprovementsExtractorV2;
+import com.pedro.sentiment.peer.PeerAspectExtractor;
+import com.pedro.sentiment.text.NormalizedText;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos de texto "puros" (sem Spring): normalização, provider mock e extratores.
+ * Rodar com {@code -prof gc} para ver bytes alocados por operação (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextAnalysisBenchmark {
+
+    @Param({"short", "medium", "long"})
+    public String size;
+
+    private Corpus.Cursor cursor;
+    private MockClient mock;
+    private LocalModelClient local;
+
+    @Setup
+    public void setup() {
+        cursor = new Corpus.Cursor(Corpus.load(size));
+        mock = new MockClient();
+        local = new LocalModelClient(LocalModelTrainer.train(mockLabeled(), LocalModelTrainer.Options.defaults("bench")));
+    }
+
+    /** Sentenças dos três corpora rotuladas pelo MockClient: só para ter pesos realistas, não qualidade. */
+    private List<LocalModelTrainer.Example> mockLabeled() {
+        List<LocalModelTrainer.Example> out = new ArrayList<>();
+        for (String corpus : new String[]{"short", "medium", "long"}) {
+            for (String text : Corpus.load(corpus)) {
+                for (String s : text.split("(?<=[.!?])\\s+")) {
+                    int label = switch (mock.analyze(s).getSentiment()) {
+                        case "NEGATIVE" -> 0;
+                        case "NEUTRAL" -> 1;
+                        case "POSITIVE" -> 2;
+                        default -> -1;
+                    };
+                    if (label >= 0) out.add(new LocalModelTrainer.Example(s, label));
+                }
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public NormalizedText normalize() {
+        return NormalizedText.of(cursor.next());
+    }
+
+    @Benchmark
+    public IAClient.Result mockClientAnalyze() {
+        return mock.analyze(cursor.next());
+    }
+
+    @Benchmark
+    public SupportsDetailed.DetailedResult localModelAnalyzeDetailed() {
+        return local.analyzeDetailed(cursor.next());
+    }
+
+    @Benchmark
+    public String peerAspectCanonical() {
+        return PeerAspectExtractor.canonicalAspect(cursor.next());
+    }
+
+    @Benchmark
+    public StrengthsImprovementsExtractorV2.Result strengthsImprovementsV2() {
+        return StrengthsImprovementsExtractorV2.extract(cursor.next());
+    }
+}
@@ -0,0 +1,93 @@
+package com.pedro.sentiment.bench;
+
+import com.pedro.sentiment.ai.BulkheadIAClient;
+import com.pedro.sentiment.ai.IAClient;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.service.SentimentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1000 requests simultâneos em {@link SentimentService#analyze} contra um provider lento simulado
+ * ({@code latencyMs} de espera por chamada), atrás do {@link BulkheadIAClient}.
+ *
+ * <p>{@code platform} = pool fixo de 200 threads (o default do Tomcat); {@code virtual} = uma virtual
+ * thread por request. O tempo por op é o tempo até o lote inteiro terminar.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int REQUESTS = 1000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"50"})
+    public int latencyMs;
+
+    @Param({"1000"})
+    public int bulkhead;
+
+    private ExecutorService executor;
+    private SentimentService service;
+    private FeedbackRequest[] requests;
+
+    @Setup
+    public void setup() {
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        service = new SentimentService(new BulkheadIAClient(new SlowClient(latencyMs), bulkhead, Duration.ofSeconds(30)));
+
+        String[] texts = Corpus.load("short");
+        requests = new FeedbackRequest[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            var r = new FeedbackRequest();
+            r.setText(texts[i % texts.length]);
+            requests[i] = r;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int concurrentRequests() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+        for (FeedbackRequest r : requests) futures.add(executor.submit(() -> service.analyze(r)));
+        for (Future<?> f : futures) f.get();
+        return futures.size();
+    }
+
+    /** Provider que só espera (como um HTTP lento) e devolve um resultado fixo. */
+    static final class SlowClient implements IAClient {
+        private final long latencyMs;
+
+        SlowClient(long latencyMs) { this.latencyMs = latencyMs; }
+
+        @Override
+        public Result analyze(String text) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Result("POSITIVE", 0.9, "Avaliação positiva predominante.", "atendimento");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.pedro.sentiment.service;
+
+import com.pedro.sentiment.ai.MockClient;
+import com.pedro.sentiment.bench.Corpus;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extratores do pacote service e o fluxo ponta a ponta dos dois services com o MockClient.
+ * Fica no mesmo pacote porque {@link ImprovementSuggester} é package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"short", "medium", "long"})
+    public String size;
+
+    private String[] texts;
+    private String[] reasons;
+    private FeedbackRequest[] feedback;
+    private PeerFeedbackRequest[] peer;
+    private Corpus.Cursor cursor;
+
+    private SentimentService sentimentService;
+    private PeerFeedbackService peerService;
+
+    @Setup
+    public void setup() {
+        texts = Corpus.load(size);
+        cursor = new Corpus.Cursor(texts);
+        reasons = new String[texts.length];
+        feedback = new FeedbackRequest[texts.length];
+        peer = new PeerFeedbackRequest[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            reasons[i] = ReasonExtractor.extract(texts[i]);
+
+            var f = new FeedbackRequest();
+            f.setText(texts[i]);
+            f.setSource("benchmark");
+            feedback[i] = f;
+
+            var p = new PeerFeedbackRequest();
+            p.setSubjectId("pedro");
+            p.setPeriod("2025-07");
+            p.setText(texts[i]);
+            peer[i] = p;
+        }
+        var mock = new MockClient();
+        sentimentService = new SentimentService(mock);
+        peerService = new PeerFeedbackService(mock);
+    }
+
+    @Benchmark
+    public String reasonExtract() {
+        return ReasonExtractor.extract(cursor.next());
+    }
+
+    @Benchmark
+    public String improvementSuggest() {
+        int i = cursor.nextIndex();
+        return ImprovementSuggester.suggest("NEGATIVE", reasons[i], texts[i]);
+    }
+
+    @Benchmark
+    public FeedbackResponse sentimentServiceAnalyze() {
+        int i = cursor.nextIndex();
+        return sentimentService.analyze(feedback[i]);
+    }
+
+    @Benchmark
+    public PeerFeedbackResponse peerFeedbackServiceAnalyze() {
+        int i = cursor.nextIndex();
+        return peerService.analyze(peer[i]);
+    }
+}
@@ -0,0 +1,197 @@
+package com.pedro.sentiment.ai;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite adaptativo (AIMD) de chamadas simultâneas a um provider.
+ *
+ * <p>Cada resposta rápida e bem-sucedida soma {@code 1/limit} ao limite (≈ +1 por "janela" de chamadas),
+ * desde que o limite esteja em uso; um 429/503/timeout multiplica o limite por {@code backoffRatio}. Lentidão
+ * (acima de {@code slowThresholdNanos}) só corta quando é a regra e não a exceção: pelo menos {@code slowRate}
+ * das últimas {@value #SLOW_WINDOW} respostas 2xx (com no mínimo metade da janela preenchida). Uma resposta
+ * lenta isolada só não faz o limite crescer. Só um corte por geração: sinais de chamadas que saíram antes do
+ * último corte são ignorados, para uma rajada de 429 do mesmo instante não derrubar o limite até o mínimo.</p>
+ *
+ * <p>Quem chega com o limite cheio espera numa fila FIFO de até {@code maxQueue} posições, por no máximo
+ * {@code maxWait}; fila cheia ou espera esgotada falham na hora com {@link LimitExceededException}.</p>
+ */
+final class AdaptiveLimiter {
+
+    /** Fila cheia ou espera esgotada: o chamador deve degradar (fallback) em vez de insistir. */
+    static final class LimitExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LimitExceededException(String message) { super(message, null, false, false); }
+    }
+
+    static final int SLOW_WINDOW = 20;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final LongSupplier slowThresholdNanos; // 0 = sem referência ainda
+    private final double slowRate;
+    private final ScheduledExecutorService timer;
+    private final LongSupplier nanoTime;
+
+    // guardados pelo monitor de this
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+    private final boolean[] slowWindow = new boolean[SLOW_WINDOW]; // últimas respostas 2xx: lenta?
+    private int slowNext, slowSize, slowCount;
+    private final ArrayDeque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+
+    private final LongAdder rejectedFull = new LongAdder();
+    private final LongAdder rejectedTimeout = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, int maxQueue, Duration maxWait,
+                    LongSupplier slowThresholdNanos, double slowRate, ScheduledExecutorService timer) {
+        this(initialLimit, minLimit, maxLimit, backoffRatio, maxQueue, maxWait, slowThresholdNanos, slowRate, timer,
+                System::nanoTime);
+    }
+
+    /** Com relógio injetado (testes). */
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, int maxQueue, Duration maxWait,
+                    LongSupplier slowThresholdNanos, double slowRate, ScheduledExecutorService timer,
+                    LongSupplier nanoTime) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.backoffRatio = Math.min(0.95, Math.max(0.1, backoffRatio));
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.slowThresholdNanos = slowThresholdNanos;
+        this.slowRate = Math.min(1, Math.max(0, slowRate));
+        this.timer = timer;
+        this.nanoTime = nanoTime;
+        this.lastDecrease = nanoTime.getAsLong();
+    }
+
+    /** Permissão já concedida ou future que completa quando houver vaga (ou falha com {@link LimitExceededException}). */
+    CompletableFuture<Permit> acquire() {
+        CompletableFuture<Permit> w;
+        synchronized (this) {
+            if (inFlight < (int) limit && waiters.isEmpty()) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit());
+            }
+            if (waiters.size() >= maxQueue) {
+                rejectedFull.increment();
+                return CompletableFuture.failedFuture(new LimitExceededException("fila do limitador cheia"));
+            }
+            w = new CompletableFuture<>();
+            waiters.addLast(w);
+        }
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (remove(w)) {
+                rejectedTimeout.increment();
+                w.completeExceptionally(new LimitExceededException("espera pelo limitador esgotada"));
+            }
+        }, maxWaitNanos, TimeUnit.NANOSECONDS);
+        w.whenComplete((p, e) -> {
+            timeout.cancel(false);
+            if (w.isCancelled()) remove(w); // desistiu na fila (ex.: hedge perdedor)
+        });
+        return w;
+    }
+
+    int limit()          { synchronized (this) { return (int) limit; } }
+    int inFlight()       { synchronized (this) { return inFlight; } }
+    int queued()         { synchronized (this) { return waiters.size(); } }
+    long rejectedFull()    { return rejectedFull.sum(); }
+    long rejectedTimeout() { return rejectedTimeout.sum(); }
+    long decreases()       { return decreases.sum(); }
+
+    /** Uma vaga em uso; liberar exatamente uma vez, dizendo como a chamada foi. */
+    final class Permit {
+        private final long start = nanoTime.getAsLong();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /** Resposta 2xx: cresce o limite se foi rápida; lenta entra na taxa de lentidão. */
+        void success() {
+            long rtt = nanoTime.getAsLong() - start;
+            long slow = slowThresholdNanos.getAsLong();
+            release(slow > 0 && rtt > slow ? Signal.SLOW : Signal.OK);
+        }
+
+        /** 429/503/timeout: o provider pediu para ir mais devagar. */
+        void dropped() { release(Signal.CONGESTED); }
+
+        /** Erro que não diz nada sobre carga (4xx, IO, cancelamento): só devolve a vaga. */
+        void ignore() { release(Signal.NONE); }
+
+        private void release(Signal signal) {
+            if (released.compareAndSet(false, true)) AdaptiveLimiter.this.release(this, signal);
+        }
+    }
+
+    private enum Signal { OK, SLOW, CONGESTED, NONE }
+
+    private void release(Permit p, Signal signal) {
+        List<CompletableFuture<Permit>> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            switch (signal) {
+                case OK -> {
+                    recordLatency(false);
+                    // só cresce se o limite está sendo usado (senão cresceria sem nunca ser testado)
+                    if (inFlight + 1 >= limit / 2) limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+                case SLOW -> {
+                    recordLatency(true);
+                    if (slowSize >= SLOW_WINDOW / 2 && slowCount >= slowRate * slowSize) decrease(p);
+                }
+                case CONGESTED -> decrease(p);
+                case NONE -> { }
+            }
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                inFlight++;
+                granted.add(waiters.pollFirst());
+            }
+        }
+        // fora do lock: os dependentes do future rodam aqui
+        for (var w : granted) {
+            var permit = new Permit();
+            if (!w.complete(permit)) permit.ignore(); // cancelado/expirado no meio do caminho
+        }
+    }
+
+    /** Chamar com o lock. */
+    private void recordLatency(boolean slow) {
+        if (slowSize == SLOW_WINDOW) {
+            if (slowWindow[slowNext]) slowCount--;
+        } else {
+            slowSize++;
+        }
+        slowWindow[slowNext] = slow;
+        slowNext = (slowNext + 1) % SLOW_WINDOW;
+        if (slow) slowCount++;
+    }
+
+    /** Chamar com o lock; a janela de lentidão recomeça junto com a geração. */
+    private void decrease(Permit p) {
+        if (p.start - lastDecrease < 0) return;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        lastDecrease = nanoTime.getAsLong();
+        decreases.increment();
+        slowNext = slowSize = slowCount = 0;
+    }
+
+    private synchronized boolean remove(CompletableFuture<Permit> w) {
+        return waiters.remove(w);
+    }
+}
@@ -0,0 +1,26 @@
+package com.pedro.sentiment.ai;
+
+/**
+ * Overall de um texto pontuado por sentença, com a mesma regra no HF, no modelo local e no peer feedback
+ * ({@code overall-from-sentences}): MIXED quando há ao menos uma sentença claramente positiva e outra claramente
+ * negativa (score ≥ {@value #STRONG}); senão vence a maior média entre POSITIVE, NEGATIVE e NEUTRAL.
+ */
+public record Aggregate(String label, double score, String summary, double posAvg, double negAvg) {
+
+    public static final double STRONG = 0.55;
+
+    public static boolean strong(double score) { return score >= STRONG; }
+
+    public static Aggregate of(double posAvg, double negAvg, double neuAvg, int strongPos, int strongNeg) {
+        if (strongPos > 0 && strongNeg > 0) {
+            return new Aggregate("MIXED", Math.max(posAvg, negAvg),
+                    "Sinais positivos e negativos relevantes em diferentes partes do texto.", posAvg, negAvg);
+        } else if (posAvg >= negAvg && posAvg >= neuAvg) {
+            return new Aggregate("POSITIVE", posAvg, "Avaliação positiva predominante.", posAvg, negAvg);
+        } else if (negAvg >= posAvg && negAvg >= neuAvg) {
+            return new Aggregate("NEGATIVE", negAvg, "Avaliação negativa predominante.", posAvg, negAvg);
+        } else {
+            return new Aggregate("NEUTRAL", neuAvg, "Sem polaridade clara; avaliação neutra.", posAvg, negAvg);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.pedro.sentiment.ai;
+
+import com.pedro.sentiment.text.NormalizedText;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifica uma análise: provider + modelo + SHA-256 do texto normalizado. O texto entra só como
+ * hash, então a chave tem tamanho fixo mesmo para feedbacks de 3000 chars.
+ *
+ * <p>{@link #ofOriginal} usa o texto como chegou: para resultados que carregam trechos do original
+ * (as sentenças da análise detalhada), textos que só diferem em acento/caixa não podem dividir entrada.</p>
+ */
+public record AnalysisKey(String provider, String model, String digest) {
+
+    public static AnalysisKey of(IAClient client, NormalizedText text) {
+        return new AnalysisKey(client.providerName(), client.model(), sha256(text.value()));
+    }
+
+    public static AnalysisKey ofOriginal(IAClient client, NormalizedText text) {
+        return new AnalysisKey(client.providerName(), client.model(), sha256(text.original()));
+    }
+
+    private static String sha256(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // SHA-256 é obrigatório em toda JVM
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.pedro.sentiment.ai;
+
+import com.pedro.sentiment.text.NormalizedText;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead (semáforo) na frente de um provider: no máximo {@code maxConcurrent} chamadas em voo.
+ *
+ * <p>Com virtual threads o número de requests simultâneos deixa de ser limitado pelo pool do Tomcat;
+ * sem isso um provider lento acumularia conexões e carriers sem limite. Quem não consegue permissão
+ * em {@code maxWait} recebe o fallback NEUTRAL (não cacheado). No caminho assíncrono a espera pela
+ * permissão acontece numa virtual thread, nunca na thread do chamador.</p>
+ */
+public class BulkheadIAClient implements IAClient, SupportsDetailed {
+
+    private final IAClient delegate;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final ExecutorService waiters =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bulkhead-wait-", 0).factory());
+    private final LongAdder rejected = new LongAdder();
+
+    public BulkheadIAClient(IAClient delegate, int maxConcurrent, Duration maxWait) {
+        this.delegate = delegate;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Result analyze(String text) {
+        return analyze(NormalizedText.of(text));
+    }
+
+    @Override
+    public Result analyze(NormalizedText text) {
+        if (!acquire()) return rejectedResult();
+        try {
+            return delegate.analyze(text);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Result> analyzeAsync(NormalizedText text) {
+        return withPermitAsync(() -> delegate.analyzeAsync(text), this::rejectedResult);
+    }
+
+    /** Probe do circuit breaker (um a cada open-duration): vai direto, sem disputar permissão com o tráfego. */
+    @Override
+    public CompletableFuture<Result> probeAsync(NormalizedText text) {
+        return delegate.probeAsync(text);
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(String text) {
+        return analyzeDetailed(NormalizedText.of(text));
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(NormalizedText text) {
+        SupportsDetailed sd = detailedDelegate();
+        if (!acquire()) return new DetailedResult(rejectedResult(), List.of());
+        try {
+            return sd.analyzeDetailed(text);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public CompletableFuture<DetailedResult> analyzeDetailedAsync(NormalizedText text) {
+        SupportsDetailed sd = detailedDelegate();
+        return withPermitAsync(() -> sd.analyzeDetailedAsync(text),
+                () -> new DetailedResult(rejectedResult(), List.of()));
+    }
+
+    @Override public String providerName()      { return delegate.providerName(); }
+    @Override public String model()             { return delegate.model(); }
+    @Override public boolean supportsDetailed() { return delegate.supportsDetailed(); }
+
+    /** Permissões livres agora. */
+    public int available()      { return permits.availablePermits(); }
+    public int maxConcurrent()  { return maxConcurrent; }
+    /** Chamadas que desistiram por não conseguir permissão em {@code maxWait}. */
+    public long rejectedCount() { return rejected.sum(); }
+
+    // ---------- helpers ----------
+
+    private SupportsDetailed detailedDelegate() {
+        if (!(delegate instanceof SupportsDetailed sd)) {
+            throw new UnsupportedOperationException(delegate.providerName() + " não suporta análise detalhada");
+        }
+        return sd;
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private CompletableFuture<Boolean> acquireAsync() {
+        if (permits.tryAcquire()) return CompletableFuture.completedFuture(true);
+        return CompletableFuture.supplyAsync(this::acquire, waiters);
+    }
+
+    /**
+     * Espera a permissão sem bloquear e chama o delegate. Cancelar o future devolvido cancela a chamada ao
+     * delegate; se ainda esperava permissão, devolve a permissão assim que ela sair, sem chamar.
+     */
+    private <T> CompletableFuture<T> withPermitAsync(Supplier<CompletableFuture<T>> call, Supplier<T> rejected) {
+        var result = new CompletableFuture<T>();
+        var inner = new AtomicReference<CompletableFuture<T>>();
+        acquireAsync().whenComplete((ok, e) -> {
+            if (e != null) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (!ok) {
+                result.complete(rejected.get());
+                return;
+            }
+            if (result.isDone()) { // cancelado enquanto esperava
+                permits.release();
+                return;
+            }
+            CompletableFuture<T> f = releasing(call);
+            inner.set(f);
+            f.whenComplete((r, x) -> {
+                if (x != null) result.completeExceptionally(x); else result.complete(r);
+            });
+            if (result.isCancelled()) f.cancel(true);
+        });
+        result.whenComplete((r, e) -> {
+            CompletableFuture<T> f = inner.get();
+            if (result.isCancelled() && f != null) f.cancel(true);
+        });
+        return result;
+    }
+
+    /** Chama o delegate já com a permissão e a devolve quando o future terminar (ou se a chamada lançar). */
+    private <T> CompletableFuture<T> releasing(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> f;
+        try {
+            f = call.get();
+        } catch (RuntimeException e) {
+            permits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return Futures.cancelling(f.whenComplete((r, e) -> permits.release()), f);
+    }
+
+    private Result rejectedResult() {
+        rejected.increment();
+        return Result.fallback("Provider saturado – fallback.", "geral");
+    }
+}
@@ -0,0 +1,123 @@
+package com.pedro.sentiment.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pedro.sentiment.text.NormalizedText;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator de {@link IAClient} com cache em memória dos resultados (simples e detalhado).
+ *
+ * <p>Chave = {@link AnalysisKey} (provider + modelo + hash do texto normalizado), então
+ * "Ótimo atendimento!" e "otimo   atendimento!" caem na mesma entrada. O detalhado é a exceção: as
+ * sentenças devolvidas são trechos do original, então a chave é o texto como chegou
+ * ({@link AnalysisKey#ofOriginal}). Limite por tamanho e TTL; a eviction do Caffeine é W-TinyLFU
+ * (frequência + recência). Fallbacks não são cacheados.</p>
+ */
+public class CachingIAClient implements IAClient, SupportsDetailed, MeterBinder {
+
+    private final IAClient delegate;
+    private final Cache<AnalysisKey, Result> results;
+    private final Cache<AnalysisKey, DetailedResult> detailed;
+
+    public CachingIAClient(IAClient delegate, long maxSize, Duration ttl) {
+        this.delegate = delegate;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.detailed = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Result analyze(String text) {
+        return analyze(NormalizedText.of(text));
+    }
+
+    @Override
+    public Result analyze(NormalizedText text) {
+        AnalysisKey key = AnalysisKey.of(delegate, text);
+        Result hit = results.getIfPresent(key);
+        if (hit != null) return hit;
+
+        Result r = delegate.analyze(text);
+        if (!r.isFallback()) results.put(key, r);
+        return r;
+    }
+
+    @Override
+    public CompletableFuture<Result> analyzeAsync(NormalizedText text) {
+        AnalysisKey key = AnalysisKey.of(delegate, text);
+        Result hit = results.getIfPresent(key);
+        if (hit != null) return CompletableFuture.completedFuture(hit);
+
+        CompletableFuture<Result> f = delegate.analyzeAsync(text);
+        return Futures.cancelling(f.thenApply(r -> {
+            if (!r.isFallback()) results.put(key, r);
+            return r;
+        }), f);
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(String text) {
+        return analyzeDetailed(NormalizedText.of(text));
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(NormalizedText text) {
+        if (!(delegate instanceof SupportsDetailed sd)) {
+            throw new UnsupportedOperationException(delegate.providerName() + " não suporta análise detalhada");
+        }
+        AnalysisKey key = AnalysisKey.ofOriginal(delegate, text);
+        DetailedResult hit = detailed.getIfPresent(key);
+        if (hit != null) return hit;
+
+        DetailedResult r = sd.analyzeDetailed(text);
+        if (!r.overall().isFallback()) detailed.put(key, r);
+        return r;
+    }
+
+    @Override
+    public CompletableFuture<DetailedResult> analyzeDetailedAsync(NormalizedText text) {
+        if (!(delegate instanceof SupportsDetailed sd)) {
+            return CompletableFuture.failedFuture(
+                    new UnsupportedOperationException(delegate.providerName() + " não suporta análise detalhada"));
+        }
+        AnalysisKey key = AnalysisKey.ofOriginal(delegate, text);
+        DetailedResult hit = detailed.getIfPresent(key);
+        if (hit != null) return CompletableFuture.completedFuture(hit);
+
+        CompletableFuture<DetailedResult> f = sd.analyzeDetailedAsync(text);
+        return Futures.cancelling(f.thenApply(r -> {
+            if (!r.overall().isFallback()) detailed.put(key, r);
+            return r;
+        }), f);
+    }
+
+    @Override public String providerName()      { return delegate.providerName(); }
+    @Override public String model()             { return delegate.model(); }
+    @Override public boolean supportsDetailed() { return delegate.supportsDetailed(); }
+
+    /** Hits/misses/evictions do cache de {@link #analyze}. */
+    public CacheStats stats()         { return results.stats(); }
+    /** Hits/misses/evictions do cache de {@link #analyzeDetailed}. */
+    public CacheStats detailedStats() { return detailed.stats(); }
+
+    /** Hits/misses/evictions dos dois caches ({@code cache=sentiment.results|sentiment.detailed}). */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, results, "sentiment.results", MeteredIAClient.tags(delegate));
+        CaffeineCacheMetrics.monitor(registry, detailed, "sentiment.detailed", MeteredIAClient.tags(delegate));
+    }
+}
@@ -0,0 +1,135 @@
+package com.pedro.sentiment.ai;
+
+import com.pedro.sentiment.text.NormalizedText;
+import com.pedro.sentiment.text.PhraseAutomaton;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cascata de providers: o barato (mock/modelo local) responde primeiro e o remoto só é chamado quando o
+ * barato está inseguro — NEUTRAL, MIXED, confiança abaixo de {@code minConfidence} (ver
+ * {@link IAClient#confidence}), resultado de fallback ou texto com conectivo de contraste ("mas",
+ * "porém"...), onde léxico/modelo linear erram mais.
+ *
+ * <p>Respostas do tier barato saem com {@code provider} = nome dele; as do remoto ficam como vieram.
+ * Os contadores por tier dizem quanto do volume deixou de ir para a rede.</p>
+ */
+public class CascadingIAClient implements IAClient, SupportsDetailed {
+
+    public enum Tier { CHEAP, REMOTE }
+
+    private static final PhraseAutomaton CONTRAST = PhraseAutomaton.builder()
+            .addAll(List.of("mas", "porem", "contudo", "entretanto", "no entanto", "todavia", "embora"), 0)
+            .build();
+
+    private final IAClient cheap;
+    private final IAClient remote;
+    private final double minConfidence;
+    private final boolean escalateOnContrast;
+    private final LongAdder cheapAnswered = new LongAdder();
+    private final LongAdder escalated = new LongAdder();
+
+    public CascadingIAClient(IAClient cheap, IAClient remote, double minConfidence, boolean escalateOnContrast) {
+        this.cheap = cheap;
+        this.remote = remote;
+        this.minConfidence = minConfidence;
+        this.escalateOnContrast = escalateOnContrast;
+    }
+
+    @Override
+    public Result analyze(String text) {
+        return analyze(NormalizedText.of(text));
+    }
+
+    @Override
+    public Result analyze(NormalizedText text) {
+        Result r = tryCheap(text);
+        return r != null ? r : remote.analyze(text);
+    }
+
+    @Override
+    public CompletableFuture<Result> analyzeAsync(NormalizedText text) {
+        Result r = tryCheap(text); // barato = local e rápido, roda no chamador
+        return r != null ? CompletableFuture.completedFuture(r) : remote.analyzeAsync(text);
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(String text) {
+        return analyzeDetailed(NormalizedText.of(text));
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(NormalizedText text) {
+        DetailedResult d = tryCheapDetailed(text);
+        return d != null ? d : remoteDetailed().analyzeDetailed(text);
+    }
+
+    @Override
+    public CompletableFuture<DetailedResult> analyzeDetailedAsync(NormalizedText text) {
+        DetailedResult d = tryCheapDetailed(text);
+        return d != null ? CompletableFuture.completedFuture(d) : remoteDetailed().analyzeDetailedAsync(text);
+    }
+
+    /** Nome/modelo do remoto: é ele que define a "qualidade" do serviço (e a chave do cache). */
+    @Override public String providerName()      { return remote.providerName(); }
+    @Override public String model()             { return remote.model(); }
+    @Override public boolean supportsDetailed() { return remote.supportsDetailed(); }
+
+    /** Quantos requests cada tier respondeu. */
+    public long answeredBy(Tier tier) {
+        return tier == Tier.CHEAP ? cheapAnswered.sum() : escalated.sum();
+    }
+
+    // ---------- decisão ----------
+
+    /** Resultado do tier barato, ou {@code null} = escalar. */
+    private Result tryCheap(NormalizedText text) {
+        if (escalateOnContrast && hasContrast(text)) return escalate();
+        Result r = cheap.analyze(text);
+        if (!confident(r)) return escalate();
+        cheapAnswered.increment();
+        return r.withProvider(cheap.providerName());
+    }
+
+    /** Só quando o barato também tem análise por sentença (ex.: modelo local); o mock sempre escala. */
+    private DetailedResult tryCheapDetailed(NormalizedText text) {
+        if (!cheap.supportsDetailed() || !(cheap instanceof SupportsDetailed sd)) return escalateDetailed();
+        if (escalateOnContrast && hasContrast(text)) return escalateDetailed();
+        DetailedResult d = sd.analyzeDetailed(text);
+        if (!confident(d.overall())) return escalateDetailed();
+        cheapAnswered.increment();
+        return new DetailedResult(d.overall().withProvider(cheap.providerName()), d.perSentence());
+    }
+
+    private boolean confident(Result r) {
+        if (r.isFallback()) return false;
+        String label = r.getSentiment();
+        if (!"POSITIVE".equals(label) && !"NEGATIVE".equals(label)) return false; // NEUTRAL/MIXED
+        return cheap.confidence(r) >= minConfidence;
+    }
+
+    private static boolean hasContrast(NormalizedText text) {
+        boolean[] found = {false};
+        CONTRAST.scan(text.value(), (tag, start, end, token) -> found[0] = true);
+        return found[0];
+    }
+
+    private Result escalate() {
+        escalated.increment();
+        return null;
+    }
+
+    private DetailedResult escalateDetailed() {
+        escalated.increment();
+        return null;
+    }
+
+    private SupportsDetailed remoteDetailed() {
+        if (!(remote instanceof SupportsDetailed sd)) {
+            throw new UnsupportedOperationException(remote.providerName() + " não suporta análise detalhada");
+        }
+        return sd;
+    }
+}
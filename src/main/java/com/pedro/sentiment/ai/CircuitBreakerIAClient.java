@@ -0,0 +1,235 @@
+package com.pedro.sentiment.ai;
+
+import com.pedro.sentiment.text.NormalizedText;
+import com.pedro.sentiment.text.Sentences;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker na frente do provider, com degradação para o {@link MockClient}.
+ *
+ * <p>CLOSED: as chamadas vão ao provider e o resultado entra numa janela das últimas {@code windowSize}
+ * chamadas (falha = exceção ou fallback; lenta = acima de {@code slowCallThreshold}). Com pelo menos
+ * {@code minimumCalls} na janela e taxa de falha ou de lentidão acima do limite, abre.</p>
+ *
+ * <p>OPEN: nenhuma chamada vai ao provider; o MockClient responde na hora, com {@code provider} marcando a
+ * degradação e o resultado como fallback (não cacheado). Depois de {@code openDuration} um probe em background
+ * (HALF_OPEN) testa o provider com {@link IAClient#probeAsync} (sem os caches internos do provider): se
+ * responder bem e rápido, fecha; senão, abre de novo.</p>
+ *
+ * <p>Respostas montadas só com o cache interno do provider ({@link Result#isCached()}) não entram na janela:
+ * não dizem nada sobre a saúde do modelo e diluiriam a taxa de falha durante uma queda.</p>
+ */
+public class CircuitBreakerIAClient implements IAClient, SupportsDetailed {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreakerIAClient.class);
+
+    private static final String PROBE_TEXT = "O atendimento foi bom.";
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private enum Outcome { SUCCESS, SLOW, FAILURE }
+
+    private final IAClient delegate;
+    private final MockClient degraded = new MockClient();
+    private final String degradedProvider;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final Duration openDuration;
+
+    // janela circular das últimas chamadas (protegida por this)
+    private final Outcome[] window;
+    private int next, size, failures, slow;
+
+    private volatile State state = State.CLOSED;
+    private final ScheduledExecutorService prober =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("circuit-probe").factory());
+    private final LongAdder degradedCalls = new LongAdder();
+
+    public CircuitBreakerIAClient(IAClient delegate, int windowSize, int minimumCalls, double failureRateThreshold,
+                                  Duration slowCallThreshold, double slowCallRateThreshold, Duration openDuration) {
+        this.delegate = delegate;
+        this.degradedProvider = "MockClient (degradado: " + delegate.providerName() + " indisponível)";
+        this.window = new Outcome[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDuration = openDuration;
+    }
+
+    // ---------- API simples ----------
+
+    @Override
+    public Result analyze(String text) {
+        return analyze(NormalizedText.of(text));
+    }
+
+    @Override
+    public Result analyze(NormalizedText text) {
+        if (state != State.CLOSED) return degrade(text);
+        long t0 = System.nanoTime();
+        try {
+            Result r = delegate.analyze(text);
+            record(outcome(r, t0));
+            return r;
+        } catch (RuntimeException e) {
+            record(Outcome.FAILURE);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Result> analyzeAsync(NormalizedText text) {
+        if (state != State.CLOSED) return CompletableFuture.completedFuture(degrade(text));
+        long t0 = System.nanoTime();
+        CompletableFuture<Result> f = delegate.analyzeAsync(text);
+        return Futures.cancelling(f.whenComplete((r, e) -> record(e != null ? Outcome.FAILURE : outcome(r, t0))), f);
+    }
+
+    // ---------- API detalhada ----------
+
+    @Override
+    public DetailedResult analyzeDetailed(String text) {
+        return analyzeDetailed(NormalizedText.of(text));
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(NormalizedText text) {
+        SupportsDetailed sd = detailedDelegate();
+        if (state != State.CLOSED) return degradeDetailed(text);
+        long t0 = System.nanoTime();
+        try {
+            DetailedResult r = sd.analyzeDetailed(text);
+            record(outcome(r.overall(), t0));
+            return r;
+        } catch (RuntimeException e) {
+            record(Outcome.FAILURE);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<DetailedResult> analyzeDetailedAsync(NormalizedText text) {
+        SupportsDetailed sd = detailedDelegate();
+        if (state != State.CLOSED) return CompletableFuture.completedFuture(degradeDetailed(text));
+        long t0 = System.nanoTime();
+        CompletableFuture<DetailedResult> f = sd.analyzeDetailedAsync(text);
+        return Futures.cancelling(
+                f.whenComplete((r, e) -> record(e != null ? Outcome.FAILURE : outcome(r.overall(), t0))), f);
+    }
+
+    @Override public String providerName()      { return delegate.providerName(); }
+    @Override public String model()             { return delegate.model(); }
+    @Override public boolean supportsDetailed() { return delegate.supportsDetailed(); }
+
+    public State state()        { return state; }
+    /** Chamadas respondidas pelo MockClient enquanto o circuito não estava fechado. */
+    public long degradedCount() { return degradedCalls.sum(); }
+
+    // ---------- janela / transições ----------
+
+    /** {@code null} = resposta do cache interno do provider, fora da janela. */
+    private Outcome outcome(Result r, long t0) {
+        if (r.isFallback()) return Outcome.FAILURE;
+        if (r.isCached()) return null;
+        return System.nanoTime() - t0 > slowCallNanos ? Outcome.SLOW : Outcome.SUCCESS;
+    }
+
+    private void record(Outcome o) {
+        if (o == null) return;
+        double failureRate, slowRate;
+        synchronized (this) {
+            if (state != State.CLOSED) return; // chamadas que estavam em voo quando abriu
+            if (size == window.length) {
+                Outcome old = window[next];
+                if (old == Outcome.FAILURE) failures--;
+                else if (old == Outcome.SLOW) slow--;
+            } else {
+                size++;
+            }
+            window[next] = o;
+            next = (next + 1) % window.length;
+            if (o == Outcome.FAILURE) failures++;
+            else if (o == Outcome.SLOW) slow++;
+
+            if (size < minimumCalls) return;
+            failureRate = (double) failures / size;
+            slowRate = (double) slow / size;
+            if (failureRate < failureRateThreshold && slowRate < slowCallRateThreshold) return;
+            open();
+        }
+        log.warn("Circuito aberto para {} (falhas={}%, lentas={}%): degradando para MockClient por {}",
+                delegate.providerName(), Math.round(failureRate * 100), Math.round(slowRate * 100), openDuration);
+    }
+
+    /** Chamar com o lock: toda transição de estado acontece sob o monitor, lida de fora pelo volatile. */
+    private void open() {
+        state = State.OPEN;
+        size = next = failures = slow = 0;
+        prober.schedule(this::probe, openDuration.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void probe() {
+        synchronized (this) {
+            if (state != State.OPEN) return;
+            state = State.HALF_OPEN;
+        }
+        long t0 = System.nanoTime();
+        CompletableFuture<Result> f;
+        try {
+            f = delegate.probeAsync(NormalizedText.of(PROBE_TEXT));
+        } catch (RuntimeException e) {
+            f = CompletableFuture.failedFuture(e);
+        }
+        f.orTimeout(Math.max(1, 2 * slowCallNanos / 1_000_000), TimeUnit.MILLISECONDS).whenComplete((r, e) -> {
+            Outcome o = e != null ? Outcome.FAILURE : outcome(r, t0);
+            synchronized (this) {
+                if (state != State.HALF_OPEN) return;
+                if (o == Outcome.SUCCESS) {
+                    state = State.CLOSED;
+                } else {
+                    open();
+                }
+            }
+            if (o == Outcome.SUCCESS) log.info("Circuito fechado: {} respondeu ao probe", delegate.providerName());
+        });
+    }
+
+    // ---------- degradação ----------
+
+    private Result degrade(NormalizedText text) {
+        degradedCalls.increment();
+        return degraded.analyze(text).asFallback(degradedProvider);
+    }
+
+    /** Overall e uma entrada por sentença, todos pelo MockClient. */
+    private DetailedResult degradeDetailed(NormalizedText text) {
+        Result overall = degrade(text);
+        List<SentenceSentiment> per = new ArrayList<>();
+        for (Sentences.Span s : Sentences.spans(text.original(), Integer.MAX_VALUE)) {
+            Result r = degraded.analyze(text.slice(s.start(), s.end()));
+            per.add(new SentenceSentiment(s.text(), r.getSentiment(), r.getScore()));
+        }
+        return new DetailedResult(overall, per);
+    }
+
+    private SupportsDetailed detailedDelegate() {
+        if (!(delegate instanceof SupportsDetailed sd)) {
+            throw new UnsupportedOperationException(delegate.providerName() + " não suporta análise detalhada");
+        }
+        return sd;
+    }
+}
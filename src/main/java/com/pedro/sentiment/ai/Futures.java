@@ -0,0 +1,22 @@
+package com.pedro.sentiment.ai;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/** Helpers de {@link CompletableFuture} dos decorators e do cliente HF. */
+final class Futures {
+
+    private Futures() {}
+
+    /**
+     * {@code dependent} saiu de {@code source} (thenApply, whenComplete...), e cancelar um derivado não cancela a
+     * origem no {@link CompletableFuture}. Aqui cancela: o cancelamento do chamador desce pela cadeia até a fila
+     * do limitador e a troca HTTP.
+     */
+    static <T> CompletableFuture<T> cancelling(CompletableFuture<T> dependent, Future<?> source) {
+        dependent.whenComplete((r, e) -> {
+            if (dependent.isCancelled()) source.cancel(true);
+        });
+        return dependent;
+    }
+}
@@ -0,0 +1,177 @@
+package com.pedro.sentiment.ai;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Classificador linear (regressão logística multinomial) sobre n-gramas "hasheados": palavras, bigramas de
+ * palavras e 3/4-gramas de caracteres de cada palavra ({@code ^palavra$}), cada um mapeado para um de
+ * {@code 2^bits} buckets com sinal (feature hashing). Não há vocabulário: o modelo é só a matriz de pesos.
+ *
+ * <p>Trabalha sobre o texto já normalizado ({@link com.pedro.sentiment.text.NormalizedText#value()}): as
+ * features são geradas direto dos chars, sem criar strings nem listas, então pontuar uma sentença é uma
+ * passada pelos chars com ~3 somas por feature.</p>
+ *
+ * <p>Arquivo (gzip): magic, versão, nome, bits, labels, bias e os pesos quantizados em int8 com uma escala
+ * global (0,75 MB sem compressão com 2^18 buckets e 3 classes; buckets vazios comprimem bem).</p>
+ */
+public final class HashedNgramModel {
+
+    private static final int MAGIC = 0x534E544D; // "SNTM"
+    private static final int VERSION = 1;
+
+    private static final int SEED_WORD = 0x9E3779B9, SEED_BIGRAM = 0x85EBCA6B, SEED_CHAR = 0xC2B2AE35;
+    private static final int CHAR_MIN = 3, CHAR_MAX = 4;
+
+    private final String name;
+    private final int bits;
+    private final String[] labels;
+    private final float[] bias;
+    private final byte[] weights; // [bucket * classes + classe]
+    private final float scale;
+
+    HashedNgramModel(String name, int bits, String[] labels, float[] bias, byte[] weights, float scale) {
+        this.name = name;
+        this.bits = bits;
+        this.labels = labels;
+        this.bias = bias;
+        this.weights = weights;
+        this.scale = scale;
+    }
+
+    public String name()          { return name; }
+    public int classes()          { return labels.length; }
+    public String label(int c)    { return labels[c]; }
+    public List<String> labels()  { return List.of(labels); }
+
+    /**
+     * Probabilidades de cada classe para {@code normalized[start, end)}, escritas em {@code probs}
+     * (tamanho {@link #classes()}), sem strings nem listas intermediárias.
+     */
+    public void predict(String normalized, int start, int end, double[] probs) {
+        int k = labels.length;
+        for (int c = 0; c < k; c++) probs[c] = bias[c];
+        features(normalized, start, end, bits, (bucket, sign) -> {
+            int base = bucket * k;
+            for (int c = 0; c < k; c++) probs[c] += sign * weights[base + c] * scale;
+        });
+        softmax(probs, k);
+    }
+
+    // ---------- features ----------
+
+    /** Recebe cada feature: bucket em {@code [0, 2^bits)} e sinal ±1. */
+    @FunctionalInterface
+    interface FeatureSink {
+        void accept(int bucket, float sign);
+    }
+
+    /** Gera as features de {@code s[start, end)}; tokens = sequências de letras/dígitos. */
+    static void features(String s, int start, int end, int bits, FeatureSink sink) {
+        int mask = (1 << bits) - 1;
+        int prevWord = 0;
+        boolean hasPrev = false;
+        int i = start;
+        while (i < end) {
+            while (i < end && !Character.isLetterOrDigit(s.charAt(i))) i++;
+            if (i >= end) break;
+            int ts = i;
+            while (i < end && Character.isLetterOrDigit(s.charAt(i))) i++;
+            int te = i;
+
+            int word = SEED_WORD;
+            for (int j = ts; j < te; j++) word = (word ^ s.charAt(j)) * 0x01000193;
+            emit(mix(word), mask, sink);
+            if (hasPrev) emit(mix((prevWord * 31 + word) ^ SEED_BIGRAM), mask, sink);
+            prevWord = word;
+            hasPrev = true;
+
+            // n-gramas de caracteres de "^token$" (posições virtuais 0 e len+1 são as bordas)
+            int len = te - ts;
+            for (int n = CHAR_MIN; n <= CHAR_MAX; n++) {
+                for (int p = 0; p + n <= len + 2; p++) {
+                    int h = SEED_CHAR + n;
+                    for (int q = p; q < p + n; q++) {
+                        char ch = q == 0 ? '^' : q == len + 1 ? '$' : s.charAt(ts + q - 1);
+                        h = (h ^ ch) * 0x01000193;
+                    }
+                    emit(mix(h), mask, sink);
+                }
+            }
+        }
+    }
+
+    private static void emit(int h, int mask, FeatureSink sink) {
+        sink.accept(h & mask, h < 0 ? -1f : 1f); // bit alto decide o sinal: colisões tendem a se cancelar
+    }
+
+    /** Finalizador do murmur3 (espalha os bits do FNV). */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    static void softmax(double[] z, int k) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < k; c++) max = Math.max(max, z[c]);
+        double sum = 0;
+        for (int c = 0; c < k; c++) sum += (z[c] = Math.exp(z[c] - max));
+        for (int c = 0; c < k; c++) z[c] /= sum;
+    }
+
+    // ---------- arquivo ----------
+
+    /** Quantiza pesos treinados em float para int8 (escala = maior |peso| / 127). */
+    static HashedNgramModel quantize(String name, int bits, String[] labels, float[] bias, float[] weights) {
+        float max = 0;
+        for (float w : weights) max = Math.max(max, Math.abs(w));
+        float scale = max == 0 ? 1f : max / 127f;
+        byte[] q = new byte[weights.length];
+        for (int i = 0; i < weights.length; i++) q[i] = (byte) Math.round(weights[i] / scale);
+        return new HashedNgramModel(name, bits, labels, bias.clone(), q, scale);
+    }
+
+    public void save(OutputStream out) throws IOException {
+        var gz = new GZIPOutputStream(out, 64 * 1024);
+        var data = new DataOutputStream(gz);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeUTF(name);
+        data.writeByte(bits);
+        data.writeByte(labels.length);
+        for (String l : labels) data.writeUTF(l);
+        for (float b : bias) data.writeFloat(b);
+        data.writeFloat(scale);
+        data.write(weights);
+        data.flush();
+        gz.finish();
+    }
+
+    public static HashedNgramModel load(InputStream in) throws IOException {
+        var data = new DataInputStream(new GZIPInputStream(in, 64 * 1024));
+        if (data.readInt() != MAGIC) throw new IOException("não é um modelo local (magic inválido)");
+        int version = data.readInt();
+        if (version != VERSION) throw new IOException("versão de modelo não suportada: " + version);
+        String name = data.readUTF();
+        int bits = data.readUnsignedByte();
+        if (bits < 8 || bits > 26) throw new IOException("bits inválido: " + bits);
+        String[] labels = new String[data.readUnsignedByte()];
+        for (int c = 0; c < labels.length; c++) labels[c] = data.readUTF();
+        float[] bias = new float[labels.length];
+        for (int c = 0; c < labels.length; c++) bias[c] = data.readFloat();
+        float scale = data.readFloat();
+        byte[] weights = new byte[(1 << bits) * labels.length];
+        data.readFully(weights);
+        return new HashedNgramModel(name, bits, labels, bias, weights, scale);
+    }
+}
@@ -1,7 +1,24 @@
 package com.pedro.sentiment.ai;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pedro.sentiment.jfr.ProviderCallEvent;
+import com.pedro.sentiment.text.NormalizedText;
+import com.pedro.sentiment.text.Sentences;
+import com.pedro.sentiment.timing.RequestTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,34 +29,110 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
-import java.text.BreakIterator;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
 
 @Component
 @ConditionalOnProperty(name = "app.ai.provider", havingValue = "huggingface")
-public class HuggingFaceClient implements IAClient, SupportsDetailed {
+public class HuggingFaceClient implements IAClient, SupportsDetailed, MeterBinder {
 
     private static final Logger log = LoggerFactory.getLogger(HuggingFaceClient.class);
 
     private final String token;
     private final String model;
-    private final int timeoutSeconds;
+    private final int timeoutSeconds; // teto do timeout adaptativo
 
-    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(15)).build();
+    private final HttpClient http;
     private final ObjectMapper mapper = new ObjectMapper();
-
-    // Limiar para MIXED (pode tornar configurável via @Value)
-    private static final double POS_STRONG = 0.55;
-    private static final double NEG_STRONG = 0.55;
+    private final InferenceBatcher<LabelScore> batcher; // null = uma chamada HTTP por request
+    private final Cache<SentenceKey, LabelScore> sentenceCache; // null = toda sentença vai ao modelo
+
+    // retry em 429/503 sem bloquear thread: backoff exponencial com jitter, agendado
+    private final int retryMaxAttempts;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
+    private final RetryBudget retryBudget;
+    private final ScheduledExecutorService retryScheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("hf-retry").factory());
+
+    // latência das chamadas ao modelo: timeout por chamada (p99 × multiplier) e disparo do hedge (p95)
+    private final LatencyHistogram latency;
+    private final int latencyMinSamples;
+    private final boolean adaptiveTimeout;
+    private final double timeoutMultiplier;
+    private final long minTimeoutMs;
+    private final boolean hedgeEnabled;
+    private final RetryBudget hedgeBudget;
+    private final LongAdder sends = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    // concorrência adaptativa (AIMD) das chamadas ao modelo: encolhe em 429/503/timeout/lentidão, cresce com saúde
+    private final AdaptiveLimiter limiter; // null = sem limite
+
+    // métricas (Micrometer): ligadas pelo Boot via MeterBinder; antes disso (ou em testes) nada é medido
+    private volatile Meters meters;
+
+    // "cauda" após conectivos (contraste/causa), compilados uma vez
+    private static final Pattern[] TAIL_PATTERNS = {
+            Pattern.compile("\\b(mas|porem|porém|no entanto|todavia|contudo)\\b(.{0,100})", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("\\b(porque|pois|que)\\b(.{0,100})", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("\\b(por causa de|devido a)\\b(.{0,80})", Pattern.CASE_INSENSITIVE)
+    };
 
     public HuggingFaceClient(
             @Value("${huggingface.token:}") String token,
             @Value("${huggingface.model:cardiffnlp/twitter-xlm-roberta-base-sentiment}") String model,
-            @Value("${huggingface.timeout-seconds:60}") int timeoutSeconds
+            @Value("${huggingface.timeout-seconds:60}") int timeoutSeconds,
+            @Value("${huggingface.batch.enabled:true}") boolean batchEnabled,
+            @Value("${huggingface.batch.window-ms:5}") long batchWindowMs,
+            @Value("${huggingface.batch.max-inputs:32}") int batchMaxInputs,
+            @Value("${huggingface.retry.max-attempts:4}") int retryMaxAttempts,
+            @Value("${huggingface.retry.base-delay-ms:350}") long retryBaseDelayMs,
+            @Value("${huggingface.retry.max-delay-ms:5000}") long retryMaxDelayMs,
+            @Value("${huggingface.retry.budget-ratio:0.2}") double retryBudgetRatio,
+            @Value("${huggingface.latency.window-seconds:60}") int latencyWindowSeconds,
+            @Value("${huggingface.latency.min-samples:50}") int latencyMinSamples,
+            @Value("${huggingface.adaptive-timeout.enabled:true}") boolean adaptiveTimeout,
+            @Value("${huggingface.adaptive-timeout.multiplier:3}") double timeoutMultiplier,
+            @Value("${huggingface.adaptive-timeout.min-ms:2000}") long minTimeoutMs,
+            @Value("${huggingface.hedge.enabled:true}") boolean hedgeEnabled,
+            @Value("${huggingface.hedge.max-ratio:0.05}") double hedgeMaxRatio,
+            @Value("${huggingface.sentence-cache.enabled:true}") boolean sentenceCacheEnabled,
+            @Value("${huggingface.sentence-cache.max-size:100000}") long sentenceCacheMaxSize,
+            @Value("${huggingface.sentence-cache.ttl:24h}") Duration sentenceCacheTtl,
+            @Value("${huggingface.limiter.enabled:true}") boolean limiterEnabled,
+            @Value("${huggingface.limiter.initial-limit:16}") int limiterInitial,
+            @Value("${huggingface.limiter.min-limit:1}") int limiterMin,
+            @Value("${huggingface.limiter.max-limit:128}") int limiterMax,
+            @Value("${huggingface.limiter.backoff-ratio:0.5}") double limiterBackoff,
+            @Value("${huggingface.limiter.latency-tolerance:2.0}") double limiterLatencyTolerance,
+            @Value("${huggingface.limiter.slow-rate:0.2}") double limiterSlowRate,
+            @Value("${huggingface.limiter.max-queue:256}") int limiterMaxQueue,
+            @Value("${huggingface.limiter.max-wait:2s}") Duration limiterMaxWait,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
     ) {
         String tk = safeTrim(token);
         if (isBlank(tk)) tk = safeTrim(System.getenv("HUGGINGFACE_TOKEN"));
@@ -49,242 +142,605 @@ public class HuggingFaceClient implements IAClient, SupportsDetailed {
         this.model = (model == null || model.isBlank())
                 ? "cardiffnlp/twitter-xlm-roberta-base-sentiment" : model.trim();
         this.timeoutSeconds = timeoutSeconds;
+        this.http = ProviderHttp.newClient(virtualThreads);
+        this.retryMaxAttempts = Math.max(1, retryMaxAttempts);
+        this.retryBaseDelayMs = Math.max(1, retryBaseDelayMs);
+        this.retryMaxDelayMs = Math.max(this.retryBaseDelayMs, retryMaxDelayMs);
+        this.retryBudget = new RetryBudget(retryBudgetRatio, 10);
+        this.latency = new LatencyHistogram(Duration.ofSeconds(Math.max(1, latencyWindowSeconds)));
+        this.latencyMinSamples = Math.max(1, latencyMinSamples);
+        this.adaptiveTimeout = adaptiveTimeout;
+        this.timeoutMultiplier = Math.max(1, timeoutMultiplier);
+        this.minTimeoutMs = Math.max(1, minTimeoutMs);
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeBudget = new RetryBudget(hedgeMaxRatio, 5);
+        this.sentenceCache = sentenceCacheEnabled
+                ? Caffeine.newBuilder().maximumSize(sentenceCacheMaxSize).expireAfterWrite(sentenceCacheTtl).recordStats().build()
+                : null;
+        double tolerance = Math.max(1, limiterLatencyTolerance);
+        this.limiter = limiterEnabled
+                ? new AdaptiveLimiter(limiterInitial, limiterMin, limiterMax, limiterBackoff, limiterMaxQueue, limiterMaxWait,
+                        () -> latency.count() < this.latencyMinSamples ? 0
+                                : Math.round(latency.percentileMillis(0.95) * tolerance * 1_000_000),
+                        limiterSlowRate, retryScheduler)
+                : null;
+        this.batcher = batchEnabled
+                ? new InferenceBatcher<>("hf-batch", this::postInference, HuggingFaceClient::inputSpecific,
+                        Duration.ofMillis(batchWindowMs), batchMaxInputs)
+                : null;
+
+        log.info("HuggingFaceClient: provider=hf, model={}, tokenPresente={}, batch={}, hedge={}, limite={}",
+                this.model, this.token.isBlank() ? "NÃO" : "SIM(len=" + this.token.length() + ")",
+                batchEnabled ? batchWindowMs + "ms/" + batchMaxInputs : "off",
+                hedgeEnabled ? "p95 (até " + Math.round(hedgeMaxRatio * 100) + "%)" : "off",
+                limiterEnabled ? limiter.limit() + " (" + limiterMin + ".." + limiterMax + ", fila " + limiterMaxQueue + ")" : "off");
+    }
+
+    @PreDestroy
+    void close() {
+        if (batcher != null) batcher.close();
+        retryScheduler.shutdownNow();
+    }
+
+    @Override public String providerName() { return "HuggingFace: " + model; }
+    @Override public String model() { return model; }
+
+    /** Grava direto no cache por sentença (testes); sem efeito com o cache desligado. */
+    void cacheSentence(String sentence, LabelScore score) {
+        if (sentenceCache == null) return;
+        sentenceCache.put(new SentenceKey(model, NormalizedText.of(sentence).value()), score);
+    }
+
+    /** Hits/misses do cache por sentença ({@link CacheStats#empty()} se desligado). */
+    public CacheStats sentenceCacheStats() {
+        return sentenceCache == null ? CacheStats.empty() : sentenceCache.stats();
+    }
+
+    /**
+     * Status HTTP das respostas, retries, orçamento esgotado, sentenças por request, entradas por POST,
+     * hedges e o cache por sentença. Contadores por status nascem na primeira vez que o status aparece.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = MeteredIAClient.tags(this);
+        FunctionCounter.builder("sentiment.hf.sends", sends, LongAdder::sum)
+                .description("Chamadas HTTP ao modelo (sem contar hedges)").tags(tags).register(registry);
+        FunctionCounter.builder("sentiment.hf.hedges", hedged, LongAdder::sum)
+                .description("Hedges disparados").tags(tags).register(registry);
+        FunctionCounter.builder("sentiment.hf.hedge.wins", hedgeWins, LongAdder::sum)
+                .description("Hedges que responderam antes da original").tags(tags).register(registry);
+        Gauge.builder("sentiment.hf.timeout", this, c -> c.timeout().toMillis())
+                .description("Timeout atual por chamada (adaptativo)").baseUnit("milliseconds").tags(tags).register(registry);
+        if (sentenceCache != null) CaffeineCacheMetrics.monitor(registry, sentenceCache, "sentiment.hf.sentences", tags);
+        if (batcher != null) {
+            FunctionCounter.builder("sentiment.hf.batch.splits", batcher, InferenceBatcher::splitCount)
+                    .description("Lotes que falharam e foram divididos para isolar a chamada").tags(tags).register(registry);
+        }
+        if (limiter != null) {
+            Gauge.builder("sentiment.hf.limiter.limit", limiter, AdaptiveLimiter::limit)
+                    .description("Limite atual de chamadas simultâneas ao modelo (AIMD)").tags(tags).register(registry);
+            Gauge.builder("sentiment.hf.limiter.in-flight", limiter, AdaptiveLimiter::inFlight)
+                    .description("Chamadas ao modelo em andamento").tags(tags).register(registry);
+            Gauge.builder("sentiment.hf.limiter.queue", limiter, AdaptiveLimiter::queued)
+                    .description("Chamadas esperando vaga no limitador").tags(tags).register(registry);
+            FunctionCounter.builder("sentiment.hf.limiter.rejected", limiter, AdaptiveLimiter::rejectedFull)
+                    .description("Chamadas recusadas pelo limitador").tags(tags).tag("reason", "queue-full").register(registry);
+            FunctionCounter.builder("sentiment.hf.limiter.rejected", limiter, AdaptiveLimiter::rejectedTimeout)
+                    .description("Chamadas recusadas pelo limitador").tags(tags).tag("reason", "timeout").register(registry);
+            FunctionCounter.builder("sentiment.hf.limiter.decreases", limiter, AdaptiveLimiter::decreases)
+                    .description("Cortes do limite (429/503/timeout/lentidão)").tags(tags).register(registry);
+        }
+
+        meters = new Meters(registry, tags,
+                Counter.builder("sentiment.hf.retry.budget.exhausted")
+                        .description("Retries não feitos por falta de orçamento").tags(tags).register(registry),
+                DistributionSummary.builder("sentiment.hf.request.sentences")
+                        .description("Sentenças por request").tags(tags).register(registry),
+                DistributionSummary.builder("sentiment.hf.inference.inputs")
+                        .description("Entradas por POST ao modelo (após cache e batch)").tags(tags).register(registry));
+    }
 
-        log.info("HuggingFaceClient: provider=hf, model={}, tokenPresente={}",
-                this.model, this.token.isBlank() ? "NÃO" : "SIM(len=" + this.token.length() + ")");
+    /** Métricas de latência/hedge do modelo (janela deslizante para os percentis, contadores desde o start). */
+    public LatencyStats latencyStats() {
+        long n = sends.sum(), h = hedged.sum(), w = hedgeWins.sum();
+        return new LatencyStats(model, latency.count(), latency.percentileMillis(0.5), latency.percentileMillis(0.95),
+                latency.percentileMillis(0.99), timeout().toMillis(), n, h, w,
+                n == 0 ? 0 : (double) h / n, h == 0 ? 0 : (double) w / h);
     }
 
+    /**
+     * @param hedgeRate    hedges disparados / chamadas HTTP
+     * @param hedgeWinRate hedges que responderam antes da original / hedges disparados
+     */
+    public record LatencyStats(String model, long samples, long p50Ms, long p95Ms, long p99Ms, long timeoutMs,
+                               long calls, long hedges, long hedgeWins, double hedgeRate, double hedgeWinRate) {}
+
     // ---------- API simples (overall) ----------
     @Override
     public Result analyze(String text) {
+        return analyze(NormalizedText.of(text));
+    }
+
+    @Override
+    public Result analyze(NormalizedText normalized) {
+        return analyzeAsync(normalized).join();
+    }
+
+    @Override
+    public CompletableFuture<Result> analyzeAsync(NormalizedText normalized) {
         if (token.isBlank()) {
-            return new Result("NEUTRAL", 0.0, "Token HF ausente – fallback.", "geral");
+            return CompletableFuture.completedFuture(Result.fallback("Token HF ausente – fallback.", "geral"));
         }
-        try {
-            List<String> sentences = splitSentences(text == null ? "" : text.trim());
-            if (sentences.isEmpty()) sentences = List.of("");
+        CompletableFuture<Inference> f = infer(sentencesOf(normalized));
+        return Futures.cancelling(f
+                .thenApply(inf -> {
+                    Result r = toResult(normalized, inf.best());
+                    return inf.cached() ? r.asCached() : r;
+                })
+                .exceptionally(HuggingFaceClient::fallbackFor), f);
+    }
+
+    /**
+     * Probe do circuit breaker: um POST direto ao modelo, sem o cache por sentença e sem o batcher. Um hit de
+     * cache responderia na hora e fecharia o circuito com o modelo ainda fora.
+     */
+    @Override
+    public CompletableFuture<Result> probeAsync(NormalizedText normalized) {
+        if (token.isBlank()) {
+            return CompletableFuture.completedFuture(Result.fallback("Token HF ausente – fallback.", "geral"));
+        }
+        CompletableFuture<List<LabelScore>> f = postInference(sentencesOf(normalized), null);
+        return Futures.cancelling(f
+                .thenApply(best -> toResult(normalized, best))
+                .exceptionally(HuggingFaceClient::fallbackFor), f);
+    }
+
+    private static Result fallbackFor(Throwable ex) {
+        Throwable cause = unwrap(ex);
+        if (cause instanceof InferenceException) return Result.fallback(cause.getMessage(), "geral");
+        log.error("Erro HF", cause);
+        return Result.fallback("Erro inesperado – fallback.", "geral");
+    }
+
+    private Result toResult(NormalizedText normalized, List<LabelScore> bestPerSentence) {
+        Aggregate agg = aggregate(bestPerSentence);
+
+        // Motivo heurístico
+        String reason = inferReason(normalized);
+
+        return new IAClient.Result(
+                agg.label(),
+                agg.score(),
+                agg.summary(),
+                reason,
+                List.of(new IAClient.AspectScore("geral", agg.posAvg(), agg.negAvg())),
+                "HuggingFace: " + model
+        );
+    }
+
+    // ---------- API detalhada (por sentença) ----------
+    @Override
+    public SupportsDetailed.DetailedResult analyzeDetailed(String text) {
+        return analyzeDetailed(NormalizedText.of(text));
+    }
+
+    @Override
+    public SupportsDetailed.DetailedResult analyzeDetailed(NormalizedText normalized) {
+        return analyzeDetailedAsync(normalized).join();
+    }
+
+    @Override
+    public CompletableFuture<SupportsDetailed.DetailedResult> analyzeDetailedAsync(NormalizedText normalized) {
+        if (token.isBlank()) {
+            var overall = Result.fallback("Token HF ausente – fallback.", "geral");
+            return CompletableFuture.completedFuture(new SupportsDetailed.DetailedResult(overall, List.of()));
+        }
+        List<String> sentences = sentencesOf(normalized);
+        CompletableFuture<Inference> f = infer(sentences);
+        return Futures.cancelling(f
+                .thenApply(inf -> toDetailed(normalized, sentences, inf))
+                .exceptionally(ex -> {
+                    // mesmo fallback do analyze, sem uma segunda ida à rede
+                    Throwable cause = unwrap(ex);
+                    IAClient.Result overall;
+                    if (cause instanceof InferenceException) {
+                        overall = Result.fallback(cause.getMessage(), "geral");
+                    } else {
+                        log.error("Erro HF (detailed)", cause);
+                        overall = Result.fallback("Erro inesperado – fallback.", "geral");
+                    }
+                    return new SupportsDetailed.DetailedResult(overall, List.of());
+                }), f);
+    }
+
+    private SupportsDetailed.DetailedResult toDetailed(NormalizedText normalized, List<String> sentences,
+                                                       Inference inference) {
+        List<LabelScore> bestPerSentence = inference.best();
+        Aggregate agg = aggregate(bestPerSentence);
+
+        String reason = inferReason(normalized);
+        IAClient.Result overall = new IAClient.Result(agg.label(), clamp(agg.score(), 0, 1), agg.summary(), reason);
+        if (inference.cached()) overall = overall.asCached();
+
+        List<SupportsDetailed.SentenceSentiment> per = new ArrayList<>();
+        for (int i = 0; i < bestPerSentence.size(); i++) {
+            var ls = bestPerSentence.get(i);
+            var s  = i < sentences.size() ? sentences.get(i) : "";
+            per.add(new SupportsDetailed.SentenceSentiment(s, ls.label, ls.score));
+        }
+
+        return new SupportsDetailed.DetailedResult(overall, per);
+    }
+
+    // ===== inferência =====
+
+    /** Sentenças do original; conta como etapa "split" do request em andamento. */
+    private static List<String> sentencesOf(NormalizedText normalized) {
+        long t0 = System.nanoTime();
+        String text = normalized.original();
+        List<String> sentences = Sentences.split(text);
+        RequestTimings.current().stop(RequestTimings.Stage.SPLIT, t0);
+        return sentences.isEmpty() ? List.of("") : sentences;
+    }
+
+    /** Melhor label por sentença; {@code cached} = todas saíram do cache por sentença, sem chamada ao modelo. */
+    private record Inference(List<LabelScore> best, boolean cached) {}
+
+    /**
+     * Melhor label por sentença, na ordem de {@code sentences}. Sentenças já vistas (mesmo texto normalizado)
+     * saem do cache; só as demais vão ao modelo, num único payload, e entram no cache na volta.
+     */
+    private CompletableFuture<Inference> infer(List<String> sentences) {
+        Meters m = meters;
+        if (m != null) m.sentences().record(sentences.size());
+        // backoff entre retries vira "retry-wait" do request (capturado aqui, na thread dele)
+        RequestTimings timings = RequestTimings.current();
+        LongConsumer waited = timings.enabled() ? nanos -> timings.add(RequestTimings.Stage.RETRY_WAIT, nanos) : null;
+        if (sentenceCache == null) {
+            CompletableFuture<List<LabelScore>> f = inferRemote(sentences, waited);
+            return Futures.cancelling(f.thenApply(best -> new Inference(best, false)), f);
+        }
+
+        LabelScore[] out = new LabelScore[sentences.size()];
+        SentenceKey[] keys = new SentenceKey[sentences.size()];
+        Map<SentenceKey, String> misses = new LinkedHashMap<>(); // repetidas no mesmo texto vão uma vez só
+        for (int i = 0; i < out.length; i++) {
+            keys[i] = new SentenceKey(model, NormalizedText.of(sentences.get(i)).value());
+            out[i] = sentenceCache.getIfPresent(keys[i]);
+            if (out[i] == null) misses.putIfAbsent(keys[i], sentences.get(i));
+        }
+        if (misses.isEmpty()) return CompletableFuture.completedFuture(new Inference(Arrays.asList(out), true));
+
+        List<SentenceKey> missKeys = new ArrayList<>(misses.keySet());
+        CompletableFuture<List<LabelScore>> remote = inferRemote(new ArrayList<>(misses.values()), waited);
+        return Futures.cancelling(remote.thenApply(scores -> {
+            // postInference já garante um score por entrada; só score de verdade entra no cache
+            Map<SentenceKey, LabelScore> fresh = new LinkedHashMap<>();
+            for (int j = 0; j < missKeys.size(); j++) fresh.put(missKeys.get(j), scores.get(j));
+            sentenceCache.putAll(fresh);
+            for (int i = 0; i < out.length; i++) {
+                if (out[i] == null) out[i] = fresh.get(keys[i]);
+            }
+            return new Inference(Arrays.asList(out), false);
+        }), remote);
+    }
 
+    /** Com batch ligado, a chamada é agrupada com a de outros requests. */
+    private CompletableFuture<List<LabelScore>> inferRemote(List<String> sentences, LongConsumer waited) {
+        return batcher != null ? batcher.submit(sentences, waited) : postInference(sentences, waited);
+    }
+
+    /** Um POST {@code {"inputs": ...}} (com retries agendados); devolve o melhor label de cada entrada. */
+    private CompletableFuture<List<LabelScore>> postInference(List<String> inputs, LongConsumer waited) {
+        HttpRequest req;
+        try {
             // Sempre {"inputs": ...}
             String payload = mapper.writeValueAsString(
-                    sentences.size() == 1
-                            ? new PayloadSingle(sentences.get(0))
-                            : new PayloadBatch(sentences)
+                    inputs.size() == 1
+                            ? new PayloadSingle(inputs.get(0))
+                            : new PayloadBatch(inputs)
             );
 
             String url = "https://api-inference.huggingface.co/models/" + model;
-            HttpRequest req = HttpRequest.newBuilder(URI.create(url))
-                    .timeout(Duration.ofSeconds(timeoutSeconds))
+            req = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(timeout())
                     .header("Authorization", "Bearer " + token)
                     .header("Content-Type", "application/json")
                     .header("User-Agent", "sentiment-service/0.3")
                     .POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
                     .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-            int attempts = 0;
-            HttpResponse<String> resp;
-            while (true) {
-                attempts++;
-                resp = http.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-                int sc = resp.statusCode();
-                if (sc / 100 == 2) break;
-                if (attempts >= 4 || !(sc == 429 || sc == 503)) break;
-                Thread.sleep(350L * attempts);
-            }
+        Meters m = meters;
+        if (m != null) m.inputs().record(inputs.size());
+        retryBudget.deposit();
+        var event = ProviderCallEvent.start();
+        long requestBytes = req.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(-1L);
+        CompletableFuture<HttpResponse<String>> sent = sendWithRetry(req, event, waited);
+        return Futures.cancelling(sent
+                .whenComplete((resp, e) -> event.finish("HuggingFace", model, inputs.size(),
+                        resp == null ? 0 : resp.statusCode(), requestBytes,
+                        resp == null || resp.body() == null ? 0 : resp.body().length(), e == null ? null : unwrap(e)))
+                .thenApply(resp -> parseBestPerSentence(resp, inputs.size())), sent);
+    }
 
-            if (resp.statusCode() / 100 != 2) {
-                log.warn("HF HTTP {}: {}", resp.statusCode(), safe(resp.body()));
-                return new Result("NEUTRAL", 0.0, "Falha HF – fallback.", "geral");
-            }
+    /**
+     * {@code sendAsync} e, em 429/503, reenvio agendado no {@link #retryScheduler} (nenhuma thread fica
+     * parada no backoff). Para em {@code max-attempts} ou quando o orçamento global de retries acaba. Cancelar o
+     * future devolvido aborta o envio em andamento ou desmarca o retry agendado.
+     */
+    private CompletableFuture<HttpResponse<String>> sendWithRetry(HttpRequest req, ProviderCallEvent event,
+                                                                  LongConsumer waited) {
+        var result = new CompletableFuture<HttpResponse<String>>();
+        sendAttempt(req, 1, event, waited, result);
+        return result;
+    }
 
-            JsonNode root = mapper.readTree(resp.body());
-
-            // single: [ {label,score}... ]
-            // batch : [ [ {label,score}... ], [ ... ] , ... ]
-            List<LabelScore> bestPerSentence = new ArrayList<>();
-            if (root.isArray() && root.size() > 0 && root.get(0).isArray()) {
-                for (JsonNode sentenceScores : root) bestPerSentence.add(extractBest(sentenceScores));
-            } else if (root.isArray()) {
-                bestPerSentence.add(extractBest(root));
-            } else {
-                return new Result("NEUTRAL", 0.0, "Resposta inesperada – fallback.", "geral");
+    private void sendAttempt(HttpRequest req, int attempt, ProviderCallEvent event, LongConsumer waited,
+                             CompletableFuture<HttpResponse<String>> result) {
+        if (result.isDone()) return; // cancelado durante o backoff
+        event.attempt(attempt);
+        CompletableFuture<HttpResponse<String>> sent = sendHedged(req);
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) sent.cancel(true);
+        });
+        sent.whenComplete((resp, e) -> {
+            if (e != null) {
+                result.completeExceptionally(e);
+                return;
             }
+            int sc = resp.statusCode();
+            if (sc / 100 == 2 || !(sc == 429 || sc == 503) || attempt >= retryMaxAttempts) {
+                result.complete(resp);
+                return;
+            }
+            Meters m = meters;
+            if (!retryBudget.tryAcquire()) {
+                log.warn("HF HTTP {}: orçamento de retries esgotado, sem nova tentativa", sc);
+                if (m != null) m.budgetExhausted().increment();
+                result.complete(resp);
+                return;
+            }
+            if (m != null) m.count(m.retries(), "sentiment.hf.retries", sc);
+            long scheduledAt = System.nanoTime();
+            ScheduledFuture<?> retry = retryScheduler.schedule(() -> {
+                if (waited != null) waited.accept(System.nanoTime() - scheduledAt);
+                sendAttempt(req, attempt + 1, event, waited, result);
+            }, backoffMillis(attempt, resp), TimeUnit.MILLISECONDS);
+            result.whenComplete((r, x) -> {
+                if (result.isCancelled()) retry.cancel(false);
+            });
+        });
+    }
+
+    /** Timeout da chamada: p99 × multiplier entre min-ms e {@code timeout-seconds}; estático até ter amostras. */
+    private Duration timeout() {
+        Duration max = Duration.ofSeconds(timeoutSeconds);
+        if (!adaptiveTimeout || latency.count() < latencyMinSamples) return max;
+        long ms = Math.round(latency.percentileMillis(0.99) * timeoutMultiplier);
+        return Duration.ofMillis(Math.min(max.toMillis(), Math.max(minTimeoutMs, ms)));
+    }
 
-            double posSum = 0, negSum = 0, neuSum = 0;
-            int n = bestPerSentence.size();
-            for (LabelScore ls : bestPerSentence) {
-                switch (ls.label) {
-                    case "POSITIVE" -> posSum += ls.score;
-                    case "NEGATIVE" -> negSum += ls.score;
-                    case "NEUTRAL"  -> neuSum += ls.score;
+    /**
+     * Envia e, se a resposta não chegar até o p95 observado, dispara uma cópia (o POST de inferência é
+     * idempotente). Fica a primeira resposta; a outra é cancelada (aborta a troca HTTP). Hedges custam
+     * do {@link #hedgeBudget}, então no máximo ~{@code max-ratio} das chamadas viram duas.
+     */
+    private CompletableFuture<HttpResponse<String>> sendHedged(HttpRequest req) {
+        sends.increment();
+        long t0 = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> primary = send(req);
+        if (!hedgeEnabled || latency.count() < latencyMinSamples) return primary;
+        hedgeBudget.deposit();
+
+        var result = new CompletableFuture<HttpResponse<String>>();
+        var hedge = new AtomicReference<CompletableFuture<HttpResponse<String>>>();
+        ScheduledFuture<?> timer = retryScheduler.schedule(() -> {
+            if (primary.isDone() || !hedgeBudget.tryAcquire()) return;
+            hedged.increment();
+            CompletableFuture<HttpResponse<String>> h = send(req);
+            hedge.set(h);
+            if (result.isDone()) h.cancel(true); // a original terminou enquanto o hedge saía
+            h.whenComplete((r, e) -> {
+                if (e == null) {
+                    if (result.complete(r)) {
+                        hedgeWins.increment();
+                        primary.cancel(true);
+                        latency.record(System.nanoTime() - t0); // original censurada: levaria pelo menos isso
+                    }
+                } else if (primary.isCompletedExceptionally()) {
+                    result.completeExceptionally(e);
                 }
+            });
+        }, Math.max(1, latency.percentileMillis(0.95)), TimeUnit.MILLISECONDS);
+
+        result.whenComplete((r, e) -> {
+            if (!result.isCancelled()) return;
+            timer.cancel(false);
+            primary.cancel(true);
+            CompletableFuture<HttpResponse<String>> h = hedge.get();
+            if (h != null) h.cancel(true);
+        });
+        primary.whenComplete((r, e) -> {
+            CompletableFuture<HttpResponse<String>> h = hedge.get();
+            if (e == null) {
+                if (result.complete(r)) {
+                    timer.cancel(false);
+                    if (h != null) h.cancel(true);
+                }
+            } else if (h == null) {
+                timer.cancel(false);
+                result.completeExceptionally(e);
+            } else if (h.isCompletedExceptionally()) {
+                result.completeExceptionally(e);
             }
-            double posAvg = posSum / n;
-            double negAvg = negSum / n;
-            double neuAvg = neuSum / n;
-
-            String overall;
-            double overallScore;
-            String summary;
-
-            if (posAvg >= POS_STRONG && negAvg >= NEG_STRONG) {
-                overall = "MIXED";
-                overallScore = Math.max(posAvg, negAvg);
-                summary = "Sinais positivos e negativos relevantes em diferentes partes do texto.";
-            } else if (posAvg >= negAvg && posAvg >= neuAvg) {
-                overall = "POSITIVE";
-                overallScore = posAvg;
-                summary = "Avaliação positiva predominante.";
-            } else if (negAvg >= posAvg && negAvg >= neuAvg) {
-                overall = "NEGATIVE";
-                overallScore = negAvg;
-                summary = "Avaliação negativa predominante.";
-            } else {
-                overall = "NEUTRAL";
-                overallScore = neuAvg;
-                summary = "Sem polaridade clara; avaliação neutra.";
-            }
+        });
+        return result;
+    }
 
-            // Motivo heurístico
-            String reason = inferReason(text);
+    /**
+     * Envia quando o {@link #limiter} tiver vaga. Sem vaga a chamada espera na fila (sem thread parada) e,
+     * com a fila cheia ou a espera esgotada, falha na hora com fallback em vez de somar carga a um provider
+     * que já está devolvendo 429. Cancelar o future devolvido desiste da fila ou aborta o HTTP.
+     */
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest req) {
+        if (limiter == null) return sendNow(req, null);
+        CompletableFuture<AdaptiveLimiter.Permit> permit = limiter.acquire();
+        if (permit.isDone() && !permit.isCompletedExceptionally()) return sendNow(req, permit.join());
+
+        var result = new CompletableFuture<HttpResponse<String>>();
+        permit.whenComplete((p, e) -> {
+            if (e != null) {
+                result.completeExceptionally(unwrap(e) instanceof AdaptiveLimiter.LimitExceededException
+                        ? new InferenceException("Provider saturado – fallback.") : e);
+                return;
+            }
+            if (result.isDone()) { // desistiram enquanto esperava
+                p.ignore();
+                return;
+            }
+            CompletableFuture<HttpResponse<String>> f = sendNow(req, p);
+            f.whenComplete((r, x) -> {
+                if (x != null) result.completeExceptionally(x); else result.complete(r);
+            });
+            result.whenComplete((r, x) -> {
+                if (result.isCancelled()) f.cancel(true);
+            });
+        });
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) permit.cancel(false);
+        });
+        return result;
+    }
 
-            return new IAClient.Result(
-                    overall,
-                    overallScore, // aqui estava 'score', mas a variável correta é 'overallScore'
-                    summary,
-                    reason,
-                    List.of(new IAClient.AspectScore("geral", posAvg, negAvg)),
-                    "HuggingFace: " + model
-            );
+    /**
+     * sendAsync registrando a latência das respostas 2xx e devolvendo a vaga ao limitador com o sinal da
+     * resposta; devolve o próprio future do HttpClient (cancelável).
+     */
+    private CompletableFuture<HttpResponse<String>> sendNow(HttpRequest req, AdaptiveLimiter.Permit permit) {
+        long t0 = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> f = http.sendAsync(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        f.whenComplete((resp, e) -> {
+            if (e == null && resp.statusCode() / 100 == 2) latency.record(System.nanoTime() - t0);
+            int status = e == null ? resp.statusCode() : errorStatus(e);
+            if (permit != null) {
+                if (status / 100 == 2) permit.success();
+                else if (status == 429 || status == 503 || status == Meters.TIMEOUT) permit.dropped();
+                else permit.ignore();
+            }
+            Meters m = meters;
+            if (m != null) m.count(m.responses(), "sentiment.hf.responses", status);
+        });
+        return f;
+    }
 
-        } catch (Exception ex) {
-            log.error("Erro HF", ex);
-            return new Result("NEUTRAL", 0.0, "Erro inesperado – fallback.", "geral");
+    /** base·2^(n-1) limitado a max-delay, com "equal jitter" (metade fixa + metade aleatória); respeita Retry-After. */
+    private long backoffMillis(int attempt, HttpResponse<?> resp) {
+        long exp = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempt - 1, 20));
+        long delay = exp / 2 + ThreadLocalRandom.current().nextLong(exp / 2 + 1);
+        long retryAfterMs = 0;
+        try {
+            retryAfterMs = resp.headers().firstValueAsLong("Retry-After").orElse(0) * 1000;
+        } catch (NumberFormatException ignored) {
+            // Retry-After em formato de data: fica só o backoff
         }
+        return Math.min(retryMaxDelayMs, Math.max(delay, retryAfterMs));
     }
 
-    // ---------- API detalhada (por sentença) ----------
-    @Override
-    public SupportsDetailed.DetailedResult analyzeDetailed(String text) {
-        if (token.isBlank()) {
-            var overall = new Result("NEUTRAL", 0.0, "Token HF ausente – fallback.", "geral");
-            return new SupportsDetailed.DetailedResult(overall, List.of());
+    private List<LabelScore> parseBestPerSentence(HttpResponse<String> resp, int inputs) {
+        if (resp.statusCode() / 100 != 2) {
+            log.warn("HF HTTP {}: {}", resp.statusCode(), safe(resp.body()));
+            int sc = resp.statusCode();
+            throw new InferenceException("Falha HF – fallback.", sc / 100 == 4 && sc != 429);
         }
+
+        JsonNode root;
         try {
-            List<String> sentences = splitSentences(text == null ? "" : text.trim());
-            if (sentences.isEmpty()) sentences = List.of("");
+            root = mapper.readTree(resp.body());
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
 
-            String payload = mapper.writeValueAsString(new PayloadBatch(sentences));
-            String url = "https://api-inference.huggingface.co/models/" + model;
+        return bestPerInput(root, inputs);
+    }
 
-            HttpRequest req = HttpRequest.newBuilder(URI.create(url))
-                    .timeout(Duration.ofSeconds(timeoutSeconds))
-                    .header("Authorization", "Bearer " + token)
-                    .header("Content-Type", "application/json")
-                    .header("User-Agent", "sentiment-service/0.3")
-                    .POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
-                    .build();
+    /**
+     * Melhor label de cada entrada. Uma entrada sem score (lista vazia, sem label) ou uma contagem diferente
+     * de {@code inputs} é resposta inesperada: falha a chamada inteira (vira fallback), em vez de inventar um
+     * NEUTRAL 0.0 que entraria na média e no cache de sentenças.
+     */
+    static List<LabelScore> bestPerInput(JsonNode root, int inputs) {
+        // single: [ {label,score}... ]
+        // batch : [ [ {label,score}... ], [ ... ] , ... ]
+        List<LabelScore> bestPerSentence = new ArrayList<>();
+        if (root.isArray() && root.size() > 0 && root.get(0).isArray()) {
+            for (JsonNode sentenceScores : root) bestPerSentence.add(extractBest(sentenceScores));
+        } else if (root.isArray()) {
+            bestPerSentence.add(extractBest(root));
+        } else {
+            throw new InferenceException("Resposta inesperada – fallback.", true);
+        }
+        if (bestPerSentence.size() != inputs || bestPerSentence.contains(null)) {
+            log.warn("HF: {} scores válidos para {} entradas", bestPerSentence.stream().filter(Objects::nonNull).count(), inputs);
+            throw new InferenceException("Resposta inesperada – fallback.", true);
+        }
+        return bestPerSentence;
+    }
 
-            int attempts = 0;
-            HttpResponse<String> resp;
-            while (true) {
-                attempts++;
-                resp = http.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-                int sc = resp.statusCode();
-                if (sc / 100 == 2) break;
-                if (attempts >= 4 || !(sc == 429 || sc == 503)) break;
-                Thread.sleep(350L * attempts);
-            }
+    /**
+     * Falha de um lote que pode vir de uma entrada (o batcher divide o lote para isolá-la): 4xx que não 429,
+     * resposta inesperada ou JSON inválido. 429, 5xx, timeout, I/O e limitador cheio são do provider inteiro.
+     */
+    static boolean inputSpecific(Throwable e) {
+        Throwable cause = unwrap(e);
+        return cause instanceof InferenceException ie ? ie.inputSpecific : cause instanceof JsonProcessingException;
+    }
 
-            if (resp.statusCode() / 100 != 2) {
-                log.warn("HF HTTP {}: {}", resp.statusCode(), safe(resp.body()));
-                IAClient.Result overall = analyze(text);
-                return new SupportsDetailed.DetailedResult(overall, List.of());
-            }
+    /** Pseudo-status das chamadas sem resposta; hedges perdedores (cancelados) não contam. */
+    private static int errorStatus(Throwable e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof CancellationException) return Meters.CANCELLED;
+        return cause instanceof HttpTimeoutException ? Meters.TIMEOUT : Meters.IO_ERROR;
+    }
 
-            JsonNode root = mapper.readTree(resp.body());
-            List<LabelScore> bestPerSentence = new ArrayList<>();
-            if (root.isArray() && root.size() > 0 && root.get(0).isArray()) {
-                for (JsonNode sentenceScores : root) bestPerSentence.add(extractBest(sentenceScores));
-            } else if (root.isArray()) {
-                bestPerSentence.add(extractBest(root));
-            } else {
-                IAClient.Result overall = analyze(text);
-                return new SupportsDetailed.DetailedResult(overall, List.of());
-            }
+    private static Throwable unwrap(Throwable ex) {
+        return (ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null
+                ? ex.getCause() : ex;
+    }
 
-            double pos=0, neg=0, neu=0;
-            for (LabelScore ls : bestPerSentence) {
-                switch (ls.label) {
-                    case "POSITIVE" -> pos += ls.score;
-                    case "NEGATIVE" -> neg += ls.score;
-                    case "NEUTRAL"  -> neu += ls.score;
-                }
+    /** Médias por label sobre as sentenças; MIXED pela regra comum de {@link Aggregate}. */
+    static Aggregate aggregate(List<LabelScore> bestPerSentence) {
+        double posSum = 0, negSum = 0, neuSum = 0;
+        int strongPos = 0, strongNeg = 0;
+        int n = Math.max(1, bestPerSentence.size());
+        for (LabelScore ls : bestPerSentence) {
+            switch (ls.label) {
+                case "POSITIVE" -> { posSum += ls.score; if (Aggregate.strong(ls.score)) strongPos++; }
+                case "NEGATIVE" -> { negSum += ls.score; if (Aggregate.strong(ls.score)) strongNeg++; }
+                case "NEUTRAL"  -> neuSum += ls.score;
             }
-            int n = Math.max(1, bestPerSentence.size());
-            double posAvg = pos/n, negAvg = neg/n, neuAvg = neu/n;
-
-            String overallLbl;
-            double overallScore;
-            if (posAvg >= POS_STRONG && negAvg >= NEG_STRONG) { overallLbl = "MIXED"; overallScore = Math.max(posAvg, negAvg); }
-            else if (posAvg >= negAvg && posAvg >= neuAvg)     { overallLbl = "POSITIVE"; overallScore = posAvg; }
-            else if (negAvg >= posAvg && negAvg >= neuAvg)     { overallLbl = "NEGATIVE"; overallScore = negAvg; }
-            else                                               { overallLbl = "NEUTRAL";  overallScore = neuAvg; }
-
-            String summary = switch (overallLbl) {
-                case "POSITIVE" -> "Avaliação positiva predominante.";
-                case "NEGATIVE" -> "Avaliação negativa predominante.";
-                case "MIXED"    -> "Sinais positivos e negativos relevantes em diferentes partes do texto.";
-                default         -> "Sem polaridade clara; avaliação neutra.";
-            };
-
-            String reason = inferReason(text);
-            IAClient.Result overall = new IAClient.Result(overallLbl, clamp(overallScore,0,1), summary, reason);
-
-            List<SupportsDetailed.SentenceSentiment> per = new ArrayList<>();
-            for (int i = 0; i < bestPerSentence.size(); i++) {
-                var ls = bestPerSentence.get(i);
-                var s  = i < sentences.size() ? sentences.get(i) : "";
-                per.add(new SupportsDetailed.SentenceSentiment(s, ls.label, ls.score));
-            }
-
-            return new SupportsDetailed.DetailedResult(overall, per);
-
-        } catch (Exception ex) {
-            log.error("Erro HF (detailed)", ex);
-            IAClient.Result overall = analyze(text);
-            return new SupportsDetailed.DetailedResult(overall, List.of());
         }
+        return Aggregate.of(posSum / n, negSum / n, neuSum / n, strongPos, strongNeg);
     }
 
     // ===== helpers =====
 
+    /** {@code null} = nenhum label com score. */
     private static LabelScore extractBest(JsonNode arr) {
-        if (arr == null || !arr.isArray() || arr.size() == 0) return new LabelScore("NEUTRAL", 0.0);
-        String bestLabel = "NEUTRAL";
+        if (arr == null || !arr.isArray()) return null;
+        String bestLabel = null;
         double bestScore = 0.0;
         for (JsonNode n : arr) {
             String lbl = n.path("label").asText("").toUpperCase(Locale.ROOT).trim();
             double sc = n.path("score").asDouble(0.0);
-            if (!lbl.isBlank() && sc > bestScore) {
+            if (!lbl.isBlank() && (bestLabel == null || sc > bestScore)) {
                 bestScore = sc;
                 bestLabel = normalize(lbl);
             }
         }
-        return new LabelScore(bestLabel, bestScore);
-    }
-
-    private static List<String> splitSentences(String text) {
-        List<String> out = new ArrayList<>();
-        if (text == null || text.isBlank()) return out;
-        BreakIterator bi = BreakIterator.getSentenceInstance(new Locale("pt", "BR"));
-        bi.setText(text);
-        int start = bi.first();
-        for (int end = bi.next(); end != BreakIterator.DONE; start = end, end = bi.next()) {
-            String s = text.substring(start, end).trim();
-            if (!s.isEmpty()) out.add(s);
-        }
-        if (out.isEmpty()) out.add(text);
-        return out;
+        return bestLabel == null ? null : new LabelScore(bestLabel, bestScore);
     }
 
     private static String normalize(String label) {
@@ -299,30 +755,17 @@ public class HuggingFaceClient implements IAClient, SupportsDetailed {
     }
 
     // Heurística leve para "reason"
-    private static String inferReason(String text) {
-        if (text == null || text.isBlank()) return "geral";
-        String s = normalizeText(text);
+    private static String inferReason(NormalizedText text) {
+        if (text.isEmpty()) return "geral";
+        String s = text.value();
         String tail = matchTail(s);
         String picked = bestCandidateOrSynonym(!tail.isBlank() ? tail : s);
         return picked.isBlank() ? "geral" : picked;
     }
 
-    private static String normalizeText(String s) {
-        String n = java.text.Normalizer.normalize(s, java.text.Normalizer.Form.NFD).replaceAll("\\p{M}+","");
-        n = n.toLowerCase(Locale.ROOT);
-        n = n.replaceAll("\\s+", " ").trim();
-        n = n.replace("por\u00E9m", "porem");
-        return n;
-    }
-
     private static String matchTail(String s) {
-        String[] regs = {
-                "\\b(mas|porem|porém|no entanto|todavia|contudo)\\b(.{0,100})",
-                "\\b(porque|pois|que)\\b(.{0,100})",
-                "\\b(por causa de|devido a)\\b(.{0,80})"
-        };
-        for (String r : regs) {
-            var m = java.util.regex.Pattern.compile(r, java.util.regex.Pattern.CASE_INSENSITIVE).matcher(s);
+        for (Pattern p : TAIL_PATTERNS) {
+            var m = p.matcher(s);
             if (m.find()) return m.group(2).trim();
         }
         return "";
@@ -357,5 +800,40 @@ public class HuggingFaceClient implements IAClient, SupportsDetailed {
 
     private record PayloadSingle(String inputs) {}
     private record PayloadBatch(List<String> inputs) {}
-    private record LabelScore(String label, double score) {}
+    record LabelScore(String label, double score) {}
+    private record SentenceKey(String model, String normalized) {}
+
+    /** Medidores já registrados; contadores por status (tag {@code status}) criados sob demanda. */
+    private record Meters(MeterRegistry registry, Tags tags, Counter budgetExhausted,
+                          DistributionSummary sentences, DistributionSummary inputs,
+                          Map<Integer, Counter> responses, Map<Integer, Counter> retries) {
+        static final int TIMEOUT = -1, IO_ERROR = -2, CANCELLED = -3;
+
+        Meters(MeterRegistry registry, Tags tags, Counter budgetExhausted,
+               DistributionSummary sentences, DistributionSummary inputs) {
+            this(registry, tags, budgetExhausted, sentences, inputs, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+
+        void count(Map<Integer, Counter> counters, String name, int status) {
+            if (status == CANCELLED) return;
+            counters.computeIfAbsent(status, sc -> Counter.builder(name).tags(tags)
+                    .tag("status", sc == TIMEOUT ? "timeout" : sc == IO_ERROR ? "io_error" : String.valueOf(sc))
+                    .register(registry)).increment();
+        }
+    }
+
+    /** Falha "esperada" do provider (HTTP não-2xx, JSON inesperado); a mensagem vira o summary do fallback. */
+    private static final class InferenceException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        /** Pode ser causada por uma entrada do lote (4xx que não 429, resposta inesperada), e não pelo provider. */
+        final boolean inputSpecific;
+
+        InferenceException(String message) { this(message, false); }
+
+        InferenceException(String message, boolean inputSpecific) {
+            super(message);
+            this.inputSpecific = inputSpecific;
+        }
+    }
 }
@@ -1,11 +1,46 @@
 package com.pedro.sentiment.ai;
 
+import com.pedro.sentiment.text.NormalizedText;
+
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 public interface IAClient {
     Result analyze(String text);
 
+    /** Mesma análise, reaproveitando o texto já normalizado pelo chamador. Por padrão usa o original. */
+    default Result analyze(NormalizedText text) { return analyze(text.original()); }
+
+    /**
+     * Versão assíncrona, para não prender a thread do servlet esperando o provider. Por padrão roda
+     * {@link #analyze(NormalizedText)} no próprio chamador (ok para providers locais, como o mock).
+     */
+    default CompletableFuture<Result> analyzeAsync(NormalizedText text) {
+        return CompletableFuture.completedFuture(analyze(text));
+    }
+
+    /**
+     * Chamada de saúde do circuit breaker: vai ao modelo de verdade, sem caches internos, batch nem coalescing.
+     * Por padrão é o {@link #analyzeAsync}; providers com cache interno sobrescrevem e decorators repassam.
+     */
+    default CompletableFuture<Result> probeAsync(NormalizedText text) { return analyzeAsync(text); }
+
+    /** Nome do provider exibido na resposta; decorators repassam o do provider real. */
+    default String providerName() { return getClass().getSimpleName(); }
+
+    /** Modelo usado pelo provider (vazio quando não se aplica). */
+    default String model() { return ""; }
+
+    /**
+     * Se a análise por sentença está disponível. Decorators implementam {@link SupportsDetailed}
+     * sempre, mas só a expõem quando o provider real a suporta.
+     */
+    default boolean supportsDetailed() { return this instanceof SupportsDetailed; }
+
+    /** Quão seguro o provider está do label de {@code r} (0..1); por padrão o score (probabilidade do label). */
+    default double confidence(Result r) { return r.getScore(); }
+
     /** Pontuação por aspecto (ex.: "geral", "comunicacao"). */
     final class AspectScore {
         private final String aspect;
@@ -34,6 +69,8 @@ public interface IAClient {
         // Novos campos
         private final List<AspectScore> aspects; // pode ser List.of()
         private final String provider;           // ex.: "HuggingFace: model-x" | "MockClient"
+        private final boolean fallback;          // true = não é resposta do provider real (NEUTRAL padrão ou degradação)
+        private final boolean cached;            // true = montado só com o cache interno do provider, sem ir ao modelo
 
         /** Construtor antigo (compatibilidade): mantém tudo funcionando. */
         public Result(String sentiment, double score, String summary, String reason) {
@@ -43,12 +80,42 @@ public interface IAClient {
         /** Construtor novo (com aspects e provider). */
         public Result(String sentiment, double score, String summary, String reason,
                       List<AspectScore> aspects, String provider) {
+            this(sentiment, score, summary, reason, aspects, provider, false, false);
+        }
+
+        private Result(String sentiment, double score, String summary, String reason,
+                       List<AspectScore> aspects, String provider, boolean fallback, boolean cached) {
             this.sentiment = sentiment;
             this.score = score;
             this.summary = summary;
             this.reason  = reason;
             this.aspects = aspects == null ? List.of() : List.copyOf(aspects);
             this.provider = provider == null ? "" : provider;
+            this.fallback = fallback;
+            this.cached = cached;
+        }
+
+        /** NEUTRAL devolvido quando o provider falha; não deve ser cacheado nem contado como resposta real. */
+        public static Result fallback(String summary, String reason) {
+            return new Result("NEUTRAL", 0.0, summary, reason, List.of(), "", true, false);
+        }
+
+        /** Cópia marcada como fallback e com outro provider (ex.: resposta do MockClient com o circuito aberto). */
+        public Result asFallback(String provider) {
+            return new Result(sentiment, score, summary, reason, aspects, provider, true, false);
+        }
+
+        /** Cópia com outro provider (ex.: tier que respondeu na cascata). */
+        public Result withProvider(String provider) {
+            return new Result(sentiment, score, summary, reason, aspects, provider, fallback, cached);
+        }
+
+        /**
+         * Cópia marcada como vinda do cache interno do provider (nenhuma chamada ao modelo): não diz nada sobre
+         * a saúde do provider, então o circuit breaker não a conta.
+         */
+        public Result asCached() {
+            return new Result(sentiment, score, summary, reason, aspects, provider, fallback, true);
         }
 
         // Getters (mantêm a API atual)
@@ -58,16 +125,19 @@ public interface IAClient {
         public String getReason()    { return reason; }
         public List<AspectScore> getAspects() { return aspects; }
         public String getProvider()  { return provider; }
+        public boolean isFallback()  { return fallback; }
+        public boolean isCached()    { return cached; }
 
         // (Opcional) helpers de igualdade/depuração
         @Override public String toString() {
-            return "Result{sentiment='%s', score=%s, summary='%s', reason='%s', aspects=%s, provider='%s'}"
-                    .formatted(sentiment, score, summary, reason, aspects, provider);
+            return "Result{sentiment='%s', score=%s, summary='%s', reason='%s', aspects=%s, provider='%s', fallback=%s}"
+                    .formatted(sentiment, score, summary, reason, aspects, provider, fallback);
         }
         @Override public boolean equals(Object o) {
             if (this == o) return true;
             if (!(o instanceof Result r)) return false;
             return Double.compare(r.score, score) == 0
+                    && fallback == r.fallback
                     && Objects.equals(sentiment, r.sentiment)
                     && Objects.equals(summary, r.summary)
                     && Objects.equals(reason, r.reason)
@@ -75,7 +145,7 @@ public interface IAClient {
                     && Objects.equals(provider, r.provider);
         }
         @Override public int hashCode() {
-            return Objects.hash(sentiment, score, summary, reason, aspects, provider);
+            return Objects.hash(sentiment, score, summary, reason, aspects, provider, fallback);
         }
     }
 }
@@ -0,0 +1,202 @@
+package com.pedro.sentiment.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Junta sentenças de chamadas concorrentes em um único POST {@code {"inputs": [...]}}.
+ *
+ * <p>O dispatcher espera a primeira submissão e coleta outras por até {@code window} ou até somar
+ * {@code maxInputs} entradas; o lote vai para o {@link Transport} e a resposta (uma por entrada, na
+ * mesma ordem) é repartida de volta para o future de cada chamador.</p>
+ *
+ * <p>Se o lote de várias chamadas falha com um erro que pode ser de uma entrada ({@code inputSpecific}: ex.
+ * 4xx que não 429, resposta que não dá para interpretar, contagem errada), as duas metades são reenviadas
+ * separadas, para uma entrada que o provider rejeita não derrubar as outras; a metade que falhar sozinha
+ * continua sendo dividida até isolar a chamada. Se as duas metades falham, a falha é do provider e vale para
+ * todas, sem mais POSTs. Erros do provider como um todo (429, 503, timeout, I/O) falham o lote inteiro na hora:
+ * reenviar em pedaços só somaria carga justo quando o limitador e os retries tentam aliviar.</p>
+ *
+ * <p>O envio é assíncrono, então o dispatcher já volta a coletar o próximo lote enquanto este está em voo. O
+ * tempo que o lote passa esperando entre retries é repassado ao {@code waited} de cada chamador.</p>
+ *
+ * @param <R> resultado por entrada (ex.: label + score de uma sentença)
+ */
+final class InferenceBatcher<R> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InferenceBatcher.class);
+
+    /**
+     * Envia um lote sem bloquear; deve devolver exatamente um resultado por entrada, na mesma ordem.
+     * {@code waited} recebe cada espera de backoff (ns).
+     */
+    @FunctionalInterface
+    interface Transport<R> {
+        CompletableFuture<List<R>> post(List<String> inputs, LongConsumer waited);
+    }
+
+    private record Pending<R>(List<String> inputs, LongConsumer waited, CompletableFuture<List<R>> result) {}
+
+    /** Contagem de resultados diferente da de entradas: pode ser uma entrada que o provider não pontuou. */
+    private static final class CountMismatchException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        CountMismatchException(String message) { super(message); }
+    }
+
+    private final Transport<R> transport;
+    private final Predicate<Throwable> inputSpecific;
+    private final long windowNanos;
+    private final int maxInputs;
+    private final LinkedBlockingQueue<Pending<R>> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+    private final LongAdder splits = new LongAdder();
+
+    /** @param inputSpecific falhas do transport que podem vir de uma entrada (só elas dividem o lote) */
+    InferenceBatcher(String name, Transport<R> transport, Predicate<Throwable> inputSpecific, Duration window,
+                     int maxInputs) {
+        this.transport = transport;
+        this.inputSpecific = inputSpecific;
+        this.windowNanos = window.toNanos();
+        this.maxInputs = Math.max(1, maxInputs);
+        this.dispatcher = Thread.ofPlatform().daemon().name(name + "-dispatch").start(this::dispatchLoop);
+    }
+
+    /**
+     * Enfileira as entradas de um chamador; o future completa quando o lote dele voltar. Se o {@link #close}
+     * rodou entre a checagem e o {@code add}, a fila já foi esvaziada: o item sai de novo e falha aqui.
+     */
+    CompletableFuture<List<R>> submit(List<String> inputs, LongConsumer waited) {
+        var p = new Pending<R>(List.copyOf(inputs), waited, new CompletableFuture<>());
+        if (!running) {
+            p.result().completeExceptionally(closed());
+            return p.result();
+        }
+        queue.add(p);
+        if (!running && queue.remove(p)) p.result().completeExceptionally(closed());
+        return p.result();
+    }
+
+    private void dispatchLoop() {
+        Pending<R> carry = null;
+        List<Pending<R>> batch = List.of();
+        while (running) {
+            try {
+                Pending<R> first = carry != null ? carry : queue.take();
+                carry = null;
+                if (first.result().isDone()) continue; // chamador cancelou enquanto esperava na fila
+
+                batch = new ArrayList<>();
+                batch.add(first);
+                int n = first.inputs().size();
+                long deadline = System.nanoTime() + windowNanos;
+
+                while (n < maxInputs) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) break;
+                    Pending<R> p = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (p == null) break;
+                    if (p.result().isDone()) continue;
+                    if (n + p.inputs().size() > maxInputs) { carry = p; break; } // vai no próximo lote
+                    batch.add(p);
+                    n += p.inputs().size();
+                }
+
+                send(batch);
+                batch = List.of();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // interrompido no meio da coleta: o lote ainda não saiu
+        for (var p : batch) p.result().completeExceptionally(closed());
+        if (carry != null) carry.result().completeExceptionally(closed());
+    }
+
+    /** Lotes que falharam e foram divididos para isolar a chamada com problema. */
+    long splitCount() { return splits.sum(); }
+
+    private void send(List<Pending<R>> batch) {
+        attempt(batch).thenAccept(err -> {
+            if (err != null) isolate(batch, err);
+        });
+    }
+
+    /**
+     * O lote falhou: uma chamada só, ou um erro do provider como um todo, falha todas; um erro que pode ser de
+     * uma entrada reenvia em duas metades.
+     */
+    private void isolate(List<Pending<R>> failed, Throwable err) {
+        if (failed.size() == 1 || !(err instanceof CountMismatchException || inputSpecific.test(err))) {
+            for (var p : failed) p.result().completeExceptionally(err);
+            return;
+        }
+        splits.increment();
+        List<Pending<R>> left = failed.subList(0, failed.size() / 2);
+        List<Pending<R>> right = failed.subList(failed.size() / 2, failed.size());
+        attempt(left).thenAcceptBoth(attempt(right), (leftErr, rightErr) -> {
+            if (leftErr != null && rightErr != null) {
+                // as duas falharam: é o provider, não uma entrada; dividir mais só somaria carga
+                for (var p : left) p.result().completeExceptionally(leftErr);
+                for (var p : right) p.result().completeExceptionally(rightErr);
+                return;
+            }
+            if (leftErr != null) isolate(left, leftErr);
+            if (rightErr != null) isolate(right, rightErr);
+        });
+    }
+
+    /** Um POST com as entradas de {@code batch}; em sucesso reparte os resultados. Devolve a falha, ou {@code null}. */
+    private CompletableFuture<Throwable> attempt(List<Pending<R>> batch) {
+        List<String> inputs = new ArrayList<>();
+        for (var p : batch) inputs.addAll(p.inputs());
+        LongConsumer waited = nanos -> {
+            for (var p : batch) if (p.waited() != null) p.waited().accept(nanos);
+        };
+
+        CompletableFuture<List<R>> sent;
+        try {
+            sent = transport.post(inputs, waited);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.handle((out, err) -> {
+            if (err == null && out.size() != inputs.size()) {
+                err = new CountMismatchException("lote com " + inputs.size() + " entradas voltou com " + out.size());
+            }
+            if (err != null) return err;
+            int i = 0;
+            for (var p : batch) {
+                int k = p.inputs().size();
+                p.result().complete(List.copyOf(out.subList(i, i + k)));
+                i += k;
+            }
+            if (batch.size() > 1) log.debug("lote HF: {} chamadas, {} entradas", batch.size(), inputs.size());
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        Pending<R> p;
+        while ((p = queue.poll()) != null) p.result().completeExceptionally(closed());
+    }
+
+    private static IllegalStateException closed() {
+        return new IllegalStateException("batcher encerrado");
+    }
+}
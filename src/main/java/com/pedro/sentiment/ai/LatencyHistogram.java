@@ -0,0 +1,88 @@
+package com.pedro.sentiment.ai;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Histograma de latência com janela deslizante: {@code SLOTS} fatias de {@code window/SLOTS}, cada uma com
+ * buckets logarítmicos (4 por potência de 2, ~19% de largura, de 1 ms a ~2 min). Fatias mais velhas que a
+ * janela são zeradas na rotação, então os percentis acompanham mudanças de regime do provider.
+ *
+ * <p>Gravações acontecem na taxa de chamadas HTTP, então um lock simples basta.</p>
+ */
+final class LatencyHistogram {
+
+    private static final int SLOTS = 6;
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 17 * SUB_BUCKETS + 1; // 2^17 ms ≈ 131 s; último = overflow
+
+    private final long origin = System.nanoTime();
+    private final long slotNanos;
+    private final long[][] counts = new long[SLOTS][BUCKETS];
+    private final long[] slotEpoch = new long[SLOTS];
+    private final long[] slotTotal = new long[SLOTS];
+
+    LatencyHistogram(Duration window) {
+        this.slotNanos = Math.max(1, window.toNanos() / SLOTS);
+        Arrays.fill(slotEpoch, -1);
+    }
+
+    synchronized void record(long nanos) {
+        int s = slot(epoch());
+        counts[s][bucket(nanos)]++;
+        slotTotal[s]++;
+    }
+
+    /** Amostras dentro da janela. */
+    synchronized long count() {
+        long now = epoch(), n = 0;
+        for (int s = 0; s < SLOTS; s++) if (live(s, now)) n += slotTotal[s];
+        return n;
+    }
+
+    /** Limite superior do bucket que contém o quantil {@code q} (0..1), em ms; 0 sem amostras. */
+    synchronized long percentileMillis(double q) {
+        long now = epoch(), total = 0;
+        for (int s = 0; s < SLOTS; s++) if (live(s, now)) total += slotTotal[s];
+        if (total == 0) return 0;
+
+        long rank = (long) Math.ceil(Math.min(1, Math.max(0, q)) * total), seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            for (int s = 0; s < SLOTS; s++) if (live(s, now)) seen += counts[s][b];
+            if (seen >= rank) return upperMillis(b);
+        }
+        return upperMillis(BUCKETS - 1);
+    }
+
+    // ---------- helpers ----------
+
+    private long epoch() {
+        return (System.nanoTime() - origin) / slotNanos;
+    }
+
+    private boolean live(int s, long now) {
+        return slotEpoch[s] >= 0 && now - slotEpoch[s] < SLOTS;
+    }
+
+    /** Fatia da época atual, zerada se ainda guardava uma época antiga. */
+    private int slot(long epoch) {
+        int s = (int) (epoch % SLOTS);
+        if (slotEpoch[s] != epoch) {
+            Arrays.fill(counts[s], 0);
+            slotTotal[s] = 0;
+            slotEpoch[s] = epoch;
+        }
+        return s;
+    }
+
+    private static int bucket(long nanos) {
+        double ms = nanos / 1_000_000.0;
+        if (ms <= 1) return 0;
+        int b = (int) Math.ceil(Math.log(ms) / Math.log(2) * SUB_BUCKETS);
+        return Math.min(b, BUCKETS - 1);
+    }
+
+    private static long upperMillis(int b) {
+        return (long) Math.ceil(Math.pow(2, (double) b / SUB_BUCKETS));
+    }
+}
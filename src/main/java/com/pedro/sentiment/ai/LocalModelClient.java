@@ -0,0 +1,167 @@
+package com.pedro.sentiment.ai;
+
+import com.pedro.sentiment.service.ReasonExtractor;
+import com.pedro.sentiment.text.NormalizedText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provider local: {@link HashedNgramModel} carregado de um arquivo (gerado pelo {@link LocalModelTrainer}),
+ * sem rede. Cada sentença é pontuada separadamente; o overall é a média das probabilidades, com MIXED
+ * quando há sentença claramente positiva e outra claramente negativa (mesma regra do HF, em {@link Aggregate}).
+ *
+ * <p>Nenhum modelo acompanha o repositório: sem o arquivo o serviço sobe igual e responde com fallback NEUTRAL.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.ai.provider", havingValue = "local")
+public class LocalModelClient implements IAClient, SupportsDetailed {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalModelClient.class);
+
+    private final HashedNgramModel model; // null = arquivo ausente/inválido
+    private final int neg, neu, pos;
+
+    @Autowired
+    public LocalModelClient(@Value("${local-model.path:models/sentiment-ptbr.bin}") String path) {
+        this(loadOrNull(path));
+    }
+
+    public LocalModelClient(HashedNgramModel model) {
+        this.model = model;
+        List<String> labels = model == null ? List.of() : model.labels();
+        this.neg = labels.indexOf("NEGATIVE");
+        this.neu = labels.indexOf("NEUTRAL");
+        this.pos = labels.indexOf("POSITIVE");
+        if (model != null && (neg < 0 || neu < 0 || pos < 0)) {
+            throw new IllegalArgumentException("modelo sem as classes NEGATIVE/NEUTRAL/POSITIVE: " + labels);
+        }
+    }
+
+    @Override public String providerName() { return "LocalModel: " + model(); }
+    @Override public String model()        { return model == null ? "indisponível" : model.name(); }
+
+    // ---------- API simples ----------
+
+    @Override
+    public Result analyze(String text) {
+        return analyze(NormalizedText.of(text));
+    }
+
+    @Override
+    public Result analyze(NormalizedText text) {
+        if (model == null) return Result.fallback("Modelo local ausente – fallback.", "geral");
+        return overall(text, score(text, null));
+    }
+
+    // ---------- API detalhada ----------
+
+    @Override
+    public DetailedResult analyzeDetailed(String text) {
+        return analyzeDetailed(NormalizedText.of(text));
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(NormalizedText text) {
+        if (model == null) {
+            return new DetailedResult(Result.fallback("Modelo local ausente – fallback.", "geral"), List.of());
+        }
+        List<SentenceSentiment> per = new ArrayList<>();
+        return new DetailedResult(overall(text, score(text, per)), per);
+    }
+
+    // ---------- pontuação ----------
+
+    /** Soma das probabilidades por sentença + nº de sentenças fortes de cada polaridade. */
+    private static final class Tally {
+        double pos, neg, neu;
+        int sentences, strongPos, strongNeg;
+    }
+
+    /**
+     * Percorre as sentenças do texto normalizado (fim em {@code . ! ?} seguido de espaço ou do fim) e pontua
+     * cada uma direto sobre o {@code value()}; {@code per != null} também guarda o resultado de cada sentença.
+     */
+    private Tally score(NormalizedText text, List<SentenceSentiment> per) {
+        String v = text.value();
+        double[] p = new double[model.classes()];
+        Tally t = new Tally();
+        int start = 0, n = v.length();
+        while (start < n) {
+            int end = start;
+            while (end < n && !(isTerminator(v.charAt(end)) && (end + 1 == n || v.charAt(end + 1) == ' '))) end++;
+            end = Math.min(n, end + 1);
+            if (hasContent(v, start, end)) {
+                model.predict(v, start, end, p);
+                t.sentences++;
+                t.pos += p[pos];
+                t.neg += p[neg];
+                t.neu += p[neu];
+                if (Aggregate.strong(p[pos])) t.strongPos++;
+                if (Aggregate.strong(p[neg])) t.strongNeg++;
+                if (per != null) {
+                    int best = p[pos] >= p[neg] && p[pos] >= p[neu] ? pos : p[neg] >= p[neu] ? neg : neu;
+                    per.add(new SentenceSentiment(text.originalSlice(start, end).trim(), model.label(best), p[best]));
+                }
+            }
+            start = end;
+        }
+        return t;
+    }
+
+    private Result overall(NormalizedText text, Tally t) {
+        int n = Math.max(1, t.sentences);
+        double posAvg = t.pos / n, negAvg = t.neg / n, neuAvg = t.sentences == 0 ? 1 : t.neu / n;
+
+        Aggregate agg = Aggregate.of(posAvg, negAvg, neuAvg, t.strongPos, t.strongNeg);
+        return new Result(agg.label(), round2(agg.score()), agg.summary(), ReasonExtractor.extract(text),
+                List.of(new AspectScore("geral", posAvg, negAvg)), providerName());
+    }
+
+    // ---------- helpers ----------
+
+    private static HashedNgramModel loadOrNull(String path) {
+        try (InputStream in = open(path)) {
+            if (in == null) {
+                log.warn("LocalModelClient: modelo não encontrado em '{}' – respondendo com fallback; gere o arquivo com "
+                        + "o LocalModelTrainer (nenhum modelo acompanha o repositório)", path);
+                return null;
+            }
+            HashedNgramModel m = HashedNgramModel.load(in);
+            log.info("LocalModelClient: modelo={}, classes={}", m.name(), m.labels());
+            return m;
+        } catch (IOException e) {
+            log.error("LocalModelClient: falha ao carregar '{}' – respondendo com fallback", path, e);
+            return null;
+        }
+    }
+
+    /** {@code classpath:...} ou caminho no disco; {@code null} se não existir. */
+    private static InputStream open(String path) throws IOException {
+        if (path.startsWith("classpath:")) {
+            String res = path.substring("classpath:".length());
+            return LocalModelClient.class.getResourceAsStream(res.startsWith("/") ? res : "/" + res);
+        }
+        Path p = Path.of(path);
+        return Files.isRegularFile(p) ? Files.newInputStream(p) : null;
+    }
+
+    private static boolean isTerminator(char c) { return c == '.' || c == '!' || c == '?'; }
+
+    private static boolean hasContent(String s, int start, int end) {
+        for (int i = start; i < end; i++) if (Character.isLetterOrDigit(s.charAt(i))) return true;
+        return false;
+    }
+
+    private static double round2(double v) { return Math.round(v * 100.0) / 100.0; }
+}
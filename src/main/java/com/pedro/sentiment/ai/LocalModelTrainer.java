@@ -0,0 +1,182 @@
+package com.pedro.sentiment.ai;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.pedro.sentiment.text.NormalizedText;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Treino offline do {@link HashedNgramModel} a partir de um CSV pt-BR rotulado (cabeçalho com as colunas
+ * {@code text} e {@code label}; label = positive/negative/neutral, pos/neg/neu, positivo/negativo/neutro ou
+ * 1/-1/0). SGD com softmax, algumas épocas embaralhadas; 10% dos exemplos ficam fora para medir acurácia.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.pedro.sentiment.ai.LocalModelTrainer \
+ *     -Dexec.args="feedbacks-rotulados.csv models/sentiment-ptbr.bin"
+ * </pre>
+ */
+public final class LocalModelTrainer {
+
+    static final String[] LABELS = {"NEGATIVE", "NEUTRAL", "POSITIVE"};
+
+    /** Texto já com o índice da classe em {@link #LABELS}. */
+    public record Example(String text, int label) {}
+
+    /** @param bits buckets = 2^bits; {@code learningRate} decai a cada época */
+    public record Options(String name, int bits, int epochs, double learningRate, long seed) {
+        public static Options defaults(String name) { return new Options(name, 18, 10, 0.2, 42); }
+    }
+
+    private LocalModelTrainer() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("uso: LocalModelTrainer <entrada.csv> <saida.bin> [bits=18] [epocas=10]");
+            System.exit(2);
+        }
+        Path csv = Path.of(args[0]), out = Path.of(args[1]);
+        String name = out.getFileName().toString().replaceFirst("\\.bin$", "");
+        Options defaults = Options.defaults(name);
+        var opts = new Options(name,
+                args.length > 2 ? Integer.parseInt(args[2]) : defaults.bits(),
+                args.length > 3 ? Integer.parseInt(args[3]) : defaults.epochs(),
+                defaults.learningRate(), defaults.seed());
+
+        List<Example> examples;
+        try (InputStream in = Files.newInputStream(csv)) {
+            examples = readCsv(in);
+        }
+        System.out.printf("%d exemplos lidos de %s%n", examples.size(), csv);
+
+        List<Example> shuffled = new ArrayList<>(examples);
+        Collections.shuffle(shuffled, new Random(opts.seed()));
+        int holdout = shuffled.size() >= 20 ? shuffled.size() / 10 : 0;
+        List<Example> test = shuffled.subList(0, holdout), train = shuffled.subList(holdout, shuffled.size());
+
+        HashedNgramModel model = train(train, opts);
+        System.out.printf("acurácia treino=%.3f  validação=%s%n", accuracy(model, train),
+                test.isEmpty() ? "-" : String.format(Locale.ROOT, "%.3f", accuracy(model, test)));
+
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        try (OutputStream os = Files.newOutputStream(out)) {
+            model.save(os);
+        }
+        System.out.printf("modelo salvo em %s (%d KB)%n", out, Files.size(out) / 1024);
+    }
+
+    /** Lê {@code text,label}; linhas sem texto ou com label desconhecido são ignoradas. */
+    public static List<Example> readCsv(InputStream in) throws IOException {
+        List<Example> out = new ArrayList<>();
+        var csv = new CsvMapper();
+        try (MappingIterator<Map<String, String>> rows = csv.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(in)) {
+            while (rows.hasNextValue()) {
+                Map<String, String> row = rows.nextValue();
+                String text = row.get("text");
+                int label = labelIndex(row.get("label"));
+                if (text != null && !text.isBlank() && label >= 0) out.add(new Example(text, label));
+            }
+        }
+        return out;
+    }
+
+    public static HashedNgramModel train(List<Example> examples, Options opts) {
+        int k = LABELS.length, d = 1 << opts.bits();
+        float[] w = new float[d * k];
+        float[] bias = new float[k];
+        double[] p = new double[k];
+
+        // features pré-computadas uma vez (bucket e sinal empacotados: sinal no bit alto)
+        List<int[]> feats = new ArrayList<>(examples.size());
+        for (Example ex : examples) {
+            String v = NormalizedText.of(ex.text()).value();
+            var buf = new IntBuffer();
+            HashedNgramModel.features(v, 0, v.length(), opts.bits(), (b, s) -> buf.add(s < 0 ? b | 0x80000000 : b));
+            feats.add(buf.toArray());
+        }
+
+        Integer[] order = new Integer[examples.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        var rnd = new Random(opts.seed());
+
+        for (int epoch = 0; epoch < opts.epochs(); epoch++) {
+            Collections.shuffle(Arrays.asList(order), rnd);
+            double lr = opts.learningRate() / (1 + epoch * 0.5);
+            for (int i : order) {
+                int[] f = feats.get(i);
+                // normaliza pelo nº de features: textos longos não dão passos maiores
+                double step = lr / Math.sqrt(Math.max(1, f.length));
+
+                for (int c = 0; c < k; c++) p[c] = bias[c];
+                for (int x : f) {
+                    int base = (x & 0x7FFFFFFF) * k;
+                    float sign = x < 0 ? -1f : 1f;
+                    for (int c = 0; c < k; c++) p[c] += sign * w[base + c];
+                }
+                HashedNgramModel.softmax(p, k);
+
+                int y = examples.get(i).label();
+                for (int c = 0; c < k; c++) {
+                    double g = p[c] - (c == y ? 1 : 0);
+                    float delta = (float) (step * g);
+                    bias[c] -= delta;
+                    for (int x : f) {
+                        w[(x & 0x7FFFFFFF) * k + c] -= (x < 0 ? -delta : delta);
+                    }
+                }
+            }
+        }
+        return HashedNgramModel.quantize(opts.name(), opts.bits(), LABELS.clone(), bias, w);
+    }
+
+    static double accuracy(HashedNgramModel model, List<Example> examples) {
+        if (examples.isEmpty()) return 0;
+        double[] p = new double[model.classes()];
+        int ok = 0;
+        for (Example ex : examples) {
+            String v = NormalizedText.of(ex.text()).value();
+            model.predict(v, 0, v.length(), p);
+            int best = 0;
+            for (int c = 1; c < p.length; c++) if (p[c] > p[best]) best = c;
+            if (best == ex.label()) ok++;
+        }
+        return (double) ok / examples.size();
+    }
+
+    static int labelIndex(String label) {
+        if (label == null) return -1;
+        return switch (label.trim().toLowerCase(Locale.ROOT)) {
+            case "negative", "negativo", "neg", "-1" -> 0;
+            case "neutral", "neutro", "neu", "0"     -> 1;
+            case "positive", "positivo", "pos", "1"  -> 2;
+            default -> -1;
+        };
+    }
+
+    /** int[] que cresce, para não boxear as features. */
+    private static final class IntBuffer {
+        private int[] a = new int[64];
+        private int n;
+
+        void add(int v) {
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        int[] toArray() { return Arrays.copyOf(a, n); }
+    }
+}
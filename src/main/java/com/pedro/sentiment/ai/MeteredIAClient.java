@@ -0,0 +1,136 @@
+package com.pedro.sentiment.ai;
+
+import com.pedro.sentiment.text.NormalizedText;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede cada chamada ao delegate num timer {@code name} com as tags provider, model, op (analyze/detailed) e
+ * outcome (ok/fallback/error). Os timers são criados no construtor: no caminho quente sobra um
+ * {@code nanoTime} e um {@code record}.
+ *
+ * <p>Em volta do provider real ({@code sentiment.provider.calls}) mede a latência do modelo; por fora de
+ * todos os decorators ({@code sentiment.analysis}) mede o que o chamador viu, inclusive hits de cache e
+ * fallbacks do bulkhead/circuit breaker.</p>
+ */
+public class MeteredIAClient implements IAClient, SupportsDetailed {
+
+    private static final String[] OPS = {"analyze", "detailed"};
+    private static final String[] OUTCOMES = {"ok", "fallback", "error"};
+    private static final int ANALYZE = 0, DETAILED = 1;
+    private static final int OK = 0, FALLBACK = 1, ERROR = 2;
+
+    private final IAClient delegate;
+    private final Timer[] timers = new Timer[OPS.length * OUTCOMES.length]; // [op * 3 + outcome]
+
+    public MeteredIAClient(IAClient delegate, MeterRegistry registry, String name) {
+        this.delegate = delegate;
+        Tags tags = tags(delegate);
+        for (int op = 0; op < OPS.length; op++) {
+            for (int out = 0; out < OUTCOMES.length; out++) {
+                timers[op * OUTCOMES.length + out] = Timer.builder(name)
+                        .description("Chamadas de análise de sentimento")
+                        .tags(tags).tag("op", OPS[op]).tag("outcome", OUTCOMES[out])
+                        .register(registry);
+            }
+        }
+    }
+
+    /**
+     * Tags comuns das métricas de um provider: {@code provider} = nome sem o modelo ("HuggingFace",
+     * "MockClient"...) e {@code model} ("none" quando não se aplica).
+     */
+    public static Tags tags(IAClient client) {
+        String name = client.providerName();
+        int colon = name.indexOf(':');
+        String model = client.model();
+        return Tags.of("provider", colon < 0 ? name : name.substring(0, colon).trim(),
+                "model", model == null || model.isBlank() ? "none" : model);
+    }
+
+    @Override
+    public Result analyze(String text) {
+        return analyze(NormalizedText.of(text));
+    }
+
+    @Override
+    public Result analyze(NormalizedText text) {
+        long t0 = System.nanoTime();
+        Result r;
+        try {
+            r = delegate.analyze(text);
+        } catch (RuntimeException e) {
+            record(ANALYZE, ERROR, t0);
+            throw e;
+        }
+        record(ANALYZE, r.isFallback() ? FALLBACK : OK, t0);
+        return r;
+    }
+
+    @Override
+    public CompletableFuture<Result> analyzeAsync(NormalizedText text) {
+        long t0 = System.nanoTime();
+        CompletableFuture<Result> f = delegate.analyzeAsync(text);
+        return Futures.cancelling(f.whenComplete((r, e) ->
+                record(ANALYZE, e != null ? ERROR : r.isFallback() ? FALLBACK : OK, t0)), f);
+    }
+
+    @Override
+    public CompletableFuture<Result> probeAsync(NormalizedText text) {
+        long t0 = System.nanoTime();
+        CompletableFuture<Result> f = delegate.probeAsync(text);
+        return Futures.cancelling(f.whenComplete((r, e) ->
+                record(ANALYZE, e != null ? ERROR : r.isFallback() ? FALLBACK : OK, t0)), f);
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(String text) {
+        return analyzeDetailed(NormalizedText.of(text));
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(NormalizedText text) {
+        SupportsDetailed sd = detailedDelegate();
+        long t0 = System.nanoTime();
+        DetailedResult d;
+        try {
+            d = sd.analyzeDetailed(text);
+        } catch (RuntimeException e) {
+            record(DETAILED, ERROR, t0);
+            throw e;
+        }
+        record(DETAILED, d.overall().isFallback() ? FALLBACK : OK, t0);
+        return d;
+    }
+
+    @Override
+    public CompletableFuture<DetailedResult> analyzeDetailedAsync(NormalizedText text) {
+        SupportsDetailed sd = detailedDelegate();
+        long t0 = System.nanoTime();
+        CompletableFuture<DetailedResult> f = sd.analyzeDetailedAsync(text);
+        return Futures.cancelling(f.whenComplete((d, e) ->
+                record(DETAILED, e != null ? ERROR : d.overall().isFallback() ? FALLBACK : OK, t0)), f);
+    }
+
+    @Override public String providerName()      { return delegate.providerName(); }
+    @Override public String model()             { return delegate.model(); }
+    @Override public boolean supportsDetailed() { return delegate.supportsDetailed(); }
+    @Override public double confidence(Result r) { return delegate.confidence(r); }
+
+    // ---------- helpers ----------
+
+    private void record(int op, int outcome, long t0) {
+        timers[op * OUTCOMES.length + outcome].record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+    }
+
+    private SupportsDetailed detailedDelegate() {
+        if (!(delegate instanceof SupportsDetailed sd)) {
+            throw new UnsupportedOperationException(delegate.providerName() + " não suporta análise detalhada");
+        }
+        return sd;
+    }
+}
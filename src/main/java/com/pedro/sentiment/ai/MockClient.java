@@ -1,13 +1,11 @@
 package com.pedro.sentiment.ai;
 
+import com.pedro.sentiment.text.NormalizedText;
+import com.pedro.sentiment.text.PhraseAutomaton;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.text.Normalizer;
-import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Component
 @ConditionalOnProperty(name = "app.ai.provider", havingValue = "mock", matchIfMissing = true)
@@ -26,35 +24,37 @@ public class MockClient implements IAClient {
     );
 
     private static final Set<String> NEGATORS = Set.of("nao","sem","nunca","jamais");
-    private static final Pattern P_CONTRASTE =
-            Pattern.compile("\\b(mas|porem|porém|contudo|entretanto|no entanto|todavia)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Set<String> CONTRASTE = Set.of("mas","porem","contudo","entretanto","no entanto","todavia");
+
+    private static final int TAG_POS = 0, TAG_NEG = 1, TAG_NEGATOR = 2, TAG_CONTRASTE = 3;
+    private static final int NEGATION_WINDOW = 3;
+
+    // Léxico inteiro compilado uma vez: frases, tokens, negadores e conectivos numa só varredura
+    private static final PhraseAutomaton LEXICON = PhraseAutomaton.builder()
+            .addAll(POS, TAG_POS)
+            .addAll(NEG, TAG_NEG)
+            .addAll(NEGATORS, TAG_NEGATOR)
+            .addAll(CONTRASTE, TAG_CONTRASTE)
+            .build();
 
     @Override
     public Result analyze(String text) {
-        String original = text == null ? "" : text.trim();
-        String norm = normalize(original);
-
-        // 1) contagem por tokens (com negação) + contagem de frases-chave
-        int phrasePos = countPhrases(norm, POS);
-        int phraseNeg = countPhrases(norm, NEG);
-
-        String[] split = norm.isBlank() ? new String[0] : norm.split("[^\\p{L}\\p{Nd}]+");
-        List<String> tokens = List.of(split);
-        int tokenPos = 0, tokenNeg = 0;
-        for (int i = 0; i < tokens.size(); i++) {
-            String tk = tokens.get(i);
-            if (POS.contains(tk)) {
-                if (isNegated(tokens, i, 3)) tokenNeg++; else tokenPos++;
-            } else if (NEG.contains(tk)) {
-                if (isNegated(tokens, i, 3)) tokenPos++; else tokenNeg++;
-            }
-        }
+        return analyze(NormalizedText.of(text));
+    }
+
+    @Override
+    public Result analyze(NormalizedText text) {
+        String norm = text.value();
+
+        // 1) contagem por tokens (com negação) + contagem de frases-chave, numa única passada
+        Tally t = new Tally();
+        LEXICON.scan(norm, t);
 
         // 2) pesos + ajuste por contraste
-        double posRaw = phrasePos * 2.0 + tokenPos * 1.0;
-        double negRaw = phraseNeg * 2.0 + tokenNeg * 1.0;
+        double posRaw = t.phrasePos * 2.0 + t.tokenPos * 1.0;
+        double negRaw = t.phraseNeg * 2.0 + t.tokenNeg * 1.0;
 
-        boolean hasContrast = P_CONTRASTE.matcher(norm).find();
+        boolean hasContrast = t.contrast;
         if (hasContrast) {
             double shrink = 0.85; // puxa para MIXED
             posRaw *= shrink; negRaw *= shrink;
@@ -94,35 +94,40 @@ public class MockClient implements IAClient {
         return new Result(label, score01, summary, reason);
     }
 
-    /* -------------------- helpers -------------------- */
-
-    private static String normalize(String s) {
-        String n = Normalizer.normalize(s, Normalizer.Form.NFD)
-                .replaceAll("\\p{M}+","")
-                .toLowerCase();
-        n = n.replace("ótimo","otimo").replace("ótima","otima")
-                .replace("péssimo","pessimo").replace("horrível","horrivel")
-                .replace("não","nao");
-        n = n.replaceAll("\\s+"," ").trim();
-        return n;
+    /** Score vai de 0 (negativo) a 1 (positivo): a confiança é a distância do 0.5. */
+    @Override
+    public double confidence(Result r) {
+        return Math.abs(2 * r.getScore() - 1);
     }
 
-    private static int countPhrases(String norm, Set<String> phrases) {
-        int hits = 0;
-        for (String p : phrases) {
-            Pattern pat = Pattern.compile("\\b" + Pattern.quote(p) + "\\b");
-            Matcher m = pat.matcher(norm);
-            while (m.find()) hits++;
+    /* -------------------- helpers -------------------- */
+
+    /** Acumula as ocorrências do léxico; negação olha os {@link #NEGATION_WINDOW} tokens anteriores. */
+    private static final class Tally implements PhraseAutomaton.MatchHandler {
+        int phrasePos, phraseNeg, tokenPos, tokenNeg;
+        int lastNegator = Integer.MIN_VALUE / 2;
+        boolean contrast;
+
+        @Override
+        public void onMatch(int tag, int start, int end, int token) {
+            switch (tag) {
+                case TAG_POS -> {
+                    phrasePos++;
+                    if (token >= 0) { if (negated(token)) tokenNeg++; else tokenPos++; }
+                }
+                case TAG_NEG -> {
+                    phraseNeg++;
+                    if (token >= 0) { if (negated(token)) tokenPos++; else tokenNeg++; }
+                }
+                case TAG_NEGATOR -> lastNegator = token;
+                case TAG_CONTRASTE -> contrast = true;
+                default -> { }
+            }
         }
-        return hits;
-    }
 
-    private static boolean isNegated(List<String> tokens, int idx, int window) {
-        int start = Math.max(0, idx - window);
-        for (int i = start; i < idx; i++) {
-            if (NEGATORS.contains(tokens.get(i))) return true;
+        private boolean negated(int token) {
+            return token - lastNegator <= NEGATION_WINDOW && lastNegator < token;
         }
-        return false;
     }
 
     private static double clamp(double v, double min, double max) { return Math.max(min, Math.min(max, v)); }
@@ -3,6 +3,8 @@ package com.pedro.sentiment.ai;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pedro.sentiment.jfr.ProviderCallEvent;
+import com.pedro.sentiment.text.NormalizedText;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -15,6 +17,8 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Component
 @ConditionalOnProperty(name = "app.ai.provider", havingValue = "openai")
@@ -27,23 +31,34 @@ public class OpenAIClient implements IAClient {
     private final String model;
     private final double temperature;
 
-    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(15)).build();
+    private final HttpClient http;
+    private final Executor calls; // analyzeAsync: a chamada (bloqueante) roda aqui, fora da thread do request
     private final ObjectMapper mapper = new ObjectMapper();
 
     public OpenAIClient(
             @Value("${openai.api-key:}") String apiKey,
             @Value("${openai.model:gpt-4o-mini}") String model,
-            @Value("${openai.temperature:0.2}") double temperature
+            @Value("${openai.temperature:0.2}") double temperature,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
     ) {
         this.apiKey = apiKey == null ? "" : apiKey.trim();
         this.model = model == null ? "gpt-4o-mini" : model.trim();
         this.temperature = temperature;
+        this.http = ProviderHttp.newClient(virtualThreads);
+        this.calls = virtualThreads ? ProviderHttp.virtualExecutor("openai-call-") : Runnable::run;
+    }
+
+    @Override public String model() { return model; }
+
+    @Override
+    public CompletableFuture<Result> analyzeAsync(NormalizedText text) {
+        return CompletableFuture.supplyAsync(() -> analyze(text.original()), calls);
     }
 
     @Override
     public Result analyze(String text) {
         if (apiKey.isBlank()) {
-            return new Result("NEUTRAL", 0.0, "API key ausente – usando fallback.", "openai.api-key vazio");
+            return Result.fallback("API key ausente – usando fallback.", "openai.api-key vazio");
         }
 
         final String system = """
@@ -69,17 +84,17 @@ public class OpenAIClient implements IAClient {
                     .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8))
                     .build();
 
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            HttpResponse<String> resp = send(req);
             if (resp.statusCode() / 100 != 2) {
                 log.warn("OpenAI HTTP {}: {}", resp.statusCode(), safe(resp.body()));
-                return new Result("NEUTRAL", 0.0, "Falha no provedor – fallback.", "HTTP " + resp.statusCode());
+                return Result.fallback("Falha no provedor – fallback.", "HTTP " + resp.statusCode());
             }
 
             String content = mapper.readTree(resp.body())
                     .path("choices").path(0).path("message").path("content").asText("");
 
             if (content.isBlank()) {
-                return new Result("NEUTRAL", 0.0, "Resposta vazia – fallback.", "content vazio");
+                return Result.fallback("Resposta vazia – fallback.", "content vazio");
             }
 
             JsonNode json = mapper.readTree(content);
@@ -92,7 +107,25 @@ public class OpenAIClient implements IAClient {
 
         } catch (Exception ex) {
             log.error("Erro OpenAI", ex);
-            return new Result("NEUTRAL", 0.0, "Erro inesperado – fallback.", "Ex: " + ex.getClass().getSimpleName());
+            return Result.fallback("Erro inesperado – fallback.", "Ex: " + ex.getClass().getSimpleName());
+        }
+    }
+
+    /** {@code http.send} dentro de um {@link ProviderCallEvent} (uma tentativa, um texto). */
+    private HttpResponse<String> send(HttpRequest req) throws Exception {
+        var event = ProviderCallEvent.start();
+        long requestBytes = req.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(-1L);
+        HttpResponse<String> resp = null;
+        Exception error = null;
+        try {
+            resp = http.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            return resp;
+        } catch (Exception e) {
+            error = e;
+            throw e;
+        } finally {
+            event.finish("OpenAI", model, 1, resp == null ? 0 : resp.statusCode(), requestBytes,
+                    resp == null || resp.body() == null ? 0 : resp.body().length(), error);
         }
     }
 
@@ -0,0 +1,22 @@
+package com.pedro.sentiment.ai;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** HttpClient dos providers; com {@code spring.threads.virtual.enabled} os callbacks rodam em virtual threads. */
+final class ProviderHttp {
+
+    private ProviderHttp() {}
+
+    static HttpClient newClient(boolean virtualThreads) {
+        HttpClient.Builder b = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(15));
+        if (virtualThreads) b.executor(virtualExecutor("provider-http-"));
+        return b.build();
+    }
+
+    static ExecutorService virtualExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+}
@@ -0,0 +1,38 @@
+package com.pedro.sentiment.ai;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Orçamento global de retries (ou hedges): cada chamada nova deposita {@code ratio} e cada retry gasta 1.
+ * Em regime, no máximo ~{@code ratio} das chamadas são repetidas; {@code reserve} é a folga para rajadas.
+ * Evita que um surto de 503 vire uma tempestade de retries contra o provider.
+ */
+final class RetryBudget {
+
+    private static final long UNIT = 1000; // milésimos de retry, para depositar frações sem double
+
+    private final long deposit;
+    private final long cap;
+    private final AtomicLong balance;
+
+    RetryBudget(double ratio, int reserve) {
+        this.deposit = Math.round(Math.max(0, ratio) * UNIT);
+        this.cap = Math.max(1, reserve) * UNIT;
+        this.balance = new AtomicLong(cap);
+    }
+
+    /** Registra uma chamada nova (não-retry). */
+    void deposit() {
+        if (deposit == 0) return;
+        balance.getAndUpdate(b -> Math.min(cap, b + deposit));
+    }
+
+    /** Tenta gastar um retry; {@code false} = orçamento esgotado, desiste e devolve a resposta atual. */
+    boolean tryAcquire() {
+        while (true) {
+            long b = balance.get();
+            if (b < UNIT) return false;
+            if (balance.compareAndSet(b, b - UNIT)) return true;
+        }
+    }
+}
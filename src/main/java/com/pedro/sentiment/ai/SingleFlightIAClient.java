@@ -0,0 +1,166 @@
+package com.pedro.sentiment.ai;
+
+import com.pedro.sentiment.text.NormalizedText;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight: requests idênticos ({@link AnalysisKey} = provider + modelo + texto normalizado) que chegam
+ * enquanto a análise ainda está em voo esperam a mesma chamada ao provider em vez de abrir outra. No detalhado a
+ * chave é o texto original ({@link AnalysisKey#ofOriginal}), porque as sentenças devolvidas são trechos dele.
+ *
+ * <p>Fica atrás do cache (que só ajuda depois da 1ª resposta) e na frente do bulkhead, então os requests
+ * agrupados não ocupam permissões. Cada chamador recebe a sua cópia do future: cancelar a cópia só tira
+ * aquele chamador; quando todos cancelam, a chamada ao provider é cancelada. Falha é entregue a todos que
+ * esperavam e a entrada sai do mapa, então o próximo request tenta de novo.</p>
+ */
+public class SingleFlightIAClient implements IAClient, SupportsDetailed {
+
+    private final IAClient delegate;
+    private final ConcurrentMap<AnalysisKey, Flight<Result>> results = new ConcurrentHashMap<>();
+    private final ConcurrentMap<AnalysisKey, Flight<DetailedResult>> detailed = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlightIAClient(IAClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Result analyze(String text) {
+        return analyze(NormalizedText.of(text));
+    }
+
+    @Override
+    public Result analyze(NormalizedText text) {
+        return await(join(results, AnalysisKey.of(delegate, text),
+                () -> CompletableFuture.completedFuture(delegate.analyze(text))));
+    }
+
+    @Override
+    public CompletableFuture<Result> analyzeAsync(NormalizedText text) {
+        return join(results, AnalysisKey.of(delegate, text), () -> delegate.analyzeAsync(text));
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(String text) {
+        return analyzeDetailed(NormalizedText.of(text));
+    }
+
+    @Override
+    public DetailedResult analyzeDetailed(NormalizedText text) {
+        SupportsDetailed sd = detailedDelegate();
+        return await(join(detailed, AnalysisKey.ofOriginal(delegate, text),
+                () -> CompletableFuture.completedFuture(sd.analyzeDetailed(text))));
+    }
+
+    @Override
+    public CompletableFuture<DetailedResult> analyzeDetailedAsync(NormalizedText text) {
+        SupportsDetailed sd = detailedDelegate();
+        return join(detailed, AnalysisKey.ofOriginal(delegate, text), () -> sd.analyzeDetailedAsync(text));
+    }
+
+    @Override public String providerName()      { return delegate.providerName(); }
+    @Override public String model()             { return delegate.model(); }
+    @Override public boolean supportsDetailed() { return delegate.supportsDetailed(); }
+
+    /** Requests atendidos por uma chamada que já estava em voo. */
+    public long coalescedCount() { return coalesced.sum(); }
+    /** Chamadas ao provider em andamento agora (simples + detalhadas). */
+    public int inFlight()        { return results.size() + detailed.size(); }
+
+    // ---------- single-flight ----------
+
+    /** Entra na chamada em voo para {@code key} ou, se não houver, inicia uma com {@code call}. */
+    private <T> CompletableFuture<T> join(ConcurrentMap<AnalysisKey, Flight<T>> flights, AnalysisKey key,
+                                          Supplier<CompletableFuture<T>> call) {
+        while (true) {
+            Flight<T> mine = new Flight<>();
+            Flight<T> current = flights.putIfAbsent(key, mine);
+            if (current == null) {
+                start(flights, key, mine, call);
+                return view(flights, key, mine);
+            }
+            if (current.enter()) {
+                coalesced.increment();
+                return view(flights, key, current);
+            }
+            flights.remove(key, current); // todos os chamadores cancelaram: não aproveita, começa outra
+        }
+    }
+
+    private <T> void start(ConcurrentMap<AnalysisKey, Flight<T>> flights, AnalysisKey key, Flight<T> flight,
+                           Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> f;
+        try {
+            f = call.get();
+        } catch (RuntimeException e) {
+            f = CompletableFuture.failedFuture(e);
+        }
+        flight.call = f;
+        f.whenComplete((r, e) -> {
+            flights.remove(key, flight); // antes de completar: quem chegar depois já inicia (ou acha no cache)
+            if (e != null) flight.shared.completeExceptionally(unwrap(e));
+            else flight.shared.complete(r);
+        });
+    }
+
+    /** Cópia do future compartilhado para um chamador; cancelar a cópia só desinscreve esse chamador. */
+    private <T> CompletableFuture<T> view(ConcurrentMap<AnalysisKey, Flight<T>> flights, AnalysisKey key, Flight<T> flight) {
+        CompletableFuture<T> copy = flight.shared.copy();
+        copy.whenComplete((r, e) -> {
+            if (copy.isCancelled() && flight.leave()) {
+                flights.remove(key, flight);
+                flight.shared.cancel(true);
+                if (flight.call != null) flight.call.cancel(true);
+            }
+        });
+        return copy;
+    }
+
+    private SupportsDetailed detailedDelegate() {
+        if (!(delegate instanceof SupportsDetailed sd)) {
+            throw new UnsupportedOperationException(delegate.providerName() + " não suporta análise detalhada");
+        }
+        return sd;
+    }
+
+    /** join() relançando a exceção original do provider (e não o CompletionException). */
+    private static <T> T await(CompletableFuture<T> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return (ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null
+                ? ex.getCause() : ex;
+    }
+
+    /** Uma chamada em voo e quantos chamadores ainda esperam por ela. */
+    private static final class Flight<T> {
+        final CompletableFuture<T> shared = new CompletableFuture<>();
+        volatile CompletableFuture<T> call;
+        private int waiters = 1;
+
+        /** {@code false} = já foi abandonada por todos (cancelada). */
+        synchronized boolean enter() {
+            if (waiters == 0) return false;
+            waiters++;
+            return true;
+        }
+
+        /** {@code true} = era o último chamador e a chamada ainda não terminou: cancelar. */
+        synchronized boolean leave() {
+            return --waiters == 0 && !shared.isDone();
+        }
+    }
+}
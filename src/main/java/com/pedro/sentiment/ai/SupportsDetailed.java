@@ -1,9 +1,18 @@
 package com.pedro.sentiment.ai;
 
+import com.pedro.sentiment.text.NormalizedText;
+
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface SupportsDetailed {
     record SentenceSentiment(String sentence, String label, double score) {}
     record DetailedResult(IAClient.Result overall, List<SentenceSentiment> perSentence) {}
     DetailedResult analyzeDetailed(String text);
-}
\ No newline at end of file
+
+    default DetailedResult analyzeDetailed(NormalizedText text) { return analyzeDetailed(text.original()); }
+
+    default CompletableFuture<DetailedResult> analyzeDetailedAsync(NormalizedText text) {
+        return CompletableFuture.completedFuture(analyzeDetailed(text));
+    }
+}
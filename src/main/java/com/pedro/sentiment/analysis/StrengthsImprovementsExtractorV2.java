@@ -1,9 +1,9 @@
 package com.pedro.sentiment.analysis;
 
-import java.text.Normalizer;
+import com.pedro.sentiment.text.NormalizedText;
+
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.regex.Pattern;
 
 public final class StrengthsImprovementsExtractorV2 {
@@ -17,27 +17,33 @@ public final class StrengthsImprovementsExtractorV2 {
     private static final String[] A_ARQUITETURA_POS = { "design", "arquitetur", "pareament" };
     private static final String[] A_PROCESSO_NEG = { "pr", "pull request", "revis", "review", "demor", "atras", "entrega" };
 
+    // termos cuja primeira ocorrência ancora o trecho de evidência (já normalizados)
+    private static final String[] E_ARQUITETURA = { "design", "pareament" };
+    private static final String[] E_PROCESSO = { "pr", "pull request", "revisao", "review", "demor", "atras", "entrega" };
+
     private StrengthsImprovementsExtractorV2() {}
 
     public static Result extract(String originalText) {
-        String text = normalize(originalText);
+        return extract(NormalizedText.of(originalText));
+    }
+
+    public static Result extract(NormalizedText nt) {
+        String text = nt.value();
 
         List<StrengthEvidence> strengths = new ArrayList<>();
         List<ImprovementEvidence> improvements = new ArrayList<>();
 
         if (containsAny(text, A_ARQUITETURA_POS)) {
-            strengths.add(new StrengthEvidence("arquitetura",
-                    snippet(originalText, "(design|pareament\\w+)")));
+            strengths.add(new StrengthEvidence("arquitetura", snippet(nt, E_ARQUITETURA)));
         }
 
         if (containsAny(text, A_PROCESSO_NEG)) {
-            improvements.add(new ImprovementEvidence("processo/fluxo de PR",
-                    snippet(originalText, "(PRs?|pull request|revis[aã]o|review|demor\\w+|atras\\w+|entrega)")));
+            improvements.add(new ImprovementEvidence("processo/fluxo de PR", snippet(nt, E_PROCESSO)));
         }
 
         var m = P_CONTRASTE.matcher(text);
         if (m.find()) {
-            String tail = originalTail(originalText, m.start());
+            String tail = originalTail(nt, m.end());
             if (!tail.isBlank() && improvements.isEmpty()) {
                 improvements.add(new ImprovementEvidence("processo/fluxo de PR", tail.trim()));
             }
@@ -48,29 +54,29 @@ public final class StrengthsImprovementsExtractorV2 {
 
     public record Result(List<StrengthEvidence> strengths, List<ImprovementEvidence> improvements) {}
 
-    private static String normalize(String s) {
-        if (s == null) return "";
-        String n = Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}+","").toLowerCase(Locale.ROOT);
-        n = n.replaceAll("\\s+"," ").trim();
-        return n;
-    }
     private static boolean containsAny(String text, String[] keys) {
         for (String k : keys) if (text.contains(k)) return true;
         return false;
     }
-    private static String snippet(String original, String regex) {
-        var p = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-        var m = p.matcher(original);
-        if (m.find()) {
-            int start = Math.max(0, original.lastIndexOf('.', m.start()) + 1);
-            int end = original.indexOf('.', m.end());
+    /** Sentença do original (entre pontos) que contém a primeira ocorrência de um dos termos. */
+    private static String snippet(NormalizedText nt, String[] terms) {
+        String text = nt.value();
+        int at = -1, len = 0;
+        for (String t : terms) {
+            int i = text.indexOf(t);
+            if (i >= 0 && (at < 0 || i < at)) { at = i; len = t.length(); }
+        }
+        String original = nt.original();
+        if (at >= 0) {
+            int oStart = nt.toOriginal(at), oEnd = nt.toOriginal(at + len);
+            int start = Math.max(0, original.lastIndexOf('.', oStart) + 1);
+            int end = original.indexOf('.', oEnd);
             if (end < 0) end = original.length();
             return original.substring(start, end).trim();
         }
         return original.length() > 140 ? original.substring(0, 140) + "..." : original;
     }
-    private static String originalTail(String original, int contrastStartIdxOnNormalized) {
-        String[] split = original.split("(?i)\\b(contudo|por[ée]m|porem|no entanto|todavia|entretanto)\\b", 2);
-        return split.length == 2 ? split[1] : "";
+    private static String originalTail(NormalizedText nt, int contrastEndOnNormalized) {
+        return nt.original().substring(nt.toOriginal(contrastEndOnNormalized));
     }
 }
@@ -0,0 +1,60 @@
+package com.pedro.sentiment.analytics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicionário de uma coluna: valor ↔ código de 16 bits (o que vai no {@code char[]} da coluna). Código 0 =
+ * ausente (null/vazio) e 1 = {@value #OVERFLOW}, reservado: passando de {@value #MAX_CODES} códigos, os valores
+ * novos viram esse.
+ * Um escritor por vez (quem chama {@link #encode} sincroniza); leituras sem lock.
+ */
+final class Dictionary {
+
+    static final int MAX_CODES = 65_536;
+    static final char ABSENT = 0;
+    static final char OVERFLOW_CODE = 1;
+    static final String OVERFLOW = "(outros)";
+
+    private final Map<String, Character> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private volatile int size;
+
+    Dictionary() {
+        values[OVERFLOW_CODE] = OVERFLOW;
+        codes.put(OVERFLOW, OVERFLOW_CODE);
+        size = OVERFLOW_CODE + 1; // 0 e 1 reservados
+    }
+
+    char encode(String value) {
+        if (value == null || value.isBlank()) return ABSENT;
+        Character c = codes.get(value);
+        if (c != null) return c;
+        if (size == MAX_CODES) return OVERFLOW_CODE;
+        char code = (char) size;
+        String[] v = values;
+        if (code >= v.length) v = Arrays.copyOf(v, Math.min(MAX_CODES, v.length * 2));
+        v[code] = value;
+        values = v;
+        codes.put(value, code);
+        size = code + 1; // publica depois do valor
+        return code;
+    }
+
+    /** Código do valor, ou -1 se nunca apareceu ({@code null}/vazio = {@link #ABSENT}). */
+    int lookup(String value) {
+        if (value == null || value.isBlank()) return ABSENT;
+        Character c = codes.get(value);
+        return c == null ? -1 : c;
+    }
+
+    String decode(int code) {
+        return code == ABSENT ? null : values[code];
+    }
+
+    /** Códigos em uso (inclui os reservados); todo código já gravado numa linha visível é menor que isso. */
+    int size() {
+        return size;
+    }
+}
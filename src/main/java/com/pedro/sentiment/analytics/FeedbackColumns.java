@@ -0,0 +1,442 @@
+package com.pedro.sentiment.analytics;
+
+import com.pedro.sentiment.dto.FeedbackQueryRequest;
+import com.pedro.sentiment.dto.FeedbackQueryResponse;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.service.AnalysisListener;
+import com.pedro.sentiment.store.AnalysisRecord;
+import com.pedro.sentiment.store.AnalysisStore;
+import com.pedro.sentiment.store.HistoryConsumer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Análises em formato colunar, em memória, para consultas ad hoc do tipo "fatia negativa por aspecto no projeto X
+ * em 2025-07". Uma linha por análise. As colunas kind/source/project/aspect/sentiment/period são
+ * {@code char[]} codificados por {@link Dictionary}; o score e a nota são {@code float[]} e a data é
+ * {@code int[]} (dia epoch, UTC). Ocupa ~22 bytes por linha.
+ *
+ * <p>Aspecto = improvementArea no {@code /sentiment} e, no peer feedback, o aspecto da primeira melhoria (ou
+ * da primeira força). Period = o do request (peer) ou o mês da análise.</p>
+ *
+ * <p>As linhas ficam em blocos de {@value #CHUNK}. A consulta traduz cada filtro para uma tabela
+ * código → aceito e percorre uma coluna por vez, refinando um vetor de seleção. O group-by soma em arrays
+ * densos indexados pelo código do grupo quando o produto das cardinalidades é pequeno, senão numa tabela hash
+ * com os grupos que aparecem; mais de {@value #MAX_GROUPS} grupos distintos = consulta recusada, então a memória
+ * de uma consulta é limitada. Os blocos se dividem entre os núcleos (common pool) e os parciais se somam no
+ * fim.</p>
+ *
+ * <p>Com o {@link AnalysisStore} e {@code rebuild-on-start}, as linhas do histórico entram no start (ver
+ * {@link com.pedro.sentiment.store.HistoryReplay}).</p>
+ *
+ * <p>Um escritor por vez; leitores não travam. Cada bloco publica o tamanho depois de gravar a linha, e a
+ * consulta lê os tamanhos antes dos dicionários. Passando de {@code max-rows}, o bloco mais antigo sai.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.columnar.enabled", havingValue = "true", matchIfMissing = true)
+public class FeedbackColumns implements AnalysisListener, HistoryConsumer, MeterBinder {
+
+    enum Dim {
+        KIND, SOURCE, PROJECT, ASPECT, SENTIMENT, PERIOD;
+
+        final String column = name().toLowerCase(Locale.ROOT);
+
+        static Dim of(String column) {
+            for (Dim d : values()) if (d.column.equalsIgnoreCase(column.trim())) return d;
+            throw new IllegalArgumentException("coluna desconhecida: " + column + " (use " + Arrays.toString(names()) + ")");
+        }
+
+        static String[] names() {
+            return Arrays.stream(values()).map(d -> d.column).toArray(String[]::new);
+        }
+    }
+
+    static final int CHUNK = 1 << 16;
+    private static final int DENSE_GROUPS = 4096;
+    private static final int MAX_GROUPS = 50_000;
+    private static final int DEFAULT_LIMIT = 100;
+
+    private static final class Chunk {
+        final char[][] dims = new char[Dim.values().length][CHUNK];
+        final int[] day = new int[CHUNK];
+        final float[] score = new float[CHUNK];
+        final float[] rating = new float[CHUNK];
+        volatile int size;
+    }
+
+    private final Dictionary[] dicts = new Dictionary[Dim.values().length];
+    private final int maxChunks;
+    private volatile Chunk[] chunks = new Chunk[0];
+
+    private final boolean rebuildOnStart;
+
+    @Autowired
+    public FeedbackColumns(
+            @Value("${app.columnar.max-rows:2000000}") long maxRows,
+            @Value("${app.columnar.rebuild-on-start:true}") boolean rebuildOnStart
+    ) {
+        for (int i = 0; i < dicts.length; i++) dicts[i] = new Dictionary();
+        this.maxChunks = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (maxRows + CHUNK - 1) / CHUNK));
+        this.rebuildOnStart = rebuildOnStart;
+    }
+
+    /** Sem histórico (benchmarks e uso fora do Spring). */
+    public FeedbackColumns(long maxRows) {
+        this(maxRows, false);
+    }
+
+    // ---------- escrita ----------
+
+    @Override
+    public void onSentiment(FeedbackRequest request, FeedbackResponse response) {
+        add(System.currentTimeMillis(), request, response);
+    }
+
+    @Override
+    public void onPeerFeedback(PeerFeedbackRequest request, PeerFeedbackResponse response) {
+        add(System.currentTimeMillis(), request, response);
+    }
+
+    @Override
+    public boolean rebuildOnStart() {
+        return rebuildOnStart;
+    }
+
+    @Override
+    public void replay(AnalysisRecord r) {
+        switch (r.kind()) {
+            case AnalysisRecord.SENTIMENT -> add(r.ts(), (FeedbackRequest) r.request(), (FeedbackResponse) r.response());
+            case AnalysisRecord.PEER -> add(r.ts(), (PeerFeedbackRequest) r.request(), (PeerFeedbackResponse) r.response());
+            default -> { }
+        }
+    }
+
+    private void add(long ts, FeedbackRequest req, FeedbackResponse resp) {
+        add(ts, AnalysisRecord.SENTIMENT, req.getSource(), null, resp.getImprovementArea(), resp.getSentiment(),
+                null, resp.getScore(), Float.NaN);
+    }
+
+    private void add(long ts, PeerFeedbackRequest req, PeerFeedbackResponse resp) {
+        String aspect = resp.improvements != null && !resp.improvements.isEmpty() ? resp.improvements.get(0).aspect
+                : resp.strengths != null && !resp.strengths.isEmpty() ? resp.strengths.get(0).aspect : null;
+        add(ts, AnalysisRecord.PEER, null, req.getProject(), aspect, resp.sentiment, req.getPeriod(), resp.score,
+                req.getRating() == null ? Float.NaN : req.getRating());
+    }
+
+    /** Uma linha; {@code period == null} = mês de {@code ts}. */
+    public synchronized void add(long ts, String kind, String source, String project, String aspect,
+                                 String sentiment, String period, double score, float rating) {
+        int day = (int) Math.floorDiv(ts, 86_400_000L);
+        Chunk[] cs = chunks;
+        Chunk c = cs.length == 0 ? null : cs[cs.length - 1];
+        if (c == null || c.size == CHUNK) {
+            c = new Chunk();
+            int keep = Math.min(cs.length, maxChunks - 1);
+            Chunk[] next = Arrays.copyOfRange(cs, cs.length - keep, cs.length + 1);
+            next[keep] = c;
+            chunks = next;
+        }
+        int i = c.size;
+        c.dims[Dim.KIND.ordinal()][i] = dicts[Dim.KIND.ordinal()].encode(kind);
+        c.dims[Dim.SOURCE.ordinal()][i] = dicts[Dim.SOURCE.ordinal()].encode(source);
+        c.dims[Dim.PROJECT.ordinal()][i] = dicts[Dim.PROJECT.ordinal()].encode(project);
+        c.dims[Dim.ASPECT.ordinal()][i] = dicts[Dim.ASPECT.ordinal()].encode(aspect);
+        c.dims[Dim.SENTIMENT.ordinal()][i] = dicts[Dim.SENTIMENT.ordinal()].encode(sentiment);
+        c.dims[Dim.PERIOD.ordinal()][i] = dicts[Dim.PERIOD.ordinal()].encode(
+                period != null ? period.trim() : YearMonth.from(LocalDate.ofEpochDay(day)).toString());
+        c.day[i] = day;
+        c.score[i] = (float) score;
+        c.rating[i] = rating;
+        c.size = i + 1; // publica a linha
+    }
+
+    public long rows() {
+        long n = 0;
+        for (Chunk c : chunks) n += c.size;
+        return n;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sentiment.columnar.rows", this, FeedbackColumns::rows)
+                .description("Linhas no índice colunar em memória").register(registry);
+    }
+
+    // ---------- consulta ----------
+
+    /**
+     * Plano já traduzido para códigos; imutável e compartilhado pelas fatias. Chave do grupo =
+     * {@code g0 * innerCard + g1}, sem sinal; {@code dense} = arrays indexados direto pela chave.
+     */
+    private record Plan(int[] filterDims, boolean[][] accepts, int fromDay, int toDay,
+                        int[] groupDims, int innerCard, boolean dense, int groups, int sentiments) {}
+
+    /**
+     * Somas de uma fatia de blocos, por slot. Denso: slot = chave, arrays do tamanho do produto das
+     * cardinalidades (até {@value #DENSE_GROUPS}). Esparso: tabela hash chave → slot e arrays que crescem com
+     * os grupos que aparecem de fato, até {@value #MAX_GROUPS}.
+     */
+    private static final class Partial {
+        final int nSentiments;
+        long[] count;
+        double[] scoreSum;
+        double[] ratingSum;
+        long[] ratingN;
+        long[] sentiments; // [slot * nSentiments + código]
+        int[] table;       // esparso: slot + 1 por posição de hash (0 = livre)
+        int[] slotKey;
+        int used;
+        long scanned;
+        long matched;
+
+        Partial(Plan plan) {
+            this.nSentiments = plan.sentiments();
+            int slots = plan.dense() ? plan.groups() : 64;
+            alloc(slots);
+            if (!plan.dense()) {
+                table = new int[slots * 2];
+                slotKey = new int[slots];
+            }
+        }
+
+        private void alloc(int slots) {
+            count = count == null ? new long[slots] : Arrays.copyOf(count, slots);
+            scoreSum = scoreSum == null ? new double[slots] : Arrays.copyOf(scoreSum, slots);
+            ratingSum = ratingSum == null ? new double[slots] : Arrays.copyOf(ratingSum, slots);
+            ratingN = ratingN == null ? new long[slots] : Arrays.copyOf(ratingN, slots);
+            sentiments = sentiments == null ? new long[slots * nSentiments] : Arrays.copyOf(sentiments, slots * nSentiments);
+        }
+
+        int slots() {
+            return table == null ? count.length : used;
+        }
+
+        int keyOf(int slot) {
+            return table == null ? slot : slotKey[slot];
+        }
+
+        int slot(int key) {
+            if (table == null) return key;
+            int mask = table.length - 1;
+            for (int h = (key * 0x9E3779B9 >>> 7) & mask; ; h = (h + 1) & mask) {
+                int s = table[h];
+                if (s == 0) return insert(key, h);
+                if (slotKey[s - 1] == key) return s - 1;
+            }
+        }
+
+        private int insert(int key, int h) {
+            if (used == MAX_GROUPS) {
+                throw new IllegalArgumentException("group-by com grupos demais (> " + MAX_GROUPS + "); filtre mais");
+            }
+            if (used == count.length) {
+                alloc(used * 2);
+                slotKey = Arrays.copyOf(slotKey, used * 2);
+            }
+            int slot = used++;
+            slotKey[slot] = key;
+            table[h] = slot + 1;
+            if (used * 2 > table.length) rehash();
+            return slot;
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            int mask = table.length - 1;
+            for (int s = 0; s < used; s++) {
+                int h = (slotKey[s] * 0x9E3779B9 >>> 7) & mask;
+                while (table[h] != 0) h = (h + 1) & mask;
+                table[h] = s + 1;
+            }
+        }
+
+        Partial merge(Partial o) {
+            for (int os = 0; os < o.slots(); os++) {
+                if (o.count[os] == 0) continue;
+                int g = slot(o.keyOf(os));
+                count[g] += o.count[os];
+                scoreSum[g] += o.scoreSum[os];
+                ratingSum[g] += o.ratingSum[os];
+                ratingN[g] += o.ratingN[os];
+                for (int k = 0; k < nSentiments; k++) sentiments[g * nSentiments + k] += o.sentiments[os * nSentiments + k];
+            }
+            scanned += o.scanned;
+            matched += o.matched;
+            return this;
+        }
+    }
+
+    /**
+     * Executa a consulta. Coluna/data inválida ou mais de {@value #MAX_GROUPS} grupos = {@link IllegalArgumentException}
+     * (a mensagem vai para o cliente).
+     */
+    public FeedbackQueryResponse query(FeedbackQueryRequest q) {
+        long t0 = System.nanoTime();
+        Chunk[] cs = chunks;
+        int[] sizes = new int[cs.length];
+        for (int i = 0; i < cs.length; i++) sizes[i] = cs[i].size;
+        int[] card = new int[dicts.length]; // lido depois dos tamanhos: cobre todo código visível
+        for (int d = 0; d < dicts.length; d++) card[d] = dicts[d].size();
+
+        Plan plan = plan(q, card);
+        int slices = Math.max(1, Math.min(cs.length, ForkJoinPool.getCommonPoolParallelism() * 2));
+        Partial total = IntStream.range(0, slices).parallel()
+                .mapToObj(s -> {
+                    var p = new Partial(plan);
+                    int[] sel = new int[CHUNK];
+                    for (int i = s; i < cs.length; i += slices) scan(cs[i], sizes[i], plan, p, sel);
+                    return p;
+                })
+                .reduce(Partial::merge)
+                .orElseGet(() -> new Partial(plan));
+
+        var out = new FeedbackQueryResponse();
+        out.scanned = total.scanned;
+        out.matched = total.matched;
+        out.groups = groups(total, plan, q.getLimit() == null ? DEFAULT_LIMIT : Math.max(0, q.getLimit()));
+        out.tookMs = Math.round((System.nanoTime() - t0) / 10_000.0) / 100.0;
+        return out;
+    }
+
+    private Plan plan(FeedbackQueryRequest q, int[] card) {
+        List<Integer> filterDims = new ArrayList<>();
+        List<boolean[]> accepts = new ArrayList<>();
+        if (q.getFilters() != null) {
+            for (var e : q.getFilters().entrySet()) {
+                if (e.getValue() == null) continue;
+                Dim d = Dim.of(e.getKey());
+                boolean[] accept = new boolean[card[d.ordinal()]];
+                for (String v : e.getValue()) {
+                    int code = dicts[d.ordinal()].lookup(v == null ? null : v.trim());
+                    if (code >= 0 && code < accept.length) accept[code] = true;
+                }
+                filterDims.add(d.ordinal());
+                accepts.add(accept);
+            }
+        }
+
+        List<String> groupBy = q.getGroupBy() == null ? List.of() : q.getGroupBy();
+        if (groupBy.size() > 2) throw new IllegalArgumentException("group-by aceita no máximo 2 colunas");
+        int[] groupDims = groupBy.stream().mapToInt(c -> Dim.of(c).ordinal()).toArray();
+        long groups = 1;
+        for (int g : groupDims) groups *= card[g];
+        boolean dense = groups <= DENSE_GROUPS;
+        // esparso com 2 colunas: chave = g0 << 16 | g1 (cabe em 32 bits sem sinal)
+        int innerCard = groupDims.length < 2 ? 1 : dense ? card[groupDims[1]] : Dictionary.MAX_CODES;
+
+        return new Plan(filterDims.stream().mapToInt(Integer::intValue).toArray(), accepts.toArray(boolean[][]::new),
+                day(q.getFrom(), Integer.MIN_VALUE), day(q.getTo(), Integer.MAX_VALUE),
+                groupDims, innerCard, dense, dense ? (int) groups : 0, card[Dim.SENTIMENT.ordinal()]);
+    }
+
+    /** Filtra e agrega um bloco: cada filtro é um laço sobre uma coluna que encolhe o vetor de seleção. */
+    private static void scan(Chunk c, int n, Plan plan, Partial p, int[] sel) {
+        p.scanned += n;
+        int m = n;
+        for (int i = 0; i < n; i++) sel[i] = i;
+        for (int f = 0; f < plan.filterDims().length && m > 0; f++) {
+            char[] col = c.dims[plan.filterDims()[f]];
+            boolean[] accept = plan.accepts()[f];
+            int k = 0;
+            for (int j = 0; j < m; j++) {
+                int i = sel[j];
+                if (accept[col[i]]) sel[k++] = i;
+            }
+            m = k;
+        }
+        if (plan.fromDay() != Integer.MIN_VALUE || plan.toDay() != Integer.MAX_VALUE) {
+            int[] day = c.day;
+            int from = plan.fromDay(), to = plan.toDay(), k = 0;
+            for (int j = 0; j < m; j++) {
+                int i = sel[j];
+                if (day[i] >= from && day[i] <= to) sel[k++] = i;
+            }
+            m = k;
+        }
+        p.matched += m;
+
+        char[] g0 = plan.groupDims().length > 0 ? c.dims[plan.groupDims()[0]] : null;
+        char[] g1 = plan.groupDims().length > 1 ? c.dims[plan.groupDims()[1]] : null;
+        char[] sentiment = c.dims[Dim.SENTIMENT.ordinal()];
+        int inner = plan.innerCard(), ns = p.nSentiments;
+        float[] score = c.score, rating = c.rating;
+        for (int j = 0; j < m; j++) {
+            int i = sel[j];
+            int g = p.slot((g0 == null ? 0 : g0[i] * inner) + (g1 == null ? 0 : g1[i]));
+            p.count[g]++;
+            p.scoreSum[g] += score[i];
+            float r = rating[i];
+            if (r == r) { // não NaN
+                p.ratingSum[g] += r;
+                p.ratingN[g]++;
+            }
+            p.sentiments[g * ns + sentiment[i]]++;
+        }
+    }
+
+    private List<FeedbackQueryResponse.Group> groups(Partial total, Plan plan, int limit) {
+        int[] gd = plan.groupDims();
+        int negative = dicts[Dim.SENTIMENT.ordinal()].lookup("NEGATIVE");
+        int positive = dicts[Dim.SENTIMENT.ordinal()].lookup("POSITIVE");
+        int ns = total.nSentiments;
+
+        List<FeedbackQueryResponse.Group> out = new ArrayList<>();
+        for (int g = 0; g < total.slots(); g++) {
+            long n = total.count[g];
+            if (n == 0) continue;
+            int key = total.keyOf(g);
+            var group = new FeedbackQueryResponse.Group();
+            group.key = new LinkedHashMap<>();
+            if (gd.length > 0) group.key.put(Dim.values()[gd[0]].column, dicts[gd[0]].decode(Integer.divideUnsigned(key, plan.innerCard())));
+            if (gd.length > 1) group.key.put(Dim.values()[gd[1]].column, dicts[gd[1]].decode(Integer.remainderUnsigned(key, plan.innerCard())));
+            group.count = n;
+            group.avgScore = round(total.scoreSum[g] / n);
+            group.avgRating = total.ratingN[g] == 0 ? null : round(total.ratingSum[g] / total.ratingN[g]);
+            Map<String, Long> sentiments = new LinkedHashMap<>();
+            for (int s = 0; s < ns; s++) {
+                long c = total.sentiments[g * ns + s];
+                if (c > 0) sentiments.put(s == Dictionary.ABSENT ? "-" : dicts[Dim.SENTIMENT.ordinal()].decode(s), c);
+            }
+            group.sentiments = sentiments;
+            group.negativeShare = negative < 0 || negative >= ns ? 0 : round((double) total.sentiments[g * ns + negative] / n);
+            group.positiveShare = positive < 0 || positive >= ns ? 0 : round((double) total.sentiments[g * ns + positive] / n);
+            out.add(group);
+        }
+        out.sort(Comparator.comparingLong((FeedbackQueryResponse.Group x) -> x.count).reversed());
+        return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+    }
+
+    private static int day(String date, int absent) {
+        if (date == null || date.isBlank()) return absent;
+        try {
+            return (int) LocalDate.parse(date.trim()).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("data inválida (use yyyy-MM-dd): " + date);
+        }
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 1000.0) / 1000.0;
+    }
+}
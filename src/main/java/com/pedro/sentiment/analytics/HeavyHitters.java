@@ -0,0 +1,93 @@
+package com.pedro.sentiment.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Misra-Gries com {@code k} contadores: qualquer valor com frequência acima de n/(k+1) está entre os
+ * contadores, e cada contagem subestima a real em no máximo n/(k+1). Memória fixa e mergeável (soma os
+ * contadores e desconta o (k+1)-ésimo maior). Não é thread-safe (quem usa sincroniza).
+ */
+final class HeavyHitters {
+
+    record Entry(String value, long count) {}
+
+    private final String[] keys;
+    private final long[] counts;
+
+    HeavyHitters(int k) {
+        this.keys = new String[Math.max(1, k)];
+        this.counts = new long[keys.length];
+    }
+
+    void add(String value) {
+        add(value, 1);
+    }
+
+    private void add(String value, long n) {
+        int free = -1;
+        for (int i = 0; i < keys.length; i++) {
+            if (value.equals(keys[i])) {
+                counts[i] += n;
+                return;
+            }
+            if (keys[i] == null && free < 0) free = i;
+        }
+        if (free >= 0) {
+            keys[free] = value;
+            counts[free] = n;
+            return;
+        }
+        // sem espaço: desconta de todos (inclusive do novo) o menor entre n e o menor contador
+        long min = n;
+        for (long c : counts) min = Math.min(min, c);
+        for (int i = 0; i < keys.length; i++) {
+            counts[i] -= min;
+            if (counts[i] == 0) keys[i] = null;
+        }
+        if (n > min) add(value, n - min);
+    }
+
+    void merge(HeavyHitters o) {
+        List<Entry> all = new ArrayList<>(entries());
+        for (Entry e : o.entries()) {
+            int at = indexOf(all, e.value());
+            if (at >= 0) all.set(at, new Entry(e.value(), all.get(at).count() + e.count()));
+            else all.add(e);
+        }
+        all.sort(Comparator.comparingLong(Entry::count).reversed());
+        long cut = all.size() > keys.length ? all.get(keys.length).count() : 0;
+        clear();
+        for (int i = 0, j = 0; i < all.size() && j < keys.length; i++) {
+            long c = all.get(i).count() - cut;
+            if (c <= 0) break;
+            keys[j] = all.get(i).value();
+            counts[j++] = c;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(counts, 0);
+    }
+
+    /** Contadores em ordem decrescente. */
+    List<Entry> top(int n) {
+        List<Entry> all = entries();
+        all.sort(Comparator.comparingLong(Entry::count).reversed().thenComparing(Entry::value));
+        return all.subList(0, Math.min(n, all.size()));
+    }
+
+    private List<Entry> entries() {
+        List<Entry> out = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) if (keys[i] != null) out.add(new Entry(keys[i], counts[i]));
+        return out;
+    }
+
+    private static int indexOf(List<Entry> entries, String value) {
+        for (int i = 0; i < entries.size(); i++) if (entries.get(i).value().equals(value)) return i;
+        return -1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.pedro.sentiment.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Sketch de quantis para scores em [0, 1]: {@value #BINS} faixas fixas de largura 0,01. Memória constante,
+ * merge = soma faixa a faixa, erro do quantil ≤ meia faixa (0,005) — o domínio limitado dispensa t-digest/KLL.
+ * Não é thread-safe (quem usa sincroniza).
+ */
+final class ScoreHistogram {
+
+    static final int BINS = 100;
+
+    private final int[] bins = new int[BINS];
+    private long count;
+    private double sum;
+
+    void add(double score) {
+        double s = Double.isNaN(score) ? 0 : Math.min(1, Math.max(0, score));
+        bins[Math.min(BINS - 1, (int) (s * BINS))]++;
+        count++;
+        sum += s;
+    }
+
+    void merge(ScoreHistogram o) {
+        for (int i = 0; i < BINS; i++) bins[i] += o.bins[i];
+        count += o.count;
+        sum += o.sum;
+    }
+
+    void clear() {
+        Arrays.fill(bins, 0);
+        count = 0;
+        sum = 0;
+    }
+
+    long count() { return count; }
+
+    double mean() { return count == 0 ? 0 : sum / count; }
+
+    /** Centro da faixa que contém o quantil {@code q}; 0 sem amostras. */
+    double quantile(double q) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BINS; i++) {
+            seen += bins[i];
+            if (seen >= rank) return (i + 0.5) / BINS;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,139 @@
+package com.pedro.sentiment.analytics;
+
+import com.pedro.sentiment.analytics.SourceSeries.Window;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.SourceAnalyticsResponse;
+import com.pedro.sentiment.service.AnalysisListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Analytics em tempo real do {@code /sentiment} por {@code source}: janelas de 1 min / 1 h / 1 dia (deslizantes
+ * ou fixas) com contagem por rótulo, quantis do score e top-k de improvementArea (ver {@link SourceSeries}).
+ *
+ * <p>No request, um {@code record} em memória (um bucket por anel, sob o monitor da origem). As consultas
+ * montam o snapshot no máximo uma vez por {@code cache-ttl} por origem/janela e servem o mesmo objeto aos
+ * demais: dashboards consultando em loop não disputam o monitor com as análises. Origens além de
+ * {@code max-sources} caem em {@value #OVERFLOW}, então a memória total também é limitada.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.enabled", havingValue = "true", matchIfMissing = true)
+public class SourceAnalytics implements AnalysisListener, MeterBinder {
+
+    static final String NO_SOURCE = "(sem origem)";
+    static final String OVERFLOW = "(outras)";
+
+    private final int maxSources;
+    private final int topK;
+    private final long cacheTtlMillis;
+    private final LongSupplier clock;
+    private final Map<String, Tracked> sources = new ConcurrentHashMap<>();
+
+    /** Série da origem e o último snapshot de cada (janela, modo). */
+    private record Tracked(SourceSeries series, AtomicReferenceArray<SourceSeries.Snapshot> cache) {}
+
+    @Autowired
+    public SourceAnalytics(
+            @Value("${app.analytics.max-sources:1000}") int maxSources,
+            @Value("${app.analytics.top-k:16}") int topK,
+            @Value("${app.analytics.cache-ttl:1s}") Duration cacheTtl
+    ) {
+        this(maxSources, topK, cacheTtl, System::currentTimeMillis);
+    }
+
+    SourceAnalytics(int maxSources, int topK, Duration cacheTtl, LongSupplier clock) {
+        this.maxSources = Math.max(1, maxSources);
+        this.topK = Math.max(1, topK);
+        this.cacheTtlMillis = cacheTtl.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public void onSentiment(FeedbackRequest request, FeedbackResponse response) {
+        tracked(request.getSource()).series().record(clock.getAsLong(), response.getSentiment(), response.getScore(),
+                response.getImprovementArea());
+    }
+
+    /** {@code window} = 1m, 1h ou 1d; {@code null} se a janela é inválida ou a origem nunca apareceu. */
+    public SourceAnalyticsResponse query(String source, String window, boolean sliding, int top) {
+        Window w = window(window);
+        Tracked t = sources.get(key(source));
+        if (w == null || t == null) return null;
+
+        int slot = w.ordinal() * 2 + (sliding ? 0 : 1);
+        long now = clock.getAsLong();
+        SourceSeries.Snapshot s = t.cache().get(slot);
+        if (s == null || now - s.toMillis() >= cacheTtlMillis || now < s.toMillis()) {
+            s = t.series().snapshot(w, sliding, now);
+            t.cache().set(slot, s);
+        }
+
+        var out = new SourceAnalyticsResponse();
+        out.source = key(source);
+        out.window = window.trim().toLowerCase(Locale.ROOT);
+        out.mode = sliding ? "sliding" : "tumbling";
+        out.from = Instant.ofEpochMilli(s.fromMillis()).toString();
+        out.to = Instant.ofEpochMilli(s.toMillis()).toString();
+        out.count = s.count();
+        out.sentiments = s.sentiments();
+        out.score = new SourceAnalyticsResponse.Scores(s.mean(), s.p50(), s.p90(), s.p99());
+        out.topImprovementAreas = new ArrayList<>();
+        for (var e : s.topAreas().subList(0, Math.min(Math.max(0, top), s.topAreas().size()))) {
+            out.topImprovementAreas.add(new SourceAnalyticsResponse.AreaCount(e.value(), e.count()));
+        }
+        return out;
+    }
+
+    /** Origens com série em memória. */
+    public List<String> sources() {
+        return sources.keySet().stream().sorted().toList();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sentiment.analytics.sources", sources, Map::size)
+                .description("Origens com janelas de analytics em memória").register(registry);
+    }
+
+    private Tracked tracked(String source) {
+        String key = key(source);
+        Tracked t = sources.get(key);
+        if (t != null) return t;
+        if (sources.size() >= maxSources) key = OVERFLOW; // pode passar um pouco do limite sob corrida; tanto faz
+        return sources.computeIfAbsent(key, k -> new Tracked(new SourceSeries(topK), new AtomicReferenceArray<>(6)));
+    }
+
+    private static String key(String source) {
+        return source == null || source.isBlank() ? NO_SOURCE : source.trim();
+    }
+
+    public static boolean isWindow(String window) {
+        return window(window) != null;
+    }
+
+    static Window window(String window) {
+        if (window == null) return null;
+        return switch (window.trim().toLowerCase(Locale.ROOT)) {
+            case "1m" -> Window.MINUTE;
+            case "1h" -> Window.HOUR;
+            case "1d" -> Window.DAY;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.pedro.sentiment.analytics;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Janelas de uma origem: três anéis de buckets — 60 × 1 s, 60 × 1 min e 24 × 1 h — cada bucket com contagem
+ * por rótulo, {@link ScoreHistogram} e {@link HeavyHitters} de improvementArea. Um evento atualiza um bucket
+ * de cada anel; memória fixa por origem (~100 KB com k = 16), qualquer que seja o volume. Bucket de outra época é zerado
+ * ao ser reaproveitado.
+ *
+ * <p>Janela deslizante = os buckets que cobrem os últimos 60 s / 60 min / 24 h (resolução de um bucket);
+ * janela fixa (tumbling) = os buckets desde o início do minuto / hora / dia corrente (UTC).</p>
+ */
+final class SourceSeries {
+
+    enum Window {
+        MINUTE(0, 1_000L, 60, 60_000L),
+        HOUR(1, 60_000L, 60, 3_600_000L),
+        DAY(2, 3_600_000L, 24, 86_400_000L);
+
+        final int ring;
+        final long bucketMillis;
+        final int buckets;
+        final long spanMillis;
+
+        Window(int ring, long bucketMillis, int buckets, long spanMillis) {
+            this.ring = ring;
+            this.bucketMillis = bucketMillis;
+            this.buckets = buckets;
+            this.spanMillis = spanMillis;
+        }
+    }
+
+    static final String[] LABELS = {"POSITIVE", "NEGATIVE", "NEUTRAL", "MIXED", "OTHER"};
+
+    private static final class Bucket {
+        long epoch = Long.MIN_VALUE; // índice do bucket (ts / bucketMillis)
+        final long[] labels = new long[LABELS.length];
+        final ScoreHistogram scores = new ScoreHistogram();
+        final HeavyHitters areas;
+
+        Bucket(int topK) {
+            this.areas = new HeavyHitters(topK);
+        }
+
+        void reset(long epoch) {
+            this.epoch = epoch;
+            Arrays.fill(labels, 0);
+            scores.clear();
+            areas.clear();
+        }
+    }
+
+    /** Resultado de uma janela, imutável (pode ser servido a vários pollers). */
+    record Snapshot(long fromMillis, long toMillis, long count, Map<String, Long> sentiments,
+                    double mean, double p50, double p90, double p99, List<HeavyHitters.Entry> topAreas) {}
+
+    private final Bucket[][] rings = new Bucket[Window.values().length][];
+    private final int topK;
+
+    SourceSeries(int topK) {
+        this.topK = topK;
+        for (Window w : Window.values()) {
+            rings[w.ring] = new Bucket[w.buckets];
+            for (int i = 0; i < w.buckets; i++) rings[w.ring][i] = new Bucket(topK);
+        }
+    }
+
+    synchronized void record(long ts, String label, double score, String area) {
+        int l = labelIndex(label);
+        for (Window w : Window.values()) {
+            long epoch = Math.floorDiv(ts, w.bucketMillis);
+            Bucket b = rings[w.ring][(int) Math.floorMod(epoch, (long) w.buckets)];
+            if (b.epoch != epoch) {
+                if (b.epoch > epoch) continue; // evento atrasado além da janela
+                b.reset(epoch);
+            }
+            b.labels[l]++;
+            b.scores.add(score);
+            if (area != null) b.areas.add(area);
+        }
+    }
+
+    /** Junta os buckets da janela (sliding ou tumbling) que termina em {@code now}. */
+    Snapshot snapshot(Window w, boolean sliding, long now) {
+        long last = Math.floorDiv(now, w.bucketMillis);
+        long first = sliding
+                ? last - w.buckets + 1
+                : Math.floorDiv(Math.floorDiv(now, w.spanMillis) * w.spanMillis, w.bucketMillis);
+        long[] labels = new long[LABELS.length];
+        var scores = new ScoreHistogram();
+        var areas = new HeavyHitters(topK);
+        synchronized (this) {
+            for (Bucket b : rings[w.ring]) {
+                if (b.epoch < first || b.epoch > last) continue;
+                for (int i = 0; i < labels.length; i++) labels[i] += b.labels[i];
+                scores.merge(b.scores);
+                areas.merge(b.areas);
+            }
+        }
+        Map<String, Long> sentiments = new LinkedHashMap<>();
+        for (int i = 0; i < LABELS.length; i++) if (labels[i] > 0) sentiments.put(LABELS[i], labels[i]);
+        return new Snapshot(first * w.bucketMillis, now, scores.count(), sentiments, round(scores.mean()),
+                round(scores.quantile(0.5)), round(scores.quantile(0.9)), round(scores.quantile(0.99)),
+                areas.top(topK));
+    }
+
+    private static int labelIndex(String label) {
+        if (label != null) {
+            for (int i = 0; i < LABELS.length - 1; i++) if (LABELS[i].equals(label)) return i;
+        }
+        return LABELS.length - 1;
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 1000.0) / 1000.0;
+    }
+}
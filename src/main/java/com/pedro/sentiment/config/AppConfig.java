@@ -1,23 +1,154 @@
 package com.pedro.sentiment.config;
 
+import com.pedro.sentiment.ai.BulkheadIAClient;
+import com.pedro.sentiment.ai.CachingIAClient;
+import com.pedro.sentiment.ai.CascadingIAClient;
+import com.pedro.sentiment.ai.CircuitBreakerIAClient;
 import com.pedro.sentiment.ai.IAClient;
+import com.pedro.sentiment.ai.LocalModelClient;
+import com.pedro.sentiment.ai.MeteredIAClient;
 import com.pedro.sentiment.ai.MockClient;
-import com.pedro.sentiment.ai.OpenAIClient;
+import com.pedro.sentiment.ai.SingleFlightIAClient;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
 
 @Configuration
 public class AppConfig {
 
-    @Value("${app.ai.provider:mock}")
-    private String provider;
+    @Value("${app.ai.bulkhead.enabled:true}")
+    private boolean bulkheadEnabled;
+
+    @Value("${app.ai.bulkhead.max-concurrent:64}")
+    private int bulkheadMaxConcurrent;
+
+    @Value("${app.ai.bulkhead.max-wait:2s}")
+    private Duration bulkheadMaxWait;
+
+    @Value("${app.ai.circuit-breaker.enabled:true}")
+    private boolean breakerEnabled;
+
+    @Value("${app.ai.circuit-breaker.window-size:50}")
+    private int breakerWindowSize;
+
+    @Value("${app.ai.circuit-breaker.minimum-calls:10}")
+    private int breakerMinimumCalls;
+
+    @Value("${app.ai.circuit-breaker.failure-rate-threshold:0.5}")
+    private double breakerFailureRate;
+
+    @Value("${app.ai.circuit-breaker.slow-call-threshold:3s}")
+    private Duration breakerSlowCall;
+
+    @Value("${app.ai.circuit-breaker.slow-call-rate-threshold:0.8}")
+    private double breakerSlowCallRate;
+
+    @Value("${app.ai.circuit-breaker.open-duration:30s}")
+    private Duration breakerOpenDuration;
+
+    @Value("${app.ai.single-flight.enabled:true}")
+    private boolean singleFlightEnabled;
+
+    @Value("${app.ai.cascade.enabled:false}")
+    private boolean cascadeEnabled;
+
+    @Value("${app.ai.cascade.cheap:mock}")
+    private String cascadeCheap;
+
+    @Value("${app.ai.cascade.min-confidence:0.7}")
+    private double cascadeMinConfidence;
+
+    @Value("${app.ai.cascade.escalate-on-contrast:true}")
+    private boolean cascadeEscalateOnContrast;
+
+    @Value("${local-model.path:models/sentiment-ptbr.bin}")
+    private String localModelPath;
+
+    @Value("${app.ai.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.ai.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${app.ai.cache.ttl:1h}")
+    private Duration cacheTtl;
+
+    /**
+     * IAClient injetado nos services: o provider ativo (mock/huggingface/openai, escolhido por
+     * {@code app.ai.provider}) envolvido pelos decorators habilitados.
+     *
+     * <p>Métricas: {@code sentiment.provider.calls} em volta de cada provider real (latência do modelo) e
+     * {@code sentiment.analysis} por fora de tudo (o que o chamador viu, com fallbacks e hits de cache);
+     * cada decorator expõe seus contadores/gauges.</p>
+     */
+    @Bean
+    @Primary
+    public IAClient iaClient(IAClient provider, MeterRegistry registry) {
+        Tags tags = MeteredIAClient.tags(provider);
+        IAClient client = new MeteredIAClient(provider, registry, "sentiment.provider.calls");
+        // breaker por fora: com o circuito aberto a resposta degradada sai na hora, sem esperar permissão do bulkhead
+        client = circuitBreaker(provider, bulkhead(client, registry, tags), registry, tags);
+        if (singleFlightEnabled) {
+            var sf = new SingleFlightIAClient(client);
+            FunctionCounter.builder("sentiment.single-flight.coalesced", sf, SingleFlightIAClient::coalescedCount)
+                    .description("Requests que esperaram uma chamada idêntica já em voo").tags(tags).register(registry);
+            Gauge.builder("sentiment.single-flight.in-flight", sf, SingleFlightIAClient::inFlight).tags(tags).register(registry);
+            client = sf;
+        }
+        client = cascade(provider, client, registry, tags);
+        if (cacheEnabled) {
+            var cache = new CachingIAClient(client, cacheMaxSize, cacheTtl);
+            cache.bindTo(registry);
+            client = cache;
+        }
+        return new MeteredIAClient(client, registry, "sentiment.analysis");
+    }
+
+    /** Tier barato na frente do remoto; só faz sentido quando o provider ativo é remoto. */
+    private IAClient cascade(IAClient provider, IAClient remote, MeterRegistry registry, Tags tags) {
+        if (!cascadeEnabled || isLocal(provider)) return remote;
+        IAClient cheap = "local".equalsIgnoreCase(cascadeCheap) ? new LocalModelClient(localModelPath) : new MockClient();
+        var cascade = new CascadingIAClient(new MeteredIAClient(cheap, registry, "sentiment.provider.calls"),
+                remote, cascadeMinConfidence, cascadeEscalateOnContrast);
+        for (CascadingIAClient.Tier tier : CascadingIAClient.Tier.values()) {
+            FunctionCounter.builder("sentiment.cascade.answered", cascade, c -> c.answeredBy(tier))
+                    .description("Requests respondidos por cada tier da cascata")
+                    .tags(tags).tag("tier", tier.name().toLowerCase()).register(registry);
+        }
+        return cascade;
+    }
+
+    private static boolean isLocal(IAClient provider) {
+        return provider instanceof MockClient || provider instanceof LocalModelClient;
+    }
+
+    /** Degrada para o MockClient quando o provider remoto falha/fica lento (nos providers locais não faz sentido). */
+    private IAClient circuitBreaker(IAClient provider, IAClient client, MeterRegistry registry, Tags tags) {
+        if (!breakerEnabled || isLocal(provider)) return client;
+        var breaker = new CircuitBreakerIAClient(client, breakerWindowSize, breakerMinimumCalls, breakerFailureRate,
+                breakerSlowCall, breakerSlowCallRate, breakerOpenDuration);
+        Gauge.builder("sentiment.circuit-breaker.open", breaker, b -> b.state() == CircuitBreakerIAClient.State.CLOSED ? 0 : 1)
+                .description("1 = circuito aberto/meio-aberto (respostas degradadas)").tags(tags).register(registry);
+        FunctionCounter.builder("sentiment.circuit-breaker.degraded", breaker, CircuitBreakerIAClient::degradedCount)
+                .description("Requests respondidos pelo fallback com o circuito aberto").tags(tags).register(registry);
+        return breaker;
+    }
 
-//    @Bean
-    public IAClient iaClient(OpenAIClient openAIClient) {
-        return switch (provider.toLowerCase()) {
-            case "openai" -> openAIClient;
-            default -> new MockClient();
-        };
+    /** Um bulkhead por provider; fica por dentro do cache para que hits não ocupem permissão. */
+    private IAClient bulkhead(IAClient client, MeterRegistry registry, Tags tags) {
+        if (!bulkheadEnabled) return client;
+        var bulkhead = new BulkheadIAClient(client, bulkheadMaxConcurrent, bulkheadMaxWait);
+        Gauge.builder("sentiment.bulkhead.available", bulkhead, BulkheadIAClient::available)
+                .description("Permissões livres do bulkhead").tags(tags).register(registry);
+        FunctionCounter.builder("sentiment.bulkhead.rejected", bulkhead, BulkheadIAClient::rejectedCount)
+                .description("Requests que não conseguiram permissão a tempo").tags(tags).register(registry);
+        return bulkhead;
     }
 }
@@ -0,0 +1,38 @@
+package com.pedro.sentiment.controller;
+
+import com.pedro.sentiment.analytics.SourceAnalytics;
+import com.pedro.sentiment.dto.SourceAnalyticsResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/api/v1/analytics")
+@ConditionalOnProperty(name = "app.analytics.enabled", havingValue = "true", matchIfMissing = true)
+public class AnalyticsController {
+    private final SourceAnalytics analytics;
+    public AnalyticsController(SourceAnalytics analytics) { this.analytics = analytics; }
+
+    /** Origens com janelas em memória. */
+    @GetMapping(value="/sources", produces="application/json")
+    public List<String> sources() {
+        return analytics.sources();
+    }
+
+    /** Sentimento de uma origem na janela ({@code 1m|1h|1d}, {@code sliding|tumbling}); sem {@code source} = "(sem origem)". */
+    @GetMapping(value="/sentiment", produces="application/json")
+    public ResponseEntity<SourceAnalyticsResponse> sentiment(@RequestParam(required=false) String source,
+                                                             @RequestParam(defaultValue="1h") String window,
+                                                             @RequestParam(defaultValue="sliding") String mode,
+                                                             @RequestParam(defaultValue="5") int top) {
+        boolean sliding = "sliding".equalsIgnoreCase(mode);
+        if (!sliding && !"tumbling".equalsIgnoreCase(mode) || !SourceAnalytics.isWindow(window)) {
+            return ResponseEntity.badRequest().build();
+        }
+        SourceAnalyticsResponse r = analytics.query(source, window, sliding, top);
+        return r == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(r);
+    }
+}
@@ -2,27 +2,75 @@ package com.pedro.sentiment.controller;
 
 import com.pedro.sentiment.dto.FeedbackRequest;
 import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.service.BatchSentimentService;
+import com.pedro.sentiment.service.BulkFileService;
 import com.pedro.sentiment.service.SentimentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
 @RequestMapping("/api/v1")
 public class FeedbackController {
 
     private final SentimentService service;
+    private final BatchSentimentService batch;
+    private final BulkFileService bulk;
 
-    public FeedbackController(SentimentService service) { this.service = service; }
+    public FeedbackController(SentimentService service, BatchSentimentService batch, BulkFileService bulk) {
+        this.service = service;
+        this.batch = batch;
+        this.bulk = bulk;
+    }
 
     @PostMapping(
             value = "/sentiment",
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<FeedbackResponse> analyze(@Valid @RequestBody FeedbackRequest req){
-        return ResponseEntity.ok(service.analyze(req));
+    public CompletableFuture<ResponseEntity<FeedbackResponse>> analyze(@Valid @RequestBody FeedbackRequest req){
+        // async: a thread do Tomcat é liberada enquanto o provider responde
+        return service.analyzeAsync(req).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Array JSON ou NDJSON de {@link FeedbackRequest}; responde NDJSON ({@code {"index":..,"result":..}} ou
+     * {@code {"index":..,"error":..}}) à medida que cada item termina. Escreve direto na resposta para
+     * não cair no timeout de request assíncrono em batches longos (a thread é virtual).
+     */
+    @PostMapping(
+            value = "/sentiment/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public void analyzeBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        batch.analyze(request.getInputStream(), response.getOutputStream());
+    }
+
+    /**
+     * Reprocessamento de exports: corpo CSV (com cabeçalho) ou JSONL, opcionalmente gzip, lido em streaming.
+     * Devolve um arquivo de resultados no mesmo formato/compressão, uma linha por item de entrada.
+     */
+    @PostMapping(value = "/sentiment/bulk")
+    public void analyzeBulk(@RequestParam(value = "format", required = false) String format,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BulkFileService.Format fmt = BulkFileService.Format.resolve(format, request.getContentType());
+        BulkFileService.Upload upload = bulk.open(request.getInputStream());
+
+        String filename = "sentiment-results." + fmt.extension() + (upload.gzip() ? ".gz" : "");
+        response.setContentType(upload.gzip() ? "application/gzip" : fmt.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
+        bulk.process(upload, fmt, response.getOutputStream());
     }
 }
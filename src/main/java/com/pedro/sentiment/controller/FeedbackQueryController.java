@@ -0,0 +1,28 @@
+package com.pedro.sentiment.controller;
+
+import com.pedro.sentiment.analytics.FeedbackColumns;
+import com.pedro.sentiment.dto.FeedbackQueryRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/api/v1/analytics")
+@ConditionalOnProperty(name = "app.columnar.enabled", havingValue = "true", matchIfMissing = true)
+public class FeedbackQueryController {
+    private final FeedbackColumns columns;
+    public FeedbackQueryController(FeedbackColumns columns) { this.columns = columns; }
+
+    /** Filtros + group-by (até 2 colunas) sobre todas as análises em memória; 400 com {@code error} se inválida. */
+    @PostMapping(value="/query", consumes="application/json", produces="application/json")
+    public ResponseEntity<?> query(@RequestBody FeedbackQueryRequest req) {
+        try {
+            return ResponseEntity.ok(columns.query(req));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -2,20 +2,39 @@ package com.pedro.sentiment.controller;
 
 import com.pedro.sentiment.dto.PeerFeedbackRequest;
 import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.dto.PeerSummaryResponse;
+import com.pedro.sentiment.peer.PeerFeedbackAggregator;
 import com.pedro.sentiment.service.PeerFeedbackService;
 import jakarta.validation.Valid;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
 @RequestMapping("/api/v1/peer-feedback")
 public class PeerFeedbackController {
     private final PeerFeedbackService service;
-    public PeerFeedbackController(PeerFeedbackService service) { this.service = service; }
+    private final PeerFeedbackAggregator aggregates;
+
+    public PeerFeedbackController(PeerFeedbackService service, PeerFeedbackAggregator aggregates) {
+        this.service = service;
+        this.aggregates = aggregates;
+    }
 
     @PostMapping(value="/analyze", consumes="application/json", produces="application/json")
-    public PeerFeedbackResponse analyze(@Valid @RequestBody PeerFeedbackRequest req) {
-        return service.analyze(req);
+    public CompletableFuture<PeerFeedbackResponse> analyze(@Valid @RequestBody PeerFeedbackRequest req) {
+        return service.analyzeAsync(req);
+    }
+
+    /** Totais acumulados de uma pessoa (sem reanalisar textos); sem {@code period} = todos os períodos. */
+    @GetMapping(value="/summary/{subjectId}", produces="application/json")
+    public ResponseEntity<PeerSummaryResponse> summary(@PathVariable String subjectId,
+                                                       @RequestParam(required=false) String period,
+                                                       @RequestParam(defaultValue="3") int top) {
+        PeerSummaryResponse s = aggregates.summary(subjectId, period, Math.max(0, Math.min(top, 50)));
+        return s == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(s);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.pedro.sentiment.controller;
+
+import com.pedro.sentiment.search.FeedbackSearchIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/api/v1/search")
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true", matchIfMissing = true)
+public class SearchController {
+    private final FeedbackSearchIndex index;
+    public SearchController(FeedbackSearchIndex index) { this.index = index; }
+
+    /** Termos (todos obrigatórios) e {@code "frases"} em {@code q}, filtrados por aspecto/sentimento/tipo; mais recentes primeiro. */
+    @GetMapping(produces="application/json")
+    public ResponseEntity<?> search(@RequestParam(required=false) String q,
+                                    @RequestParam(required=false) String aspect,
+                                    @RequestParam(required=false) String sentiment,
+                                    @RequestParam(required=false) String kind,
+                                    @RequestParam(defaultValue="20") int limit) {
+        try {
+            return ResponseEntity.ok(index.search(q, aspect, sentiment, kind, Math.min(limit, 500)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.pedro.sentiment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Uma linha da resposta NDJSON do batch: o resultado ou o erro do item de posição 'index'.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResponse {
+
+    @Schema(description = "Posição (0-based) do item no batch de entrada; as linhas saem na ordem em que terminam.",
+            example = "3")
+    private int index;
+
+    @Schema(description = "Identificador do item na entrada (coluna/campo 'id' da ingestão de arquivos), quando houver.",
+            example = "resp-00042")
+    private String id;
+
+    @Schema(description = "Resultado da análise (ausente quando há erro).")
+    private FeedbackResponse result;
+
+    @Schema(description = "Motivo da falha do item (validação ou JSON inválido).",
+            example = "text: O campo 'text' não pode estar vazio.")
+    private String error;
+
+    public BatchItemResponse() {}
+
+    public static BatchItemResponse ok(int index, String id, FeedbackResponse result) {
+        var r = new BatchItemResponse();
+        r.index = index;
+        r.id = id;
+        r.result = result;
+        return r;
+    }
+
+    public static BatchItemResponse error(int index, String id, String error) {
+        var r = new BatchItemResponse();
+        r.index = index;
+        r.id = id;
+        r.error = error;
+        return r;
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public FeedbackResponse getResult() { return result; }
+    public void setResult(FeedbackResponse result) { this.result = result; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
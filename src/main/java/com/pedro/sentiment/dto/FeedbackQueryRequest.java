@@ -0,0 +1,42 @@
+package com.pedro.sentiment.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Consulta agregada sobre as análises em memória (filtros por igualdade + group-by).")
+public class FeedbackQueryRequest {
+
+    @Schema(description = "Valores aceitos por coluna (OR dentro da coluna, AND entre colunas). " +
+            "Colunas: kind (sentiment/peer), source, project, aspect, sentiment, period.",
+            example = "{\"project\":[\"Portal X\"],\"period\":[\"2025-07\"]}")
+    private Map<String, List<String>> filters;
+
+    @Schema(description = "Data da análise a partir de (inclusive), yyyy-MM-dd em UTC.", example = "2025-07-01")
+    private String from;
+
+    @Schema(description = "Data da análise até (inclusive), yyyy-MM-dd em UTC.", example = "2025-07-31")
+    private String to;
+
+    @Schema(description = "Até 2 colunas (mesmos nomes dos filtros).", example = "[\"aspect\"]")
+    private List<String> groupBy;
+
+    @Schema(description = "Máximo de grupos na resposta, maiores primeiro (padrão 100).", example = "20")
+    private Integer limit;
+
+    public Map<String, List<String>> getFilters() { return filters; }
+    public void setFilters(Map<String, List<String>> filters) { this.filters = filters; }
+
+    public String getFrom() { return from; }
+    public void setFrom(String from) { this.from = from; }
+
+    public String getTo() { return to; }
+    public void setTo(String to) { this.to = to; }
+
+    public List<String> getGroupBy() { return groupBy; }
+    public void setGroupBy(List<String> groupBy) { this.groupBy = groupBy; }
+
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+}
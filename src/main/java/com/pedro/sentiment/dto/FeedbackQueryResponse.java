@@ -0,0 +1,32 @@
+package com.pedro.sentiment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resultado de uma consulta agregada.")
+public class FeedbackQueryResponse {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Group {
+        @Schema(description = "Valores das colunas do group-by (null = ausente).", example = "{\"aspect\":\"performance\"}")
+        public Map<String, String> key;
+        public long count;
+        public double avgScore;
+        @Schema(description = "Só quando há nota (peer feedback).")
+        public Double avgRating;
+        public Map<String, Long> sentiments;
+        public double negativeShare;
+        public double positiveShare;
+    }
+
+    @Schema(description = "Linhas examinadas.")
+    public long scanned;
+    @Schema(description = "Linhas que passaram nos filtros.")
+    public long matched;
+    public double tookMs;
+    public List<Group> groups;
+}
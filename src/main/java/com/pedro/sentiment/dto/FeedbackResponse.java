@@ -3,6 +3,8 @@ package com.pedro.sentiment.dto;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.Map;
+
 @Schema(description = "Resultado da análise de sentimento.")
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class FeedbackResponse {
@@ -39,6 +41,11 @@ public class FeedbackResponse {
             example = "2025-08-14T02:10:23.123-03:00")
     private String timestamp;
 
+    @Schema(description = "Tempo por etapa em ms (normalize, split, provider, retry-wait, aggregate, total); " +
+            "só com app.timing.include-in-body. O header Server-Timing traz o mesmo e mais a serialização.",
+            example = "{\"normalize\":0.04,\"provider\":812.3,\"aggregate\":0.35,\"total\":813.1}")
+    private Map<String, Double> timings;
+
     public FeedbackResponse() {}
 
     public FeedbackResponse(String sentiment, double score, String summary) {
@@ -78,4 +85,7 @@ public class FeedbackResponse {
 
     public String getTimestamp() { return timestamp; }
     public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
+
+    public Map<String, Double> getTimings() { return timings; }
+    public void setTimings(Map<String, Double> timings) { this.timings = timings; }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.List;
+import java.util.Map;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Resultado da análise de peer feedback (forças, melhorias e aspectos).")
@@ -63,4 +64,7 @@ public class PeerFeedbackResponse {
 
     public String provider;
     public String timestamp;
+
+    @Schema(description = "Tempo por etapa em ms; só com app.timing.include-in-body (ver header Server-Timing).")
+    public Map<String, Double> timings;
 }
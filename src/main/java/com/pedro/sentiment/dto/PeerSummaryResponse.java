@@ -0,0 +1,65 @@
+package com.pedro.sentiment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resumo acumulado dos peer feedbacks de uma pessoa (num período ou em todos).")
+public class PeerSummaryResponse {
+
+    public static class AspectSummary {
+        public String aspect;
+        @Schema(description = "Feedbacks em que o aspecto apareceu.")
+        public long mentions;
+        @Schema(description = "Média do positivo do aspecto nesses feedbacks (0..1).")
+        public double positive;
+        @Schema(description = "Média do negativo do aspecto nesses feedbacks (0..1).")
+        public double negative;
+
+        public AspectSummary() {}
+        public AspectSummary(String aspect, long mentions, double positive, double negative) {
+            this.aspect = aspect;
+            this.mentions = mentions;
+            this.positive = positive;
+            this.negative = negative;
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Finding {
+        public String aspect;
+        @Schema(description = "Feedbacks que apontaram o aspecto como força/melhoria.")
+        public long count;
+        @Schema(description = "Evidência mais recente.")
+        public String evidence;
+        public String suggestion; // só em melhorias
+
+        public Finding() {}
+        public Finding(String aspect, long count, String evidence, String suggestion) {
+            this.aspect = aspect;
+            this.count = count;
+            this.evidence = evidence;
+            this.suggestion = suggestion;
+        }
+    }
+
+    @Schema(example = "pedro")
+    public String subjectId;
+
+    @Schema(description = "Período consultado; ausente = todos os períodos somados.", example = "2025-07")
+    public String period;
+
+    public long feedbacks;
+
+    @Schema(description = "Feedbacks por sentimento.", example = "{\"POSITIVE\":7,\"MIXED\":2,\"NEGATIVE\":1}")
+    public Map<String, Long> sentiments;
+
+    public double averageScore;
+
+    public List<AspectSummary> aspects;
+    public List<Finding> topStrengths;
+    public List<Finding> topImprovements;
+}
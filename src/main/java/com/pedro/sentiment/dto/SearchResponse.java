@@ -0,0 +1,50 @@
+package com.pedro.sentiment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Feedbacks que contêm os termos da busca, do mais recente para o mais antigo.")
+public class SearchResponse {
+
+    public static class Evidence {
+        @Schema(description = "strength, improvement ou reason (/sentiment).", example = "improvement")
+        public String type;
+        public String aspect;
+        public String sentence;
+
+        public Evidence() {}
+        public Evidence(String type, String aspect, String sentence) {
+            this.type = type;
+            this.aspect = aspect;
+            this.sentence = sentence;
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Hit {
+        public long id;
+        public String timestamp;
+        @Schema(description = "sentiment ou peer.")
+        public String kind;
+        public String source;
+        public String subjectId;
+        public String project;
+        public String period;
+        public String sentiment;
+        public List<String> aspects;
+        @Schema(description = "Trecho do texto original em volta da primeira ocorrência.")
+        public String snippet;
+        @Schema(description = "Evidências (do aspecto filtrado, se houver) que citam algum termo da busca.")
+        public List<Evidence> evidence;
+    }
+
+    @Schema(example = "deploy \"code review\"")
+    public String query;
+    public List<Hit> hits;
+    @Schema(description = "Há mais resultados além do limit.")
+    public boolean hasMore;
+    public double tookMs;
+}
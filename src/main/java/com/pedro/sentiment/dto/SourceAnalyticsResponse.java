@@ -0,0 +1,62 @@
+package com.pedro.sentiment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Sentimento de uma origem numa janela de tempo (contagens exatas, quantis e top-k aproximados).")
+public class SourceAnalyticsResponse {
+
+    public static class Scores {
+        public double mean;
+        @Schema(description = "Quantis com erro ≤ 0,005.")
+        public double p50;
+        public double p90;
+        public double p99;
+
+        public Scores() {}
+        public Scores(double mean, double p50, double p90, double p99) {
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+        }
+    }
+
+    public static class AreaCount {
+        public String area;
+        @Schema(description = "Estimativa por baixo (heavy hitters): a real é no máximo n/(k+1) maior.")
+        public long count;
+
+        public AreaCount() {}
+        public AreaCount(String area, long count) {
+            this.area = area;
+            this.count = count;
+        }
+    }
+
+    @Schema(example = "Suporte Técnico")
+    public String source;
+
+    @Schema(description = "1m, 1h ou 1d.", example = "1h")
+    public String window;
+
+    @Schema(description = "sliding = últimos 60 s/60 min/24 h; tumbling = desde o início do minuto/hora/dia (UTC).",
+            example = "sliding")
+    public String mode;
+
+    public String from;
+    public String to;
+
+    public long count;
+
+    @Schema(example = "{\"POSITIVE\":120,\"NEGATIVE\":31,\"MIXED\":9}")
+    public Map<String, Long> sentiments;
+
+    public Scores score;
+
+    public List<AreaCount> topImprovementAreas;
+}
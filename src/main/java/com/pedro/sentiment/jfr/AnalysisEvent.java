@@ -0,0 +1,58 @@
+package com.pedro.sentiment.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** Um request de análise de ponta a ponta (normalização, provider e montagem da resposta). */
+@Name("com.pedro.sentiment.Analysis")
+@Label("Analysis")
+@Description("Request de análise de sentimento/peer feedback")
+@Category({"Sentiment", "Request"})
+@StackTrace(false)
+@Threshold("50 ms")
+public final class AnalysisEvent extends Event {
+
+    @Label("Service")
+    @Description("sentiment | peer")
+    private String service;
+
+    @Label("Provider")
+    private String provider;
+
+    @Label("Sentiment")
+    private String sentiment;
+
+    @Label("Fallback")
+    private boolean fallback;
+
+    @Label("Characters")
+    private int chars;
+
+    @Label("Sentences")
+    @Description("Sentenças analisadas; 0 = só o texto inteiro")
+    private int sentences;
+
+    public static AnalysisEvent start() {
+        var e = new AnalysisEvent();
+        e.begin();
+        return e;
+    }
+
+    /** Fecha o evento; os campos só são preenchidos quando ele vai ser gravado (passou do threshold). */
+    public void finish(String service, String provider, String sentiment, boolean fallback, int chars, int sentences) {
+        end();
+        if (!shouldCommit()) return;
+        this.service = service;
+        this.provider = provider;
+        this.sentiment = sentiment;
+        this.fallback = fallback;
+        this.chars = chars;
+        this.sentences = sentences;
+        commit();
+    }
+}
@@ -0,0 +1,79 @@
+package com.pedro.sentiment.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Uma chamada HTTP lógica a um provider (no HF: um POST com todos os retries). Começa antes do envio e
+ * termina quando a resposta final chega, possivelmente em outra thread.
+ */
+@Name("com.pedro.sentiment.ProviderCall")
+@Label("Provider Call")
+@Description("Chamada a um provider de IA (com retries)")
+@Category({"Sentiment", "Provider"})
+@StackTrace(false)
+@Threshold("20 ms")
+public final class ProviderCallEvent extends Event {
+
+    @Label("Provider")
+    private String provider;
+
+    @Label("Model")
+    private String model;
+
+    @Label("Sentences")
+    @Description("Entradas no payload (sentenças no HF; 1 texto no OpenAI)")
+    private int sentences;
+
+    @Label("Status")
+    @Description("Status HTTP final; 0 = sem resposta (ver error)")
+    private int status;
+
+    @Label("Attempts")
+    private int attempts;
+
+    @Label("Request Bytes")
+    @DataAmount
+    private long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    private long responseBytes;
+
+    @Label("Error")
+    private String error;
+
+    /** Evento já iniciado; quem chama fecha com {@link #finish}. */
+    public static ProviderCallEvent start() {
+        var e = new ProviderCallEvent();
+        e.begin();
+        return e;
+    }
+
+    /** Tentativa atual (retries atualizam antes de reenviar). */
+    public void attempt(int attempt) {
+        this.attempts = attempt;
+    }
+
+    /** Fecha o evento; os campos só são preenchidos quando ele vai ser gravado (passou do threshold). */
+    public void finish(String provider, String model, int sentences, int status, long requestBytes,
+                       long responseBytes, Throwable error) {
+        end();
+        if (!shouldCommit()) return;
+        this.provider = provider;
+        this.model = model;
+        this.sentences = sentences;
+        this.status = status;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.error = error == null ? null : error.getClass().getSimpleName();
+        if (attempts == 0) attempts = 1;
+        commit();
+    }
+}
@@ -0,0 +1,52 @@
+package com.pedro.sentiment.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Etapa local de processamento de texto: normalização, extração de razão/aspecto e sugestão de melhoria.
+ * Roda várias vezes por request, então o threshold padrão só grava as lentas.
+ */
+@Name("com.pedro.sentiment.TextProcessing")
+@Label("Text Processing")
+@Description("Normalização e extração sobre o texto do feedback")
+@Category({"Sentiment", "Text"})
+@StackTrace(false)
+@Threshold("1 ms")
+public final class TextProcessingEvent extends Event {
+
+    public static final String NORMALIZE = "normalize";
+    public static final String REASON = "reason";
+    public static final String ASPECT = "aspect";
+    public static final String SUGGESTION = "suggestion";
+
+    @Label("Stage")
+    private String stage;
+
+    @Label("Characters")
+    private int chars;
+
+    @Label("Result")
+    private String result;
+
+    public static TextProcessingEvent start() {
+        var e = new TextProcessingEvent();
+        e.begin();
+        return e;
+    }
+
+    /** Fecha o evento; os campos só são preenchidos quando ele vai ser gravado (passou do threshold). */
+    public void finish(String stage, int chars, String result) {
+        end();
+        if (!shouldCommit()) return;
+        this.stage = stage;
+        this.chars = chars;
+        this.result = result;
+        commit();
+    }
+}
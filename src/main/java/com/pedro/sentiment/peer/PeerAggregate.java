@@ -0,0 +1,151 @@
+package com.pedro.sentiment.peer;
+
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.dto.PeerSummaryResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totais de peer feedback de um recorte (subjectId + period): contagem por sentimento, somas de
+ * positivo/negativo por aspecto e quantas vezes cada aspecto apareceu como força/melhoria, com a evidência
+ * mais recente. Só somas e contagens: dois agregados se juntam com {@link #merge} (ex.: todos os períodos de
+ * uma pessoa) e o resumo sai em O(aspectos), sem reler texto. Thread-safe (monitor do próprio agregado).
+ */
+public final class PeerAggregate {
+
+    private long feedbacks;
+    private double scoreSum;
+    private final Map<String, Long> sentiments = new HashMap<>();
+    private final Map<String, AspectTotals> aspects = new HashMap<>();
+
+    private static final class AspectTotals {
+        long mentions;
+        double positive;
+        double negative;
+        long strengths;
+        long improvements;
+        String strengthEvidence;
+        String improvementEvidence;
+        String suggestion;
+
+        void merge(AspectTotals o) {
+            mentions += o.mentions;
+            positive += o.positive;
+            negative += o.negative;
+            strengths += o.strengths;
+            improvements += o.improvements;
+            if (o.strengthEvidence != null) strengthEvidence = o.strengthEvidence;
+            if (o.improvementEvidence != null) improvementEvidence = o.improvementEvidence;
+            if (o.suggestion != null) suggestion = o.suggestion;
+        }
+    }
+
+    /** Soma uma resposta de {@code /peer-feedback/analyze}. */
+    public synchronized void add(PeerFeedbackResponse resp) {
+        feedbacks++;
+        scoreSum += resp.score;
+        if (resp.sentiment != null) sentiments.merge(resp.sentiment, 1L, Long::sum);
+        if (resp.aspects != null) {
+            for (var a : resp.aspects) {
+                var t = totals(a.aspect);
+                t.mentions++;
+                t.positive += a.positive;
+                t.negative += a.negative;
+            }
+        }
+        if (resp.strengths != null) {
+            for (var s : resp.strengths) {
+                var t = totals(s.aspect);
+                t.strengths++;
+                if (s.evidence != null) t.strengthEvidence = s.evidence;
+            }
+        }
+        if (resp.improvements != null) {
+            for (var i : resp.improvements) {
+                var t = totals(i.aspect);
+                t.improvements++;
+                if (i.evidence != null) t.improvementEvidence = i.evidence;
+                if (i.suggestion != null) t.suggestion = i.suggestion;
+            }
+        }
+    }
+
+    /** Soma {@code other} a este agregado (em caso de empate, a evidência de {@code other} prevalece). */
+    public void merge(PeerAggregate other) {
+        PeerAggregate o = other.copy(); // não segura os dois monitores ao mesmo tempo
+        synchronized (this) {
+            feedbacks += o.feedbacks;
+            scoreSum += o.scoreSum;
+            o.sentiments.forEach((k, v) -> sentiments.merge(k, v, Long::sum));
+            o.aspects.forEach((k, v) -> totals(k).merge(v));
+        }
+    }
+
+    public synchronized PeerAggregate copy() {
+        var c = new PeerAggregate();
+        c.feedbacks = feedbacks;
+        c.scoreSum = scoreSum;
+        c.sentiments.putAll(sentiments);
+        aspects.forEach((k, v) -> c.totals(k).merge(v));
+        return c;
+    }
+
+    public synchronized long feedbacks() {
+        return feedbacks;
+    }
+
+    /** Resumo com as {@code top} forças/melhorias mais frequentes. */
+    public synchronized PeerSummaryResponse summary(String subjectId, String period, int top) {
+        var out = new PeerSummaryResponse();
+        out.subjectId = subjectId;
+        out.period = period;
+        out.feedbacks = feedbacks;
+        out.averageScore = feedbacks == 0 ? 0 : round(scoreSum / feedbacks);
+        out.sentiments = new LinkedHashMap<>(sentiments);
+
+        out.aspects = new ArrayList<>(aspects.size());
+        List<Map.Entry<String, AspectTotals>> strengths = new ArrayList<>();
+        List<Map.Entry<String, AspectTotals>> improvements = new ArrayList<>();
+        for (var e : aspects.entrySet()) {
+            var t = e.getValue();
+            if (t.mentions > 0) {
+                out.aspects.add(new PeerSummaryResponse.AspectSummary(e.getKey(), t.mentions,
+                        round(t.positive / t.mentions), round(t.negative / t.mentions)));
+            }
+            if (t.strengths > 0) strengths.add(e);
+            if (t.improvements > 0) improvements.add(e);
+        }
+        out.aspects.sort(Comparator.comparingLong((PeerSummaryResponse.AspectSummary a) -> a.mentions).reversed()
+                .thenComparing(a -> a.aspect));
+
+        strengths.sort(Comparator.comparingLong((Map.Entry<String, AspectTotals> e) -> e.getValue().strengths).reversed()
+                .thenComparing(Map.Entry::getKey));
+        improvements.sort(Comparator.comparingLong((Map.Entry<String, AspectTotals> e) -> e.getValue().improvements).reversed()
+                .thenComparing(Map.Entry::getKey));
+
+        out.topStrengths = new ArrayList<>();
+        for (var e : strengths.subList(0, Math.min(top, strengths.size()))) {
+            out.topStrengths.add(new PeerSummaryResponse.Finding(e.getKey(), e.getValue().strengths,
+                    e.getValue().strengthEvidence, null));
+        }
+        out.topImprovements = new ArrayList<>();
+        for (var e : improvements.subList(0, Math.min(top, improvements.size()))) {
+            out.topImprovements.add(new PeerSummaryResponse.Finding(e.getKey(), e.getValue().improvements,
+                    e.getValue().improvementEvidence, e.getValue().suggestion));
+        }
+        return out;
+    }
+
+    private AspectTotals totals(String aspect) {
+        return aspects.computeIfAbsent(aspect == null ? "geral" : aspect, k -> new AspectTotals());
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 1000.0) / 1000.0;
+    }
+}
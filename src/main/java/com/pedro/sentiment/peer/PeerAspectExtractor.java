@@ -1,9 +1,9 @@
 package com.pedro.sentiment.peer;
 
-import java.text.Normalizer;
-import java.util.Locale;
+import com.pedro.sentiment.jfr.TextProcessingEvent;
+import com.pedro.sentiment.text.NormalizedText;
+
 import java.util.Map;
-import java.util.regex.Pattern;
 
 public class PeerAspectExtractor {
 
@@ -39,27 +39,33 @@ public class PeerAspectExtractor {
             Map.entry("negocio","entendimento de requisitos")
     );
 
-    private static final Pattern WORD = Pattern.compile("\\p{L}+");
-
     public static String canonicalAspect(String text) {
-        if (text == null || text.isBlank()) return "geral";
-        String norm = normalize(text);
-        var m = WORD.matcher(norm);
-        while (m.find()) {
-            String token = m.group();
-            for (var e : SYN.entrySet()) {
-                if (token.equals(e.getKey()) || norm.contains(e.getKey())) {
-                    return e.getValue();
-                }
-            }
+        return canonicalAspect(NormalizedText.of(text));
+    }
+
+    public static String canonicalAspect(NormalizedText text) {
+        var event = TextProcessingEvent.start();
+        String aspect = aspectOf(text);
+        event.finish(TextProcessingEvent.ASPECT, text.length(), aspect);
+        return aspect;
+    }
+
+    private static String aspectOf(NormalizedText text) {
+        if (text.isEmpty() || !hasLetter(text)) return "geral";
+        String norm = text.value();
+        // token igual à chave implica chave contida no texto: basta a busca por substring
+        for (var e : SYN.entrySet()) {
+            if (norm.contains(e.getKey())) return e.getValue();
         }
         return "geral";
     }
 
-    private static String normalize(String s) {
-        String n = Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}+","");
-        n = n.toLowerCase(Locale.ROOT);
-        n = n.replaceAll("\\s+"," ").trim();
-        return n;
+    private static boolean hasLetter(NormalizedText text) {
+        for (int t = 0; t < text.tokenCount(); t++) {
+            for (int i = text.tokenStart(t); i < text.tokenEnd(t); i++) {
+                if (Character.isLetter(text.charAt(i))) return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,82 @@
+package com.pedro.sentiment.peer;
+
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.dto.PeerSummaryResponse;
+import com.pedro.sentiment.service.AnalysisListener;
+import com.pedro.sentiment.store.AnalysisRecord;
+import com.pedro.sentiment.store.AnalysisStore;
+import com.pedro.sentiment.store.HistoryConsumer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agregados de peer feedback por (subjectId, period), atualizados a cada análise: o relatório de um ciclo
+ * sai dos totais, sem reanalisar nenhum texto. Sem {@code period} no request, o feedback entra no recorte
+ * "sem período" (só aparece na consulta de todos os períodos).
+ *
+ * <p>Com o {@link AnalysisStore} ligado e {@code rebuild-on-start}, os totais são remontados do histórico no
+ * start (as respostas gravadas, não os textos) antes de a aplicação aceitar requests (ver
+ * {@link com.pedro.sentiment.store.HistoryReplay}).</p>
+ */
+@Component
+public class PeerFeedbackAggregator implements AnalysisListener, HistoryConsumer, MeterBinder {
+
+    private static final String NO_PERIOD = "";
+
+    private final Map<String, Map<String, PeerAggregate>> bySubject = new ConcurrentHashMap<>();
+
+    private final boolean rebuildOnStart;
+
+    public PeerFeedbackAggregator(@Value("${app.peer.aggregates.rebuild-on-start:true}") boolean rebuildOnStart) {
+        this.rebuildOnStart = rebuildOnStart;
+    }
+
+    @Override
+    public boolean rebuildOnStart() {
+        return rebuildOnStart;
+    }
+
+    @Override
+    public void replay(AnalysisRecord record) {
+        if (AnalysisRecord.PEER.equals(record.kind())) record.replayTo(this);
+    }
+
+    @Override
+    public void onPeerFeedback(PeerFeedbackRequest request, PeerFeedbackResponse response) {
+        String subject = request.getSubjectId();
+        if (subject == null || subject.isBlank()) return;
+        String period = request.getPeriod() == null ? NO_PERIOD : request.getPeriod().trim();
+        bySubject.computeIfAbsent(subject.trim(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(period, k -> new PeerAggregate())
+                .add(response);
+    }
+
+    /**
+     * Resumo de uma pessoa num período ({@code period == null} = todos os períodos somados);
+     * {@code null} = nenhum feedback no recorte.
+     */
+    public PeerSummaryResponse summary(String subjectId, String period, int top) {
+        Map<String, PeerAggregate> periods = bySubject.get(subjectId.trim());
+        if (periods == null) return null;
+        if (period != null) {
+            PeerAggregate a = periods.get(period.trim());
+            return a == null ? null : a.summary(subjectId, period, top);
+        }
+        var all = new PeerAggregate();
+        for (PeerAggregate a : periods.values()) all.merge(a);
+        return all.summary(subjectId, null, top);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sentiment.peer.aggregates", bySubject, Map::size)
+                .description("Pessoas com agregados de peer feedback em memória").register(registry);
+    }
+}
@@ -0,0 +1,427 @@
+package com.pedro.sentiment.search;
+
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.dto.SearchResponse;
+import com.pedro.sentiment.service.AnalysisListener;
+import com.pedro.sentiment.store.AnalysisRecord;
+import com.pedro.sentiment.store.AnalysisStore;
+import com.pedro.sentiment.store.HistoryConsumer;
+import com.pedro.sentiment.text.NormalizedText;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido dos textos analisados ({@code /sentiment} e peer feedback): token normalizado (sem acento,
+ * minúsculo, ver {@link NormalizedText}) → {@link Postings} com as posições, para buscas E ("deploy pr") e por
+ * frase ({@code "code review"}). Aspecto, sentimento e tipo entram como termos de filtro ({@code aspect:...})
+ * no mesmo índice, então filtrar é só mais uma lista na interseção.
+ *
+ * <p>Os resultados saem do mais recente para o mais antigo: a busca percorre de trás para frente a lista do
+ * termo mais raro e confere os demais pulando direto para o bloco do doc, parando no {@code limit}. Não há
+ * ranking por relevância.</p>
+ *
+ * <p>Atualizado a cada análise e, com o {@link AnalysisStore} e {@code rebuild-on-start}, remontado do histórico
+ * no start (ver {@link com.pedro.sentiment.store.HistoryReplay}). Guarda no máximo {@code max-docs} (com texto e
+ * evidências, para o trecho do resultado); os mais antigos saem e suas listas são podadas a cada
+ * {@value #TRIM_EVERY} docs. Escrita sob write lock, buscas sob read lock.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true", matchIfMissing = true)
+public class FeedbackSearchIndex implements AnalysisListener, HistoryConsumer, MeterBinder {
+
+    private static final int TRIM_EVERY = 8192;
+    private static final int REBASE_AT = 1 << 30;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int SNIPPET_BEFORE = 10;
+    private static final int SNIPPET_AFTER = 15;
+
+    /** Documento indexado; imutável, lido fora do lock. */
+    private record Doc(long ts, String kind, String source, String subjectId, String project, String period,
+                       String sentiment, List<String> aspects, String text, List<SearchResponse.Evidence> evidence) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Doc[] docs;
+    private final int rebaseAt;
+    private final boolean rebuildOnStart;
+    private int nextDoc;   // ids internos (int, nas listas), relativos a base
+    private long base;     // quanto já foi descontado pelos rebases: id público = base + id
+
+    @Autowired
+    public FeedbackSearchIndex(
+            @Value("${app.search.max-docs:200000}") int maxDocs,
+            @Value("${app.search.rebuild-on-start:true}") boolean rebuildOnStart
+    ) {
+        this(maxDocs, REBASE_AT, rebuildOnStart);
+    }
+
+    /** Sem histórico (benchmarks e uso fora do Spring). */
+    public FeedbackSearchIndex(int maxDocs) {
+        this(maxDocs, REBASE_AT, false);
+    }
+
+    FeedbackSearchIndex(int maxDocs, int rebaseAt, boolean rebuildOnStart) {
+        this.docs = new Doc[Math.max(1, maxDocs)];
+        this.rebaseAt = rebaseAt;
+        this.rebuildOnStart = rebuildOnStart;
+    }
+
+    // ---------- escrita ----------
+
+    @Override
+    public void onSentiment(FeedbackRequest request, FeedbackResponse response) {
+        add(System.currentTimeMillis(), request, response);
+    }
+
+    @Override
+    public void onPeerFeedback(PeerFeedbackRequest request, PeerFeedbackResponse response) {
+        add(System.currentTimeMillis(), request, response);
+    }
+
+    @Override
+    public boolean rebuildOnStart() {
+        return rebuildOnStart;
+    }
+
+    @Override
+    public void replay(AnalysisRecord r) {
+        switch (r.kind()) {
+            case AnalysisRecord.SENTIMENT ->
+                    add(r.ts(), (FeedbackRequest) r.request(), (FeedbackResponse) r.response());
+            case AnalysisRecord.PEER ->
+                    add(r.ts(), (PeerFeedbackRequest) r.request(), (PeerFeedbackResponse) r.response());
+            default -> { }
+        }
+    }
+
+    private void add(long ts, FeedbackRequest req, FeedbackResponse resp) {
+        String area = resp.getImprovementArea();
+        List<SearchResponse.Evidence> evidence = resp.getReason() == null || resp.getReason().isBlank() ? List.of()
+                : List.of(new SearchResponse.Evidence("reason", area, resp.getReason()));
+        add(new Doc(ts, AnalysisRecord.SENTIMENT, req.getSource(), null, null, null, resp.getSentiment(),
+                area == null ? List.of() : List.of(area), req.getText(), evidence));
+    }
+
+    private void add(long ts, PeerFeedbackRequest req, PeerFeedbackResponse resp) {
+        Set<String> aspects = new LinkedHashSet<>();
+        List<SearchResponse.Evidence> evidence = new ArrayList<>();
+        if (resp.strengths != null) {
+            for (var s : resp.strengths) {
+                if (s.aspect != null) aspects.add(s.aspect);
+                if (s.evidence != null) evidence.add(new SearchResponse.Evidence("strength", s.aspect, s.evidence));
+            }
+        }
+        if (resp.improvements != null) {
+            for (var i : resp.improvements) {
+                if (i.aspect != null) aspects.add(i.aspect);
+                if (i.evidence != null) evidence.add(new SearchResponse.Evidence("improvement", i.aspect, i.evidence));
+            }
+        }
+        add(new Doc(ts, AnalysisRecord.PEER, null, req.getSubjectId(), req.getProject(), req.getPeriod(),
+                resp.sentiment, List.copyOf(aspects), req.getText(), List.copyOf(evidence)));
+    }
+
+    private void add(Doc doc) {
+        // tokeniza fora do lock
+        NormalizedText text = NormalizedText.of(doc.text());
+        Map<String, int[]> positions = new LinkedHashMap<>(); // termo → [n, p0, p1, ...]
+        for (int t = 0; t < text.tokenCount(); t++) {
+            if (text.tokenEnd(t) - text.tokenStart(t) > MAX_TERM_LENGTH) continue;
+            String term = text.token(t);
+            int[] p = positions.computeIfAbsent(term, k -> new int[4]);
+            if (p[0] + 1 == p.length) p = grow(positions, term, p);
+            p[++p[0]] = t;
+        }
+        List<String> filters = new ArrayList<>();
+        filters.add(filterTerm("kind", doc.kind()));
+        if (doc.sentiment() != null) filters.add(filterTerm("sentiment", doc.sentiment()));
+        for (String a : doc.aspects()) filters.add(filterTerm("aspect", a));
+
+        lock.writeLock().lock();
+        try {
+            int id = nextDoc++;
+            docs[id % docs.length] = doc;
+            for (var e : positions.entrySet()) {
+                int[] p = e.getValue();
+                terms.computeIfAbsent(e.getKey(), k -> new Postings()).add(id, p, 1, p[0]);
+            }
+            for (String f : new HashSet<>(filters)) {
+                terms.computeIfAbsent(f, k -> new Postings()).add(id, null, 0, 0);
+            }
+            if (nextDoc % TRIM_EVERY == 0 && floor() > 0) {
+                trim();
+                if (nextDoc >= rebaseAt) rebase();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int[] grow(Map<String, int[]> positions, String term, int[] p) {
+        int[] bigger = Arrays.copyOf(p, p.length * 2);
+        positions.put(term, bigger);
+        return bigger;
+    }
+
+    /** Poda as listas dos docs que já saíram da janela; termos vazios somem. */
+    private void trim() {
+        int floor = floor();
+        terms.values().removeIf(p -> {
+            p.trimBelow(floor);
+            return p.docs() == 0;
+        });
+    }
+
+    /**
+     * Desconta dos ids um múltiplo do tamanho do anel (as posições no anel não mudam), para que {@code nextDoc}
+     * nunca chegue a estourar o int numa instância de vida longa. Nas listas só o primeiro doc de cada bloco é
+     * absoluto, então é barato.
+     */
+    private void rebase() {
+        int shift = floor() / docs.length * docs.length;
+        if (shift == 0) return;
+        for (Postings p : terms.values()) p.rebase(shift);
+        nextDoc -= shift;
+        base += shift;
+    }
+
+    private int floor() {
+        return Math.max(0, nextDoc - docs.length);
+    }
+
+    // ---------- busca ----------
+
+    /** Termos e frases (entre aspas) da consulta, já normalizados. */
+    record Query(List<List<String>> phrases) {
+
+        static Query parse(String q) {
+            List<List<String>> phrases = new ArrayList<>();
+            if (q != null) {
+                String[] parts = q.split("\"", -1);
+                for (int i = 0; i < parts.length; i++) {
+                    NormalizedText t = NormalizedText.of(parts[i]);
+                    if (i % 2 == 1) { // dentro das aspas
+                        List<String> phrase = new ArrayList<>();
+                        for (int k = 0; k < t.tokenCount(); k++) phrase.add(t.token(k));
+                        if (!phrase.isEmpty()) phrases.add(phrase);
+                    } else {
+                        for (int k = 0; k < t.tokenCount(); k++) phrases.add(List.of(t.token(k)));
+                    }
+                }
+            }
+            return new Query(phrases);
+        }
+
+        Set<String> tokens() {
+            Set<String> out = new HashSet<>();
+            phrases.forEach(out::addAll);
+            return out;
+        }
+    }
+
+    /** Lista de um termo e o bloco decodificado por último (a busca anda para trás: quase sempre é o mesmo). */
+    private static final class Cursor {
+        final Postings postings;
+        final Postings.Block block = new Postings.Block();
+        int at;
+
+        Cursor(Postings postings) { this.postings = postings; }
+
+        boolean seek(int doc) {
+            int b = postings.blockOf(doc);
+            if (b < 0) return false;
+            postings.decode(b, block);
+            at = block.find(doc);
+            return at >= 0;
+        }
+    }
+
+    private record Match(long id, Doc doc, int position) {}
+
+    /**
+     * Feedbacks com todos os termos e frases de {@code q} e dos filtros, do mais recente para o mais antigo.
+     * Sem termo nem filtro = {@link IllegalArgumentException}.
+     */
+    public SearchResponse search(String q, String aspect, String sentiment, String kind, int limit) {
+        long t0 = System.nanoTime();
+        Query query = Query.parse(q);
+        List<String> filters = new ArrayList<>();
+        if (aspect != null && !aspect.isBlank()) filters.add(filterTerm("aspect", aspect));
+        if (sentiment != null && !sentiment.isBlank()) filters.add(filterTerm("sentiment", sentiment));
+        if (kind != null && !kind.isBlank()) filters.add(filterTerm("kind", kind));
+        if (query.phrases().isEmpty() && filters.isEmpty()) {
+            throw new IllegalArgumentException("informe q (termos ou \"frase\") ou um filtro");
+        }
+        limit = Math.max(0, limit);
+
+        List<Match> matches = new ArrayList<>();
+        boolean hasMore;
+        lock.readLock().lock();
+        try {
+            hasMore = collect(query, filters, limit, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        var out = new SearchResponse();
+        out.query = q;
+        out.hits = new ArrayList<>(matches.size());
+        Set<String> tokens = query.tokens();
+        String aspectKey = aspect == null || aspect.isBlank() ? null : NormalizedText.of(aspect).value();
+        for (Match m : matches) out.hits.add(hit(m, tokens, aspectKey));
+        out.hasMore = hasMore;
+        out.tookMs = Math.round((System.nanoTime() - t0) / 10_000.0) / 100.0;
+        return out;
+    }
+
+    /** Preenche {@code out} com até {@code limit} docs; {@code true} se existe mais um. */
+    private boolean collect(Query query, List<String> filters, int limit, List<Match> out) {
+        Map<String, Cursor> cursors = new LinkedHashMap<>();
+        for (List<String> phrase : query.phrases()) for (String t : phrase) cursors.putIfAbsent(t, null);
+        for (String f : filters) cursors.putIfAbsent(f, null);
+        for (var e : cursors.entrySet()) {
+            Postings p = terms.get(e.getKey());
+            if (p == null || p.docs() == 0) return false; // termo que nunca apareceu: nada casa
+            e.setValue(new Cursor(p));
+        }
+
+        Cursor lead = cursors.values().stream()
+                .min((a, b) -> Integer.compare(a.postings.docs(), b.postings.docs()))
+                .orElseThrow();
+        List<Cursor> others = cursors.values().stream().filter(c -> c != lead).toList();
+        int floor = floor();
+
+        for (int b = lead.postings.blocks() - 1; b >= 0; b--) {
+            lead.postings.decode(b, lead.block);
+            for (int i = lead.block.size - 1; i >= 0; i--) {
+                int doc = lead.block.docs[i];
+                if (doc < floor) return false;
+                lead.at = i;
+                boolean all = true;
+                for (Cursor c : others) if (!c.seek(doc)) { all = false; break; }
+                if (!all) continue;
+                int position = firstMatch(query, cursors);
+                if (position == -1) continue;
+                if (out.size() == limit) return true;
+                out.add(new Match(base + doc, docs[doc % docs.length], position));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Posição (token) da primeira ocorrência da primeira frase, conferindo a sequência de todas as frases;
+     * -1 se alguma não aparece em ordem. Sem termos (só filtros) = 0.
+     */
+    private static int firstMatch(Query query, Map<String, Cursor> cursors) {
+        int first = 0;
+        for (int f = 0; f < query.phrases().size(); f++) {
+            List<String> phrase = query.phrases().get(f);
+            Cursor head = cursors.get(phrase.get(0));
+            Postings.Block hb = head.block;
+            int found = -1;
+            for (int k = hb.posStart[head.at]; k < hb.posStart[head.at + 1] && found < 0; k++) {
+                int start = hb.positions[k];
+                boolean ok = true;
+                for (int j = 1; j < phrase.size() && ok; j++) {
+                    Cursor c = cursors.get(phrase.get(j));
+                    ok = c.block.hasPosition(c.at, start + j);
+                }
+                if (ok) found = start;
+            }
+            if (found < 0) return -1;
+            if (f == 0) first = found;
+        }
+        return first;
+    }
+
+    private static SearchResponse.Hit hit(Match m, Set<String> tokens, String aspectKey) {
+        Doc d = m.doc();
+        var hit = new SearchResponse.Hit();
+        hit.id = m.id();
+        hit.timestamp = Instant.ofEpochMilli(d.ts()).toString();
+        hit.kind = d.kind();
+        hit.source = d.source();
+        hit.subjectId = d.subjectId();
+        hit.project = d.project();
+        hit.period = d.period();
+        hit.sentiment = d.sentiment();
+        hit.aspects = d.aspects().isEmpty() ? null : d.aspects();
+
+        NormalizedText text = NormalizedText.of(d.text());
+        if (m.position() < text.tokenCount()) {
+            int from = Math.max(0, m.position() - SNIPPET_BEFORE);
+            int to = Math.min(text.tokenCount() - 1, m.position() + SNIPPET_AFTER);
+            hit.snippet = (from > 0 ? "…" : "") + text.originalSlice(text.tokenStart(from), text.tokenEnd(to))
+                    + (to < text.tokenCount() - 1 ? "…" : "");
+        }
+
+        List<SearchResponse.Evidence> evidence = new ArrayList<>();
+        for (var e : d.evidence()) {
+            if (aspectKey != null
+                    && (e.aspect == null || !aspectKey.equals(NormalizedText.of(e.aspect).value()))) continue;
+            if (tokens.isEmpty() || mentions(e.sentence, tokens)) evidence.add(e);
+        }
+        hit.evidence = evidence.isEmpty() ? null : evidence;
+        return hit;
+    }
+
+    private static boolean mentions(String sentence, Set<String> tokens) {
+        NormalizedText t = NormalizedText.of(sentence);
+        for (int k = 0; k < t.tokenCount(); k++) if (tokens.contains(t.token(k))) return true;
+        return false;
+    }
+
+    /** Termo de filtro; o {@code :} não aparece em token, então não colide com palavras do texto. */
+    private static String filterTerm(String field, String value) {
+        return field + ":" + NormalizedText.of(value).value();
+    }
+
+    // ---------- métricas ----------
+
+    public int docs() {
+        lock.readLock().lock();
+        try {
+            return nextDoc - floor();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sentiment.search.docs", this, FeedbackSearchIndex::docs)
+                .description("Feedbacks no índice de busca").register(registry);
+        Gauge.builder("sentiment.search.terms", this, FeedbackSearchIndex::termCount)
+                .description("Termos distintos no índice de busca").register(registry);
+    }
+}
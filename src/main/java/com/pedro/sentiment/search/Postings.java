@@ -0,0 +1,165 @@
+package com.pedro.sentiment.search;
+
+import java.util.Arrays;
+
+/**
+ * Lista de ocorrências de um termo: docs em ordem crescente, cada um com as posições (índice do token) no texto.
+ * Comprimida em varint com deltas, em blocos de até {@value #BLOCK} docs. Cada bloco guarda o primeiro doc e o
+ * offset, então a busca pula direto para o bloco de um doc e percorre os blocos do mais novo para o mais velho,
+ * decodificando só os que visita.
+ *
+ * <p>Entrada: {@code varint(doc - anterior)}, {@code varint(freq)}, {@code freq × varint(posição - anterior)}.
+ * O primeiro doc do bloco é delta do primeiro doc do bloco (= 0). Termos de filtro (aspecto, sentimento) têm
+ * freq 0. Sem sincronização: o índice serializa escritas e leituras.</p>
+ */
+final class Postings {
+
+    static final int BLOCK = 128;
+
+    private byte[] data = new byte[16];
+    private int length;
+    private int[] blockDoc = new int[1];
+    private int[] blockOffset = new int[1];
+    private int blocks;
+    private int inLastBlock;
+    private int lastDoc = -1;
+    private int docs;
+
+    /** Acrescenta um doc maior que todos os anteriores; posições em {@code positions[from..from+n)}, crescentes. */
+    void add(int doc, int[] positions, int from, int n) {
+        if (blocks == 0 || inLastBlock == BLOCK) {
+            if (blocks == blockDoc.length) {
+                blockDoc = Arrays.copyOf(blockDoc, blocks * 2);
+                blockOffset = Arrays.copyOf(blockOffset, blocks * 2);
+            }
+            blockDoc[blocks] = doc;
+            blockOffset[blocks] = length;
+            blocks++;
+            inLastBlock = 0;
+            writeVarint(0);
+        } else {
+            writeVarint(doc - lastDoc);
+        }
+        writeVarint(n);
+        int prev = 0;
+        for (int i = from; i < from + n; i++) {
+            writeVarint(positions[i] - prev);
+            prev = positions[i];
+        }
+        lastDoc = doc;
+        inLastBlock++;
+        docs++;
+    }
+
+    int docs() { return docs; }
+    int blocks() { return blocks; }
+    int bytes() { return length + blocks * 8; }
+
+    /** Último bloco cujo primeiro doc é ≤ {@code doc}, ou -1. */
+    int blockOf(int doc) {
+        int lo = 0, hi = blocks - 1, found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blockDoc[mid] <= doc) { found = mid; lo = mid + 1; } else hi = mid - 1;
+        }
+        return found;
+    }
+
+    /** Descarta os blocos que só têm docs menores que {@code floor}; devolve quantos docs saíram. */
+    int trimBelow(int floor) {
+        int drop = 0;
+        while (drop < blocks && (drop + 1 < blocks ? blockDoc[drop + 1] <= floor : lastDoc < floor)) drop++;
+        if (drop == 0) return 0;
+        int removed = drop == blocks ? docs : drop * BLOCK;
+        if (drop == blocks) {
+            data = new byte[16];
+            length = 0;
+            blocks = 0;
+            lastDoc = -1;
+            inLastBlock = 0;
+        } else {
+            int from = blockOffset[drop];
+            length -= from;
+            data = Arrays.copyOfRange(data, from, from + Math.max(length, 16));
+            blocks -= drop;
+            System.arraycopy(blockDoc, drop, blockDoc, 0, blocks);
+            System.arraycopy(blockOffset, drop, blockOffset, 0, blocks);
+            for (int b = 0; b < blocks; b++) blockOffset[b] -= from;
+        }
+        docs -= removed;
+        return removed;
+    }
+
+    /** Subtrai {@code shift} de todos os docs (os deltas não mudam). */
+    void rebase(int shift) {
+        for (int b = 0; b < blocks; b++) blockDoc[b] -= shift;
+        if (blocks > 0) lastDoc -= shift;
+    }
+
+    /** Bloco decodificado: docs, e as posições de {@code docs[i]} em {@code positions[posStart[i] .. posStart[i+1])}. */
+    static final class Block {
+        int index = -1;
+        int size;
+        int[] docs = new int[BLOCK];
+        int[] posStart = new int[BLOCK + 1];
+        int[] positions = new int[BLOCK * 4];
+
+        /** Índice de {@code doc} no bloco, ou -1. */
+        int find(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            return i < 0 ? -1 : i;
+        }
+
+        boolean hasPosition(int i, int position) {
+            return Arrays.binarySearch(positions, posStart[i], posStart[i + 1], position) >= 0;
+        }
+    }
+
+    void decode(int block, Block out) {
+        if (out.index == block) return;
+        int p = blockOffset[block];
+        int end = block + 1 < blocks ? blockOffset[block + 1] : length;
+        int doc = blockDoc[block], n = 0, np = 0;
+        int[] v = new int[1];
+        while (p < end) {
+            p = readVarint(p, v);
+            doc += v[0];
+            p = readVarint(p, v);
+            int freq = v[0];
+            out.docs[n] = doc;
+            out.posStart[n] = np;
+            if (np + freq > out.positions.length) out.positions = Arrays.copyOf(out.positions, Math.max(np + freq, out.positions.length * 2));
+            int pos = 0;
+            for (int k = 0; k < freq; k++) {
+                p = readVarint(p, v);
+                pos += v[0];
+                out.positions[np++] = pos;
+            }
+            n++;
+        }
+        out.posStart[n] = np;
+        out.size = n;
+        out.index = block;
+    }
+
+    private void writeVarint(int v) {
+        if (length + 5 > data.length) data = Arrays.copyOf(data, data.length * 2);
+        while ((v & ~0x7F) != 0) {
+            data[length++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        data[length++] = (byte) v;
+    }
+
+    private int readVarint(int p, int[] out) {
+        int v = 0, shift = 0;
+        byte b;
+        do {
+            b = data[p++];
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        out[0] = v;
+        return p;
+    }
+}
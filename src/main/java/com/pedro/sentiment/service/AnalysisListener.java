@@ -0,0 +1,18 @@
+package com.pedro.sentiment.service;
+
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+
+/**
+ * Recebe cada análise concluída pelos services (persistência, agregados...). Roda na thread que montou a
+ * resposta, no caminho do request: tem que ser rápido (enfileirar, somar) e não deve lançar exceção.
+ * Request e resposta não devem ser alterados.
+ */
+public interface AnalysisListener {
+
+    default void onSentiment(FeedbackRequest request, FeedbackResponse response) {}
+
+    default void onPeerFeedback(PeerFeedbackRequest request, PeerFeedbackResponse response) {}
+}
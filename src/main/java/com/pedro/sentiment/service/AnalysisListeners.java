@@ -0,0 +1,53 @@
+package com.pedro.sentiment.service;
+
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+/** Os {@link AnalysisListener}s de um service; falha de um listener é logada e não derruba a resposta. */
+final class AnalysisListeners {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisListeners.class);
+
+    static final AnalysisListeners NONE = new AnalysisListeners(List.of());
+
+    private final AnalysisListener[] listeners;
+
+    AnalysisListeners(List<AnalysisListener> listeners) {
+        this.listeners = listeners.toArray(AnalysisListener[]::new);
+    }
+
+    static AnalysisListeners of(ObjectProvider<AnalysisListener> provider) {
+        return new AnalysisListeners(provider.orderedStream().toList());
+    }
+
+    void sentiment(FeedbackRequest req, FeedbackResponse resp) {
+        for (var l : listeners) {
+            try {
+                l.onSentiment(req, resp);
+            } catch (RuntimeException e) {
+                failed(l, e);
+            }
+        }
+    }
+
+    void peerFeedback(PeerFeedbackRequest req, PeerFeedbackResponse resp) {
+        for (var l : listeners) {
+            try {
+                l.onPeerFeedback(req, resp);
+            } catch (RuntimeException e) {
+                failed(l, e);
+            }
+        }
+    }
+
+    private static void failed(AnalysisListener l, RuntimeException e) {
+        log.warn("AnalysisListener {} falhou: {}", l.getClass().getSimpleName(), e.toString());
+    }
+}
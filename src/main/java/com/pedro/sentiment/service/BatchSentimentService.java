@@ -0,0 +1,210 @@
+package com.pedro.sentiment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.sentiment.dto.BatchItemResponse;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Pipeline de batch: itens lidos em streaming de uma {@link Source}, analisados em paralelo e
+ * escritos num {@link Sink} à medida que terminam (cada resultado leva o {@code index} do item).
+ *
+ * <p>No máximo {@code max-concurrency} análises ficam em voo; a leitura só avança quando uma termina,
+ * então o parser desacelera quando o provider é o gargalo e nem a entrada nem os resultados ficam
+ * inteiros em memória. Textos idênticos dentro do batch reaproveitam a mesma análise (janela limitada
+ * a {@code dedupe-max-entries} textos); o item repetido ainda chega aos {@link AnalysisListener}s com o próprio
+ * request. Usado pelo endpoint NDJSON e pela ingestão de arquivos.</p>
+ */
+@Service
+public class BatchSentimentService {
+
+    /** Fonte de itens; {@code null} = fim. Exceção = entrada ilegível dali em diante (encerra o batch). */
+    @FunctionalInterface
+    public interface Source {
+        Input next() throws IOException;
+    }
+
+    /** Destino dos resultados; as chamadas já chegam serializadas (uma por vez). */
+    @FunctionalInterface
+    public interface Sink {
+        void write(BatchItemResponse item) throws IOException;
+    }
+
+    /** Um item lido; {@code error != null} = linha inválida (vira linha de erro, o batch continua). */
+    public record Input(String id, FeedbackRequest request, String error) {
+        public static Input of(String id, FeedbackRequest request) { return new Input(id, request, null); }
+        public static Input invalid(String id, String error)       { return new Input(id, null, error); }
+    }
+
+    private final SentimentService sentiment;
+    private final Validator validator;
+    private final ObjectMapper mapper;
+
+    @Value("${app.batch.max-concurrency:16}")
+    private int maxConcurrency = 16;
+
+    @Value("${app.batch.max-items:100000}")
+    private int maxItems = 100_000;
+
+    @Value("${app.batch.dedupe-max-entries:10000}")
+    private int dedupeMaxEntries = 10_000;
+
+    public BatchSentimentService(SentimentService sentiment, Validator validator, ObjectMapper mapper) {
+        this.sentiment = sentiment;
+        this.validator = validator;
+        this.mapper = mapper;
+    }
+
+    /** Array JSON ou NDJSON de {@link FeedbackRequest} em {@code in}; uma linha NDJSON por item em {@code out}. */
+    public void analyze(InputStream in, OutputStream out) throws IOException {
+        try (MappingIterator<FeedbackRequest> items = mapper.readerFor(FeedbackRequest.class).readValues(in)) {
+            process(jsonSource(items), item -> {
+                out.write(mapper.writeValueAsBytes(item));
+                out.write('\n');
+                out.flush();
+            }, maxItems);
+        }
+    }
+
+    /** Source sobre um iterator do Jackson (array na raiz é desembrulhado; NDJSON = valores em sequência). */
+    static Source jsonSource(MappingIterator<FeedbackRequest> items) {
+        return () -> {
+            try {
+                return items.hasNextValue() ? Input.of(null, items.nextValue()) : null;
+            } catch (JsonMappingException e) {
+                return Input.invalid(null, "item inválido: " + e.getOriginalMessage()); // o iterator se ressincroniza
+            }
+        };
+    }
+
+    /**
+     * Roda o pipeline até a fonte acabar (ou {@code limit} itens) e espera todos os itens terminarem.
+     * Falha de escrita no sink (cliente desconectou) interrompe a leitura e é relançada no fim.
+     */
+    public void process(Source source, Sink out, long limit) throws IOException {
+        var sink = new SerialSink(out);
+        var permits = new Semaphore(Math.max(1, maxConcurrency));
+        var outstanding = new AtomicInteger(1); // 1 = leitura ainda em andamento
+        var finished = new CompletableFuture<Void>();
+        Runnable arrive = () -> { if (outstanding.decrementAndGet() == 0) finished.complete(null); };
+        Map<String, CompletableFuture<FeedbackResponse>> seen = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<FeedbackResponse>> e) {
+                return size() > dedupeMaxEntries;
+            }
+        };
+
+        try {
+            int index = 0;
+            while (!sink.failed()) {
+                Input in;
+                try {
+                    in = source.next();
+                } catch (IOException e) {
+                    String msg = e instanceof JsonProcessingException j ? j.getOriginalMessage() : e.getMessage();
+                    sink.write(BatchItemResponse.error(index, null, "entrada inválida: " + msg));
+                    break;
+                }
+                if (in == null) break;
+
+                final int i = index++;
+                final String id = in.id();
+                if (i >= limit) {
+                    sink.write(BatchItemResponse.error(i, id, "batch excede o limite de " + limit + " itens"));
+                    break;
+                }
+                String error = in.error() != null ? in.error() : violations(in.request());
+                if (error != null) {
+                    sink.write(BatchItemResponse.error(i, id, error));
+                    continue;
+                }
+
+                final FeedbackRequest req = in.request();
+                CompletableFuture<FeedbackResponse> f = seen.get(req.getText());
+                final boolean reused = f != null;
+                if (!reused) {
+                    permits.acquire();
+                    f = start(req).whenComplete((r, e) -> permits.release());
+                    seen.put(req.getText(), f);
+                }
+
+                outstanding.incrementAndGet();
+                f.whenComplete((r, e) -> {
+                    // a análise é a mesma, mas o item é outro (outra origem): histórico e analytics contam os dois
+                    if (e == null && reused) sentiment.reused(req, r);
+                    sink.write(e == null ? BatchItemResponse.ok(i, id, r) : BatchItemResponse.error(i, id, message(e)));
+                    arrive.run();
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        arrive.run();
+        finished.join();
+        sink.rethrow();
+    }
+
+    private CompletableFuture<FeedbackResponse> start(FeedbackRequest req) {
+        try {
+            return sentiment.analyzeAsync(req);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private String violations(FeedbackRequest req) {
+        Set<ConstraintViolation<FeedbackRequest>> v = validator.validate(req);
+        if (v.isEmpty()) return null;
+        return v.stream()
+                .map(c -> c.getPropertyPath() + ": " + c.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String message(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return "falha na análise: " + cause.getClass().getSimpleName();
+    }
+
+    /** Serializa as escritas (os itens terminam em threads diferentes) e guarda o 1º erro de I/O. */
+    private static final class SerialSink {
+        private final Sink out;
+        private volatile IOException failure;
+
+        SerialSink(Sink out) { this.out = out; }
+
+        synchronized void write(BatchItemResponse item) {
+            if (failure != null) return;
+            try {
+                out.write(item);
+            } catch (IOException e) {
+                failure = e; // cliente desconectou: para de ler e descarta o resto
+            }
+        }
+
+        boolean failed() { return failure != null; }
+
+        void rethrow() throws IOException {
+            if (failure != null) throw failure;
+        }
+    }
+}
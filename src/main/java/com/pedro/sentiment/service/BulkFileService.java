@@ -0,0 +1,183 @@
+package com.pedro.sentiment.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.pedro.sentiment.dto.BatchItemResponse;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ingestão de exports (CSV com cabeçalho ou JSONL, opcionalmente gzip) sobre o pipeline do
+ * {@link BatchSentimentService}: linhas parseadas sob demanda, resultado escrito como arquivo no mesmo
+ * formato (e compressão) da entrada. Colunas/campos lidos: {@code text} (obrigatório), {@code source}, {@code id}.
+ */
+@Service
+public class BulkFileService {
+
+    private static final int BUFFER = 64 * 1024;
+
+    public enum Format {
+        CSV("text/csv", "csv"), JSONL("application/x-ndjson", "jsonl");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() { return contentType; }
+        public String extension()   { return extension; }
+
+        /** {@code format} explícito (csv|jsonl) ou deduzido do Content-Type; JSONL por padrão. */
+        public static Format resolve(String format, String contentType) {
+            String f = format != null && !format.isBlank() ? format : contentType;
+            return f != null && f.toLowerCase(Locale.ROOT).contains("csv") ? CSV : JSONL;
+        }
+    }
+
+    /** Corpo da requisição já descomprimido; {@code gzip} indica se veio comprimido (a resposta segue igual). */
+    public record Upload(InputStream body, boolean gzip) {}
+
+    /** Linha de entrada (CSV ou JSONL); colunas extras são ignoradas. */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Row(String id, String text, String source) {}
+
+    /** Linha de saída do CSV. */
+    @JsonPropertyOrder({"index", "id", "sentiment", "score", "summary", "reason", "improvementArea", "improvement",
+            "provider", "error"})
+    record CsvResult(int index, String id, String sentiment, Double score, String summary, String reason,
+                     String improvementArea, String improvement, String provider, String error) {
+
+        static CsvResult of(BatchItemResponse item) {
+            FeedbackResponse r = item.getResult();
+            if (r == null) {
+                return new CsvResult(item.getIndex(), item.getId(), null, null, null, null, null, null, null,
+                        item.getError());
+            }
+            return new CsvResult(item.getIndex(), item.getId(), r.getSentiment(), r.getScore(), r.getSummary(),
+                    r.getReason(), r.getImprovementArea(), r.getImprovement(), r.getProvider(), null);
+        }
+    }
+
+    private final BatchSentimentService pipeline;
+    private final ObjectMapper mapper;
+    private final CsvMapper csv = new CsvMapper();
+
+    @Value("${app.bulk.max-rows:0}")
+    private long maxRows; // 0 = sem limite
+
+    public BulkFileService(BatchSentimentService pipeline, ObjectMapper mapper) {
+        this.pipeline = pipeline;
+        this.mapper = mapper;
+    }
+
+    /** Detecta gzip pelos magic bytes (não depende de Content-Encoding) e descomprime em streaming. */
+    public Upload open(InputStream raw) throws IOException {
+        var in = new BufferedInputStream(raw, BUFFER);
+        in.mark(2);
+        int b0 = in.read(), b1 = in.read();
+        in.reset();
+        boolean gzip = b0 == 0x1f && b1 == 0x8b;
+        return new Upload(gzip ? new GZIPInputStream(in, BUFFER) : in, gzip);
+    }
+
+    /** Processa o upload inteiro escrevendo o arquivo de resultados em {@code out} (fechado no fim). */
+    public void process(Upload upload, Format format, OutputStream out) throws IOException {
+        OutputStream target = upload.gzip()
+                ? new GZIPOutputStream(out, BUFFER)
+                : new BufferedOutputStream(out, BUFFER);
+        long limit = maxRows > 0 ? maxRows : Long.MAX_VALUE;
+
+        try (target) {
+            if (format == Format.CSV) {
+                ObjectReader reader = csv.readerFor(Row.class).with(CsvSchema.emptySchema().withHeader());
+                try (MappingIterator<Row> rows = reader.readValues(upload.body());
+                     SequenceWriter w = csv.writer(csv.schemaFor(CsvResult.class).withHeader()).writeValues(target)) {
+                    pipeline.process(csvRows(rows), item -> w.write(CsvResult.of(item)), limit);
+                }
+            } else {
+                try (var lines = new BufferedReader(new InputStreamReader(upload.body(), StandardCharsets.UTF_8),
+                        BUFFER)) {
+                    pipeline.process(jsonLines(lines), item -> {
+                        target.write(mapper.writeValueAsBytes(item));
+                        target.write('\n');
+                    }, limit);
+                }
+            }
+        }
+    }
+
+    /**
+     * Linhas do CSV. O parser de CSV anda por registro, então depois de um erro (de sintaxe ou de mapeamento)
+     * o {@link MappingIterator} continua no registro seguinte.
+     */
+    private static BatchSentimentService.Source csvRows(MappingIterator<Row> rows) {
+        return () -> {
+            Row r;
+            try {
+                if (!rows.hasNextValue()) return null;
+                r = rows.nextValue();
+            } catch (JsonProcessingException e) {
+                return invalid(e);
+            }
+            return input(r);
+        };
+    }
+
+    /**
+     * Uma linha = um objeto, parseada sozinha: JSON quebrado numa linha vira item inválido e a leitura segue na
+     * próxima (um parser único sobre o stream inteiro não se recupera de erro de sintaxe). Linhas em branco são
+     * puladas.
+     */
+    private BatchSentimentService.Source jsonLines(BufferedReader lines) {
+        ObjectReader reader = mapper.readerFor(Row.class);
+        return () -> {
+            String line;
+            do {
+                line = lines.readLine();
+                if (line == null) return null;
+            } while (line.isBlank());
+            Row r;
+            try {
+                r = reader.readValue(line);
+            } catch (JsonProcessingException e) {
+                return invalid(e);
+            }
+            return r == null ? BatchSentimentService.Input.invalid(null, "linha inválida: null") : input(r);
+        };
+    }
+
+    private static BatchSentimentService.Input input(Row r) {
+        var req = new FeedbackRequest();
+        req.setText(r.text());
+        req.setSource(r.source());
+        return BatchSentimentService.Input.of(r.id(), req);
+    }
+
+    private static BatchSentimentService.Input invalid(JsonProcessingException e) {
+        return BatchSentimentService.Input.invalid(null, "linha inválida: " + e.getOriginalMessage());
+    }
+}
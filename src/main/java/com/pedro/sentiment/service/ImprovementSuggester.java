@@ -1,5 +1,8 @@
 package com.pedro.sentiment.service;
 
+import com.pedro.sentiment.jfr.TextProcessingEvent;
+import com.pedro.sentiment.text.NormalizedText;
+
 import java.util.Locale;
 import java.util.Set;
 
@@ -14,6 +17,12 @@ final class ImprovementSuggester {
             "disponibilidade","preco","fila","atraso","lentidao"
     );
 
+    // Pistas de problema já no formato normalizado (sem acento/caixa)
+    private static final String[] NEG_CUES = {
+            "mas","porem","no entanto","todavia","contudo","atraso","demora","fila","lento","lentidao",
+            "falha","erro","travou","mensagens de erro","nao consegui","frustrado","insatisfeito"
+    };
+
     static String normalizeReason(String reason) {
         if (reason == null) return "geral";
         String r = reason.toLowerCase(Locale.ROOT).trim();
@@ -33,20 +42,29 @@ final class ImprovementSuggester {
         return r.isBlank() ? "geral" : r;
     }
 
-    private static boolean hasNegativeCue(String text) {
-        if (text == null) return false;
-        String t = text.toLowerCase(Locale.ROOT);
-        String[] cues = {"mas","porém","porem","no entanto","todavia","contudo","atraso","demora","fila","lento","lentidão","falha","erro","travou","mensagens de erro","não consegui","nao consegui","frustrado","insatisfeito"};
-        for (String c : cues) if (t.contains(c)) return true;
+    private static boolean hasNegativeCue(NormalizedText text) {
+        String t = text.value();
+        for (String c : NEG_CUES) if (t.contains(c)) return true;
         return false;
     }
 
     static String suggest(String sentiment, String reason, String originalText) {
+        return suggest(sentiment, reason, NormalizedText.of(originalText));
+    }
+
+    static String suggest(String sentiment, String reason, NormalizedText text) {
+        var event = TextProcessingEvent.start();
+        String suggestion = suggestion(sentiment, reason, text);
+        event.finish(TextProcessingEvent.SUGGESTION, text.length(), suggestion);
+        return suggestion;
+    }
+
+    private static String suggestion(String sentiment, String reason, NormalizedText text) {
         String s = sentiment == null ? "" : sentiment.toUpperCase(Locale.ROOT);
         String area = normalizeReason(reason);
 
         boolean areaNegativa = NEG_AREAS.contains(area);
-        boolean textoTemPistaNeg = hasNegativeCue(originalText);
+        boolean textoTemPistaNeg = hasNegativeCue(text);
 
         if (areaNegativa || textoTemPistaNeg || "NEGATIVE".equals(s) || "MIXED".equals(s)) {
             return switch (area) {
@@ -1,16 +1,36 @@
 package com.pedro.sentiment.service;
 
+import com.pedro.sentiment.ai.Aggregate;
 import com.pedro.sentiment.ai.IAClient;
 import com.pedro.sentiment.ai.SupportsDetailed;
 import com.pedro.sentiment.dto.PeerFeedbackRequest;
 import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.jfr.AnalysisEvent;
 import com.pedro.sentiment.peer.PeerAspectExtractor;
+import com.pedro.sentiment.text.NormalizedText;
+import com.pedro.sentiment.text.Sentences;
+import com.pedro.sentiment.timing.RequestTimings;
+import com.pedro.sentiment.timing.RequestTimings.Stage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.text.BreakIterator;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class PeerFeedbackService {
@@ -22,32 +42,252 @@ public class PeerFeedbackService {
     private static final int    MAX_SENTENCES    = 12;
 
     private final IAClient ia;
+    private final boolean fanOut;
+    private final Duration deadline;
+    private final boolean overallFromSentences;
+    private final ExecutorService requests =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("peer-request-", 0).factory());
 
-    @Value("${huggingface.model:unknown}")
-    private String model;
+    // sentiment.peer.stage{stage, mode}: detailed = provider com análise por sentença, per-sentence = fan-out
+    private final Stages detailedStages;
+    private final Stages perSentenceStages;
+    private final DistributionSummary sentencesPerRequest;
+    private final AnalysisListeners listeners;
 
-    public PeerFeedbackService(IAClient ia) { this.ia = ia; }
+    public PeerFeedbackService(IAClient ia) {
+        this(ia, true, Duration.ofSeconds(15), false);
+    }
+
+    /** Sem métricas (registry vazio): benchmarks e uso fora do Spring. */
+    public PeerFeedbackService(IAClient ia, boolean fanOut, Duration deadline, boolean overallFromSentences) {
+        this(ia, fanOut, deadline, overallFromSentences, new CompositeMeterRegistry(), AnalysisListeners.NONE);
+    }
+
+    @Autowired
+    public PeerFeedbackService(
+            IAClient ia,
+            @Value("${app.peer.fan-out:true}") boolean fanOut,
+            @Value("${app.peer.deadline:15s}") Duration deadline,
+            @Value("${app.peer.overall-from-sentences:false}") boolean overallFromSentences,
+            MeterRegistry registry,
+            ObjectProvider<AnalysisListener> listeners
+    ) {
+        this(ia, fanOut, deadline, overallFromSentences, registry, AnalysisListeners.of(listeners));
+    }
+
+    private PeerFeedbackService(IAClient ia, boolean fanOut, Duration deadline, boolean overallFromSentences,
+                                MeterRegistry registry, AnalysisListeners listeners) {
+        this.ia = ia;
+        this.fanOut = fanOut;
+        this.deadline = deadline;
+        this.overallFromSentences = overallFromSentences;
+        this.detailedStages = Stages.of(registry, "detailed");
+        this.perSentenceStages = Stages.of(registry, "per-sentence");
+        this.sentencesPerRequest = DistributionSummary.builder("sentiment.peer.sentences")
+                .description("Sentenças analisadas por feedback").register(registry);
+        this.listeners = listeners;
+    }
 
     public PeerFeedbackResponse analyze(PeerFeedbackRequest req) {
         var now = OffsetDateTime.now();
+        boolean detailed = ia.supportsDetailed() && ia instanceof SupportsDetailed;
+        var trace = new Trace(detailed ? detailedStages : perSentenceStages);
 
-        IAClient.Result overall;
-        List<SupportsDetailed.SentenceSentiment> per = List.of();
+        // normaliza uma vez; sentenças viram recortes (views) do mesmo texto normalizado
+        NormalizedText text = trace.normalize(req.getText());
+
+        if (detailed) {
+            var det = ((SupportsDetailed) ia).analyzeDetailed(text);
+            trace.timings.stop(Stage.PROVIDER, trace.analyzeStart);
+            return respond(trace, req, now, text, det.overall(), det.perSentence());
+        }
+        return analyzePerSentence(req, now, text, trace);
+    }
+
+    /**
+     * Mesma análise sem bloquear a thread do chamador. Sem {@link SupportsDetailed}, o fan-out por sentença
+     * (chamadas bloqueantes) roda numa virtual thread.
+     */
+    public CompletableFuture<PeerFeedbackResponse> analyzeAsync(PeerFeedbackRequest req) {
+        var now = OffsetDateTime.now();
+        boolean detailed = ia.supportsDetailed() && ia instanceof SupportsDetailed;
+        var trace = new Trace(detailed ? detailedStages : perSentenceStages);
+
+        NormalizedText text = trace.normalize(req.getText());
+
+        if (detailed) {
+            return ((SupportsDetailed) ia).analyzeDetailedAsync(text).thenApply(det -> {
+                trace.timings.stop(Stage.PROVIDER, trace.analyzeStart);
+                return respond(trace, req, now, text, det.overall(), det.perSentence());
+            });
+        }
+        return CompletableFuture.supplyAsync(() -> analyzePerSentence(req, now, text, trace), requests);
+    }
+
+    /**
+     * Provider sem análise detalhada: uma chamada por sentença (até {@link #MAX_SENTENCES}) mais a do texto
+     * inteiro, todas ao mesmo tempo ({@code analyzeAsync}). O que não terminar até o deadline é cancelado: a
+     * sentença sai do resultado e o overall vira fallback.
+     * Com {@code overall-from-sentences}, o overall é agregado das sentenças e a chamada extra não é feita.
+     */
+    private PeerFeedbackResponse analyzePerSentence(PeerFeedbackRequest req, OffsetDateTime now, NormalizedText text,
+                                                    Trace trace) {
+        long t0 = System.nanoTime();
+        List<String> sentences = Sentences.split(req.getText(), MAX_SENTENCES);
+        List<NormalizedText> views = sentenceViews(text, sentences);
+        long t1 = trace.timings.stop(Stage.SPLIT, t0);
+
+        List<NormalizedText> calls = new ArrayList<>(views);
+        if (!overallFromSentences) calls.add(text); // último = texto inteiro
+        List<IAClient.Result> results = fanOut ? analyzeAll(calls) : analyzeSequentially(calls);
+        trace.timings.stop(Stage.PROVIDER, t1); // fan-out: tempo de parede, não a soma das chamadas
+
+        List<SupportsDetailed.SentenceSentiment> per = new ArrayList<>();
+        for (int i = 0; i < sentences.size(); i++) {
+            var r = results.get(i);
+            if (r != null) per.add(new SupportsDetailed.SentenceSentiment(sentences.get(i), r.getSentiment(), r.getScore()));
+        }
 
-        if (ia instanceof SupportsDetailed sd) {
-            var det = sd.analyzeDetailed(req.getText());
-            overall = det.overall();
-            per = det.perSentence();
+        IAClient.Result overall;
+        if (overallFromSentences) {
+            overall = overallFrom(per, text);
         } else {
-            List<String> sentences = split(req.getText(), MAX_SENTENCES);
-            List<SupportsDetailed.SentenceSentiment> tmp = new ArrayList<>();
-            for (String s : sentences) {
-                var r = ia.analyze(s);
-                tmp.add(new SupportsDetailed.SentenceSentiment(s, r.getSentiment(), r.getScore()));
+            overall = results.get(sentences.size());
+            if (overall == null) overall = IAClient.Result.fallback("Tempo esgotado – fallback.", "geral");
+        }
+        return respond(trace, req, now, text, overall, per);
+    }
+
+    /**
+     * Fan-out com deadline por request; posição {@code null} = não terminou a tempo (ou falhou). No deadline
+     * devolve na hora e cancela o que ficou pendente: o cancelamento desce pelos decorators até o provider
+     * (no HF, a fila do limitador e a troca HTTP), em vez de deixar a chamada seguindo depois da resposta.
+     */
+    private List<IAClient.Result> analyzeAll(List<NormalizedText> calls) {
+        long end = System.nanoTime() + deadline.toNanos();
+        List<CompletableFuture<IAClient.Result>> running = new ArrayList<>(calls.size());
+        for (NormalizedText t : calls) running.add(start(t));
+
+        List<IAClient.Result> out = new ArrayList<>(calls.size());
+        boolean interrupted = false;
+        for (Future<IAClient.Result> f : running) {
+            IAClient.Result r = null;
+            if (!interrupted) {
+                try {
+                    r = f.get(Math.max(0, end - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    // falhou ou estourou o deadline: fica null
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                }
+            }
+            if (r == null) f.cancel(true);
+            out.add(r);
+        }
+        return out;
+    }
+
+    /**
+     * {@code analyzeAsync} iniciado numa virtual thread: providers cujo async roda no chamador (mock, OpenAI sem
+     * virtual threads) continuam em paralelo. Cancelar o future devolvido cancela o do provider.
+     */
+    private CompletableFuture<IAClient.Result> start(NormalizedText t) {
+        var result = new CompletableFuture<IAClient.Result>();
+        requests.execute(() -> {
+            if (result.isDone()) return; // já cancelado
+            CompletableFuture<IAClient.Result> f;
+            try {
+                f = ia.analyzeAsync(t);
+            } catch (RuntimeException e) {
+                f = CompletableFuture.failedFuture(e);
             }
-            per = tmp;
-            overall = ia.analyze(req.getText());
+            CompletableFuture<IAClient.Result> call = f;
+            call.whenComplete((r, e) -> {
+                if (e != null) result.completeExceptionally(e); else result.complete(r);
+            });
+            result.whenComplete((r, e) -> {
+                if (result.isCancelled()) call.cancel(true);
+            });
+        });
+        return result;
+    }
+
+    @PreDestroy
+    void close() {
+        requests.shutdownNow();
+    }
+
+    private List<IAClient.Result> analyzeSequentially(List<NormalizedText> calls) {
+        List<IAClient.Result> out = new ArrayList<>(calls.size());
+        for (NormalizedText t : calls) out.add(ia.analyze(t));
+        return out;
+    }
+
+    /** Overall pela média dos scores por rótulo das sentenças (score = confiança do rótulo), regra do {@link Aggregate}. */
+    private IAClient.Result overallFrom(List<SupportsDetailed.SentenceSentiment> per, NormalizedText text) {
+        if (per.isEmpty()) return IAClient.Result.fallback("Sem sentenças analisadas – fallback.", "geral");
+
+        double pos = 0, neg = 0, neu = 0;
+        int strongPos = 0, strongNeg = 0;
+        for (var s : per) {
+            switch (s.label()) {
+                case "POSITIVE" -> { pos += s.score(); if (Aggregate.strong(s.score())) strongPos++; }
+                case "NEGATIVE" -> { neg += s.score(); if (Aggregate.strong(s.score())) strongNeg++; }
+                default         -> neu += s.score();
+            }
+        }
+        int n = per.size();
+        Aggregate agg = Aggregate.of(pos / n, neg / n, neu / n, strongPos, strongNeg);
+        return new IAClient.Result(agg.label(), agg.score(), agg.summary(), ReasonExtractor.extract(text),
+                List.of(new IAClient.AspectScore("geral", agg.posAvg(), agg.negAvg())), ia.providerName());
+    }
+
+    /**
+     * Fecha a etapa "analyze" (desde a normalização), mede a montagem da resposta ("aggregate") e fecha o
+     * evento JFR do request.
+     */
+    private PeerFeedbackResponse respond(Trace trace, PeerFeedbackRequest req, OffsetDateTime now,
+                                         NormalizedText text, IAClient.Result overall,
+                                         List<SupportsDetailed.SentenceSentiment> per) {
+        long t0 = System.nanoTime();
+        trace.stages.analyze().record(t0 - trace.analyzeStart, TimeUnit.NANOSECONDS);
+        sentencesPerRequest.record(per.size());
+        var resp = toResponse(req, now, text, overall, per);
+        long t1 = trace.timings.stop(Stage.AGGREGATE, t0);
+        trace.stages.aggregate().record(t1 - t0, TimeUnit.NANOSECONDS);
+        listeners.peerFeedback(req, resp);
+        trace.event.finish("peer", resp.provider, overall.getSentiment(), overall.isFallback(),
+                text.original().length(), per.size());
+        return resp;
+    }
+
+    /**
+     * Medições de um request: timers do modo (Micrometer), evento JFR e {@link RequestTimings} (Server-Timing),
+     * capturados na thread do request para serem fechados onde a resposta for montada.
+     */
+    private static final class Trace {
+        final Stages stages;
+        final AnalysisEvent event = AnalysisEvent.start();
+        final RequestTimings timings = RequestTimings.current();
+        long analyzeStart;
+
+        Trace(Stages stages) {
+            this.stages = stages;
+        }
+
+        NormalizedText normalize(String raw) {
+            long t0 = System.nanoTime();
+            NormalizedText text = NormalizedText.of(raw);
+            analyzeStart = stages.normalized(t0);
+            timings.add(Stage.NORMALIZE, analyzeStart - t0);
+            return text;
         }
+    }
+
+    private PeerFeedbackResponse toResponse(PeerFeedbackRequest req, OffsetDateTime now, NormalizedText text,
+                                            IAClient.Result overall, List<SupportsDetailed.SentenceSentiment> per) {
+        List<NormalizedText> perText = sentenceViews(text, per.stream().map(SupportsDetailed.SentenceSentiment::sentence).toList());
 
         Map<String,double[]> acc = new LinkedHashMap<>(); // aspecto -> [pos,neg]
         List<PeerFeedbackResponse.Strength> strengths = new ArrayList<>();
@@ -55,8 +295,9 @@ public class PeerFeedbackService {
         // NOVO: guardar melhor evidência negativa por aspecto
         Map<String, SupportsDetailed.SentenceSentiment> bestNegEvidence = new HashMap<>();
 
-        for (var s : per) {
-            String aspect = PeerAspectExtractor.canonicalAspect(s.sentence());
+        for (int i = 0; i < per.size(); i++) {
+            var s = per.get(i);
+            String aspect = PeerAspectExtractor.canonicalAspect(perText.get(i));
             acc.putIfAbsent(aspect, new double[]{0,0});
 
             switch (s.label()) {
@@ -94,7 +335,7 @@ public class PeerFeedbackService {
             var aspect = e.getKey();
             double neg = e.getValue()[1];
             if (neg >= NEG_IMPROVE_MIN && improvements.size() < MAX_IMPROVEMENTS) {
-                var suggestion = ImprovementSuggester.suggest("NEGATIVE", aspect, req.getText());
+                var suggestion = ImprovementSuggester.suggest("NEGATIVE", aspect, text);
                 var ev = bestNegEvidence.get(aspect);
                 String evidence = ev != null ? ev.sentence() : null; // usa a pior frase negativa do aspecto
                 improvements.add(new PeerFeedbackResponse.Improvement(aspect, suggestion, evidence));
@@ -117,26 +358,47 @@ public class PeerFeedbackService {
         }
         resp.aspects = aspectScores;
 
-        String iaName = ia.getClass().getSimpleName();
-        resp.provider = iaName.toLowerCase().contains("huggingface") ? "HuggingFace: " + model : iaName;
+        resp.provider = overall.getProvider().isBlank() ? ia.providerName() : overall.getProvider();
         resp.timestamp = now.toString();
         return resp;
     }
 
+    /** Timers das etapas de um modo; criados uma vez (no caminho quente só {@code record}). */
+    private record Stages(Timer normalize, Timer analyze, Timer aggregate) {
+        static Stages of(MeterRegistry registry, String mode) {
+            return new Stages(timer(registry, "normalize", mode), timer(registry, "analyze", mode),
+                    timer(registry, "aggregate", mode));
+        }
+
+        private static Timer timer(MeterRegistry registry, String stage, String mode) {
+            return Timer.builder("sentiment.peer.stage").description("Etapas da análise de peer feedback")
+                    .tag("stage", stage).tag("mode", mode).register(registry);
+        }
+
+        /** Registra a normalização iniciada em {@code t0}; devolve o início da etapa seguinte. */
+        long normalized(long t0) {
+            long now = System.nanoTime();
+            normalize.record(now - t0, TimeUnit.NANOSECONDS);
+            return now;
+        }
+    }
+
     private static double round(double v) { return Math.round(v * 100.0) / 100.0; }
 
-    private static List<String> split(String text, int max) {
-        if (text == null || text.isBlank()) return List.of();
-        List<String> out = new ArrayList<>();
-        BreakIterator bi = BreakIterator.getSentenceInstance(new Locale("pt","BR"));
-        bi.setText(text);
-        int start = bi.first();
-        for (int end = bi.next(); end != BreakIterator.DONE; start = end, end = bi.next()) {
-            String s = text.substring(start, end).trim();
-            if (!s.isEmpty()) out.add(s);
-            if (out.size() >= max) break;
-        }
-        if (out.isEmpty()) out.add(text.trim());
+    /** Localiza cada sentença no original (em ordem) e recorta a normalização já feita. */
+    private static List<NormalizedText> sentenceViews(NormalizedText text, List<String> sentences) {
+        String original = text.original();
+        List<NormalizedText> out = new ArrayList<>(sentences.size());
+        int from = 0;
+        for (String s : sentences) {
+            int i = s.isEmpty() ? -1 : original.indexOf(s, from);
+            if (i < 0) {
+                out.add(NormalizedText.of(s));
+            } else {
+                out.add(text.slice(i, i + s.length()));
+                from = i + s.length();
+            }
+        }
         return out;
     }
 }
@@ -1,6 +1,8 @@
 package com.pedro.sentiment.service;
 
-import java.text.Normalizer;
+import com.pedro.sentiment.jfr.TextProcessingEvent;
+import com.pedro.sentiment.text.NormalizedText;
+
 import java.util.*;
 import java.util.regex.Pattern;
 
@@ -36,8 +38,19 @@ public class ReasonExtractor {
     private static final Pattern P_DEPOIS_DE_PCAUSA   = Pattern.compile("\\b(por causa de|devido a)\\b(.{0,80})", Pattern.CASE_INSENSITIVE);
 
     public static String extract(String text) {
-        if (text == null || text.isBlank()) return "geral";
-        String clean = normalize(text);
+        return extract(NormalizedText.of(text));
+    }
+
+    public static String extract(NormalizedText text) {
+        var event = TextProcessingEvent.start();
+        String reason = extractReason(text);
+        event.finish(TextProcessingEvent.REASON, text.length(), reason);
+        return reason;
+    }
+
+    private static String extractReason(NormalizedText text) {
+        if (text.isEmpty()) return "geral";
+        String clean = text.value();
 
         // 1) tenta capturar a "cauda" após conectivos (geralmente contém a razão)
         String tail = matchTail(clean);
@@ -71,16 +84,4 @@ public class ReasonExtractor {
         }
         return best;
     }
-
-    private static String normalize(String s) {
-        // remove acentos
-        String n = Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}+","");
-        n = n.toLowerCase(Locale.ROOT);
-        // normalizações abrangentes
-        n = n.replace("ótimo","otimo").replace("péssimo","pessimo").replace("não","nao");
-        n = n.replace("por\u00E9m", "porem");
-        // padroniza whitespace
-        n = n.replaceAll("\\s+", " ").trim();
-        return n;
-    }
 }
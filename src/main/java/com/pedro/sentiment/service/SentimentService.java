@@ -3,38 +3,76 @@ package com.pedro.sentiment.service;
 import com.pedro.sentiment.ai.IAClient;
 import com.pedro.sentiment.dto.FeedbackRequest;
 import com.pedro.sentiment.dto.FeedbackResponse;
-import org.springframework.beans.factory.annotation.Value;
+import com.pedro.sentiment.jfr.AnalysisEvent;
+import com.pedro.sentiment.text.NormalizedText;
+import com.pedro.sentiment.timing.RequestTimings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class SentimentService {
 
     private final IAClient ia;
-
-    @Value("${huggingface.model:unknown}")
-    private String model;
+    private final AnalysisListeners listeners;
 
     public SentimentService(IAClient ia) {
         this.ia = ia;
+        this.listeners = AnalysisListeners.NONE;
+    }
+
+    @Autowired
+    public SentimentService(IAClient ia, ObjectProvider<AnalysisListener> listeners) {
+        this.ia = ia;
+        this.listeners = AnalysisListeners.of(listeners);
     }
 
     public FeedbackResponse analyze(FeedbackRequest req) {
-        IAClient.Result r = ia.analyze(req.getText());
+        var event = AnalysisEvent.start();
+        var timings = RequestTimings.current();
+        // normaliza uma vez e reaproveita no provider e nos extratores
+        long t0 = System.nanoTime();
+        NormalizedText text = NormalizedText.of(req.getText());
+        long t1 = timings.stop(RequestTimings.Stage.NORMALIZE, t0);
+        IAClient.Result r = ia.analyze(text);
+        return toResponse(req, event, timings, timings.stop(RequestTimings.Stage.PROVIDER, t1), text, r);
+    }
+
+    /** Mesma análise sem bloquear a thread do chamador enquanto o provider responde. */
+    public CompletableFuture<FeedbackResponse> analyzeAsync(FeedbackRequest req) {
+        var event = AnalysisEvent.start();
+        var timings = RequestTimings.current(); // a resposta é montada em outra thread
+        long t0 = System.nanoTime();
+        NormalizedText text = NormalizedText.of(req.getText());
+        long t1 = timings.stop(RequestTimings.Stage.NORMALIZE, t0);
+        return ia.analyzeAsync(text)
+                .thenApply(r -> toResponse(req, event, timings, timings.stop(RequestTimings.Stage.PROVIDER, t1), text, r));
+    }
+
+    /** Avisa os listeners de uma análise reaproveitada para outro request com o mesmo texto (dedupe do batch). */
+    void reused(FeedbackRequest req, FeedbackResponse resp) {
+        listeners.sentiment(req, resp);
+    }
 
-        String iaName = ia.getClass().getSimpleName();
-        String provider = iaName.toLowerCase().contains("huggingface")
-                ? "HuggingFace: " + (model == null || model.isBlank() ? "unknown" : model)
-                : iaName;
+    private FeedbackResponse toResponse(FeedbackRequest req, AnalysisEvent event, RequestTimings timings, long start,
+                                        NormalizedText text, IAClient.Result r) {
+        // o Result pode vir de outro provider (ex.: MockClient com o circuito aberto)
+        String provider = r.getProvider().isBlank() ? ia.providerName() : r.getProvider();
 
         FeedbackResponse out = new FeedbackResponse(r.getSentiment(), r.getScore(), r.getSummary());
         out.setReason(r.getReason());
         out.setProvider(provider);
 
         String area = ImprovementSuggester.normalizeReason(r.getReason());
-        String improvement = ImprovementSuggester.suggest(r.getSentiment(), r.getReason(), req.getText());
+        String improvement = ImprovementSuggester.suggest(r.getSentiment(), r.getReason(), text);
         out.setImprovementArea(area);
         out.setImprovement(improvement);
 
+        timings.stop(RequestTimings.Stage.AGGREGATE, start);
+        listeners.sentiment(req, out);
+        event.finish("sentiment", provider, r.getSentiment(), r.isFallback(), text.original().length(), 0);
         return out;
     }
 }
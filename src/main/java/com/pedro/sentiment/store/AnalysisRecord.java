@@ -0,0 +1,54 @@
+package com.pedro.sentiment.store;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.service.AnalysisListener;
+
+/**
+ * Uma análise persistida (uma linha JSONL): request e resposta como foram devolvidos, mais as chaves de
+ * consulta. {@code kind} diz o tipo dos DTOs: {@link #SENTIMENT} = {@link FeedbackRequest}/{@link FeedbackResponse},
+ * {@link #PEER} = {@link PeerFeedbackRequest}/{@link PeerFeedbackResponse}.
+ *
+ * @param ts epoch millis do registro
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AnalysisRecord(long ts, String kind, String source, String subjectId, String period, String project,
+                             Object request, Object response) {
+
+    public static final String SENTIMENT = "sentiment";
+    public static final String PEER = "peer";
+
+    public static AnalysisRecord of(FeedbackRequest req, FeedbackResponse resp) {
+        return new AnalysisRecord(System.currentTimeMillis(), SENTIMENT, req.getSource(), null, null, null, req, resp);
+    }
+
+    public static AnalysisRecord of(PeerFeedbackRequest req, PeerFeedbackResponse resp) {
+        return new AnalysisRecord(System.currentTimeMillis(), PEER, null, req.getSubjectId(), req.getPeriod(),
+                req.getProject(), req.isAnonymous() && req.getEvaluatorId() != null ? anonymized(req) : req, resp);
+    }
+
+    /** Reentrega a análise a um listener como se acabasse de acontecer (reconstruir agregados a partir do histórico). */
+    public void replayTo(AnalysisListener listener) {
+        switch (kind) {
+            case SENTIMENT -> listener.onSentiment((FeedbackRequest) request, (FeedbackResponse) response);
+            case PEER -> listener.onPeerFeedback((PeerFeedbackRequest) request, (PeerFeedbackResponse) response);
+            default -> { } // tipo de uma versão mais nova: ignora
+        }
+    }
+
+    /** Feedback anônimo não vai para o disco com o avaliador. */
+    private static PeerFeedbackRequest anonymized(PeerFeedbackRequest req) {
+        var copy = new PeerFeedbackRequest();
+        copy.setSubjectId(req.getSubjectId());
+        copy.setRole(req.getRole());
+        copy.setProject(req.getProject());
+        copy.setPeriod(req.getPeriod());
+        copy.setRating(req.getRating());
+        copy.setText(req.getText());
+        copy.setAnonymous(true);
+        return copy;
+    }
+}
@@ -0,0 +1,383 @@
+package com.pedro.sentiment.store;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.service.AnalysisListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Histórico das análises em arquivos JSONL locais ({@code analyses-000001.jsonl}, ...), sem banco externo.
+ *
+ * <p>O request só enfileira o {@link AnalysisRecord} numa fila limitada; uma thread de fundo drena o que
+ * houver (até {@code max-batch}), serializa tudo num buffer e faz um único {@code write} — e, conforme
+ * {@code fsync}, um único {@code force} — por lote (group commit). Sob carga os lotes crescem sozinhos e o
+ * custo do fsync se divide entre mais registros. Fila cheia: espera até {@code max-block} e descarta
+ * (contado em {@code sentiment.store.records{outcome=dropped}}); nunca segura o request além disso.</p>
+ *
+ * <p>{@code fsync}: {@code batch} = force a cada lote (nada confirmado se perde num crash do SO),
+ * {@code interval} = no máximo um force por {@code fsync-interval} (perde até esse intervalo),
+ * {@code none} = fica com o SO. Em qualquer modo um crash do processo perde só o que ainda estava na fila.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.store.enabled", havingValue = "true", matchIfMissing = true)
+public class AnalysisStore implements AnalysisListener, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisStore.class);
+
+    public enum Fsync { BATCH, INTERVAL, NONE }
+
+    private static final String PREFIX = "analyses-";
+    private static final String SUFFIX = ".jsonl";
+    private static final long DROP_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final int maxBatch;
+    private final long maxBlockNanos;
+    private final Fsync fsync;
+    private final long fsyncIntervalNanos;
+    private final ObjectWriter writer;
+    private final ObjectMapper reader;
+    private final BlockingQueue<AnalysisRecord> queue;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    // estado do segmento aberto: só a thread do flusher mexe
+    private FileChannel channel;
+    private boolean reopenLast = true; // só no primeiro open: continua o último segmento do run anterior
+    private int segmentSeq;
+    private long segmentSize;
+    private boolean unsynced;
+    private long lastForce = System.nanoTime();
+    private final Buffer buffer = new Buffer();
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+    private final AtomicLong lastDropWarn = new AtomicLong(System.nanoTime() - DROP_WARN_INTERVAL_NANOS);
+
+    public AnalysisStore(
+            ObjectMapper mapper,
+            @Value("${app.store.dir:data/store}") String dir,
+            @Value("${app.store.segment-mb:64}") int segmentMb,
+            @Value("${app.store.queue-capacity:65536}") int queueCapacity,
+            @Value("${app.store.max-batch:1024}") int maxBatch,
+            @Value("${app.store.max-block:0ms}") Duration maxBlock,
+            @Value("${app.store.fsync:batch}") String fsync,
+            @Value("${app.store.fsync-interval:1s}") Duration fsyncInterval
+    ) throws IOException {
+        this.dir = Path.of(dir);
+        this.segmentBytes = Math.max(1, segmentMb) * 1024L * 1024L;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxBlockNanos = maxBlock.toNanos();
+        this.fsync = Fsync.valueOf(fsync.trim().toUpperCase(Locale.ROOT));
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        // "timings" é diagnóstico do request (e é preenchido depois, no advice): fica fora do histórico
+        this.writer = mapper.copy()
+                .addMixIn(FeedbackResponse.class, WithoutTimings.class)
+                .addMixIn(PeerFeedbackResponse.class, WithoutTimings.class)
+                .writerFor(AnalysisRecord.class);
+        this.reader = mapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        Files.createDirectories(this.dir);
+        this.segmentSeq = lastSegmentSeq();
+        this.flusher = Thread.ofPlatform().daemon().name("analysis-store").start(this::run);
+
+        log.info("AnalysisStore: dir={}, segmento={}MB, fila={}, lote={}, fsync={}",
+                this.dir.toAbsolutePath(), segmentMb, queueCapacity, maxBatch,
+                this.fsync == Fsync.INTERVAL ? "interval(" + fsyncInterval.toMillis() + "ms)" : fsync);
+    }
+
+    @JsonIgnoreProperties("timings")
+    private abstract static class WithoutTimings {}
+
+    // ---------- caminho do request ----------
+
+    @Override
+    public void onSentiment(FeedbackRequest request, FeedbackResponse response) {
+        append(AnalysisRecord.of(request, response));
+    }
+
+    @Override
+    public void onPeerFeedback(PeerFeedbackRequest request, PeerFeedbackResponse response) {
+        append(AnalysisRecord.of(request, response));
+    }
+
+    /** Enfileira para o próximo lote; {@code false} = fila cheia (descartado). */
+    public boolean append(AnalysisRecord record) {
+        boolean queued;
+        if (maxBlockNanos <= 0) {
+            queued = queue.offer(record);
+        } else {
+            try {
+                queued = queue.offer(record, maxBlockNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+        }
+        if (!queued) {
+            dropped.increment();
+            long now = System.nanoTime(), last = lastDropWarn.get();
+            if (now - last >= DROP_WARN_INTERVAL_NANOS && lastDropWarn.compareAndSet(last, now)) {
+                log.warn("AnalysisStore: fila cheia, descartando registros ({} até agora)", dropped.sum());
+            }
+        }
+        return queued;
+    }
+
+    // ---------- leitura ----------
+
+    /**
+     * Lê todo o histórico em ordem de gravação. Roda com o store em uso: vê o que já foi escrito (não o que
+     * está na fila) e pula linhas incompletas/ilegíveis (ex.: final cortado por um crash).
+     */
+    public void replay(Consumer<AnalysisRecord> consumer) throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(dir)) {
+            segments = files.filter(AnalysisStore::isSegment).sorted().toList();
+        }
+        for (Path segment : segments) {
+            try (BufferedReader in = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    AnalysisRecord r;
+                    try {
+                        r = parse(line);
+                    } catch (JsonProcessingException e) {
+                        log.debug("AnalysisStore: linha ilegível em {}: {}", segment.getFileName(), e.getOriginalMessage());
+                        continue;
+                    }
+                    consumer.accept(r);
+                }
+            }
+        }
+    }
+
+    private AnalysisRecord parse(String line) throws JsonProcessingException {
+        JsonNode n = reader.readTree(line);
+        String kind = n.path("kind").asText();
+        Class<?> reqType = AnalysisRecord.PEER.equals(kind) ? PeerFeedbackRequest.class : FeedbackRequest.class;
+        Class<?> respType = AnalysisRecord.PEER.equals(kind) ? PeerFeedbackResponse.class : FeedbackResponse.class;
+        return new AnalysisRecord(n.path("ts").asLong(), kind, text(n, "source"), text(n, "subjectId"),
+                text(n, "period"), text(n, "project"),
+                n.hasNonNull("request") ? reader.treeToValue(n.get("request"), reqType) : null,
+                n.hasNonNull("response") ? reader.treeToValue(n.get("response"), respType) : null);
+    }
+
+    private static String text(JsonNode n, String field) {
+        return n.hasNonNull(field) ? n.get(field).asText() : null;
+    }
+
+    /** Contadores desde o start. */
+    public Stats stats() {
+        return new Stats(written.sum(), dropped.sum(), failed.sum(), batches.sum(), fsyncs.sum(), queue.size());
+    }
+
+    public record Stats(long written, long dropped, long failed, long batches, long fsyncs, int queued) {}
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sentiment.store.records", written, LongAdder::sum)
+                .description("Análises gravadas no histórico").tag("outcome", "written").register(registry);
+        FunctionCounter.builder("sentiment.store.records", dropped, LongAdder::sum)
+                .description("Análises descartadas (fila cheia)").tag("outcome", "dropped").register(registry);
+        FunctionCounter.builder("sentiment.store.records", failed, LongAdder::sum)
+                .description("Análises perdidas por erro de serialização/IO").tag("outcome", "failed").register(registry);
+        FunctionCounter.builder("sentiment.store.batches", batches, LongAdder::sum)
+                .description("Lotes gravados (um write por lote)").register(registry);
+        FunctionCounter.builder("sentiment.store.fsyncs", fsyncs, LongAdder::sum)
+                .description("Chamadas de force/fsync").register(registry);
+        Gauge.builder("sentiment.store.queue", queue, BlockingQueue::size)
+                .description("Análises esperando o próximo lote").register(registry);
+    }
+
+    /** Para de aceitar lotes novos, grava o que está na fila e fecha o segmento (com force). */
+    @PreDestroy
+    public void close() {
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------- flusher ----------
+
+    private void run() {
+        List<AnalysisRecord> batch = new ArrayList<>(maxBatch);
+        try {
+            while (running || !queue.isEmpty()) {
+                AnalysisRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (fsync == Fsync.INTERVAL) forceIfDue();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writeBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeSegment();
+        }
+    }
+
+    private void writeBatch(List<AnalysisRecord> batch) {
+        buffer.reset();
+        int n = 0;
+        for (AnalysisRecord r : batch) {
+            int mark = buffer.size();
+            try {
+                writer.writeValue(buffer, r);
+                buffer.write('\n');
+                n++;
+            } catch (IOException | RuntimeException e) {
+                buffer.truncate(mark);
+                failed.increment();
+                log.warn("AnalysisStore: falha ao serializar registro {}: {}", r.kind(), e.toString());
+            }
+        }
+        if (n == 0) return;
+        try {
+            if (channel == null || segmentSize >= segmentBytes) openNextSegment();
+            ByteBuffer bytes = buffer.view();
+            while (bytes.hasRemaining()) segmentSize += channel.write(bytes);
+            unsynced = true;
+            if (fsync == Fsync.BATCH) force(); else if (fsync == Fsync.INTERVAL) forceIfDue();
+            written.add(n);
+            batches.increment();
+        } catch (IOException | UncheckedIOException e) {
+            failed.add(n);
+            log.error("AnalysisStore: falha ao gravar lote de {} registros: {}", n, e.toString());
+            closeSegment(); // o próximo lote começa num segmento novo
+        }
+    }
+
+    private void forceIfDue() {
+        if (unsynced && System.nanoTime() - lastForce >= fsyncIntervalNanos) {
+            try {
+                force();
+            } catch (IOException e) {
+                log.error("AnalysisStore: falha no fsync: {}", e.toString());
+            }
+        }
+    }
+
+    private void force() throws IOException {
+        channel.force(false); // só dados: o tamanho do arquivo basta vir no próximo force de metadados/close
+        fsyncs.increment();
+        unsynced = false;
+        lastForce = System.nanoTime();
+    }
+
+    /**
+     * Abre o próximo segmento. No start, o último segmento existente é reaberto para append se ainda tiver
+     * espaço; se terminar numa linha cortada (crash no meio de um write), ganha um '\n' antes.
+     */
+    private void openNextSegment() throws IOException {
+        boolean reopen = reopenLast && segmentSeq > 0 && Files.size(segmentPath(segmentSeq)) < segmentBytes;
+        reopenLast = false;
+        closeSegment();
+        if (!reopen) segmentSeq++;
+        Path path = segmentPath(segmentSeq);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = channel.size();
+        if (segmentSize > 0 && !endsWithNewline(path, segmentSize)) {
+            segmentSize += channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+        }
+    }
+
+    private void closeSegment() {
+        if (channel == null) return;
+        try {
+            if (fsync != Fsync.NONE && unsynced) force();
+            channel.close();
+        } catch (IOException e) {
+            log.error("AnalysisStore: falha ao fechar segmento {}: {}", segmentSeq, e.toString());
+        }
+        channel = null;
+    }
+
+    private static boolean endsWithNewline(Path path, long size) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            ch.read(last, size - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private int lastSegmentSeq() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(AnalysisStore::isSegment)
+                    .mapToInt(p -> {
+                        String name = p.getFileName().toString();
+                        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                    })
+                    .max().orElse(0);
+        }
+    }
+
+    private Path segmentPath(int seq) {
+        return dir.resolve(String.format(Locale.ROOT, "%s%06d%s", PREFIX, seq, SUFFIX));
+    }
+
+    private static boolean isSegment(Path p) {
+        String name = p.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX)
+                && name.substring(PREFIX.length(), name.length() - SUFFIX.length()).chars().allMatch(Character::isDigit);
+    }
+
+    /** Buffer do lote reaproveitado entre lotes; expõe o array sem cópia. */
+    private static final class Buffer extends ByteArrayOutputStream {
+        Buffer() { super(64 * 1024); }
+        ByteBuffer view() { return ByteBuffer.wrap(buf, 0, count); }
+        void truncate(int size) { count = size; }
+    }
+}
@@ -0,0 +1,14 @@
+package com.pedro.sentiment.store;
+
+/**
+ * Componente que se remonta a partir do histórico no start. O {@link HistoryReplay} lê os segmentos uma vez
+ * só e entrega cada registro a todos, em vez de cada um reler e reparsear o JSONL inteiro.
+ */
+public interface HistoryConsumer {
+
+    /** {@code false} = fica de fora do replay (ex.: {@code rebuild-on-start: false}). */
+    boolean rebuildOnStart();
+
+    /** Um registro do histórico, em ordem de gravação; {@code record.ts()} = quando foi analisado. */
+    void replay(AnalysisRecord record);
+}
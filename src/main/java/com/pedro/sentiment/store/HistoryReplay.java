@@ -0,0 +1,67 @@
+package com.pedro.sentiment.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Replay único do {@link AnalysisStore} para todos os {@link HistoryConsumer}: roda depois de criados todos os
+ * beans e antes de o servidor aceitar requests. Com o store desligado, ou nenhum consumidor pedindo, não faz
+ * nada.
+ */
+@Component
+public class HistoryReplay implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryReplay.class);
+
+    private final ObjectProvider<AnalysisStore> store;
+    private final ObjectProvider<HistoryConsumer> consumers;
+
+    public HistoryReplay(ObjectProvider<AnalysisStore> store, ObjectProvider<HistoryConsumer> consumers) {
+        this.store = store;
+        this.consumers = consumers;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        AnalysisStore s = store.getIfAvailable();
+        if (s == null) return;
+        List<HistoryConsumer> targets = consumers.orderedStream().filter(HistoryConsumer::rebuildOnStart).toList();
+        if (targets.isEmpty()) return;
+
+        long t0 = System.nanoTime();
+        try {
+            long n = replay(s, targets);
+            log.info("HistoryReplay: {} registros do histórico em {} ms para {}", n, (System.nanoTime() - t0) / 1_000_000,
+                    targets.stream().map(c -> c.getClass().getSimpleName()).toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("falha ao ler o histórico das análises", e);
+        }
+    }
+
+    /**
+     * Lê o histórico uma vez e entrega cada registro a todos os consumidores; um registro que um consumidor
+     * não aceita é pulado só para ele. Devolve quantos registros foram lidos.
+     */
+    static long replay(AnalysisStore store, List<HistoryConsumer> targets) throws IOException {
+        long[] read = {0}, rejected = {0};
+        store.replay(r -> {
+            read[0]++;
+            for (HistoryConsumer c : targets) {
+                try {
+                    c.replay(r);
+                } catch (RuntimeException e) {
+                    if (rejected[0]++ == 0) log.warn("HistoryReplay: registro rejeitado por {}: {}", c.getClass().getSimpleName(), e.toString());
+                }
+            }
+        });
+        if (rejected[0] > 1) log.warn("HistoryReplay: {} entregas rejeitadas no total", rejected[0]);
+        return read[0];
+    }
+}
@@ -0,0 +1,213 @@
+package com.pedro.sentiment.text;
+
+import com.pedro.sentiment.jfr.TextProcessingEvent;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * Texto normalizado uma única vez por requisição: sem acentos, minúsculo e com espaços colapsados
+ * (equivalente a NFD + remover {@code \p{M}} + {@code toLowerCase(ROOT)} + {@code \s+ -> " "} + trim).
+ *
+ * <p>Guarda também os limites de token (sequências de letras/dígitos) e o mapa de offsets de volta
+ * para o texto original, para que trechos de evidência sejam recortados do original.</p>
+ */
+public final class NormalizedText implements CharSequence {
+
+    private static final NormalizedText EMPTY = new NormalizedText("", "", new int[]{0}, new int[0], new int[0]);
+
+    // Latin-1 Supplement até Latin Extended Additional: char -> base minúscula (0 = marca, descarta)
+    private static final int FOLD_LIMIT = 0x1F00;
+    private static final char[] FOLD = new char[FOLD_LIMIT];
+    private static final char SLOW = '\uFFFF';
+
+    static {
+        for (int c = 0; c < FOLD_LIMIT; c++) FOLD[c] = fold((char) c);
+    }
+
+    private final String original;
+    private final String value;
+    private final int[] offsets;      // offsets[k] = início no original do k-ésimo char normalizado; [len] = fim
+    private final int[] tokenStarts;  // em coordenadas normalizadas
+    private final int[] tokenEnds;
+
+    private NormalizedText(String original, String value, int[] offsets, int[] tokenStarts, int[] tokenEnds) {
+        this.original = original;
+        this.value = value;
+        this.offsets = offsets;
+        this.tokenStarts = tokenStarts;
+        this.tokenEnds = tokenEnds;
+    }
+
+    /** Normaliza em uma passada, sem regex. {@code null} vira texto vazio. */
+    public static NormalizedText of(String original) {
+        if (original == null || original.isEmpty()) return EMPTY;
+        var event = TextProcessingEvent.start();
+        NormalizedText text = normalize(original);
+        event.finish(TextProcessingEvent.NORMALIZE, original.length(), null);
+        return text;
+    }
+
+    private static NormalizedText normalize(String original) {
+
+        int n = original.length();
+        char[] out = new char[n];
+        int[] offs = new int[n + 1];
+        int[] ts = new int[8], te = new int[8];
+        int len = 0, tokens = 0;
+        boolean pendingSpace = false, inToken = false;
+        int spaceStart = 0, lastEnd = 0;
+
+        for (int i = 0; i < n; i++) {
+            char c = original.charAt(i);
+            if (isSpace(c)) {
+                if (len > 0 && !pendingSpace) { pendingSpace = true; spaceStart = i; }
+                if (inToken) { te[tokens - 1] = len; inToken = false; }
+                continue;
+            }
+
+            char f = c < FOLD_LIMIT ? FOLD[c] : SLOW;
+            if (f == 0) { if (!pendingSpace) lastEnd = i + 1; continue; } // marca combinante
+            if (f == SLOW) {
+                f = foldSlow(c);
+                if (f == 0) { if (!pendingSpace) lastEnd = i + 1; continue; }
+            }
+
+            if (pendingSpace) {
+                offs[len] = spaceStart; // o espaço colapsado aponta para o início do trecho no original
+                out[len++] = ' ';
+                pendingSpace = false;
+            }
+
+            boolean tk = Character.isLetterOrDigit(f);
+            if (tk && !inToken) {
+                if (tokens == ts.length) {
+                    ts = Arrays.copyOf(ts, tokens * 2);
+                    te = Arrays.copyOf(te, tokens * 2);
+                }
+                ts[tokens++] = len;
+                inToken = true;
+            } else if (!tk && inToken) {
+                te[tokens - 1] = len;
+                inToken = false;
+            }
+
+            offs[len] = i;
+            out[len++] = f;
+            lastEnd = i + 1;
+        }
+        if (inToken) te[tokens - 1] = len;
+        if (len == 0) return EMPTY;
+
+        offs[len] = lastEnd;
+
+        return new NormalizedText(original, new String(out, 0, len), Arrays.copyOf(offs, len + 1),
+                Arrays.copyOf(ts, tokens), Arrays.copyOf(te, tokens));
+    }
+
+    // ---------- acesso ----------
+
+    public String original() { return original; }
+    public String value()    { return value; }
+    public boolean isEmpty() { return value.isEmpty(); }
+
+    public int tokenCount()       { return tokenStarts.length; }
+    public int tokenStart(int i)  { return tokenStarts[i]; }
+    public int tokenEnd(int i)    { return tokenEnds[i]; }
+    public String token(int i)    { return value.substring(tokenStarts[i], tokenEnds[i]); }
+
+    /** Índice no texto original do char normalizado {@code normIndex} ({@code length()} = fim do conteúdo). */
+    public int toOriginal(int normIndex) { return offsets[normIndex]; }
+
+    /** Trecho do original que corresponde a {@code [normStart, normEnd)} do texto normalizado. */
+    public String originalSlice(int normStart, int normEnd) {
+        if (normStart >= normEnd) return "";
+        // offsets[normEnd] já cai logo depois das marcas do char anterior (ou no início dos espaços)
+        return original.substring(offsets[normStart], offsets[normEnd]);
+    }
+
+    /**
+     * Visão de um trecho do original (ex.: uma sentença) sem normalizar de novo. Os offsets continuam
+     * relativos ao novo {@link #original()}.
+     */
+    public NormalizedText slice(int originalStart, int originalEnd) {
+        int from = lowerBound(originalStart);
+        int to = lowerBound(originalEnd);
+        while (from < to && value.charAt(from) == ' ') from++;
+        while (to > from && value.charAt(to - 1) == ' ') to--;
+        if (from >= to) return EMPTY;
+
+        int origFrom = offsets[from];
+        int origTo = offsets[to];
+
+        int[] offs = new int[to - from + 1];
+        for (int k = from; k < to; k++) offs[k - from] = offsets[k] - origFrom;
+        offs[to - from] = origTo - origFrom;
+
+        int t0 = firstTokenEndingAfter(from), t1 = t0;
+        while (t1 < tokenStarts.length && tokenStarts[t1] < to) t1++;
+        int[] ts = new int[t1 - t0], te = new int[t1 - t0];
+        for (int t = t0; t < t1; t++) {
+            ts[t - t0] = Math.max(tokenStarts[t], from) - from;
+            te[t - t0] = Math.min(tokenEnds[t], to) - from;
+        }
+        return new NormalizedText(original.substring(origFrom, origTo), value.substring(from, to), offs, ts, te);
+    }
+
+    // ---------- CharSequence (sobre o texto normalizado) ----------
+
+    @Override public int length()            { return value.length(); }
+    @Override public char charAt(int index)  { return value.charAt(index); }
+    @Override public CharSequence subSequence(int start, int end) { return value.subSequence(start, end); }
+    @Override public String toString()       { return value; }
+
+    // ---------- helpers ----------
+
+    private int lowerBound(int originalIndex) {
+        int lo = 0, hi = value.length();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (offsets[mid] < originalIndex) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int firstTokenEndingAfter(int normIndex) {
+        int lo = 0, hi = tokenEnds.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tokenEnds[mid] <= normIndex) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Mesmo conjunto de {@code \s} do regex Java. */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isMark(char c) {
+        int t = Character.getType(c);
+        return t == Character.NON_SPACING_MARK || t == Character.ENCLOSING_MARK || t == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static char fold(char c) {
+        if (c < 0x80) return Character.toLowerCase(c);
+        if (isMark(c)) return 0;
+        if (Character.isSurrogate(c)) return c;
+        String d = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        char base = 0;
+        for (int i = 0; i < d.length(); i++) {
+            char x = d.charAt(i);
+            if (isMark(x)) continue;
+            if (base != 0) return SLOW; // decomposição em mais de um char base (raro)
+            base = x;
+        }
+        return base == 0 ? 0 : Character.toLowerCase(base);
+    }
+
+    private static char foldSlow(char c) {
+        char f = fold(c);
+        return f == SLOW ? Character.toLowerCase(c) : f;
+    }
+}
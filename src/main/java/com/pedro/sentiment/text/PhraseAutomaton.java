@@ -0,0 +1,192 @@
+package com.pedro.sentiment.text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Autômato Aho-Corasick imutável para achar várias frases de um léxico em uma única passada.
+ *
+ * <p>As frases devem estar no mesmo formato do texto varrido (minúsculas, sem acento). Cada
+ * frase recebe uma {@code tag} (ex.: POS, NEG, NEGADOR) e só é reportada quando cai em fronteira
+ * de palavra, como {@code \bfrase\b}. Frases de um só token vêm com o índice desse token (tokens
+ * são sequências de letras/dígitos), para regras de janela como negação.</p>
+ *
+ * <p>Pode ser compartilhado entre threads; {@link #scan} não aloca.</p>
+ */
+public final class PhraseAutomaton {
+
+    /**
+     * Recebe cada ocorrência: {@code [start, end)} no texto e o índice do token casado, ou -1 se a
+     * frase ocupa mais de um token (ex.: "muito bom").
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        void onMatch(int tag, int start, int end, int token);
+    }
+
+    // trie congelada: arestas de cada nó ordenadas por char (busca binária)
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    private final int[][] outputs;   // ids de frase que terminam no nó (inclui sufixos via fail)
+
+    private final int[] patternLength;
+    private final int[] patternTag;
+    private final boolean[] patternSingleToken;
+
+    private PhraseAutomaton(char[][] edgeChars, int[][] edgeTargets, int[] fail, int[][] outputs,
+                            int[] patternLength, int[] patternTag, boolean[] patternSingleToken) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.outputs = outputs;
+        this.patternLength = patternLength;
+        this.patternTag = patternTag;
+        this.patternSingleToken = patternSingleToken;
+    }
+
+    public static Builder builder() { return new Builder(); }
+
+    /**
+     * Varre {@code text} uma vez e chama o handler para cada frase casada em fronteira de palavra.
+     * Ocorrências são reportadas em ordem de posição final.
+     */
+    public void scan(CharSequence text, MatchHandler handler) {
+        int n = text.length();
+        int state = 0;
+        int token = -1;
+        boolean inToken = false;
+
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+
+            boolean wc = isTokenChar(c);
+            if (wc && !inToken) token++;
+            inToken = wc;
+
+            int next;
+            while ((next = step(state, c)) < 0 && state != 0) state = fail[state];
+            state = next < 0 ? 0 : next;
+
+            int[] out = outputs[state];
+            if (out.length == 0) continue;
+
+            int end = i + 1;
+            boolean endOk = end == n || !isWordChar(text.charAt(end));
+            if (!endOk) continue;
+
+            for (int p : out) {
+                int start = end - patternLength[p];
+                if (start > 0 && isWordChar(text.charAt(start - 1))) continue;
+                handler.onMatch(patternTag[p], start, end, patternSingleToken[p] ? token : -1);
+            }
+        }
+    }
+
+    private int step(int state, char c) {
+        char[] keys = edgeChars[state];
+        int idx = Arrays.binarySearch(keys, c);
+        return idx < 0 ? -1 : edgeTargets[state][idx];
+    }
+
+    /** Caractere de token: mesma classe de {@code [\p{L}\p{Nd}]}. */
+    static boolean isTokenChar(char c) { return Character.isLetterOrDigit(c); }
+
+    /** Caractere de palavra para fronteira ({@code \b}): letras, dígitos e '_'. */
+    static boolean isWordChar(char c) { return c == '_' || Character.isLetterOrDigit(c); }
+
+    // ===== construção =====
+
+    public static final class Builder {
+        private final List<String> phrases = new ArrayList<>();
+        private final List<Integer> tags = new ArrayList<>();
+
+        private Builder() {}
+
+        public Builder add(String phrase, int tag) {
+            if (phrase == null || phrase.isEmpty()) throw new IllegalArgumentException("frase vazia");
+            phrases.add(phrase);
+            tags.add(tag);
+            return this;
+        }
+
+        public Builder addAll(Collection<String> phrases, int tag) {
+            for (String p : phrases) add(p, tag);
+            return this;
+        }
+
+        public PhraseAutomaton build() {
+            List<Map<Character, Integer>> children = new ArrayList<>();
+            List<List<Integer>> out = new ArrayList<>();
+            children.add(new TreeMap<>());
+            out.add(new ArrayList<>());
+
+            int np = phrases.size();
+            int[] len = new int[np];
+            int[] tag = new int[np];
+            boolean[] single = new boolean[np];
+
+            for (int p = 0; p < np; p++) {
+                String s = phrases.get(p);
+                int node = 0;
+                for (int i = 0; i < s.length(); i++) {
+                    Integer nx = children.get(node).get(s.charAt(i));
+                    if (nx == null) {
+                        nx = children.size();
+                        children.add(new TreeMap<>());
+                        out.add(new ArrayList<>());
+                        children.get(node).put(s.charAt(i), nx);
+                    }
+                    node = nx;
+                }
+                out.get(node).add(p);
+                len[p] = s.length();
+                tag[p] = tags.get(p);
+                boolean st = true;
+                for (int i = 0; i < s.length() && st; i++) st = isTokenChar(s.charAt(i));
+                single[p] = st;
+            }
+
+            // links de falha em BFS; saídas herdam as do nó de falha
+            int nn = children.size();
+            int[] fail = new int[nn];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int child : children.get(0).values()) queue.add(child);
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (var e : children.get(node).entrySet()) {
+                    char c = e.getKey();
+                    int child = e.getValue();
+                    int f = fail[node];
+                    while (f != 0 && !children.get(f).containsKey(c)) f = fail[f];
+                    Integer target = children.get(f).get(c);
+                    fail[child] = (target != null && target != child) ? target : 0;
+                    out.get(child).addAll(out.get(fail[child]));
+                    queue.add(child);
+                }
+            }
+
+            char[][] edgeChars = new char[nn][];
+            int[][] edgeTargets = new int[nn][];
+            int[][] outputs = new int[nn][];
+            for (int n = 0; n < nn; n++) {
+                Map<Character, Integer> ch = children.get(n); // TreeMap: já ordenado
+                edgeChars[n] = new char[ch.size()];
+                edgeTargets[n] = new int[ch.size()];
+                int k = 0;
+                for (var e : ch.entrySet()) {
+                    edgeChars[n][k] = e.getKey();
+                    edgeTargets[n][k] = e.getValue();
+                    k++;
+                }
+                outputs[n] = out.get(n).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return new PhraseAutomaton(edgeChars, edgeTargets, fail, outputs, len, tag, single);
+        }
+    }
+}
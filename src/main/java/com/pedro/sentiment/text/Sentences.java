@@ -0,0 +1,43 @@
+package com.pedro.sentiment.text;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Quebra de sentenças em pt-BR ({@link BreakIterator}), a mesma para o HF, o peer feedback e o modo degradado
+ * do circuit breaker: quem recorta a mesma sentença precisa enxergar os mesmos limites.
+ */
+public final class Sentences {
+
+    private static final Locale PT_BR = Locale.of("pt", "BR");
+
+    /** Sentença sem espaços nas pontas; {@code start}/{@code end} delimitam o trecho no texto de entrada. */
+    public record Span(String text, int start, int end) {}
+
+    private Sentences() {}
+
+    /** Até {@code max} sentenças não vazias; texto {@code null} ou em branco não tem sentenças. */
+    public static List<Span> spans(String text, int max) {
+        List<Span> out = new ArrayList<>();
+        if (text == null || text.isBlank()) return out;
+        BreakIterator bi = BreakIterator.getSentenceInstance(PT_BR);
+        bi.setText(text);
+        int start = bi.first();
+        for (int end = bi.next(); end != BreakIterator.DONE && out.size() < max; start = end, end = bi.next()) {
+            String s = text.substring(start, end).trim();
+            if (!s.isEmpty()) out.add(new Span(s, start, end));
+        }
+        return out;
+    }
+
+    /** Só os textos de {@link #spans(String, int)}, sem limite. */
+    public static List<String> split(String text) {
+        return split(text, Integer.MAX_VALUE);
+    }
+
+    public static List<String> split(String text, int max) {
+        return spans(text, max).stream().map(Span::text).toList();
+    }
+}
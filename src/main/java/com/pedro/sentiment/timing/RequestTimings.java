@@ -0,0 +1,127 @@
+package com.pedro.sentiment.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tempo gasto em cada etapa de um request, somado de qualquer thread (o pipeline é assíncrono: provider,
+ * retries e montagem da resposta terminam em threads do HttpClient/scheduler). Vira o header
+ * {@code Server-Timing} no {@link ServerTimingFilter} e, opcionalmente, o bloco {@code timings} da resposta.
+ *
+ * <p>O filtro cria uma instância por request e a deixa em {@link #current()} enquanto a thread do request
+ * está no pipeline; quem continua em outra thread guarda a referência antes. Fora de um request,
+ * {@link #current()} devolve uma instância que descarta tudo.</p>
+ */
+public final class RequestTimings {
+
+    public enum Stage {
+        NORMALIZE("normalize"),
+        SPLIT("split"),
+        PROVIDER("provider"),
+        RETRY_WAIT("retry-wait"), // contido em provider: backoff entre tentativas ao HF
+        AGGREGATE("aggregate"),
+        SERIALIZE("serialize");
+
+        private final String metric;
+
+        Stage(String metric) { this.metric = metric; }
+
+        /** Nome no {@code Server-Timing} / no bloco {@code timings}. */
+        public String metric() { return metric; }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final RequestTimings NOOP = new RequestTimings(false);
+
+    private final boolean enabled;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLongArray nanos = new AtomicLongArray(STAGES.length);
+    private volatile long serializeStart; // 0 = corpo ainda não começou a ser escrito
+
+    public RequestTimings() {
+        this(true);
+    }
+
+    private RequestTimings(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** Timings do request em andamento nesta thread (ou um que descarta tudo). */
+    public static RequestTimings current() {
+        RequestTimings t = CURRENT.get();
+        return t != null ? t : NOOP;
+    }
+
+    /** Deixa {@code this} em {@link #current()} até o {@code close()} (restaura o anterior). */
+    public Scope bind() {
+        RequestTimings previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) CURRENT.remove(); else CURRENT.set(previous);
+        };
+    }
+
+    /** Escopo de {@link #bind()}; não lança. */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override void close();
+    }
+
+    public boolean enabled() { return enabled; }
+
+    /** Soma {@code nanos} à etapa (etapas paralelas, como o fan-out, devem ser medidas de fora). */
+    public void add(Stage stage, long nanos) {
+        if (enabled && nanos > 0) this.nanos.addAndGet(stage.ordinal(), nanos);
+    }
+
+    /** Fecha uma etapa iniciada em {@code since} ({@code System.nanoTime()}); devolve o instante atual. */
+    public long stop(Stage stage, long since) {
+        long now = System.nanoTime();
+        add(stage, now - since);
+        return now;
+    }
+
+    /** Marca o início da escrita do corpo (ver {@link TimingsResponseAdvice}). */
+    public void serializing() {
+        if (enabled) serializeStart = System.nanoTime();
+    }
+
+    /** Fecha a serialização marcada por {@link #serializing()}, se houve. */
+    public void serialized() {
+        long since = serializeStart;
+        if (since != 0) stop(Stage.SERIALIZE, since);
+    }
+
+    public long nanos(Stage stage) { return nanos.get(stage.ordinal()); }
+
+    /** Desde a criação (entrada no filtro). */
+    public long totalNanos() { return System.nanoTime() - startNanos; }
+
+    /** Etapas com tempo medido, em ms, na ordem do pipeline, mais {@code total}. */
+    public Map<String, Double> toMillis() {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (Stage s : STAGES) {
+            long n = nanos(s);
+            if (n > 0) out.put(s.metric(), round(n));
+        }
+        out.put("total", round(totalNanos()));
+        return out;
+    }
+
+    /** Valor do header: {@code normalize;dur=0.05, provider;dur=812.3, ..., total;dur=815.0}. */
+    public String serverTiming() {
+        StringBuilder sb = new StringBuilder(160);
+        for (Map.Entry<String, Double> e : toMillis().entrySet()) {
+            if (!sb.isEmpty()) sb.append(", ");
+            sb.append(e.getKey()).append(";dur=").append(String.format(Locale.ROOT, "%.2f", e.getValue()));
+        }
+        return sb.toString();
+    }
+
+    private static double round(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0; // ms com 2 casas
+    }
+}
@@ -0,0 +1,65 @@
+package com.pedro.sentiment.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Header {@code Server-Timing} nos endpoints de análise: cria o {@link RequestTimings} do request, deixa-o
+ * em {@link RequestTimings#current()} durante cada dispatch (o inicial e o assíncrono, onde a resposta é
+ * escrita) e, no fim, fecha a serialização e escreve o header.
+ *
+ * <p>O corpo (um JSON pequeno) fica em buffer para que o header possa sair depois da serialização.
+ * Batch e bulk fazem streaming e ficam de fora.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+    static final String ATTRIBUTE = RequestTimings.class.getName();
+
+    private static final Set<String> PATHS = Set.of("/api/v1/sentiment", "/api/v1/peer-feedback/analyze");
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = (RequestTimings) request.getAttribute(ATTRIBUTE);
+        if (timings == null) {
+            timings = new RequestTimings();
+            request.setAttribute(ATTRIBUTE, timings);
+        }
+
+        // no dispatch assíncrono a resposta já é o wrapper do inicial: reaproveita, senão o corpo fica num
+        // buffer que ninguém copia
+        var wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (wrapper == null) wrapper = new ContentCachingResponseWrapper(response);
+        try (RequestTimings.Scope ignored = timings.bind()) {
+            chain.doFilter(request, wrapper);
+        }
+        if (isAsyncStarted(request)) return; // a resposta sai no dispatch assíncrono
+
+        timings.serialized();
+        wrapper.setHeader(HEADER, timings.serverTiming());
+        wrapper.copyBodyToResponse();
+    }
+}
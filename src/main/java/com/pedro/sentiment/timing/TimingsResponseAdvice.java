@@ -0,0 +1,46 @@
+package com.pedro.sentiment.timing;
+
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Roda logo antes da serialização do corpo: marca o início da etapa {@code serialize} e, com
+ * {@code app.timing.include-in-body}, copia os tempos até aqui para o bloco {@code timings} da resposta.
+ */
+@ControllerAdvice
+public class TimingsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final boolean includeInBody;
+
+    public TimingsResponseAdvice(@Value("${app.timing.include-in-body:false}") boolean includeInBody) {
+        this.includeInBody = includeInBody;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimings timings = RequestTimings.current();
+        if (!timings.enabled()) return body;
+
+        if (includeInBody) {
+            if (body instanceof FeedbackResponse f) f.setTimings(timings.toMillis());
+            else if (body instanceof PeerFeedbackResponse p) p.timings = timings.toMillis();
+        }
+        timings.serializing();
+        return body;
+    }
+}
@@ -0,0 +1,161 @@
+package com.pedro.sentiment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.store.AnalysisRecord;
+import com.pedro.sentiment.store.AnalysisStore;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalysisStoreTest {
+
+    @Test
+    void appendCloseAndReplayKeepsOrderAndDropsTimings() throws IOException {
+        Path dir = Files.createTempDirectory("store-test");
+        try {
+            var store = open(dir, 64);
+            for (int i = 0; i < 10; i++) {
+                var resp = new FeedbackResponse("POSITIVE", 0.9, "ok");
+                resp.setTimings(java.util.Map.of("total", 1.0));
+                assertTrue(store.append(AnalysisRecord.of(request("texto " + i, "app"), resp)));
+            }
+            store.close();
+            assertEquals(10, store.stats().written());
+            assertEquals(0, store.stats().dropped());
+
+            List<AnalysisRecord> read = replay(open(dir, 64));
+            assertEquals(10, read.size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals(AnalysisRecord.SENTIMENT, read.get(i).kind());
+                assertEquals("app", read.get(i).source());
+                assertEquals("texto " + i, ((FeedbackRequest) read.get(i).request()).getText());
+                assertNull(((FeedbackResponse) read.get(i).response()).getTimings());
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void rollsSegmentsAndReplaysAcrossThem() throws IOException {
+        Path dir = Files.createTempDirectory("store-test");
+        try {
+            var store = open(dir, 1);
+            String text = "x".repeat(1024);
+            for (int i = 0; i < 3000; i++) {
+                assertTrue(store.append(AnalysisRecord.of(request(text + i, "s"), new FeedbackResponse("NEUTRAL", 0.5, "-"))));
+            }
+            store.close();
+            try (Stream<Path> files = Files.list(dir)) {
+                assertTrue(files.count() >= 2, "esperava mais de um segmento");
+            }
+
+            List<AnalysisRecord> read = replay(open(dir, 1));
+            assertEquals(3000, read.size());
+            assertEquals(text + 2999, ((FeedbackRequest) read.get(2999).request()).getText());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void repairsTornLastLineOnReopen() throws IOException {
+        Path dir = Files.createTempDirectory("store-test");
+        try {
+            var store = open(dir, 64);
+            store.append(AnalysisRecord.of(request("antes", "s"), new FeedbackResponse("POSITIVE", 0.8, "-")));
+            store.close();
+
+            Path segment;
+            try (Stream<Path> files = Files.list(dir)) {
+                segment = files.sorted().reduce((a, b) -> b).orElseThrow();
+            }
+            // simula um crash no meio da linha
+            Files.writeString(segment, "{\"ts\":1,\"kind\":\"sentim", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+            store = open(dir, 64);
+            store.append(AnalysisRecord.of(request("depois", "s"), new FeedbackResponse("NEGATIVE", 0.2, "-")));
+            store.close();
+
+            List<AnalysisRecord> read = replay(open(dir, 64));
+            assertEquals(2, read.size());
+            assertEquals("antes", ((FeedbackRequest) read.get(0).request()).getText());
+            assertEquals("depois", ((FeedbackRequest) read.get(1).request()).getText());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    void anonymousPeerFeedbackIsStoredWithoutEvaluator() throws IOException {
+        Path dir = Files.createTempDirectory("store-test");
+        try {
+            var req = new PeerFeedbackRequest();
+            req.setSubjectId("ana");
+            req.setEvaluatorId("bruno");
+            req.setPeriod("2025-07");
+            req.setText("Boa comunicação.");
+            req.setAnonymous(true);
+            var resp = new PeerFeedbackResponse();
+            resp.sentiment = "POSITIVE";
+
+            var store = open(dir, 64);
+            store.append(AnalysisRecord.of(req, resp));
+            store.close();
+
+            List<AnalysisRecord> read = replay(open(dir, 64));
+            assertEquals(1, read.size());
+            assertEquals(AnalysisRecord.PEER, read.get(0).kind());
+            assertEquals("2025-07", read.get(0).period());
+            var stored = (PeerFeedbackRequest) read.get(0).request();
+            assertEquals("ana", stored.getSubjectId());
+            assertNull(stored.getEvaluatorId());
+            assertEquals("bruno", req.getEvaluatorId()); // o request original não muda
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static AnalysisStore open(Path dir, int segmentMb) throws IOException {
+        return new AnalysisStore(new ObjectMapper(), dir.toString(), segmentMb, 65536, 64, Duration.ofSeconds(1),
+                "none", Duration.ofSeconds(1));
+    }
+
+    private static List<AnalysisRecord> replay(AnalysisStore store) throws IOException {
+        List<AnalysisRecord> out = new ArrayList<>();
+        try {
+            store.replay(out::add);
+        } finally {
+            store.close();
+        }
+        return out;
+    }
+
+    private static FeedbackRequest request(String text, String source) {
+        var req = new FeedbackRequest();
+        req.setText(text);
+        req.setSource(source);
+        return req;
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+}
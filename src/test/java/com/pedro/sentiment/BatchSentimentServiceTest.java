@@ -0,0 +1,69 @@
+package com.pedro.sentiment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.sentiment.ai.IAClient;
+import com.pedro.sentiment.ai.MockClient;
+import com.pedro.sentiment.dto.BatchItemResponse;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.service.AnalysisListener;
+import com.pedro.sentiment.service.BatchSentimentService;
+import com.pedro.sentiment.service.SentimentService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSentimentServiceTest {
+
+    @Test
+    void duplicateTextIsAnalyzedOnceButEveryItemReachesListeners() throws IOException {
+        var calls = new AtomicInteger();
+        var mock = new MockClient();
+        IAClient counting = text -> {
+            calls.incrementAndGet();
+            return mock.analyze(text);
+        };
+        List<String> sources = Collections.synchronizedList(new ArrayList<>());
+        AnalysisListener listener = new AnalysisListener() {
+            @Override
+            public void onSentiment(FeedbackRequest request, FeedbackResponse response) {
+                sources.add(request.getSource());
+            }
+        };
+        var sentiment = new SentimentService(counting,
+                new StaticListableBeanFactory(Map.of("listener", listener)).getBeanProvider(AnalysisListener.class));
+        var batch = new BatchSentimentService(sentiment, Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper());
+
+        Iterator<BatchSentimentService.Input> items = List.of(
+                input("1", "O serviço foi ótimo!", "app"),
+                input("2", "O serviço foi ótimo!", "email"),
+                input("3", "Demorou demais.", "app")).iterator();
+        List<BatchItemResponse> out = Collections.synchronizedList(new ArrayList<>());
+        batch.process(() -> items.hasNext() ? items.next() : null, out::add, 100);
+
+        assertEquals(3, out.size());
+        for (var item : out) assertNotNull(item.getResult());
+        assertEquals(2, calls.get());
+        assertEquals(3, sources.size());
+        assertEquals(2, Collections.frequency(sources, "app"));
+        assertEquals(1, Collections.frequency(sources, "email"));
+    }
+
+    private static BatchSentimentService.Input input(String id, String text, String source) {
+        var req = new FeedbackRequest();
+        req.setText(text);
+        req.setSource(source);
+        return BatchSentimentService.Input.of(id, req);
+    }
+}
@@ -0,0 +1,79 @@
+package com.pedro.sentiment;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.sentiment.ai.MockClient;
+import com.pedro.sentiment.service.AnalysisListener;
+import com.pedro.sentiment.service.BatchSentimentService;
+import com.pedro.sentiment.service.BulkFileService;
+import com.pedro.sentiment.service.SentimentService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkFileServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void malformedJsonLineFailsOnlyThatItem() throws IOException {
+        String in = """
+                {"id":"a","text":"O serviço foi ótimo!"}
+                {"id":"b","text":"quebrado" "sem vírgula"}
+
+                {"id":"c","text":"Demorou demais."}
+                """;
+        String out = run(in, BulkFileService.Format.JSONL);
+
+        Map<Integer, JsonNode> byIndex = new TreeMap<>();
+        for (String line : out.split("\n")) {
+            JsonNode item = MAPPER.readTree(line);
+            byIndex.put(item.get("index").asInt(), item);
+        }
+        assertEquals(3, byIndex.size());
+        assertEquals("a", byIndex.get(0).get("id").asText());
+        assertTrue(byIndex.get(1).get("error").asText().startsWith("linha inválida"));
+        assertEquals("c", byIndex.get(2).get("id").asText());
+        assertNotNull(byIndex.get(2).get("result"));
+    }
+
+    @Test
+    void malformedCsvRowFailsOnlyThatItem() throws IOException {
+        String in = """
+                id,text,source
+                a,O serviço foi ótimo!,app
+                b,"aspas"fora do lugar,app
+                c,Demorou demais.,app
+                """;
+        String out = run(in, BulkFileService.Format.CSV);
+
+        List<String> rows = out.lines().skip(1).toList(); // sem o cabeçalho
+        assertEquals(3, rows.size());
+        assertEquals(1, rows.stream().filter(r -> r.contains("linha inválida")).count());
+        assertTrue(rows.stream().anyMatch(r -> r.startsWith("0,a,")));
+        assertTrue(rows.stream().anyMatch(r -> r.startsWith("2,c,")));
+    }
+
+    private static String run(String in, BulkFileService.Format format) throws IOException {
+        var sentiment = new SentimentService(new MockClient(),
+                new StaticListableBeanFactory(Map.of()).getBeanProvider(AnalysisListener.class));
+        var batch = new BatchSentimentService(sentiment, Validation.buildDefaultValidatorFactory().getValidator(),
+                MAPPER);
+        var bulk = new BulkFileService(batch, MAPPER);
+
+        var out = new ByteArrayOutputStream();
+        bulk.process(new BulkFileService.Upload(
+                new ByteArrayInputStream(in.getBytes(StandardCharsets.UTF_8)), false), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,80 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.ai.CachingIAClient;
+import com.pedro.sentiment.ai.IAClient;
+import com.pedro.sentiment.ai.SupportsDetailed;
+import com.pedro.sentiment.text.NormalizedText;
+import com.pedro.sentiment.text.Sentences;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingIAClientTest {
+
+    /** Conta as chamadas; devolve fallback enquanto {@code down}. Sentenças = trechos do texto recebido. */
+    private static final class Counting implements IAClient, SupportsDetailed {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicBoolean down = new AtomicBoolean();
+
+        @Override
+        public Result analyze(String text) {
+            calls.incrementAndGet();
+            if (down.get()) return Result.fallback("indisponível", "geral");
+            return new Result("POSITIVE", 0.9, "ok", "geral");
+        }
+
+        @Override
+        public DetailedResult analyzeDetailed(String text) {
+            Result overall = analyze(text);
+            return new DetailedResult(overall, Sentences.split(text).stream()
+                    .map(s -> new SentenceSentiment(s, overall.getSentiment(), overall.getScore()))
+                    .toList());
+        }
+    }
+
+    @Test
+    void sameNormalizedTextHitsAndFallbacksAreNotCached() {
+        var provider = new Counting();
+        var cache = new CachingIAClient(provider, 100, Duration.ofMinutes(5));
+
+        provider.down.set(true);
+        assertTrue(cache.analyze("Ótimo atendimento!").isFallback());
+        assertTrue(cache.analyze("Ótimo atendimento!").isFallback());
+        assertEquals(2, provider.calls.get());
+
+        provider.down.set(false);
+        IAClient.Result miss = cache.analyze("Ótimo atendimento!");
+        assertFalse(miss.isFallback());
+        assertSame(miss, cache.analyze("otimo   ATENDIMENTO!"));
+        assertSame(miss, cache.analyzeAsync(NormalizedText.of("ótimo atendimento!")).join());
+        assertEquals(3, provider.calls.get());
+
+        cache.analyze("Outro texto.");
+        assertEquals(4, provider.calls.get());
+    }
+
+    @Test
+    void detailedHitKeepsTheSentencesOfTheRequestedText() {
+        var provider = new Counting();
+        var cache = new CachingIAClient(provider, 100, Duration.ofMinutes(5));
+
+        var first = cache.analyzeDetailed("Ótimo atendimento. Entrega rápida.");
+        assertEquals("Ótimo atendimento.", first.perSentence().get(0).sentence());
+        assertSame(first, cache.analyzeDetailed("Ótimo atendimento. Entrega rápida."));
+        assertEquals(1, provider.calls.get());
+
+        // mesmo texto normalizado, outro original: não pode devolver as sentenças do primeiro
+        var second = cache.analyzeDetailed("Otimo atendimento. Entrega rapida.");
+        assertEquals("Otimo atendimento.", second.perSentence().get(0).sentence());
+        assertEquals(2, provider.calls.get());
+
+        provider.down.set(true);
+        assertTrue(cache.analyzeDetailed("Texto novo.").overall().isFallback());
+        assertTrue(cache.analyzeDetailed("Texto novo.").overall().isFallback());
+        assertEquals(4, provider.calls.get());
+    }
+}
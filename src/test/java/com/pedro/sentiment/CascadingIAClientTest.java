@@ -0,0 +1,78 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.ai.CascadingIAClient;
+import com.pedro.sentiment.ai.CascadingIAClient.Tier;
+import com.pedro.sentiment.ai.IAClient;
+import com.pedro.sentiment.ai.MockClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CascadingIAClientTest {
+
+    /** Remoto que só registra os textos que recebeu. */
+    private static final class Remote implements IAClient {
+        final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Result analyze(String text) {
+            calls.add(text);
+            return new Result("POSITIVE", 0.99, "remoto", "geral").withProvider("remoto");
+        }
+
+        @Override public String providerName() { return "remoto"; }
+    }
+
+    @Test
+    void confidentPolarityStaysOnTheCheapTierWithItsName() {
+        var remote = new Remote();
+        var cascade = new CascadingIAClient(new MockClient(), remote, 0.6, true);
+
+        IAClient.Result r = cascade.analyze("Excelente, gostei e recomendo.");
+        assertEquals("POSITIVE", r.getSentiment());
+        assertEquals("MockClient", r.getProvider());
+        assertTrue(remote.calls.isEmpty());
+        assertEquals(1, cascade.answeredBy(Tier.CHEAP));
+        assertEquals(0, cascade.answeredBy(Tier.REMOTE));
+    }
+
+    @Test
+    void uncertainCheapAnswersEscalate() {
+        var remote = new Remote();
+        var cascade = new CascadingIAClient(new MockClient(), remote, 0.9, true);
+
+        String neutral = "Recebi o pedido na terça.";
+        String mixed = "O produto é bom. A entrega foi ruim.";
+        String weak = "Foi bom.";                     // POSITIVE, confiança 0,82 < 0,9
+        String contrast = "Excelente, mas recomendo."; // conectivo de contraste
+        for (String t : List.of(neutral, mixed, weak, contrast)) {
+            assertEquals("remoto", cascade.analyze(t).getProvider(), t);
+        }
+        assertEquals(List.of(neutral, mixed, weak, contrast), remote.calls);
+        assertEquals(0, cascade.answeredBy(Tier.CHEAP));
+        assertEquals(4, cascade.answeredBy(Tier.REMOTE));
+    }
+
+    @Test
+    void contrastOnlyEscalatesWhenEnabled() {
+        var remote = new Remote();
+        var cascade = new CascadingIAClient(new MockClient(), remote, 0.0, false);
+
+        IAClient.Result r = cascade.analyze("Excelente, gostei, recomendo, mas adorei.");
+        assertEquals("MockClient", r.getProvider());
+        assertTrue(remote.calls.isEmpty());
+    }
+
+    @Test
+    void fallbackFromTheCheapTierEscalates() {
+        var remote = new Remote();
+        IAClient broken = text -> new IAClient.Result("POSITIVE", 1.0, "ok", "geral").asFallback("local");
+        var cascade = new CascadingIAClient(broken, remote, 0.0, false);
+
+        assertEquals("remoto", cascade.analyze("Excelente.").getProvider());
+        assertEquals(1, remote.calls.size());
+    }
+}
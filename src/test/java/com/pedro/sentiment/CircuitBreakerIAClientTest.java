@@ -0,0 +1,163 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.ai.CircuitBreakerIAClient;
+import com.pedro.sentiment.ai.CircuitBreakerIAClient.State;
+import com.pedro.sentiment.ai.IAClient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerIAClientTest {
+
+    /** Provider controlado pelo teste: responde bem, devolve fallback ou lança. */
+    private static class Provider implements IAClient {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicBoolean failing = new AtomicBoolean();
+        volatile long sleepMillis;
+
+        @Override
+        public Result analyze(String text) {
+            calls.incrementAndGet();
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failing.get()) return Result.fallback("falhou", "geral");
+            return new Result("POSITIVE", 0.9, "ok", "geral");
+        }
+    }
+
+    @Test
+    void opensOnFailureRateDegradesAndClosesAfterGoodProbe() throws Exception {
+        var provider = new Provider();
+        var breaker = new CircuitBreakerIAClient(provider, 10, 4, 0.5, Duration.ofSeconds(5), 1.0, Duration.ofMillis(50));
+
+        provider.failing.set(true);
+        for (int i = 0; i < 3; i++) breaker.analyze("texto " + i);
+        assertEquals(State.CLOSED, breaker.state()); // ainda abaixo de minimum-calls
+        breaker.analyze("texto 3");
+        assertEquals(State.OPEN, breaker.state());
+
+        int before = provider.calls.get();
+        IAClient.Result degraded = breaker.analyze("O atendimento foi ótimo.");
+        assertTrue(degraded.isFallback());
+        assertTrue(degraded.getProvider().startsWith("MockClient (degradado"));
+        assertEquals(before, provider.calls.get()); // aberto: o provider não é chamado
+        assertEquals(1, breaker.degradedCount());
+
+        provider.failing.set(false);
+        awaitState(breaker, State.CLOSED);
+        assertFalse(breaker.analyze("texto").isFallback());
+    }
+
+    @Test
+    void failedProbeReopensAndKeepsDegrading() throws Exception {
+        var provider = new Provider();
+        var breaker = new CircuitBreakerIAClient(provider, 4, 2, 0.5, Duration.ofSeconds(5), 1.0, Duration.ofMillis(50));
+        provider.failing.set(true);
+        breaker.analyze("a");
+        breaker.analyze("b");
+        assertEquals(State.OPEN, breaker.state());
+
+        // o probe roda depois de open-duration, falha e reabre; o próximo probe (já com o provider bom) fecha
+        int before = provider.calls.get();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (provider.calls.get() == before && System.nanoTime() < deadline) Thread.sleep(5);
+        assertEquals(before + 1, provider.calls.get());
+        awaitState(breaker, State.OPEN);
+        assertTrue(breaker.analyze("c").isFallback());
+
+        provider.failing.set(false);
+        awaitState(breaker, State.CLOSED);
+    }
+
+    @Test
+    void opensOnSlowCallRate() throws Exception {
+        var provider = new Provider();
+        var breaker = new CircuitBreakerIAClient(provider, 4, 4, 1.0, Duration.ofMillis(1), 0.75, Duration.ofSeconds(60));
+        provider.sleepMillis = 5;
+        for (int i = 0; i < 3; i++) breaker.analyze("lento " + i);
+        assertEquals(State.CLOSED, breaker.state());
+        breaker.analyze("lento 3");
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void callsInFlightWhenItOpensAreIgnored() throws Exception {
+        var pending = new AtomicReference<CompletableFuture<IAClient.Result>>();
+        var provider = new Provider() {
+            @Override
+            public CompletableFuture<Result> analyzeAsync(com.pedro.sentiment.text.NormalizedText text) {
+                var f = new CompletableFuture<Result>();
+                pending.set(f);
+                return f;
+            }
+        };
+        var breaker = new CircuitBreakerIAClient(provider, 4, 2, 0.5, Duration.ofSeconds(5), 1.0, Duration.ofSeconds(60));
+        var inFlight = breaker.analyzeAsync(com.pedro.sentiment.text.NormalizedText.of("em voo"));
+        var slowOne = pending.get();
+
+        provider.failing.set(true);
+        breaker.analyze("a");
+        breaker.analyze("b");
+        assertEquals(State.OPEN, breaker.state());
+
+        // termina depois de aberto: não entra na janela nem muda o estado
+        slowOne.complete(new IAClient.Result("POSITIVE", 0.9, "ok", "geral"));
+        assertEquals("POSITIVE", inFlight.get().getSentiment());
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void probeSkipsTheProviderCacheSoACachedProbeSentenceDoesNotClose() throws Exception {
+        var probes = new AtomicInteger();
+        // provider fora do ar, mas com a frase do probe no cache interno: analyze responde dela, probe vai ao modelo
+        var provider = new Provider() {
+            @Override
+            public Result analyze(String text) {
+                if (text.equals("O atendimento foi bom.")) return new Result("POSITIVE", 0.9, "ok", "geral").asCached();
+                return super.analyze(text);
+            }
+
+            @Override
+            public CompletableFuture<Result> probeAsync(com.pedro.sentiment.text.NormalizedText text) {
+                probes.incrementAndGet();
+                return CompletableFuture.completedFuture(super.analyze(text.original()));
+            }
+        };
+        var breaker = new CircuitBreakerIAClient(provider, 4, 2, 0.5, Duration.ofSeconds(5), 1.0, Duration.ofMillis(20));
+        provider.failing.set(true);
+
+        // hits do cache interno não entram na janela: duas falhas de verdade ainda abrem com 50%
+        breaker.analyze("a");
+        for (int i = 0; i < 5; i++) assertFalse(breaker.analyze("O atendimento foi bom.").isFallback());
+        breaker.analyze("b");
+        assertEquals(State.OPEN, breaker.state());
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (probes.get() < 3 && System.nanoTime() < deadline) {
+            assertNotEquals(State.CLOSED, breaker.state());
+            Thread.sleep(2);
+        }
+        assertTrue(probes.get() >= 3);
+        assertNotEquals(State.CLOSED, breaker.state());
+
+        provider.failing.set(false);
+        awaitState(breaker, State.CLOSED);
+    }
+
+    private static void awaitState(CircuitBreakerIAClient breaker, State expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (breaker.state() != expected && System.nanoTime() < deadline) Thread.sleep(5);
+        assertEquals(expected, breaker.state());
+    }
+}
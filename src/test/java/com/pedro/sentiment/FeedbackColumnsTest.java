@@ -0,0 +1,122 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.analytics.FeedbackColumns;
+import com.pedro.sentiment.dto.FeedbackQueryRequest;
+import com.pedro.sentiment.dto.FeedbackQueryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedbackColumnsTest {
+
+    private static final long DAY = 86_400_000L;
+    private static final long JAN_1 = 1_735_689_600_000L; // 2025-01-01
+    private static final String[] SENTIMENTS = {"POSITIVE", "NEGATIVE", "NEUTRAL"};
+
+    private static FeedbackQueryRequest query(Map<String, List<String>> filters, String... groupBy) {
+        var q = new FeedbackQueryRequest();
+        q.setFilters(filters);
+        q.setGroupBy(List.of(groupBy));
+        q.setLimit(100_000);
+        return q;
+    }
+
+    private static Map<String, Long> counts(FeedbackQueryResponse r) {
+        Map<String, Long> out = new HashMap<>();
+        for (var g : r.groups) out.put(String.valueOf(g.key.values()), g.count);
+        return out;
+    }
+
+    @Test
+    void filtersAndGroupsLikeAScan() {
+        var columns = new FeedbackColumns(1_000_000);
+        var rnd = new Random(7);
+        Map<String, Long> expected = new HashMap<>();
+        int rows = 200_000; // ~3 blocos de 65 536
+        for (int i = 0; i < rows; i++) {
+            String project = "p" + rnd.nextInt(5), aspect = "a" + rnd.nextInt(4), sentiment = SENTIMENTS[rnd.nextInt(3)];
+            long ts = JAN_1 + rnd.nextInt(90) * DAY;
+            columns.add(ts, "peer", null, project, aspect, sentiment, null, 0.5, 3f);
+            boolean inRange = ts >= JAN_1 + 31 * DAY && ts < JAN_1 + 59 * DAY; // fevereiro
+            if (project.equals("p1") && !sentiment.equals("POSITIVE") && inRange) {
+                expected.merge(List.of(aspect, sentiment).toString(), 1L, Long::sum);
+            }
+        }
+
+        var q = query(Map.of("project", List.of("p1"), "sentiment", List.of("NEGATIVE", "NEUTRAL")), "aspect", "sentiment");
+        q.setFrom("2025-02-01");
+        q.setTo("2025-02-28");
+        FeedbackQueryResponse r = columns.query(q);
+
+        assertEquals(rows, r.scanned);
+        assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), r.matched);
+        assertEquals(expected, counts(r));
+        assertEquals(3.0, r.groups.get(0).avgRating);
+        for (int k = 1; k < r.groups.size(); k++) assertTrue(r.groups.get(k - 1).count >= r.groups.get(k).count);
+    }
+
+    @Test
+    void periodDefaultsToMonthAndSharesAreComputed() {
+        var columns = new FeedbackColumns(1000);
+        columns.add(JAN_1 + 40 * DAY, "sentiment", "app", null, "suporte", "NEGATIVE", null, 0.2, Float.NaN);
+        columns.add(JAN_1 + 41 * DAY, "sentiment", "app", null, "suporte", "POSITIVE", null, 0.9, Float.NaN);
+        columns.add(JAN_1 + 42 * DAY, "sentiment", "app", null, "suporte", "POSITIVE", null, 0.7, Float.NaN);
+
+        FeedbackQueryResponse r = columns.query(query(Map.of("period", List.of("2025-02")), "source"));
+        assertEquals(1, r.groups.size());
+        var g = r.groups.get(0);
+        assertEquals(Map.of("source", "app"), g.key);
+        assertEquals(3, g.count);
+        assertEquals(0.6, g.avgScore, 1e-3);
+        assertNull(g.avgRating);
+        assertEquals(0.333, g.negativeShare);
+        assertEquals(0.667, g.positiveShare);
+    }
+
+    @Test
+    void highCardinalityGroupByIsSparseAndCapped() {
+        var columns = new FeedbackColumns(1_000_000);
+        for (int i = 0; i < 60_000; i++) {
+            columns.add(JAN_1, "sentiment", "s" + i, null, "a" + (i % 3), "POSITIVE", null, 1, Float.NaN);
+        }
+        // 60 000 × 3 possíveis, mas só 6 000 aparecem com esse filtro
+        var few = query(Map.of("aspect", List.of("a0")), "source", "aspect");
+        few.setLimit(10);
+        FeedbackQueryResponse r = columns.query(query(Map.of("source", sources(0, 6000)), "source", "aspect"));
+        assertEquals(6000, r.groups.size());
+        assertEquals(Map.of("source", "s4242", "aspect", "a0"),
+                r.groups.stream().filter(g -> "s4242".equals(g.key.get("source"))).findFirst().orElseThrow().key);
+        assertEquals(10, columns.query(few).groups.size());
+
+        assertThrows(IllegalArgumentException.class, () -> columns.query(query(null, "source")));
+    }
+
+    @Test
+    void rejectsUnknownColumnsAndDates() {
+        var columns = new FeedbackColumns(1000);
+        assertThrows(IllegalArgumentException.class, () -> columns.query(query(null, "foo")));
+        assertThrows(IllegalArgumentException.class, () -> columns.query(query(null, "kind", "source", "aspect")));
+        var q = query(null);
+        q.setFrom("2025-13-01");
+        assertThrows(IllegalArgumentException.class, () -> columns.query(q));
+    }
+
+    @Test
+    void evictsOldestBlocksPastMaxRows() {
+        var columns = new FeedbackColumns(2 * 65_536);
+        for (int i = 0; i < 3 * 65_536; i++) columns.add(JAN_1, "sentiment", "s", null, null, "POSITIVE", null, 1, Float.NaN);
+        assertEquals(2 * 65_536, columns.rows());
+        assertEquals(2 * 65_536, columns.query(query(null)).matched);
+    }
+
+    private static List<String> sources(int from, int to) {
+        List<String> out = new java.util.ArrayList<>();
+        for (int i = from; i < to; i++) out.add("s" + i);
+        return out;
+    }
+}
@@ -0,0 +1,85 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.ai.HashedNgramModel;
+import com.pedro.sentiment.ai.IAClient;
+import com.pedro.sentiment.ai.LocalModelClient;
+import com.pedro.sentiment.ai.LocalModelTrainer;
+import com.pedro.sentiment.ai.SupportsDetailed;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalModelClientTest {
+
+    private static final String[] POSITIVE = {
+            "O atendimento foi excelente.", "Gostei muito do suporte.", "Equipe rápida e atenciosa.",
+            "Ótimo produto, recomendo.", "Entrega perfeita e muito boa."
+    };
+    private static final String[] NEGATIVE = {
+            "O sistema é lento e travou.", "Péssimo atendimento, demorou demais.", "Produto ruim e quebrado.",
+            "Horrível, não funcionou.", "Suporte fraco e mal educado."
+    };
+    private static final String[] NEUTRAL = {
+            "Recebi o pedido na terça.", "O chamado foi aberto ontem.", "A reunião é às dez horas.",
+            "O relatório tem três páginas.", "Moro em São Paulo."
+    };
+
+    @Test
+    void saveLoadAndPredictFromDisk() throws IOException {
+        HashedNgramModel trained = LocalModelTrainer.train(examples(),
+                new LocalModelTrainer.Options("teste", 12, 20, 0.5, 42));
+        Path file = Files.createTempFile("sentiment-model", ".bin");
+        try {
+            try (OutputStream os = Files.newOutputStream(file)) {
+                trained.save(os);
+            }
+            HashedNgramModel loaded;
+            try (InputStream in = Files.newInputStream(file)) {
+                loaded = HashedNgramModel.load(in);
+            }
+            assertEquals("teste", loaded.name());
+            assertEquals(List.of("NEGATIVE", "NEUTRAL", "POSITIVE"), loaded.labels());
+
+            var client = new LocalModelClient(file.toString());
+            assertEquals("teste", client.model());
+            assertEquals("POSITIVE", client.analyze("O atendimento foi excelente e rápido.").getSentiment());
+            assertEquals("NEGATIVE", client.analyze("O sistema é lento e travou de novo.").getSentiment());
+            assertFalse(client.analyze("Gostei muito.").isFallback());
+
+            // uma sentença forte de cada lado = MIXED, com uma entrada por sentença
+            SupportsDetailed.DetailedResult mixed =
+                    client.analyzeDetailed("O atendimento foi excelente. O sistema é lento e travou.");
+            assertEquals("MIXED", mixed.overall().getSentiment());
+            assertEquals(2, mixed.perSentence().size());
+            assertEquals("POSITIVE", mixed.perSentence().get(0).label());
+            assertEquals("NEGATIVE", mixed.perSentence().get(1).label());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void missingModelFallsBackToNeutral() {
+        var client = new LocalModelClient("arquivo-que-nao-existe.bin");
+        IAClient.Result r = client.analyze("O atendimento foi excelente.");
+        assertTrue(r.isFallback());
+        assertEquals("NEUTRAL", r.getSentiment());
+        assertEquals("indisponível", client.model());
+    }
+
+    private static List<LocalModelTrainer.Example> examples() {
+        List<LocalModelTrainer.Example> out = new ArrayList<>();
+        for (String s : NEGATIVE) out.add(new LocalModelTrainer.Example(s, 0));
+        for (String s : NEUTRAL) out.add(new LocalModelTrainer.Example(s, 1));
+        for (String s : POSITIVE) out.add(new LocalModelTrainer.Example(s, 2));
+        return out;
+    }
+}
@@ -0,0 +1,29 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.text.NormalizedText;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NormalizedTextTest {
+
+    @Test
+    void stripsAccentsLowercasesAndCollapsesSpaces() {
+        var nt = NormalizedText.of("  Ótimo   atendimento,\n porém  LENTIDÃO! ");
+        assertEquals("otimo atendimento, porem lentidao!", nt.value());
+        assertEquals(4, nt.tokenCount());
+        assertEquals("lentidao", nt.token(3));
+    }
+
+    @Test
+    void mapsOffsetsBackToOriginal() {
+        String original = "O Pedro ajudou no design.  Contudo, os PRs demoram.";
+        var nt = NormalizedText.of(original);
+        int at = nt.value().indexOf("contudo");
+        assertEquals("Contudo", nt.originalSlice(at, at + "contudo".length()));
+
+        var second = nt.slice(original.indexOf("Contudo"), original.length());
+        assertEquals("Contudo, os PRs demoram.", second.original());
+        assertEquals("contudo, os prs demoram.", second.value());
+    }
+}
@@ -0,0 +1,71 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.dto.PeerSummaryResponse;
+import com.pedro.sentiment.peer.PeerFeedbackAggregator;
+import com.pedro.sentiment.store.AnalysisRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeerFeedbackAggregatorTest {
+
+    @Test
+    void summarizesByPeriodAndAcrossPeriods() {
+        var agg = new PeerFeedbackAggregator(false);
+        agg.onPeerFeedback(request("ana", "2025-07"), response("POSITIVE", 0.8, "comunicação", "clara nas dailies"));
+        agg.onPeerFeedback(request("ana", "2025-07"), response("MIXED", 0.6, "comunicação", "explica bem o plano"));
+        agg.onPeerFeedback(request(" ana ", "2025-08"), response("NEGATIVE", 0.2, null, null));
+        agg.onPeerFeedback(request("bruno", "2025-07"), response("POSITIVE", 0.9, null, null));
+
+        PeerSummaryResponse july = agg.summary("ana", "2025-07", 5);
+        assertEquals(2, july.feedbacks);
+        assertEquals(0.7, july.averageScore, 1e-9);
+        assertEquals(Long.valueOf(1), july.sentiments.get("POSITIVE"));
+        assertEquals(Long.valueOf(1), july.sentiments.get("MIXED"));
+        assertEquals(1, july.topStrengths.size());
+        assertEquals("comunicação", july.topStrengths.get(0).aspect);
+        assertEquals(2, july.topStrengths.get(0).count);
+        assertEquals("explica bem o plano", july.topStrengths.get(0).evidence);
+
+        PeerSummaryResponse all = agg.summary("ana", null, 5);
+        assertEquals(3, all.feedbacks);
+        assertNull(all.period);
+        assertEquals(Long.valueOf(1), all.sentiments.get("NEGATIVE"));
+
+        assertNull(agg.summary("ana", "2025-09", 5));
+        assertNull(agg.summary("carla", null, 5));
+    }
+
+    @Test
+    void replayOnlyTakesPeerRecordsAndSkipsMissingSubject() {
+        var agg = new PeerFeedbackAggregator(true);
+        assertTrue(agg.rebuildOnStart());
+        agg.replay(AnalysisRecord.of(request("ana", "2025-07"), response("POSITIVE", 0.8, null, null)));
+        agg.replay(AnalysisRecord.of(request(" ", "2025-07"), response("POSITIVE", 0.8, null, null)));
+        var sentiment = new com.pedro.sentiment.dto.FeedbackRequest();
+        sentiment.setText("ok");
+        agg.replay(AnalysisRecord.of(sentiment, new com.pedro.sentiment.dto.FeedbackResponse("POSITIVE", 0.9, "-")));
+
+        assertEquals(1, agg.summary("ana", null, 5).feedbacks);
+    }
+
+    private static PeerFeedbackRequest request(String subject, String period) {
+        var req = new PeerFeedbackRequest();
+        req.setSubjectId(subject);
+        req.setPeriod(period);
+        req.setText("texto");
+        return req;
+    }
+
+    private static PeerFeedbackResponse response(String sentiment, double score, String strength, String evidence) {
+        var resp = new PeerFeedbackResponse();
+        resp.sentiment = sentiment;
+        resp.score = score;
+        if (strength != null) resp.strengths = List.of(new PeerFeedbackResponse.Strength(strength, evidence));
+        return resp;
+    }
+}
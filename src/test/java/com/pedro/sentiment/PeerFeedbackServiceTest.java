@@ -0,0 +1,87 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.ai.IAClient;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.service.PeerFeedbackService;
+import com.pedro.sentiment.text.NormalizedText;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeerFeedbackServiceTest {
+
+    /** Responde na hora, menos os textos com "demora": esses só completam depois de 3 s (chamada remota presa). */
+    private static final class SlowProvider implements IAClient {
+        final AtomicInteger cancelled = new AtomicInteger();
+
+        @Override
+        public Result analyze(String text) {
+            return analyzeAsync(NormalizedText.of(text)).join();
+        }
+
+        @Override
+        public CompletableFuture<Result> analyzeAsync(NormalizedText t) {
+            String text = t.original();
+            Result r = new Result(text.contains("ótim") ? "POSITIVE" : "NEGATIVE", 0.9, "ok", "geral");
+            if (!text.contains("demora")) return CompletableFuture.completedFuture(r);
+            var f = new CompletableFuture<Result>();
+            f.completeOnTimeout(r, 3, TimeUnit.SECONDS);
+            f.whenComplete((x, e) -> {
+                if (f.isCancelled()) cancelled.incrementAndGet();
+            });
+            return f;
+        }
+    }
+
+    @Test
+    void fanOutReturnsAtTheDeadlineWithoutWaitingForStuckCalls() {
+        var provider = new SlowProvider();
+        var service = new PeerFeedbackService(provider, true, Duration.ofMillis(200), false);
+        var req = new PeerFeedbackRequest();
+        req.setSubjectId("ana");
+        req.setText("A entrega foi ótima. A revisão demora demais.");
+
+        long t0 = System.nanoTime();
+        PeerFeedbackResponse resp = service.analyze(req);
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+
+        assertTrue(tookMs < 1500, "esperou as chamadas presas: " + tookMs + " ms");
+        // a sentença rápida entra; a lenta e o texto inteiro (que também contém "demora") ficam de fora
+        assertEquals(1, resp.strengths.size());
+        assertEquals("A entrega foi ótima.", resp.strengths.get(0).evidence);
+        assertEquals("NEUTRAL", resp.sentiment);
+        assertTrue(resp.summary.startsWith("Tempo esgotado"));
+        // o cancelamento chegou aos futures do provider: a sentença lenta e o texto inteiro
+        assertEquals(2, provider.cancelled.get());
+    }
+
+    @Test
+    void fanOutKeepsEverySentenceWhenTheProviderIsFast() {
+        var service = new PeerFeedbackService(new SlowProvider(), true, Duration.ofSeconds(5), false);
+        var req = new PeerFeedbackRequest();
+        req.setSubjectId("ana");
+        req.setText("A entrega foi ótima. O código ficou ótimo.");
+
+        PeerFeedbackResponse resp = service.analyze(req);
+        assertEquals("POSITIVE", resp.sentiment);
+        assertEquals(2, resp.strengths.size());
+    }
+
+    @Test
+    void overallFromSentencesIsMixedWithOneStrongSentencePerPolarity() {
+        var service = new PeerFeedbackService(new SlowProvider(), true, Duration.ofSeconds(5), true);
+        var req = new PeerFeedbackRequest();
+        req.setSubjectId("ana");
+        req.setText("A entrega foi ótima. O código ficou confuso.");
+
+        PeerFeedbackResponse resp = service.analyze(req);
+        assertEquals("MIXED", resp.sentiment);
+        assertEquals(0.45, resp.score, 1e-9);
+    }
+}
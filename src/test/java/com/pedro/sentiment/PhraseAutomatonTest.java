@@ -0,0 +1,33 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.text.PhraseAutomaton;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhraseAutomatonTest {
+
+    private static List<String> hits(PhraseAutomaton a, String text) {
+        List<String> out = new ArrayList<>();
+        a.scan(text, (tag, start, end, token) -> out.add(tag + ":" + text.substring(start, end) + "@" + token));
+        return out;
+    }
+
+    @Test
+    void findsOverlappingPhrasesInOnePass() {
+        var a = PhraseAutomaton.builder()
+                .add("muito bom", 0).add("bom", 0).add("nao", 1)
+                .build();
+        assertEquals(List.of("1:nao@0", "0:muito bom@-1", "0:bom@3"), hits(a, "nao foi muito bom"));
+    }
+
+    @Test
+    void respectsWordBoundaries() {
+        var a = PhraseAutomaton.builder().add("erro", 0).add("mas", 1).build();
+        assertEquals(List.of(), hits(a, "erros problemas"));
+        assertEquals(List.of("0:erro@1", "1:mas@2"), hits(a, "um erro, mas ok"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.text.Sentences;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SentencesTest {
+
+    @Test
+    void splitsTrimsAndKeepsOffsetsIntoTheInput() {
+        String text = "  O atendimento foi ótimo.  Porém o sistema é lento! Vale?";
+        List<Sentences.Span> spans = Sentences.spans(text, 10);
+        assertEquals(List.of("O atendimento foi ótimo.", "Porém o sistema é lento!", "Vale?"),
+                spans.stream().map(Sentences.Span::text).toList());
+        for (Sentences.Span s : spans) {
+            assertEquals(s.text(), text.substring(s.start(), s.end()).trim());
+        }
+        assertEquals(2, Sentences.split(text, 2).size());
+    }
+
+    @Test
+    void blankTextHasNoSentences() {
+        assertTrue(Sentences.split(null).isEmpty());
+        assertTrue(Sentences.split("   ").isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.ai.MockClient;
+import com.pedro.sentiment.controller.FeedbackController;
+import com.pedro.sentiment.controller.PeerFeedbackController;
+import com.pedro.sentiment.service.PeerFeedbackService;
+import com.pedro.sentiment.service.SentimentService;
+import com.pedro.sentiment.timing.ServerTimingFilter;
+import com.pedro.sentiment.timing.TimingsResponseAdvice;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ServerTimingFilterTest {
+
+    private final MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(
+                    new FeedbackController(new SentimentService(new MockClient()), null, null),
+                    new PeerFeedbackController(new PeerFeedbackService(new MockClient()), null))
+            .setControllerAdvice(new TimingsResponseAdvice(false))
+            .addFilters(new ServerTimingFilter())
+            .build();
+
+    @Test
+    void sentimentKeepsBodyAcrossAsyncDispatch() throws Exception {
+        MvcResult started = mvc.perform(post("/api/v1/sentiment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"O serviço foi ótimo e eficiente!\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sentiment").value("POSITIVE"))
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("total;dur=")));
+    }
+
+    @Test
+    void peerFeedbackKeepsBodyAcrossAsyncDispatch() throws Exception {
+        MvcResult started = mvc.perform(post("/api/v1/peer-feedback/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"subjectId\":\"ana\",\"text\":\"Ótima comunicação nas reuniões, mas atrasou as entregas.\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subjectId").value("ana"))
+                .andExpect(jsonPath("$.sentiment").exists())
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("total;dur=")));
+    }
+}
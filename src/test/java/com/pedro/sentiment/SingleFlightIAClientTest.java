@@ -0,0 +1,123 @@
+package com.pedro.sentiment;
+
+import com.pedro.sentiment.ai.IAClient;
+import com.pedro.sentiment.ai.SingleFlightIAClient;
+import com.pedro.sentiment.text.NormalizedText;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightIAClientTest {
+
+    /** Provider cujas chamadas só terminam quando o teste completa o future. */
+    private static final class Pending implements IAClient {
+        final List<CompletableFuture<Result>> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Result analyze(String text) {
+            throw new UnsupportedOperationException("teste usa só a API assíncrona");
+        }
+
+        @Override
+        public CompletableFuture<Result> analyzeAsync(NormalizedText text) {
+            var f = new CompletableFuture<Result>();
+            calls.add(f);
+            return f;
+        }
+    }
+
+    private static final IAClient.Result OK = new IAClient.Result("POSITIVE", 0.9, "ok", "geral");
+
+    @Test
+    void identicalRequestsShareOneCallAndEntryIsRemovedAfterCompletion() throws Exception {
+        var provider = new Pending();
+        var sf = new SingleFlightIAClient(provider);
+
+        var leader = sf.analyzeAsync(NormalizedText.of("Entrega atrasada."));
+        var waiter = sf.analyzeAsync(NormalizedText.of("  ENTREGA atrasada. "));
+        var other = sf.analyzeAsync(NormalizedText.of("Outro texto."));
+        assertEquals(2, provider.calls.size());
+        assertEquals(1, sf.coalescedCount());
+        assertEquals(2, sf.inFlight());
+
+        provider.calls.get(0).complete(OK);
+        assertSame(OK, leader.get());
+        assertSame(OK, waiter.get());
+        assertEquals(1, sf.inFlight());
+
+        // depois de terminar, o mesmo texto abre uma chamada nova
+        sf.analyzeAsync(NormalizedText.of("Entrega atrasada."));
+        assertEquals(3, provider.calls.size());
+        assertEquals(1, sf.coalescedCount());
+
+        provider.calls.get(1).complete(OK);
+        provider.calls.get(2).complete(OK);
+        assertSame(OK, other.get());
+        assertEquals(0, sf.inFlight());
+    }
+
+    @Test
+    void leaderFailureFailsEveryWaiterWithTheOriginalError() throws Exception {
+        var provider = new Pending();
+        var sf = new SingleFlightIAClient(provider);
+        var first = sf.analyzeAsync(NormalizedText.of("texto"));
+        var second = sf.analyzeAsync(NormalizedText.of("texto"));
+        var third = sf.analyzeAsync(NormalizedText.of("texto"));
+        assertEquals(1, provider.calls.size());
+        assertEquals(2, sf.coalescedCount());
+
+        var boom = new IllegalStateException("provider fora");
+        provider.calls.get(0).completeExceptionally(boom);
+        for (var f : List.of(first, second, third)) {
+            var e = assertThrows(ExecutionException.class, f::get);
+            assertSame(boom, e.getCause());
+        }
+        assertEquals(0, sf.inFlight());
+
+        // a falha não fica "grudada": o próximo request tenta de novo
+        var retry = sf.analyzeAsync(NormalizedText.of("texto"));
+        assertEquals(2, provider.calls.size());
+        provider.calls.get(1).complete(OK);
+        assertSame(OK, retry.get());
+    }
+
+    @Test
+    void waiterCancellingDoesNotCancelTheSharedCall() throws Exception {
+        var provider = new Pending();
+        var sf = new SingleFlightIAClient(provider);
+        var leader = sf.analyzeAsync(NormalizedText.of("texto"));
+        var waiter = sf.analyzeAsync(NormalizedText.of("texto"));
+
+        assertTrue(waiter.cancel(true));
+        assertFalse(provider.calls.get(0).isCancelled());
+        assertFalse(leader.isDone());
+        assertEquals(1, sf.inFlight());
+
+        provider.calls.get(0).complete(OK);
+        assertSame(OK, leader.get());
+    }
+
+    @Test
+    void providerCallIsCancelledOnlyWhenEveryCallerGivesUp() {
+        var provider = new Pending();
+        var sf = new SingleFlightIAClient(provider);
+        var a = sf.analyzeAsync(NormalizedText.of("texto"));
+        var b = sf.analyzeAsync(NormalizedText.of("texto"));
+
+        a.cancel(true);
+        assertFalse(provider.calls.get(0).isCancelled());
+        b.cancel(true);
+        assertTrue(provider.calls.get(0).isCancelled());
+        assertEquals(0, sf.inFlight());
+
+        // abandonada por todos: um request novo não reaproveita a chamada cancelada
+        var c = sf.analyzeAsync(NormalizedText.of("texto"));
+        assertEquals(2, provider.calls.size());
+        assertFalse(c.isDone());
+    }
+}
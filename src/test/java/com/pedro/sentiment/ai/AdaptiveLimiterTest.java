@@ -0,0 +1,148 @@
+package com.pedro.sentiment.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private static final long SLOW = 1_000; // ns, limiar de lentidão fixo
+
+    private final AtomicLong now = new AtomicLong();
+
+    private AdaptiveLimiter limiter(int initial, int maxQueue, Duration maxWait, ScheduledExecutorService timer) {
+        return new AdaptiveLimiter(initial, 1, 64, 0.5, maxQueue, maxWait, () -> SLOW, 0.2, timer, now::get);
+    }
+
+    private static AdaptiveLimiter.Permit granted(AdaptiveLimiter l) {
+        CompletableFuture<AdaptiveLimiter.Permit> f = l.acquire();
+        assertTrue(f.isDone(), "esperava vaga imediata");
+        return f.join();
+    }
+
+    /** Uma chamada que sai agora e responde 2xx depois de {@code rtt} ns. */
+    private void call(AdaptiveLimiter l, long rtt) {
+        var p = granted(l);
+        now.addAndGet(rtt);
+        p.success();
+    }
+
+    @Test
+    void growsAboutOnePerWindowOnlyWhileTheLimitIsUsed() {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            var l = limiter(4, 0, Duration.ZERO, timer);
+            // uma chamada por vez: o limite não está em uso, não cresce
+            for (int i = 0; i < 20; i++) call(l, 10);
+            assertEquals(4, l.limit());
+
+            // três vagas presas e a quarta girando: 4 + 1/4 + 1/4.25 + ... passa de 5 na 5ª resposta
+            List<AdaptiveLimiter.Permit> held = new ArrayList<>();
+            for (int i = 0; i < 3; i++) held.add(granted(l));
+            for (int i = 0; i < 4; i++) call(l, 10);
+            assertEquals(4, l.limit());
+            call(l, 10);
+            assertEquals(5, l.limit());
+            held.forEach(AdaptiveLimiter.Permit::ignore);
+            assertEquals(0, l.inFlight());
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    void congestionCutsOncePerGeneration() {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            var l = limiter(16, 0, Duration.ZERO, timer);
+            var a = granted(l);
+            var b = granted(l);
+            now.addAndGet(100);
+            a.dropped();
+            assertEquals(8, l.limit());
+            b.dropped(); // saiu antes do corte: mesma rajada, não corta de novo
+            assertEquals(8, l.limit());
+            assertEquals(1, l.decreases());
+
+            now.addAndGet(100);
+            granted(l).dropped();
+            assertEquals(4, l.limit());
+            assertEquals(2, l.decreases());
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    void isolatedSlowResponseDoesNotCutButASlowRateDoes() {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            var l = limiter(8, 0, Duration.ZERO, timer);
+            // janela com menos da metade preenchida: nem uma sequência de lentas corta
+            for (int i = 0; i < 9; i++) call(l, SLOW * 10);
+            assertEquals(8, l.limit());
+            assertEquals(0, l.decreases());
+
+            var fresh = limiter(8, 0, Duration.ZERO, timer);
+            for (int i = 0; i < 10; i++) call(fresh, 10);
+            call(fresh, SLOW * 10); // 1 de 11
+            assertEquals(8, fresh.limit());
+            call(fresh, SLOW * 10); // 2 de 12 < 20%
+            assertEquals(0, fresh.decreases());
+            call(fresh, SLOW * 10); // 3 de 13 >= 20%
+            assertEquals(4, fresh.limit());
+            assertEquals(1, fresh.decreases());
+
+            // a janela recomeça com a geração: a próxima lenta sozinha não corta de novo
+            for (int i = 0; i < 10; i++) call(fresh, 10);
+            call(fresh, SLOW * 10);
+            assertEquals(1, fresh.decreases());
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    void queuesFifoRejectsWhenFullAndTimesOut() throws Exception {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            var l = limiter(1, 1, Duration.ofSeconds(30), timer);
+            var first = granted(l);
+            var queued = l.acquire();
+            assertFalse(queued.isDone());
+            assertEquals(1, l.queued());
+
+            var rejected = l.acquire();
+            var e = assertThrows(ExecutionException.class, rejected::get);
+            assertTrue(e.getCause() instanceof AdaptiveLimiter.LimitExceededException);
+            assertEquals(1, l.rejectedFull());
+
+            first.ignore();
+            var second = queued.get(1, TimeUnit.SECONDS);
+            assertEquals(1, l.inFlight());
+            assertEquals(0, l.queued());
+            second.ignore();
+
+            var shortWait = limiter(1, 4, Duration.ofMillis(20), timer);
+            var held = granted(shortWait);
+            var expires = shortWait.acquire();
+            var timeout = assertThrows(ExecutionException.class, () -> expires.get(5, TimeUnit.SECONDS));
+            assertTrue(timeout.getCause() instanceof AdaptiveLimiter.LimitExceededException);
+            assertEquals(1, shortWait.rejectedTimeout());
+            assertEquals(0, shortWait.queued());
+            held.ignore();
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.pedro.sentiment.ai;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.sentiment.text.NormalizedText;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HuggingFaceClientTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void picksBestLabelPerInput() throws Exception {
+        List<HuggingFaceClient.LabelScore> single = HuggingFaceClient.bestPerInput(
+                json("[{\"label\":\"negative\",\"score\":0.2},{\"label\":\"positive\",\"score\":0.7}]"), 1);
+        assertEquals(1, single.size());
+        assertEquals(0.7, single.get(0).score(), 1e-9);
+
+        List<HuggingFaceClient.LabelScore> batch = HuggingFaceClient.bestPerInput(json(
+                "[[{\"label\":\"positive\",\"score\":0.9}],[{\"label\":\"negative\",\"score\":0.6},{\"label\":\"neutral\",\"score\":0.3}]]"), 2);
+        assertEquals(2, batch.size());
+        assertEquals(0.9, batch.get(0).score(), 1e-9);
+        assertEquals(0.6, batch.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void fewerScoresThanInputsFailsInsteadOfDefaulting() throws Exception {
+        JsonNode two = json("[[{\"label\":\"positive\",\"score\":0.9}],[{\"label\":\"negative\",\"score\":0.6}]]");
+        var e = assertThrows(RuntimeException.class, () -> HuggingFaceClient.bestPerInput(two, 3));
+        assertEquals("Resposta inesperada – fallback.", e.getMessage());
+    }
+
+    @Test
+    void inputWithoutScoresFailsInsteadOfDefaulting() throws Exception {
+        assertThrows(RuntimeException.class, () -> HuggingFaceClient.bestPerInput(
+                json("[[{\"label\":\"positive\",\"score\":0.9}],[]]"), 2));
+        assertThrows(RuntimeException.class, () -> HuggingFaceClient.bestPerInput(json("[]"), 1));
+        assertThrows(RuntimeException.class, () -> HuggingFaceClient.bestPerInput(json("[{\"score\":0.4}]"), 1));
+        assertThrows(RuntimeException.class, () -> HuggingFaceClient.bestPerInput(json("{\"error\":\"loading\"}"), 1));
+    }
+
+    @Test
+    void mixedNeedsOneStrongSentencePerPolarity() {
+        Aggregate mixed = HuggingFaceClient.aggregate(List.of(
+                new HuggingFaceClient.LabelScore("POSITIVE", 0.9), new HuggingFaceClient.LabelScore("NEGATIVE", 0.8)));
+        assertEquals("MIXED", mixed.label());
+        assertEquals(0.45, mixed.score(), 1e-9);
+
+        Aggregate weak = HuggingFaceClient.aggregate(List.of(
+                new HuggingFaceClient.LabelScore("POSITIVE", 0.9), new HuggingFaceClient.LabelScore("NEGATIVE", 0.5)));
+        assertEquals("POSITIVE", weak.label());
+    }
+
+    @Test
+    void onlyInputErrorsSplitABatch() {
+        var unexpected = assertThrows(RuntimeException.class, () -> HuggingFaceClient.bestPerInput(json("[]"), 1));
+        assertTrue(HuggingFaceClient.inputSpecific(unexpected));
+        assertTrue(HuggingFaceClient.inputSpecific(new CompletionException(new JsonParseException(null, "json quebrado"))));
+        assertFalse(HuggingFaceClient.inputSpecific(new CompletionException(new HttpTimeoutException("timeout"))));
+        assertFalse(HuggingFaceClient.inputSpecific(new java.net.ConnectException("recusado")));
+    }
+
+    @Test
+    void cachedProbeSentenceDoesNotCloseTheBreakerWhileTheModelIsDown() throws Exception {
+        // token inválido: o modelo responde 4xx (ou a rede nem existe); só o cache por sentença tem resposta
+        HuggingFaceClient hf = client();
+        try {
+            hf.cacheSentence("O atendimento foi bom.", new HuggingFaceClient.LabelScore("POSITIVE", 0.9));
+            IAClient.Result cached = hf.analyzeAsync(NormalizedText.of("O atendimento foi bom.")).get(10, TimeUnit.SECONDS);
+            assertFalse(cached.isFallback());
+            assertTrue(cached.isCached());
+            assertTrue(hf.probeAsync(NormalizedText.of("O atendimento foi bom.")).get(10, TimeUnit.SECONDS).isFallback());
+
+            var breaker = new CircuitBreakerIAClient(hf, 4, 2, 0.5, Duration.ofSeconds(10), 1.0, Duration.ofMillis(20));
+            breaker.analyze("Texto que não está no cache.");
+            breaker.analyze("O atendimento foi bom.");
+            breaker.analyze("Outro texto fora do cache.");
+            assertEquals(CircuitBreakerIAClient.State.OPEN, breaker.state());
+
+            // vários probes depois, continua sem fechar
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+            while (System.nanoTime() < until) {
+                assertFalse(breaker.state() == CircuitBreakerIAClient.State.CLOSED);
+                Thread.sleep(5);
+            }
+        } finally {
+            hf.close();
+        }
+    }
+
+    private static HuggingFaceClient client() {
+        return new HuggingFaceClient("token-invalido", "modelo/inexistente", 5,
+                false, 5, 32,                       // batch
+                1, 10, 10, 0.2,                     // retry
+                60, 50, false, 3, 2000,             // latência / timeout adaptativo
+                false, 0.05,                        // hedge
+                true, 1000, Duration.ofHours(1),    // cache por sentença
+                false, 16, 1, 128, 0.5, 2.0, 0.2, 256, Duration.ofSeconds(2), // limitador
+                false);
+    }
+
+    private static JsonNode json(String s) throws Exception {
+        return MAPPER.readTree(s);
+    }
+}
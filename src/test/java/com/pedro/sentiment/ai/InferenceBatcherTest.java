@@ -0,0 +1,139 @@
+package com.pedro.sentiment.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InferenceBatcherTest {
+
+    /**
+     * Devolve o tamanho de cada entrada; falha o POST inteiro com 400 se alguma entrada está em {@code rejected}
+     * e com 503 se {@code down}.
+     */
+    private static final class FakeTransport implements InferenceBatcher.Transport<Integer> {
+        final List<List<String>> posts = new CopyOnWriteArrayList<>();
+        final List<String> rejected;
+        volatile boolean down;
+
+        FakeTransport(String... rejected) {
+            this.rejected = List.of(rejected);
+        }
+
+        @Override
+        public CompletableFuture<List<Integer>> post(List<String> inputs, java.util.function.LongConsumer waited) {
+            posts.add(List.copyOf(inputs));
+            if (down) return CompletableFuture.failedFuture(new IllegalStateException("HTTP 503"));
+            if (inputs.stream().anyMatch(rejected::contains)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("HTTP 400"));
+            }
+            return CompletableFuture.completedFuture(inputs.stream().map(String::length).toList());
+        }
+    }
+
+    /** Só o 400 pode ser de uma entrada; o 503 é do provider inteiro. */
+    private static InferenceBatcher<Integer> batcher(FakeTransport transport) {
+        return new InferenceBatcher<>("test", transport, e -> e.getMessage().contains("HTTP 400"), Duration.ofMillis(200), 100);
+    }
+
+    private static List<CompletableFuture<List<Integer>>> submitAll(InferenceBatcher<Integer> batcher, List<List<String>> callers) {
+        List<CompletableFuture<List<Integer>>> out = new ArrayList<>();
+        for (var inputs : callers) out.add(batcher.submit(inputs, null));
+        return out;
+    }
+
+    private static final List<List<String>> CALLERS = List.of(
+            List.of("a", "bb"), List.of("ccc"), List.of("ruim", "dd"), List.of("eeeee"),
+            List.of("f"), List.of("gg", "hhh"), List.of("i"), List.of("jjjj"));
+
+    @Test
+    void coalescedCallsShareOnePost() throws Exception {
+        var transport = new FakeTransport();
+        try (var batcher = batcher(transport)) {
+            var results = submitAll(batcher, CALLERS);
+            assertEquals(List.of(1, 2), results.get(0).get(5, TimeUnit.SECONDS));
+            assertEquals(List.of(2, 3), results.get(5).get(5, TimeUnit.SECONDS));
+            for (var f : results) f.get(5, TimeUnit.SECONDS);
+            assertEquals(1, transport.posts.size());
+            assertEquals(0, batcher.splitCount());
+        }
+    }
+
+    @Test
+    void rejectedInputFailsOnlyItsCaller() throws Exception {
+        var transport = new FakeTransport("ruim");
+        try (var batcher = batcher(transport)) {
+            var results = submitAll(batcher, CALLERS);
+            for (int i = 0; i < results.size(); i++) {
+                var f = results.get(i);
+                if (i == 2) {
+                    var e = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+                    assertTrue(e.getCause().getMessage().contains("HTTP 400"));
+                } else {
+                    List<Integer> expected = CALLERS.get(i).stream().map(String::length).toList();
+                    assertEquals(expected, f.get(5, TimeUnit.SECONDS));
+                }
+            }
+            // 1 lote + 2 metades + 2 quartos + 2 oitavos: a divisão só desce pelo lado que falha
+            assertEquals(7, transport.posts.size());
+            assertEquals(3, batcher.splitCount());
+        }
+    }
+
+    @Test
+    void providerDownFailsEveryoneWithoutSplitting() throws Exception {
+        var transport = new FakeTransport();
+        transport.down = true;
+        try (var batcher = batcher(transport)) {
+            var results = submitAll(batcher, CALLERS);
+            for (var f : results) {
+                var e = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+                assertTrue(e.getCause().getMessage().contains("HTTP 503"));
+            }
+            assertEquals(1, transport.posts.size());
+            assertEquals(0, batcher.splitCount());
+        }
+    }
+
+    @Test
+    void inputErrorsInBothHalvesFailEveryoneAfterOneSplit() throws Exception {
+        var transport = new FakeTransport("ruim", "jjjj");
+        try (var batcher = batcher(transport)) {
+            var results = submitAll(batcher, CALLERS);
+            for (var f : results) assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+            assertEquals(3, transport.posts.size());
+            assertEquals(1, batcher.splitCount());
+        }
+    }
+
+    @Test
+    void submitRacingCloseNeverLeavesAFuturePending() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            var batcher = batcher(new FakeTransport());
+            List<CompletableFuture<List<Integer>>> all = new CopyOnWriteArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                threads.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < 500; i++) all.add(batcher.submit(List.of("x"), null));
+                }));
+            }
+            Thread.sleep(1);
+            batcher.close();
+            for (Thread t : threads) t.join();
+            for (var f : all) {
+                try {
+                    f.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertEquals("batcher encerrado", e.getCause().getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.pedro.sentiment.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DictionaryTest {
+
+    @Test
+    void encodesAndDecodes() {
+        var d = new Dictionary();
+        assertEquals(Dictionary.ABSENT, d.encode(null));
+        assertEquals(Dictionary.ABSENT, d.encode("  "));
+        char a = d.encode("performance");
+        assertEquals(a, d.encode("performance"));
+        assertEquals("performance", d.decode(a));
+        assertEquals(a, d.lookup("performance"));
+        assertEquals(-1, d.lookup("nunca visto"));
+        assertNull(d.decode(Dictionary.ABSENT));
+    }
+
+    @Test
+    void valuesPastTheCapFoldIntoOverflow() {
+        var d = new Dictionary();
+        for (int i = 0; d.size() < Dictionary.MAX_CODES; i++) d.encode("v" + i);
+        assertEquals(Dictionary.MAX_CODES, d.size());
+
+        char extra = d.encode("mais um");
+        assertEquals(Dictionary.OVERFLOW_CODE, extra);
+        assertEquals(Dictionary.OVERFLOW, d.decode(extra));
+        assertEquals(Dictionary.OVERFLOW_CODE, d.encode("e outro"));
+        assertEquals(Dictionary.OVERFLOW_CODE, d.encode(Dictionary.OVERFLOW));
+        assertEquals(Dictionary.MAX_CODES, d.size());
+        assertEquals("v0", d.decode(d.lookup("v0")));
+    }
+}
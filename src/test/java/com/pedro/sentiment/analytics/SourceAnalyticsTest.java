@@ -0,0 +1,73 @@
+package com.pedro.sentiment.analytics;
+
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.SourceAnalyticsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceAnalyticsTest {
+
+    private static final long T0 = 1_735_689_630_000L; // 2025-01-01T00:00:30Z
+
+    @Test
+    void slidingAndTumblingWindowsFollowTheClock() {
+        var now = new AtomicLong(T0);
+        var analytics = new SourceAnalytics(10, 4, Duration.ZERO, now::get);
+        for (int i = 0; i < 3; i++) analytics.onSentiment(request("app"), response("POSITIVE", 0.9, "deploy"));
+        now.set(T0 + 10_000);
+        analytics.onSentiment(request("app"), response("NEGATIVE", 0.1, "testes"));
+
+        now.set(T0 + 20_000); // 00:00:50
+        SourceAnalyticsResponse r = analytics.query("app", "1m", true, 5);
+        assertEquals(4, r.count);
+        assertEquals(Long.valueOf(3), r.sentiments.get("POSITIVE"));
+        assertEquals(Long.valueOf(1), r.sentiments.get("NEGATIVE"));
+        assertEquals("deploy", r.topImprovementAreas.get(0).area);
+        assertEquals(3, r.topImprovementAreas.get(0).count);
+        assertEquals(4, analytics.query("app", "1m", false, 5).count);
+
+        now.set(T0 + 45_000); // 00:01:15: o minuto corrente está vazio, os últimos 60 s não
+        assertEquals(4, analytics.query("app", "1m", true, 5).count);
+        assertEquals(0, analytics.query("app", "1m", false, 5).count);
+
+        now.set(T0 + 75_000); // 00:01:45
+        assertEquals(0, analytics.query("app", "1m", true, 5).count);
+        assertEquals(4, analytics.query("app", "1h", true, 5).count);
+        assertEquals(4, analytics.query("app", "1d", false, 5).count);
+
+        now.set(T0 + 86_400_000L);
+        assertEquals(0, analytics.query("app", "1d", false, 5).count);
+    }
+
+    @Test
+    void capsSourcesAndRejectsUnknownWindows() {
+        var analytics = new SourceAnalytics(2, 4, Duration.ZERO, () -> T0);
+        analytics.onSentiment(request("a"), response("POSITIVE", 0.9, null));
+        analytics.onSentiment(request(null), response("NEUTRAL", 0.5, null));
+        analytics.onSentiment(request("c"), response("MIXED", 0.5, null));
+
+        assertEquals(List.of(SourceAnalytics.OVERFLOW, SourceAnalytics.NO_SOURCE, "a"), analytics.sources());
+        assertEquals(1, analytics.query(" ", "1m", true, 5).count);
+        assertNull(analytics.query("a", "5m", true, 5));
+        assertNull(analytics.query("nunca", "1m", true, 5));
+    }
+
+    private static FeedbackRequest request(String source) {
+        var req = new FeedbackRequest();
+        req.setText("texto");
+        req.setSource(source);
+        return req;
+    }
+
+    private static FeedbackResponse response(String sentiment, double score, String area) {
+        var resp = new FeedbackResponse(sentiment, score, "-");
+        resp.setImprovementArea(area);
+        return resp;
+    }
+}
@@ -0,0 +1,200 @@
+package com.pedro.sentiment.search;
+
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.dto.SearchResponse;
+import com.pedro.sentiment.text.NormalizedText;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedbackSearchIndexTest {
+
+    private static final String[] WORDS = {"deploy", "PR", "revisão", "código", "code", "review", "bom", "muito",
+            "prazo", "atraso", "reunião", "cliente"};
+    private static final String[] ASPECTS = {"comunicação", "qualidade", "entrega"};
+    private static final String[] SENTIMENTS = {"POSITIVE", "NEGATIVE", "NEUTRAL"};
+
+    private record Fixture(String text, String aspect, String sentiment) {}
+
+    /** Índice + a lista do que entrou, para comparar com uma busca por força bruta. */
+    private static final class Corpus {
+        final FeedbackSearchIndex index;
+        final int maxDocs;
+        final List<Fixture> docs = new ArrayList<>();
+        final Random rnd = new Random(42);
+
+        Corpus(int maxDocs, int rebaseAt) {
+            this.index = new FeedbackSearchIndex(maxDocs, rebaseAt, false);
+            this.maxDocs = maxDocs;
+        }
+
+        void addRandom(int n) {
+            for (int i = 0; i < n; i++) {
+                var sb = new StringBuilder();
+                int words = 3 + rnd.nextInt(12);
+                for (int w = 0; w < words; w++) sb.append(WORDS[rnd.nextInt(WORDS.length)]).append(rnd.nextInt(6) == 0 ? ", " : " ");
+                add(new Fixture(sb.toString().trim(), ASPECTS[rnd.nextInt(ASPECTS.length)], SENTIMENTS[rnd.nextInt(SENTIMENTS.length)]));
+            }
+        }
+
+        void add(Fixture f) {
+            var req = new PeerFeedbackRequest();
+            req.setSubjectId("pessoa");
+            req.setText(f.text());
+            var resp = new PeerFeedbackResponse();
+            resp.sentiment = f.sentiment();
+            resp.improvements = List.of(new PeerFeedbackResponse.Improvement(f.aspect(), "sugestão", f.text()));
+            index.onPeerFeedback(req, resp);
+            docs.add(f);
+        }
+
+        /** Mais recentes primeiro, só os que ainda cabem em {@code max-docs}. */
+        List<Long> scan(String q, String aspect, String sentiment) {
+            List<Long> out = new ArrayList<>();
+            for (int id = docs.size() - 1; id >= Math.max(0, docs.size() - maxDocs); id--) {
+                Fixture f = docs.get(id);
+                if (aspect != null && !norm(aspect).equals(norm(f.aspect()))) continue;
+                if (sentiment != null && !sentiment.equalsIgnoreCase(f.sentiment())) continue;
+                if (matches(f.text(), q)) out.add((long) id);
+            }
+            return out;
+        }
+
+        void assertSameAsScan(String q, String aspect, String sentiment, int limit) {
+            List<Long> expected = scan(q, aspect, sentiment);
+            SearchResponse r = index.search(q, aspect, sentiment, null, limit);
+            assertEquals(expected.subList(0, Math.min(limit, expected.size())), r.hits.stream().map(h -> h.id).toList(),
+                    "q=" + q + " aspect=" + aspect + " sentiment=" + sentiment);
+            assertEquals(expected.size() > limit, r.hasMore, "hasMore de q=" + q);
+        }
+    }
+
+    private static List<String> tokens(String s) {
+        NormalizedText t = NormalizedText.of(s);
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < t.tokenCount(); i++) out.add(t.token(i));
+        return out;
+    }
+
+    private static String norm(String s) {
+        return NormalizedText.of(s).value();
+    }
+
+    private static boolean matches(String text, String q) {
+        if (q == null) return true;
+        List<String> doc = tokens(text);
+        String[] parts = q.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            List<String> t = tokens(parts[i]);
+            if (t.isEmpty()) continue;
+            if (i % 2 == 1) {
+                if (Collections.indexOfSubList(doc, t) < 0) return false;
+            } else if (!doc.containsAll(t)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final String[] QUERIES = {"deploy", "deploy pr", "revisao CODIGO", "\"code review\"",
+            "\"code review\" atraso", "\"muito muito\"", "\"bom bom bom\"", "\"muito bom\" cliente prazo", "inexistente"};
+
+    @Test
+    void andAndPhraseQueriesMatchAScan() {
+        var c = new Corpus(100_000, Integer.MAX_VALUE);
+        c.addRandom(5_000);
+        for (String q : QUERIES) {
+            c.assertSameAsScan(q, null, null, 20);
+            c.assertSameAsScan(q, null, null, 5_000);
+        }
+    }
+
+    @Test
+    void filtersCombineWithTermsOrStandAlone() {
+        var c = new Corpus(100_000, Integer.MAX_VALUE);
+        c.addRandom(3_000);
+        c.assertSameAsScan(null, "Comunicacao", null, 50);
+        c.assertSameAsScan(null, null, "negative", 50);
+        c.assertSameAsScan(null, "entrega", "POSITIVE", 3_000);
+        c.assertSameAsScan("prazo", "qualidade", "NEUTRAL", 20);
+        c.assertSameAsScan("\"code review\"", "comunicação", "NEGATIVE", 20);
+        c.assertSameAsScan("deploy", "aspecto que nao existe", null, 20);
+        assertThrows(IllegalArgumentException.class, () -> c.index.search(" \"\" ", null, null, null, 10));
+    }
+
+    @Test
+    void wrapsAroundPastMaxDocs() {
+        var c = new Corpus(1_000, Integer.MAX_VALUE);
+        c.addRandom(20_000); // poda em 8192 e 16384; o anel dá 20 voltas
+        assertEquals(1_000, c.index.docs());
+        for (String q : QUERIES) c.assertSameAsScan(q, null, null, 2_000);
+        c.assertSameAsScan(null, "entrega", null, 2_000);
+    }
+
+    @Test
+    void rebasesIdsWithoutChangingResults() {
+        var c = new Corpus(1_000, 20_000);
+        c.addRandom(50_000); // rebase nas podas depois de 20 000
+        for (String q : QUERIES) c.assertSameAsScan(q, null, null, 2_000);
+        c.assertSameAsScan(null, "qualidade", "POSITIVE", 2_000);
+        c.addRandom(100);
+        c.assertSameAsScan("deploy", null, null, 50);
+    }
+
+    @Test
+    void hitsCarrySnippetAndMatchingEvidence() {
+        var c = new Corpus(10, Integer.MAX_VALUE);
+        c.add(new Fixture("Faltou alinhamento antes do deploy. A revisão de código ajudou muito.", "comunicação", "NEGATIVE"));
+        SearchResponse r = c.index.search("revisao", "comunicacao", null, null, 10);
+        assertEquals(1, r.hits.size());
+        var hit = r.hits.get(0);
+        assertEquals("pessoa", hit.subjectId);
+        assertEquals(List.of("comunicação"), hit.aspects);
+        assertTrue(hit.snippet.contains("revisão de código"), hit.snippet);
+        assertEquals(1, hit.evidence.size());
+        assertEquals("improvement", hit.evidence.get(0).type);
+    }
+
+    @Test
+    void postingsTrimWholeBlocksOnly() {
+        var p = new Postings();
+        for (int doc = 0; doc < 1000; doc++) p.add(doc, new int[]{doc % 7, doc % 7 + 3}, 0, 2);
+        assertEquals(8, p.blocks());
+
+        // 300 cai no 3º bloco (256..383): só os dois primeiros saem
+        assertEquals(2 * Postings.BLOCK, p.trimBelow(300));
+        assertEquals(1000 - 2 * Postings.BLOCK, p.docs());
+        assertEquals(-1, p.blockOf(255));
+
+        var block = new Postings.Block();
+        int seen = 0;
+        for (int b = 0; b < p.blocks(); b++) {
+            p.decode(b, block);
+            for (int i = 0; i < block.size; i++) {
+                int doc = block.docs[i];
+                assertEquals(2 * Postings.BLOCK + seen++, doc);
+                assertTrue(block.hasPosition(i, doc % 7) && block.hasPosition(i, doc % 7 + 3));
+                assertFalse(block.hasPosition(i, doc % 7 + 1));
+            }
+        }
+        assertEquals(1000 - 2 * Postings.BLOCK, seen);
+
+        p.rebase(256);
+        assertEquals(0, p.blockOf(0));
+        p.decode(0, block = new Postings.Block());
+        assertEquals(0, block.docs[0]);
+
+        assertEquals(1000 - 2 * Postings.BLOCK, p.trimBelow(10_000));
+        assertEquals(0, p.docs());
+        p.add(5, new int[]{1}, 0, 1);
+        p.decode(0, block = new Postings.Block());
+        assertEquals(1, block.size);
+        assertEquals(5, block.docs[0]);
+    }
+}
@@ -0,0 +1,84 @@
+package com.pedro.sentiment.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.sentiment.analytics.FeedbackColumns;
+import com.pedro.sentiment.dto.FeedbackQueryRequest;
+import com.pedro.sentiment.dto.FeedbackRequest;
+import com.pedro.sentiment.dto.FeedbackResponse;
+import com.pedro.sentiment.dto.PeerFeedbackRequest;
+import com.pedro.sentiment.dto.PeerFeedbackResponse;
+import com.pedro.sentiment.peer.PeerFeedbackAggregator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryReplayTest {
+
+    @Test
+    void readsHistoryOnceAndFansOutToEveryConsumer() throws IOException {
+        Path dir = Files.createTempDirectory("replay-test");
+        try {
+            var store = open(dir);
+            for (int i = 0; i < 3; i++) {
+                var req = new FeedbackRequest();
+                req.setText("entrega " + i);
+                req.setSource("app");
+                store.append(AnalysisRecord.of(req, new FeedbackResponse("POSITIVE", 0.9, "-")));
+            }
+            var peer = new PeerFeedbackRequest();
+            peer.setSubjectId("ana");
+            peer.setPeriod("2025-07");
+            peer.setText("Boa comunicação.");
+            var peerResp = new PeerFeedbackResponse();
+            peerResp.sentiment = "POSITIVE";
+            peerResp.score = 0.8;
+            store.append(AnalysisRecord.of(peer, peerResp));
+            store.close();
+
+            var aggregator = new PeerFeedbackAggregator(true);
+            var columns = new FeedbackColumns(1000);
+            List<AnalysisRecord> seen = new ArrayList<>();
+            HistoryConsumer failing = consumer(r -> { throw new IllegalStateException("quebrado"); });
+            HistoryConsumer recording = consumer(seen::add);
+
+            store = open(dir);
+            try {
+                assertEquals(4, HistoryReplay.replay(store, List.of(aggregator, failing, columns, recording)));
+            } finally {
+                store.close();
+            }
+
+            // o consumidor que falha não impede os outros
+            assertEquals(4, seen.size());
+            assertEquals(1, aggregator.summary("ana", "2025-07", 5).feedbacks);
+            var q = new FeedbackQueryRequest();
+            q.setGroupBy(List.of("kind"));
+            assertEquals(4, columns.query(q).matched);
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private static HistoryConsumer consumer(java.util.function.Consumer<AnalysisRecord> action) {
+        return new HistoryConsumer() {
+            @Override public boolean rebuildOnStart() { return true; }
+            @Override public void replay(AnalysisRecord record) { action.accept(record); }
+        };
+    }
+
+    private static AnalysisStore open(Path dir) throws IOException {
+        return new AnalysisStore(new ObjectMapper(), dir.toString(), 64, 1024, 64, Duration.ofSeconds(1),
+                "none", Duration.ofSeconds(1));
+    }
+}